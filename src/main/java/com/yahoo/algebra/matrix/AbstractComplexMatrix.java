@@ -48,14 +48,9 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
                 if (numRows() != B.numRows() || numColumns() != B.numColumns()) {
                     return false;
                 }
-                for (ComplexMatrixEntry e : this) {
-                    double[] v = e.get();
-                    double[] vc = B.get(e.row(), e.column());
-                    if (Math.abs(v[0] - vc[0]) > getEqualThreshold()
-                            || Math.abs(v[1] - vc[1]) > getEqualThreshold()) {
-                        return false;
-                    }
-                }
+                // Iterators may skip structural zeros, so both sides are visited
+                if (!entriesEqual(this, B) || !entriesEqual(B, this))
+                    return false;
             } else {
                 throw new UnsupportedOperationException();
             }
@@ -63,6 +58,22 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         }
     }
 
+    /**
+     * Checks that every entry visited by the iterator of <code>A</code> has the
+     * same value in <code>B</code>
+     */
+    private static boolean entriesEqual(ComplexMatrix A, ComplexMatrix B) {
+        for (ComplexMatrixEntry e : A) {
+            double[] v = e.get();
+            double[] vc = B.get(e.row(), e.column());
+            if (Math.abs(v[0] - vc[0]) > getEqualThreshold()
+                    || Math.abs(v[1] - vc[1]) > getEqualThreshold()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public int numRows() {
         return numRows;
     }
@@ -80,14 +91,29 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
     }
 
     public void add(int row, int column, double value[]) {
-        double[] adder = get(row, column);
-        set(row, column, new double[] { value[0] + adder[0], value[1] + adder[1] });
+        add(row, column, value[0], value[1]);
     }
 
     public double[] get(int row, int column) {
         throw new UnsupportedOperationException();
     }
 
+    public double getRe(int row, int column) {
+        return get(row, column)[0];
+    }
+
+    public double getIm(int row, int column) {
+        return get(row, column)[1];
+    }
+
+    public void set(int row, int column, double re, double im) {
+        set(row, column, new double[] { re, im });
+    }
+
+    public void add(int row, int column, double re, double im) {
+        set(row, column, getRe(row, column) + re, getIm(row, column) + im);
+    }
+
     /**
      * Checks the passed row and column indices
      */
@@ -108,6 +134,30 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         throw new UnsupportedOperationException();
     }
 
+    public ComplexMatrix view(int rowOffset, int columnOffset, int numRows, int numColumns) {
+        throw new UnsupportedOperationException();
+    }
+
+    public ComplexVector row(int i) {
+        throw new UnsupportedOperationException();
+    }
+
+    public ComplexVector column(int j) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Checks that a submatrix lies within this matrix
+     */
+    protected void checkView(int rowOffset, int columnOffset, int numRows, int numColumns) {
+        if (rowOffset < 0 || numRows < 0 || rowOffset + numRows > this.numRows)
+            throw new IndexOutOfBoundsException("rowOffset + numRows > A.numRows (" + rowOffset
+                    + " + " + numRows + " > " + this.numRows + ")");
+        if (columnOffset < 0 || numColumns < 0 || columnOffset + numColumns > this.numColumns)
+            throw new IndexOutOfBoundsException("columnOffset + numColumns > A.numColumns ("
+                    + columnOffset + " + " + numColumns + " > " + this.numColumns + ")");
+    }
+
     public ComplexMatrix zero() {
         for (ComplexMatrixEntry e : this)
             e.set(new double[] { 0, 0 });
@@ -131,9 +181,10 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
 
         if (alpha[0] != 0 || alpha[1] != 0)
             for (ComplexMatrixEntry e : this) {
-                double[] tmp = Complexes.mult(alpha, e.get());
-                tmp = Complexes.mult(tmp, x.get(e.column()));
-                y.add(e.row(), tmp);
+                double[] a = e.get();
+                double xr = x.getRe(e.column()), xi = x.getIm(e.column());
+                double re = a[0] * xr - a[1] * xi, im = a[0] * xi + a[1] * xr;
+                y.add(e.row(), alpha[0] * re - alpha[1] * im, alpha[0] * im + alpha[1] * re);
             }
         return y;
     }
@@ -166,8 +217,38 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         checkTransMultAdd(x, y);
 
         if (alpha[0] != 0 || alpha[1] != 0)
-            for (ComplexMatrixEntry e : this)
-                y.add(e.column(), Complexes.mult(Complexes.mult(alpha, e.get()), x.get(e.row())));
+            for (ComplexMatrixEntry e : this) {
+                double[] a = e.get();
+                double xr = x.getRe(e.row()), xi = x.getIm(e.row());
+                double re = a[0] * xr - a[1] * xi, im = a[0] * xi + a[1] * xr;
+                y.add(e.column(), alpha[0] * re - alpha[1] * im, alpha[0] * im + alpha[1] * re);
+            }
+
+        return y;
+    }
+
+    public ComplexVector hermMult(ComplexVector x, ComplexVector y) {
+        return hermMult(new double[] { 1, 0 }, x, y);
+    }
+
+    public ComplexVector hermMult(double alpha[], ComplexVector x, ComplexVector y) {
+        return hermMultAdd(alpha, x, y.zero());
+    }
+
+    public ComplexVector hermMultAdd(ComplexVector x, ComplexVector y) {
+        return hermMultAdd(new double[] { 1, 0 }, x, y);
+    }
+
+    public ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        checkTransMultAdd(x, y);
+
+        if (alpha[0] != 0 || alpha[1] != 0)
+            for (ComplexMatrixEntry e : this) {
+                double[] a = e.get();
+                double xr = x.getRe(e.row()), xi = x.getIm(e.row());
+                double re = a[0] * xr + a[1] * xi, im = a[0] * xi - a[1] * xr;
+                y.add(e.column(), alpha[0] * re - alpha[1] * im, alpha[0] * im + alpha[1] * re);
+            }
 
         return y;
     }
@@ -193,6 +274,10 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         throw new UnsupportedOperationException();
     }
 
+    public ComplexVector solveHPD(ComplexVector b, ComplexVector x) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Checks that a matrix inversion is legal for the given arguments. This is
      * for the square case, not for least-squares problems
@@ -226,17 +311,62 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         if (alpha[0] == 0 && alpha[1] == 0)
             return this;
 
-        for (ComplexVectorEntry ei : x)
-            if (ei.get()[0] != 0 || ei.get()[1] != 0)
-                for (ComplexVectorEntry ej : y)
-                    if (ej.get()[0] != 0 || ej.get()[1] != 0) {
-                        double[] tmp = Complexes.mult(alpha, ei.get());
-                        tmp = Complexes.mult(tmp, ej.get());
-                        add(ei.index(), ej.index(), tmp);
-                    }
+        for (int i = 0; i < x.size(); i++) {
+            double xr = x.getRe(i), xi = x.getIm(i);
+            if (xr == 0 && xi == 0)
+                continue;
+            double ar = alpha[0] * xr - alpha[1] * xi, ai = alpha[0] * xi + alpha[1] * xr;
+            for (int j = 0; j < y.size(); j++) {
+                double yr = y.getRe(j), yi = y.getIm(j);
+                if (yr != 0 || yi != 0)
+                    add(i, j, ar * yr - ai * yi, ar * yi + ai * yr);
+            }
+        }
         return this;
     }
 
+    public ComplexMatrix rank1Herm(double alpha, ComplexVector x) {
+        return rank1Conj(new double[] { alpha, 0 }, x, x);
+    }
+
+    public ComplexMatrix rank1Conj(double alpha[], ComplexVector x, ComplexVector y) {
+        checkRank1Conj(x, y);
+
+        if (alpha[0] == 0 && alpha[1] == 0)
+            return this;
+
+        for (int i = 0; i < x.size(); i++) {
+            double xr = x.getRe(i), xi = x.getIm(i);
+            if (xr == 0 && xi == 0)
+                continue;
+            double ar = alpha[0] * xr - alpha[1] * xi, ai = alpha[0] * xi + alpha[1] * xr;
+            for (int j = 0; j < y.size(); j++) {
+                double yr = y.getRe(j), yi = y.getIm(j);
+                if (yr != 0 || yi != 0)
+                    add(i, j, ar * yr + ai * yi, ai * yr - ar * yi);
+            }
+        }
+        return this;
+    }
+
+    public ComplexMatrix rank2Herm(double alpha[], ComplexVector x, ComplexVector y) {
+        checkRank1(x, y);
+        return rank1Conj(alpha, x, y).rank1Conj(Complexes.conjugate(alpha), y, x);
+    }
+
+    /**
+     * Checks the arguments to <code>rank1Conj</code>. Unlike
+     * <code>rank1</code>, the matrix need not be square
+     */
+    protected void checkRank1Conj(ComplexVector x, ComplexVector y) {
+        if (x.size() != numRows)
+            throw new IndexOutOfBoundsException("x.size != A.numRows (" + x.size() + " != "
+                    + numRows + ")");
+        if (y.size() != numColumns)
+            throw new IndexOutOfBoundsException("y.size != A.numColumns (" + y.size() + " != "
+                    + numColumns + ")");
+    }
+
     /**
      * Checks that a vector rank1 update is possible for the given vectors
      */
@@ -261,13 +391,16 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         if (alpha[0] == 0 && alpha[1] == 0)
             return this;
 
-        for (ComplexVectorEntry ei : x)
-            for (ComplexVectorEntry ej : y) {
-                double[] tmp = Complexes.mult(Complexes.mult(alpha, ei.get()), ej.get());
-                add(ei.index(), ej.index(), tmp);
-                tmp = Complexes.mult(Complexes.mult(alpha, ei.get()), ej.get());
-                add(ej.index(), ei.index(), tmp);
+        for (int i = 0; i < x.size(); i++) {
+            double xr = x.getRe(i), xi = x.getIm(i);
+            double ar = alpha[0] * xr - alpha[1] * xi, ai = alpha[0] * xi + alpha[1] * xr;
+            for (int j = 0; j < y.size(); j++) {
+                double yr = y.getRe(j), yi = y.getIm(j);
+                double re = ar * yr - ai * yi, im = ar * yi + ai * yr;
+                add(i, j, re, im);
+                add(j, i, re, im);
             }
+        }
 
         return this;
     }
@@ -316,11 +449,14 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         if (alpha[0] != 0 || alpha[1] != 0)
             for (int i = 0; i < numRows; ++i)
                 for (int j = 0; j < C.numColumns(); ++j) {
-                    double[] dot = new double[] { 0, 0 };
+                    double dr = 0, di = 0;
                     for (int k = 0; k < numColumns; ++k) {
-                        dot = Complexes.add(dot, Complexes.mult(get(i, k), B.get(k, j)));
+                        double ar = getRe(i, k), ai = getIm(i, k);
+                        double br = B.getRe(k, j), bi = B.getIm(k, j);
+                        dr += ar * br - ai * bi;
+                        di += ar * bi + ai * br;
                     }
-                    C.add(i, j, Complexes.mult(alpha, dot));
+                    C.add(i, j, alpha[0] * dr - alpha[1] * di, alpha[0] * di + alpha[1] * dr);
                 }
 
         return C;
@@ -359,10 +495,14 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         if (alpha[0] != 0 || alpha[1] != 0)
             for (int i = 0; i < numColumns; ++i)
                 for (int j = 0; j < C.numColumns(); ++j) {
-                    double[] dot = new double[] { 0, 0 };
-                    for (int k = 0; k < numRows; ++k)
-                        dot = Complexes.add(dot, Complexes.mult(get(k, i), B.get(k, j)));
-                    C.add(i, j, Complexes.mult(alpha, dot));
+                    double dr = 0, di = 0;
+                    for (int k = 0; k < numRows; ++k) {
+                        double ar = getRe(k, i), ai = getIm(k, i);
+                        double br = B.getRe(k, j), bi = B.getIm(k, j);
+                        dr += ar * br - ai * bi;
+                        di += ar * bi + ai * br;
+                    }
+                    C.add(i, j, alpha[0] * dr - alpha[1] * di, alpha[0] * di + alpha[1] * dr);
                 }
 
         return C;
@@ -402,10 +542,14 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         if (alpha[0] != 0 || alpha[1] != 0)
             for (int i = 0; i < numRows; ++i)
                 for (int j = 0; j < C.numColumns(); ++j) {
-                    double[] dot = new double[] { 0, 0 };
-                    for (int k = 0; k < numColumns; ++k)
-                        dot = Complexes.add(dot, Complexes.mult(get(i, k), B.get(j, k)));
-                    C.add(i, j, Complexes.mult(alpha, dot));
+                    double dr = 0, di = 0;
+                    for (int k = 0; k < numColumns; ++k) {
+                        double ar = getRe(i, k), ai = getIm(i, k);
+                        double br = B.getRe(j, k), bi = B.getIm(j, k);
+                        dr += ar * br - ai * bi;
+                        di += ar * bi + ai * br;
+                    }
+                    C.add(i, j, alpha[0] * dr - alpha[1] * di, alpha[0] * di + alpha[1] * dr);
                 }
 
         return C;
@@ -445,11 +589,14 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         if (alpha[0] != 0 || alpha[1] != 0)
             for (int i = 0; i < numColumns; ++i)
                 for (int j = 0; j < C.numColumns(); ++j) {
-                    double[] dot = new double[] { 0, 0 };
+                    double dr = 0, di = 0;
                     for (int k = 0; k < numRows; ++k) {
-                        dot = Complexes.add(dot, Complexes.mult(get(k, i), B.get(j, k)));
+                        double ar = getRe(k, i), ai = getIm(k, i);
+                        double br = B.getRe(j, k), bi = B.getIm(j, k);
+                        dr += ar * br - ai * bi;
+                        di += ar * bi + ai * br;
                     }
-                    C.add(i, j, Complexes.mult(alpha, dot));
+                    C.add(i, j, alpha[0] * dr - alpha[1] * di, alpha[0] * di + alpha[1] * dr);
                 }
 
         return C;
@@ -471,6 +618,68 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
                     + " != " + C.numColumns() + ")");
     }
 
+    public ComplexMatrix hermAmult(ComplexMatrix B, ComplexMatrix C) {
+        return hermAmult(new double[] { 1, 0 }, B, C);
+    }
+
+    public ComplexMatrix hermAmult(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        return hermAmultAdd(alpha, B, C.zero());
+    }
+
+    public ComplexMatrix hermAmultAdd(ComplexMatrix B, ComplexMatrix C) {
+        return hermAmultAdd(new double[] { 1, 0 }, B, C);
+    }
+
+    public ComplexMatrix hermAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        checkTransAmultAdd(B, C);
+
+        if (alpha[0] != 0 || alpha[1] != 0)
+            for (int i = 0; i < numColumns; ++i)
+                for (int j = 0; j < C.numColumns(); ++j) {
+                    double dr = 0, di = 0;
+                    for (int k = 0; k < numRows; ++k) {
+                        double ar = getRe(k, i), ai = -getIm(k, i);
+                        double br = B.getRe(k, j), bi = B.getIm(k, j);
+                        dr += ar * br - ai * bi;
+                        di += ar * bi + ai * br;
+                    }
+                    C.add(i, j, alpha[0] * dr - alpha[1] * di, alpha[0] * di + alpha[1] * dr);
+                }
+
+        return C;
+    }
+
+    public ComplexMatrix hermBmult(ComplexMatrix B, ComplexMatrix C) {
+        return hermBmult(new double[] { 1, 0 }, B, C);
+    }
+
+    public ComplexMatrix hermBmult(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        return hermBmultAdd(alpha, B, C.zero());
+    }
+
+    public ComplexMatrix hermBmultAdd(ComplexMatrix B, ComplexMatrix C) {
+        return hermBmultAdd(new double[] { 1, 0 }, B, C);
+    }
+
+    public ComplexMatrix hermBmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        checkTransBmultAdd(B, C);
+
+        if (alpha[0] != 0 || alpha[1] != 0)
+            for (int i = 0; i < numRows; ++i)
+                for (int j = 0; j < C.numColumns(); ++j) {
+                    double dr = 0, di = 0;
+                    for (int k = 0; k < numColumns; ++k) {
+                        double ar = getRe(i, k), ai = getIm(i, k);
+                        double br = B.getRe(j, k), bi = -B.getIm(j, k);
+                        dr += ar * br - ai * bi;
+                        di += ar * bi + ai * br;
+                    }
+                    C.add(i, j, alpha[0] * dr - alpha[1] * di, alpha[0] * di + alpha[1] * dr);
+                }
+
+        return C;
+    }
+
     public ComplexMatrix solve(ComplexMatrix B, ComplexMatrix X) {
         throw new UnsupportedOperationException();
     }
@@ -479,6 +688,10 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         throw new UnsupportedOperationException();
     }
 
+    public ComplexMatrix solveHPD(ComplexMatrix B, ComplexMatrix X) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Checks that a matrix inversion is legal for the given arguments. This is
      * for the square case, not for least-squares problems
@@ -510,6 +723,15 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         return C.transBmultAdd(alpha, C, this);
     }
 
+    public ComplexMatrix rankK(double alpha, ComplexMatrix C) {
+        checkRank1(C);
+
+        if (alpha == 0)
+            return this;
+
+        return C.hermBmultAdd(new double[] { alpha, 0 }, C, this);
+    }
+
     /**
      * Checks that a matrix rank1 update is possible for the given matrix
      */
@@ -614,10 +836,51 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         return this;
     }
 
+    public ComplexMatrix shiftDiagonal(double alpha[]) {
+        if (alpha[0] != 0 || alpha[1] != 0)
+            for (int i = 0; i < Math.min(numRows, numColumns); i++)
+                add(i, i, alpha[0], alpha[1]);
+        return this;
+    }
+
+    public ComplexMatrix addDiagonal(double[] d) {
+        checkDiagonal(d);
+        for (int i = 0; i < d.length; i++)
+            if (d[i] != 0)
+                add(i, i, d[i], 0);
+        return this;
+    }
+
+    /**
+     * Checks the length of a diagonal passed to <code>addDiagonal</code>
+     */
+    protected void checkDiagonal(double[] d) {
+        if (d.length != Math.min(numRows, numColumns))
+            throw new IndexOutOfBoundsException("d.length != min(A.numRows, A.numColumns) ("
+                    + d.length + " != " + Math.min(numRows, numColumns) + ")");
+    }
+
     public ComplexMatrix set(ComplexMatrix B) {
         return set(new double[] { 1, 0 }, B);
     }
 
+    /**
+     * Sets every entry by {@link #set(int, int, double, double)}, so entries
+     * outside the structure of the matrix throw as they do there
+     */
+    public void set(String str) {
+        String[] rows = str.split(";");
+        if (rows.length != numRows)
+            throw new IllegalArgumentException("rows != " + numRows);
+        for (int i = 0; i < numRows; i++) {
+            String[] cols = rows[i].split(",");
+            for (int j = 0; j < numColumns; j++) {
+                double[] value = Complexes.read(cols[j]);
+                set(i, j, value[0], value[1]);
+            }
+        }
+    }
+
     public ComplexMatrix set(double alpha[], ComplexMatrix B) {
         checkSize(B);
 
@@ -627,8 +890,11 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
             return scale(alpha);
 
         zero();
-        for (ComplexMatrixEntry e : B)
-            set(e.row(), e.column(), Complexes.mult(alpha, e.get()));
+        for (ComplexMatrixEntry e : B) {
+            double[] b = e.get();
+            set(e.row(), e.column(), alpha[0] * b[0] - alpha[1] * b[1],
+                    alpha[0] * b[1] + alpha[1] * b[0]);
+        }
 
         return this;
     }
@@ -641,8 +907,11 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         checkSize(B);
 
         if (alpha[0] != 0 || alpha[1] != 0)
-            for (ComplexMatrixEntry e : B)
-                add(e.row(), e.column(), Complexes.mult(alpha, e.get()));
+            for (ComplexMatrixEntry e : B) {
+                double[] b = e.get();
+                add(e.row(), e.column(), alpha[0] * b[0] - alpha[1] * b[1],
+                        alpha[0] * b[1] + alpha[1] * b[0]);
+            }
 
         return this;
     }
@@ -664,9 +933,9 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
 
         for (int j = 0; j < numColumns; ++j)
             for (int i = j + 1; i < numRows; ++i) {
-                double value[] = get(i, j);
-                set(i, j, get(j, i));
-                set(j, i, value);
+                double re = getRe(i, j), im = getIm(i, j);
+                set(i, j, getRe(j, i), getIm(j, i));
+                set(j, i, re, im);
             }
 
         return this;
@@ -707,7 +976,8 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
 
         B.zero();
         for (ComplexMatrixEntry e : this) {
-            B.set(e.column(), e.row(), Complexes.conjugate(e.get()));
+            double[] v = e.get();
+            B.set(e.column(), e.row(), v[0], -v[1]);
         }
         return B;
     }
@@ -731,6 +1001,11 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
         throw new ComplexMatrixNotSPDException("not implemented for abstract complex matrix yet");
     }
 
+    public ComplexMatrix inverse(ComplexMatrix X) throws ComplexMatrixNotSPDException {
+        checkSize(X);
+        return X.set(inverse());
+    }
+
     public double norm(Norm type) {
         if (type == Norm.One)
             return norm1();
@@ -810,9 +1085,11 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
 
         out.format("%10d %10d %19d\n", numRows, numColumns, ComplexMatrices.cardinality(this));
 
-        for (ComplexMatrixEntry e : this)
-            if (e.get()[0] != 0 || e.get()[1] != 0)
-                out.format("%10d %10d % .12e\n", e.row() + 1, e.column() + 1, e.get());
+        for (ComplexMatrixEntry e : this) {
+            double[] v = e.get();
+            if (v[0] != 0 || v[1] != 0)
+                out.format("%10d %10d % .12e % .12e\n", e.row() + 1, e.column() + 1, v[0], v[1]);
+        }
 
         return out.toString();
     }
@@ -842,11 +1119,20 @@ public abstract class AbstractComplexMatrix implements ComplexMatrix {
                     "trace operation is not supported for non-square matrix");
         }
 
-        double[] trace = new double[] { 0.0, 0.0 };
+        double re = 0, im = 0;
         for (int i = 0; i < numRows; i++) {
-            trace = Complexes.add(trace, get(i, i));
+            re += getRe(i, i);
+            im += getIm(i, i);
         }
-        return trace;
+        return new double[] { re, im };
+    }
+
+    public double[] logDet() {
+        return DenseComplexLU.factorize(this).logDet();
+    }
+
+    public double logDetHPD() {
+        return DenseComplexCholesky.factorize(this).logDet();
     }
 
     /**
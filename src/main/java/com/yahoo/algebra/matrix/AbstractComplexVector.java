@@ -42,14 +42,29 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
     }
 
     public void add(int index, double value[]) {
-        double[] adder = get(index);
-        set(index, new double[] { value[0] + adder[0], value[1] + adder[1] });
+        add(index, value[0], value[1]);
     }
 
     public double[] get(int index) {
         throw new UnsupportedOperationException();
     }
 
+    public double getRe(int index) {
+        return get(index)[0];
+    }
+
+    public double getIm(int index) {
+        return get(index)[1];
+    }
+
+    public void set(int index, double re, double im) {
+        set(index, new double[] { re, im });
+    }
+
+    public void add(int index, double re, double im) {
+        set(index, getRe(index) + re, getIm(index) + im);
+    }
+
     public ComplexVector copy() {
         throw new UnsupportedOperationException();
     }
@@ -65,8 +80,8 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
     }
 
     public ComplexVector zero() {
-        for (ComplexVectorEntry e : this)
-            e.set(new double[] { 0, 0 });
+        for (int i = 0; i < size; i++)
+            set(i, 0, 0);
         return this;
     }
 
@@ -76,8 +91,10 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
         else if (alpha[0] == 1 && alpha[0] == 0)
             return this;
 
-        for (ComplexVectorEntry e : this)
-            e.set(Complexes.mult(e.get(), alpha));
+        for (int i = 0; i < size; i++) {
+            double re = getRe(i), im = getIm(i);
+            set(i, re * alpha[0] - im * alpha[1], re * alpha[1] + im * alpha[0]);
+        }
 
         return this;
     }
@@ -92,9 +109,10 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
         if (alpha[0] == 0 && alpha[1] == 0)
             return zero();
 
-        zero();
-        for (ComplexVectorEntry e : y)
-            set(e.index(), Complexes.mult(alpha, e.get()));
+        for (int i = 0; i < size; i++) {
+            double re = y.getRe(i), im = y.getIm(i);
+            set(i, alpha[0] * re - alpha[1] * im, alpha[0] * im + alpha[1] * re);
+        }
 
         return this;
     }
@@ -109,8 +127,10 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
         if (alpha[0] == 0 && alpha[1] == 0)
             return this;
 
-        for (ComplexVectorEntry e : y)
-            add(e.index(), Complexes.mult(alpha, e.get()));
+        for (int i = 0; i < size; i++) {
+            double re = y.getRe(i), im = y.getIm(i);
+            add(i, alpha[0] * re - alpha[1] * im, alpha[0] * im + alpha[1] * re);
+        }
 
         return this;
     }
@@ -121,8 +141,10 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
                     + ") || " + "A.column != y.size (" + A.numColumns() + " != " + y.size() + ")");
         }
         for (int i = 0; i < size; i++) {
+            double xr = getRe(i), xi = getIm(i);
             for (int j = 0; j < y.size(); j++) {
-                A.set(i, j, Complexes.mult(get(i), y.get(j)));
+                double yr = y.getRe(j), yi = y.getIm(j);
+                A.set(i, j, xr * yr - xi * yi, xr * yi + xi * yr);
             }
         }
         return A;
@@ -131,29 +153,37 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
     public double[] dot(ComplexVector y) {
         checkSize(y);
 
-        double[] ret = new double[] { 0, 0 };
-        for (ComplexVectorEntry e : this) {
-            ret = Complexes
-                    .add(ret, Complexes.mult(Complexes.conjugate(e.get()), y.get(e.index())));
+        double re = 0, im = 0;
+        for (int i = 0; i < size; i++) {
+            double xr = getRe(i), xi = getIm(i), yr = y.getRe(i), yi = y.getIm(i);
+            re += xr * yr + xi * yi;
+            im += xr * yi - xi * yr;
         }
-        return ret;
+        return new double[] { re, im };
     }
 
     public ComplexVector conjugate() {
-        for (int i = 0; i < size(); i++) {
-            set(i, Complexes.conjugate(get(i)));
-        }
+        for (int i = 0; i < size; i++)
+            set(i, getRe(i), -getIm(i));
         return this;
     }
 
     public ComplexVector conjugate(ComplexVector y) {
         checkSize(y);
-        for (int i = 0; i < size; i++) {
-            y.set(i, Complexes.conjugate(get(i)));
-        }
+        for (int i = 0; i < size; i++)
+            y.set(i, getRe(i), -getIm(i));
         return y;
     }
 
+    /**
+     * Checks that a slice lies within this vector
+     */
+    protected void checkSlice(int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("offset + length > size (" + offset + " + "
+                    + length + " > " + size + ")");
+    }
+
     /**
      * Checks for conformant sizes
      */
@@ -177,15 +207,19 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
 
     protected double norm1() {
         double sum = 0;
-        for (ComplexVectorEntry e : this)
-            sum += Complexes.abs(e.get());
+        for (int i = 0; i < size; i++) {
+            double re = getRe(i), im = getIm(i);
+            sum += Math.sqrt(re * re + im * im);
+        }
         return sum;
     }
 
     protected double norm2() {
         double norm = 0;
-        for (ComplexVectorEntry e : this)
-            norm += Complexes.abs2(e.get());
+        for (int i = 0; i < size; i++) {
+            double re = getRe(i), im = getIm(i);
+            norm += re * re + im * im;
+        }
         return Math.sqrt(norm);
     }
 
@@ -207,8 +241,10 @@ public abstract class AbstractComplexVector implements ComplexVector, Serializab
 
     protected double normInf() {
         double max = 0;
-        for (ComplexVectorEntry e : this)
-            max = Math.max(Complexes.abs(e.get()), max);
+        for (int i = 0; i < size; i++) {
+            double re = getRe(i), im = getIm(i);
+            max = Math.max(Math.sqrt(re * re + im * im), max);
+        }
         return max;
     }
 
@@ -3,6 +3,11 @@ package com.yahoo.algebra.matrix;
 import java.util.Arrays;
 
 public abstract class AbstractDenseComplexMatrix extends AbstractComplexMatrix {
+    /**
+     * Matrix contents in column-major order, with the real and imaginary part
+     * of every entry stored next to each other. This is the same layout as
+     * <code>DenseComplexVector</code> and as the complex LAPACK routines
+     */
     double data[];
 
     /**
@@ -17,7 +22,28 @@ public abstract class AbstractDenseComplexMatrix extends AbstractComplexMatrix {
     public AbstractDenseComplexMatrix(int numRows, int numColumns) {
         super(numRows, numColumns);
 
-        data = new double[numRows * 2 * numColumns * 2];
+        data = new double[numRows * numColumns * 2];
+    }
+
+    /**
+     * Constructor for AbstractDenseMatrix. The matrix uses the given array as
+     * its storage, without copying it
+     * 
+     * @param numRows
+     *            Number of rows
+     * @param numColumns
+     *            Number of columns
+     * @param data
+     *            Interleaved column-major contents of length
+     *            <code>2*numRows*numColumns</code>
+     */
+    AbstractDenseComplexMatrix(int numRows, int numColumns, double[] data) {
+        super(numRows, numColumns);
+
+        if (data.length != 2 * numRows * numColumns)
+            throw new IllegalArgumentException("data.length != 2*numRows*numColumns ("
+                    + data.length + " != " + 2 * numRows * numColumns + ")");
+        this.data = data;
     }
 
     /**
@@ -44,7 +70,7 @@ public abstract class AbstractDenseComplexMatrix extends AbstractComplexMatrix {
         super(A);
 
         if (deep) {
-            data = new double[2 * numRows * 2 * numColumns];
+            data = new double[2 * numRows * numColumns];
             copy(A);
         } else
             this.data = ((AbstractDenseComplexMatrix) A).getData();
@@ -86,38 +112,55 @@ public abstract class AbstractDenseComplexMatrix extends AbstractComplexMatrix {
 
     @Override
     public void add(int row, int column, double value[]) {
-        int[] index = getIndex(row, column);
-        data[index[0]] += value[0];
-        data[index[1]] += value[1];
-        int offset = data.length / 2;
-        data[offset + index[0]] = -data[index[1]];
-        data[offset + index[1]] = data[index[0]];
+        int index = getIndex(row, column);
+        data[index] += value[0];
+        data[index + 1] += value[1];
     }
 
     @Override
     public void set(int row, int column, double value[]) {
-        int[] index = getIndex(row, column);
-        data[index[0]] = value[0];
-        data[index[1]] = value[1];
-        int offset = data.length / 2;
-        data[offset + index[0]] = -data[index[1]];
-        data[offset + index[1]] = data[index[0]];
+        int index = getIndex(row, column);
+        data[index] = value[0];
+        data[index + 1] = value[1];
     }
 
     @Override
     public double[] get(int row, int column) {
-        int[] index = getIndex(row, column);
-        return new double[] { data[index[0]], data[index[1]] };
+        int index = getIndex(row, column);
+        return new double[] { data[index], data[index + 1] };
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        return data[getIndex(row, column)];
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        return data[getIndex(row, column) + 1];
+    }
+
+    @Override
+    public void set(int row, int column, double re, double im) {
+        int index = getIndex(row, column);
+        data[index] = re;
+        data[index + 1] = im;
+    }
+
+    @Override
+    public void add(int row, int column, double re, double im) {
+        int index = getIndex(row, column);
+        data[index] += re;
+        data[index + 1] += im;
     }
 
     /**
-     * Checks the row and column indices, and returns the linear data index
+     * Checks the row and column indices, and returns the data index of the
+     * real part. The imaginary part follows it
      */
-    int[] getIndex(int row, int column) {
+    int getIndex(int row, int column) {
         check(row, column);
-        int re = row + numRows * 2 * column;
-        int im = row + numRows + numRows * 2 * column;
-        return new int[] { re, im };
+        return (row + numRows * column) * 2;
     }
 
     @Override
@@ -127,7 +170,7 @@ public abstract class AbstractDenseComplexMatrix extends AbstractComplexMatrix {
 
         checkSize(B);
 
-        double[] Bd = ((AbstractDenseComplexMatrix) B).getData();
+        double[] Bd = ((AbstractDenseComplexMatrix) B).data;
 
         if (Bd == data)
             return this;
@@ -137,6 +180,24 @@ public abstract class AbstractDenseComplexMatrix extends AbstractComplexMatrix {
         return this;
     }
 
+    /**
+     * Expands the matrix into its real embedding
+     * <code>[Re -Im; Im Re]</code>, stored column-major as a
+     * <code>2*numRows</code> by <code>2*numColumns</code> real matrix. Used by
+     * the real LAPACK routines
+     */
+    double[] toRealEmbedding() {
+        return DenseComplexKernels.embed(numRows, numColumns, data, 0, numRows);
+    }
+
+    /**
+     * Sets this matrix from the left half <code>[Re; Im]</code> of a real
+     * embedding as produced by {@link #toRealEmbedding()}
+     */
+    void setFromRealEmbedding(double[] e) {
+        DenseComplexKernels.unstack(numRows, numColumns, e, data, 0, numRows);
+    }
+
     @Override
     public ComplexMatrix zero() {
         Arrays.fill(data, 0);
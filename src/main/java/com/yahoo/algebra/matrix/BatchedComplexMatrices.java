@@ -0,0 +1,328 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.Arrays;
+
+import no.uib.cipr.matrix.MatrixNotSPDException;
+import no.uib.cipr.matrix.MatrixSingularException;
+
+/**
+ * A batch of matrices of the same shape stored one after the other in a
+ * single array, each in the interleaved column-major layout of
+ * {@link AbstractDenseComplexMatrix}. Operations apply to every matrix of the
+ * batch in one loop over the storage, with the workspace allocated once per
+ * call, which suits the large numbers of 2x2 and 4x4 covariances and channels
+ * of a network. Matrix <code>b</code> starts at complex entry
+ * <code>b*numRows*numColumns</code>
+ */
+public class BatchedComplexMatrices {
+
+    /**
+     * Number of matrices
+     */
+    private final int size;
+
+    /**
+     * Shape of every matrix
+     */
+    private final int numRows, numColumns;
+
+    /**
+     * Matrices, one after the other
+     */
+    private final double[] data;
+
+    /**
+     * Constructor for BatchedComplexMatrices. The matrices are zero
+     *
+     * @param size
+     *            Number of matrices
+     * @param numRows
+     *            Number of rows of every matrix
+     * @param numColumns
+     *            Number of columns of every matrix
+     */
+    public BatchedComplexMatrices(int size, int numRows, int numColumns) {
+        if (size < 0 || numRows < 0 || numColumns < 0)
+            throw new IllegalArgumentException("size and dimensions must be non-negative");
+        this.size = size;
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        data = new double[2 * size * numRows * numColumns];
+    }
+
+    /**
+     * Returns the number of matrices
+     */
+    public int size() {
+        return size;
+    }
+
+    public int numRows() {
+        return numRows;
+    }
+
+    public int numColumns() {
+        return numColumns;
+    }
+
+    public boolean isSquare() {
+        return numRows == numColumns;
+    }
+
+    /**
+     * Returns the storage of the whole batch
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /**
+     * Returns the position of matrix <code>b</code> in the storage, in
+     * complex entries
+     */
+    public int getOffset(int b) {
+        return b * numRows * numColumns;
+    }
+
+    /**
+     * Returns matrix <code>b</code> as a view sharing the storage of the batch
+     */
+    public DenseComplexMatrixView get(int b) {
+        check(b);
+        return new DenseComplexMatrixView(data, getOffset(b), numRows, numRows, numColumns);
+    }
+
+    /**
+     * Copies <code>A</code> into matrix <code>b</code>
+     */
+    public void set(int b, ComplexMatrix A) {
+        get(b).set(A);
+    }
+
+    public BatchedComplexMatrices zero() {
+        Arrays.fill(data, 0);
+        return this;
+    }
+
+    /**
+     * <code>C(b) = A(b)*B(b)</code> for every <code>b</code>, with
+     * <code>A</code> this batch
+     *
+     * @return C
+     */
+    public BatchedComplexMatrices mult(BatchedComplexMatrices B, BatchedComplexMatrices C) {
+        return multAdd(new double[] { 1, 0 }, B, C.zero());
+    }
+
+    /**
+     * <code>C(b) = alpha*A(b)*B(b) + C(b)</code> for every <code>b</code>
+     *
+     * @return C
+     */
+    public BatchedComplexMatrices multAdd(double alpha[], BatchedComplexMatrices B,
+            BatchedComplexMatrices C) {
+        checkBatch(B);
+        checkBatch(C);
+        if (numColumns != B.numRows || numRows != C.numRows || B.numColumns != C.numColumns)
+            throw new IndexOutOfBoundsException("A is " + numRows + "x" + numColumns + ", B is "
+                    + B.numRows + "x" + B.numColumns + ", C is " + C.numRows + "x"
+                    + C.numColumns);
+        gemm(Transpose.NoTranspose, Transpose.NoTranspose, alpha, B, C, numColumns);
+        return C;
+    }
+
+    /**
+     * <code>C(b) = alpha*A(b)<sup>H</sup>*B(b) + C(b)</code> for every
+     * <code>b</code>
+     *
+     * @return C
+     */
+    public BatchedComplexMatrices hermAmultAdd(double alpha[], BatchedComplexMatrices B,
+            BatchedComplexMatrices C) {
+        checkBatch(B);
+        checkBatch(C);
+        if (numRows != B.numRows || numColumns != C.numRows || B.numColumns != C.numColumns)
+            throw new IndexOutOfBoundsException("A is " + numRows + "x" + numColumns + ", B is "
+                    + B.numRows + "x" + B.numColumns + ", C is " + C.numRows + "x"
+                    + C.numColumns);
+        gemm(Transpose.ConjugateTranspose, Transpose.NoTranspose, alpha, B, C, numRows);
+        return C;
+    }
+
+    /**
+     * <code>C(b) = alpha*A(b)*B(b)<sup>H</sup> + C(b)</code> for every
+     * <code>b</code>
+     *
+     * @return C
+     */
+    public BatchedComplexMatrices hermBmultAdd(double alpha[], BatchedComplexMatrices B,
+            BatchedComplexMatrices C) {
+        checkBatch(B);
+        checkBatch(C);
+        if (numColumns != B.numColumns || numRows != C.numRows || B.numRows != C.numColumns)
+            throw new IndexOutOfBoundsException("A is " + numRows + "x" + numColumns + ", B is "
+                    + B.numRows + "x" + B.numColumns + ", C is " + C.numRows + "x"
+                    + C.numColumns);
+        gemm(Transpose.NoTranspose, Transpose.ConjugateTranspose, alpha, B, C, numColumns);
+        return C;
+    }
+
+    /**
+     * <code>X(b) = A(b)<sup>-1</sup></code> for every <code>b</code>, in
+     * closed form up to order 4 unless a matrix is close to singular.
+     * <code>X</code> may be this batch
+     *
+     * @return X
+     * @throws MatrixSingularException
+     *             If one of the matrices is singular
+     */
+    public BatchedComplexMatrices inverse(BatchedComplexMatrices X) throws MatrixSingularException {
+        checkSquare();
+        checkSameShape(X);
+        int n = numRows;
+        if (X != this)
+            System.arraycopy(data, 0, X.data, 0, data.length);
+        int[] piv = new int[n];
+        double[] work = new double[2 * Math.max(1, n)];
+        boolean closed = SmallComplexKernels.isSmall(n);
+        double[] small = new double[closed ? SmallComplexKernels.workSize(n) : 0];
+        for (int b = 0; b < size; ++b) {
+            int off = getOffset(b);
+            if (closed && SmallComplexKernels.inverse(n, X.data, off, n, X.data, off, n, small))
+                continue;
+            if (DenseComplexKernels.getrf(n, X.data, off, n, piv) != 0
+                    || DenseComplexKernels.getri(n, X.data, off, n, piv, work, n) != 0)
+                throw new MatrixSingularException("Matrix " + b + " is singular");
+        }
+        return X;
+    }
+
+    /**
+     * Solves <code>A(b)*X(b) = B(b)</code> for every <code>b</code>, with
+     * every <code>A(b)</code> Hermitian positive definite. Only the lower
+     * triangles are read. <code>X</code> may be <code>B</code>
+     *
+     * @return X
+     * @throws MatrixNotSPDException
+     *             If one of the matrices is not positive definite
+     */
+    public BatchedComplexMatrices solveHPD(BatchedComplexMatrices B, BatchedComplexMatrices X)
+            throws MatrixNotSPDException {
+        checkSquare();
+        checkBatch(B);
+        B.checkSameShape(X);
+        if (B.numRows != numRows)
+            throw new IndexOutOfBoundsException("B.numRows != A.numRows (" + B.numRows + " != "
+                    + numRows + ")");
+        int n = numRows;
+        if (X != B)
+            System.arraycopy(B.data, 0, X.data, 0, B.data.length);
+        double[] l = new double[2 * n * n];
+        for (int b = 0; b < size; ++b) {
+            System.arraycopy(data, 2 * getOffset(b), l, 0, l.length);
+            if (DenseComplexKernels.potrf(n, l, 0, n) != 0)
+                throw new MatrixNotSPDException("Matrix " + b + " is not positive definite");
+            DenseComplexKernels.potrs(n, X.numColumns, l, 0, n, X.data, X.getOffset(b), n);
+        }
+        return X;
+    }
+
+    /**
+     * Logarithm of the determinant of every matrix, all Hermitian positive
+     * definite. Only the lower triangles are read
+     *
+     * @param logDet
+     *            Receives the log-determinant of matrix <code>b</code> at
+     *            <code>logDet[b]</code>
+     * @return logDet
+     * @throws MatrixNotSPDException
+     *             If one of the matrices is not positive definite
+     */
+    public double[] logDetHPD(double[] logDet) throws MatrixNotSPDException {
+        checkSquare();
+        checkLength(logDet, size);
+        int n = numRows;
+        double[] l = new double[2 * n * n];
+        for (int b = 0; b < size; ++b) {
+            System.arraycopy(data, 2 * getOffset(b), l, 0, l.length);
+            if (DenseComplexKernels.potrf(n, l, 0, n) != 0)
+                throw new MatrixNotSPDException("Matrix " + b + " is not positive definite");
+            double s = 0;
+            for (int i = 0; i < n; ++i)
+                s += Math.log(l[2 * (i + i * n)]);
+            logDet[b] = 2 * s;
+        }
+        return logDet;
+    }
+
+    /**
+     * Eigenvalues, and optionally eigenvectors, of every matrix, all Hermitian
+     *
+     * @param w
+     *            Receives the eigenvalues of matrix <code>b</code> in
+     *            ascending order from <code>w[b*n]</code>
+     * @param V
+     *            Receives the orthonormal eigenvectors of matrix
+     *            <code>b</code> as the columns of <code>V(b)</code>, or null
+     *            for eigenvalues only
+     * @return w
+     */
+    public double[] eigHermitian(double[] w, BatchedComplexMatrices V) {
+        checkSquare();
+        int n = numRows;
+        checkLength(w, size * n);
+        if (V != null)
+            checkSameShape(V);
+        double[] a = new double[2 * n * n], e = new double[n];
+        for (int b = 0; b < size; ++b) {
+            System.arraycopy(data, 2 * getOffset(b), a, 0, a.length);
+            if (V == null)
+                DenseComplexKernels.heev(n, a, 0, n, e, null, 0, n);
+            else
+                DenseComplexKernels.heev(n, a, 0, n, e, V.data, V.getOffset(b), n);
+            System.arraycopy(e, 0, w, b * n, n);
+        }
+        return w;
+    }
+
+    /**
+     * <code>C(b) = alpha*op(A(b))*op(B(b)) + C(b)</code>, the shapes checked
+     */
+    private void gemm(Transpose transA, Transpose transB, double[] alpha,
+            BatchedComplexMatrices B, BatchedComplexMatrices C, int k) {
+        int m = C.numRows, n = C.numColumns;
+        for (int b = 0; b < size; ++b)
+            DenseComplexKernels.gemm(transA, transB, m, n, k, alpha[0], alpha[1], data,
+                    getOffset(b), Math.max(1, numRows), B.data, B.getOffset(b),
+                    Math.max(1, B.numRows), C.data, C.getOffset(b), Math.max(1, m));
+    }
+
+    private void check(int b) {
+        if (b < 0 || b >= size)
+            throw new IndexOutOfBoundsException("b >= size (" + b + " >= " + size + ")");
+    }
+
+    private void checkBatch(BatchedComplexMatrices B) {
+        if (B.size != size)
+            throw new IndexOutOfBoundsException("B.size != A.size (" + B.size + " != " + size
+                    + ")");
+    }
+
+    private void checkSameShape(BatchedComplexMatrices B) {
+        checkBatch(B);
+        if (B.numRows != numRows || B.numColumns != numColumns)
+            throw new IndexOutOfBoundsException("B is " + B.numRows + "x" + B.numColumns
+                    + ", A is " + numRows + "x" + numColumns);
+    }
+
+    private void checkSquare() {
+        if (!isSquare())
+            throw new IndexOutOfBoundsException("!A.isSquare");
+    }
+
+    private static void checkLength(double[] x, int length) {
+        if (x.length < length)
+            throw new IndexOutOfBoundsException("x.length < required (" + x.length + " < "
+                    + length + ")");
+    }
+}
@@ -0,0 +1,500 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Matrix partitioned into blocks, each referring to an existing
+ * <code>ComplexMatrix</code>. Blocks are not copied, so writes through this
+ * matrix reach the blocks and changes to the blocks are seen by this matrix.
+ * A block left unset is zero, and setting an entry inside it to anything but
+ * zero throws <code>IndexOutOfBoundsException</code>. The iterator visits the
+ * entries visited by the iterators of the blocks
+ */
+public class BlockComplexMatrix extends AbstractComplexMatrix {
+
+    /**
+     * Start of every block row, with <code>rowOffset[numBlockRows]</code>
+     * the number of rows
+     */
+    private final int[] rowOffset;
+
+    /**
+     * Start of every block column, with
+     * <code>columnOffset[numBlockColumns]</code> the number of columns
+     */
+    private final int[] columnOffset;
+
+    /**
+     * Blocks, indexed by block row and block column. <code>null</code> for a
+     * zero block
+     */
+    private final ComplexMatrix[][] blocks;
+
+    /**
+     * Constructor for BlockComplexMatrix. All blocks will be zero
+     *
+     * @param rowBlocks
+     *            Number of rows of every block row
+     * @param columnBlocks
+     *            Number of columns of every block column
+     */
+    public BlockComplexMatrix(int[] rowBlocks, int[] columnBlocks) {
+        super(sum(rowBlocks), sum(columnBlocks));
+        rowOffset = offsets(rowBlocks);
+        columnOffset = offsets(columnBlocks);
+        blocks = new ComplexMatrix[rowBlocks.length][columnBlocks.length];
+    }
+
+    private static int sum(int[] sizes) {
+        int n = 0;
+        for (int size : sizes)
+            n += size;
+        return n;
+    }
+
+    /**
+     * Returns the block sizes of the given partition
+     */
+    private static int[] sizes(int[] offset) {
+        int[] size = new int[offset.length - 1];
+        for (int i = 0; i < size.length; i++)
+            size[i] = offset[i + 1] - offset[i];
+        return size;
+    }
+
+    /**
+     * Returns the partial sums of the block sizes, starting at zero
+     */
+    private static int[] offsets(int[] sizes) {
+        int[] offset = new int[sizes.length + 1];
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] < 0)
+                throw new IndexOutOfBoundsException("Block size cannot be negative");
+            offset[i + 1] = offset[i] + sizes[i];
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the number of block rows
+     */
+    public int numBlockRows() {
+        return blocks.length;
+    }
+
+    /**
+     * Returns the number of block columns
+     */
+    public int numBlockColumns() {
+        return columnOffset.length - 1;
+    }
+
+    /**
+     * Returns the block at the given block row and column, or
+     * <code>null</code> for a zero block
+     */
+    public ComplexMatrix getBlock(int blockRow, int blockColumn) {
+        return blocks[blockRow][blockColumn];
+    }
+
+    /**
+     * Sets the block at the given block row and column. The block is referred
+     * to, not copied
+     *
+     * @param block
+     *            Block of the size of the partition, or <code>null</code> for
+     *            a zero block
+     * @return this
+     */
+    public BlockComplexMatrix setBlock(int blockRow, int blockColumn, ComplexMatrix block) {
+        if (block != null) {
+            int m = rowOffset[blockRow + 1] - rowOffset[blockRow];
+            int n = columnOffset[blockColumn + 1] - columnOffset[blockColumn];
+            if (block.numRows() != m)
+                throw new IndexOutOfBoundsException("block.numRows != " + m + " ("
+                        + block.numRows() + " != " + m + ")");
+            if (block.numColumns() != n)
+                throw new IndexOutOfBoundsException("block.numColumns != " + n + " ("
+                        + block.numColumns() + " != " + n + ")");
+        }
+        blocks[blockRow][blockColumn] = block;
+        return this;
+    }
+
+    /**
+     * Returns the block containing the given index
+     */
+    private static int locate(int[] offset, int index) {
+        int lo = 0, hi = offset.length - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (offset[mid] <= index)
+                lo = mid;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public double[] get(int row, int column) {
+        check(row, column);
+        int bi = locate(rowOffset, row), bj = locate(columnOffset, column);
+        ComplexMatrix block = blocks[bi][bj];
+        if (block == null)
+            return new double[] { 0, 0 };
+        return block.get(row - rowOffset[bi], column - columnOffset[bj]);
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        check(row, column);
+        int bi = locate(rowOffset, row), bj = locate(columnOffset, column);
+        ComplexMatrix block = blocks[bi][bj];
+        return block == null ? 0 : block.getRe(row - rowOffset[bi], column - columnOffset[bj]);
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        check(row, column);
+        int bi = locate(rowOffset, row), bj = locate(columnOffset, column);
+        ComplexMatrix block = blocks[bi][bj];
+        return block == null ? 0 : block.getIm(row - rowOffset[bi], column - columnOffset[bj]);
+    }
+
+    @Override
+    public void set(int row, int column, double value[]) {
+        set(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void set(int row, int column, double re, double im) {
+        check(row, column);
+        int bi = locate(rowOffset, row), bj = locate(columnOffset, column);
+        ComplexMatrix block = blocks[bi][bj];
+        if (block == null) {
+            if (re != 0 || im != 0)
+                throw new IndexOutOfBoundsException("Entry (" + row + ", " + column
+                        + ") is in a zero block");
+            return;
+        }
+        block.set(row - rowOffset[bi], column - columnOffset[bj], re, im);
+    }
+
+    @Override
+    public void add(int row, int column, double value[]) {
+        add(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void add(int row, int column, double re, double im) {
+        check(row, column);
+        int bi = locate(rowOffset, row), bj = locate(columnOffset, column);
+        ComplexMatrix block = blocks[bi][bj];
+        if (block == null) {
+            if (re != 0 || im != 0)
+                throw new IndexOutOfBoundsException("Entry (" + row + ", " + column
+                        + ") is in a zero block");
+            return;
+        }
+        block.add(row - rowOffset[bi], column - columnOffset[bj], re, im);
+    }
+
+    /**
+     * Returns a matrix with the same partitions and copies of the blocks
+     */
+    @Override
+    public BlockComplexMatrix copy() {
+        BlockComplexMatrix A = new BlockComplexMatrix(sizes(rowOffset), sizes(columnOffset));
+        for (int bi = 0; bi < blocks.length; bi++)
+            for (int bj = 0; bj < blocks[bi].length; bj++)
+                if (blocks[bi][bj] != null)
+                    A.blocks[bi][bj] = blocks[bi][bj].copy();
+        return A;
+    }
+
+    /**
+     * Zeros the referenced blocks
+     */
+    @Override
+    public ComplexMatrix zero() {
+        for (ComplexMatrix[] row : blocks)
+            for (ComplexMatrix block : row)
+                if (block != null)
+                    block.zero();
+        return this;
+    }
+
+    /**
+     * Scales the referenced blocks
+     */
+    @Override
+    public ComplexMatrix scale(double alpha[]) {
+        for (ComplexMatrix[] row : blocks)
+            for (ComplexMatrix block : row)
+                if (block != null)
+                    block.scale(alpha);
+        return this;
+    }
+
+    @Override
+    public ComplexVector multAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        checkMultAdd(x, y);
+
+        if (alpha[0] == 0 && alpha[1] == 0)
+            return y;
+
+        ComplexVector[] xs = split(x, columnOffset), ys = partition(y, rowOffset);
+        for (int bi = 0; bi < blocks.length; bi++) {
+            ComplexVector yb = ys == null ? null : ys[bi];
+            for (int bj = 0; bj < blocks[bi].length; bj++)
+                if (blocks[bi][bj] != null) {
+                    if (yb == null)
+                        yb = new DenseComplexVector(rowOffset[bi + 1] - rowOffset[bi]);
+                    blocks[bi][bj].multAdd(alpha, xs[bj], yb);
+                }
+            if (ys == null)
+                addSegment(y, rowOffset[bi], yb);
+        }
+        return y;
+    }
+
+    @Override
+    public ComplexVector transMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        return transMultAdd(false, alpha, x, y);
+    }
+
+    @Override
+    public ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        return transMultAdd(true, alpha, x, y);
+    }
+
+    /**
+     * <code>y = alpha*A<sup>T</sup>*x + y</code>, or with
+     * <code>A<sup>H</sup></code> if <code>conj</code> is set, block column by
+     * block column
+     */
+    private ComplexVector transMultAdd(boolean conj, double[] alpha, ComplexVector x,
+            ComplexVector y) {
+        checkTransMultAdd(x, y);
+
+        if (alpha[0] == 0 && alpha[1] == 0)
+            return y;
+
+        ComplexVector[] xs = split(x, rowOffset), ys = partition(y, columnOffset);
+        for (int bj = 0; bj < columnOffset.length - 1; bj++) {
+            ComplexVector yb = ys == null ? null : ys[bj];
+            for (int bi = 0; bi < blocks.length; bi++)
+                if (blocks[bi][bj] != null) {
+                    if (yb == null)
+                        yb = new DenseComplexVector(columnOffset[bj + 1] - columnOffset[bj]);
+                    if (conj)
+                        blocks[bi][bj].hermMultAdd(alpha, xs[bi], yb);
+                    else
+                        blocks[bi][bj].transMultAdd(alpha, xs[bi], yb);
+                }
+            if (ys == null)
+                addSegment(y, columnOffset[bj], yb);
+        }
+        return y;
+    }
+
+    @Override
+    public ComplexMatrix multAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        checkMultAdd(B, C);
+
+        DenseComplexVector y = new DenseComplexVector(numRows);
+        for (int j = 0; j < C.numColumns(); j++) {
+            multAdd(alpha, column(B, j), y.zero());
+            for (int i = 0; i < numRows; i++)
+                C.add(i, j, y.getRe(i), y.getIm(i));
+        }
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        checkTransAmultAdd(B, C);
+
+        DenseComplexVector y = new DenseComplexVector(numColumns);
+        for (int j = 0; j < C.numColumns(); j++) {
+            transMultAdd(true, alpha, column(B, j), y.zero());
+            for (int i = 0; i < numColumns; i++)
+                C.add(i, j, y.getRe(i), y.getIm(i));
+        }
+        return C;
+    }
+
+    /**
+     * Cuts <code>x</code> into one vector per block of the given partition,
+     * copying only if it cannot be partitioned in place
+     */
+    private static ComplexVector[] split(ComplexVector x, int[] offset) {
+        ComplexVector[] xs = partition(x, offset);
+        if (xs != null)
+            return xs;
+
+        xs = new ComplexVector[offset.length - 1];
+        for (int b = 0; b < xs.length; b++) {
+            xs[b] = new DenseComplexVector(offset[b + 1] - offset[b]);
+            for (int i = 0; i < xs[b].size(); i++)
+                xs[b].set(i, x.getRe(offset[b] + i), x.getIm(offset[b] + i));
+        }
+        return xs;
+    }
+
+    /**
+     * Returns the parts of <code>x</code> along the given partition, sharing
+     * its storage: slices of a dense vector, or the blocks of a
+     * <code>BlockComplexVector</code> with the same partition. Returns
+     * <code>null</code> for any other vector
+     */
+    private static ComplexVector[] partition(ComplexVector x, int[] offset) {
+        ComplexVector[] xs = new ComplexVector[offset.length - 1];
+        if (DenseComplexVectorView.isDense(x)) {
+            for (int b = 0; b < xs.length; b++)
+                xs[b] = DenseComplexVectorView.slice(x, offset[b], offset[b + 1] - offset[b]);
+            return xs;
+        }
+        if (x instanceof BlockComplexVector) {
+            BlockComplexVector bx = (BlockComplexVector) x;
+            if (bx.numBlocks() != xs.length)
+                return null;
+            for (int b = 0; b < xs.length; b++) {
+                if (bx.getOffset(b + 1) != offset[b + 1])
+                    return null;
+                xs[b] = bx.getBlock(b);
+            }
+            return xs;
+        }
+        return null;
+    }
+
+    /**
+     * Adds <code>x</code>, if any, to <code>y</code> starting at
+     * <code>offset</code>
+     */
+    private static void addSegment(ComplexVector y, int offset, ComplexVector x) {
+        if (x == null)
+            return;
+        for (int i = 0; i < x.size(); i++)
+            y.add(offset + i, x.getRe(i), x.getIm(i));
+    }
+
+    /**
+     * Returns a copy of column <code>j</code> of <code>B</code>
+     */
+    private static DenseComplexVector column(ComplexMatrix B, int j) {
+        DenseComplexVector b = new DenseComplexVector(B.numRows());
+        for (int i = 0; i < B.numRows(); i++)
+            b.set(i, B.getRe(i, j), B.getIm(i, j));
+        return b;
+    }
+
+    /**
+     * Returns <code>A<sup>H</sup></code>, with the blocks Hermitian transposed
+     * into new matrices
+     */
+    @Override
+    public BlockComplexMatrix hermitianTranspose() {
+        BlockComplexMatrix A = new BlockComplexMatrix(sizes(columnOffset), sizes(rowOffset));
+        for (int bi = 0; bi < blocks.length; bi++)
+            for (int bj = 0; bj < blocks[bi].length; bj++)
+                if (blocks[bi][bj] != null)
+                    A.blocks[bj][bi] = blocks[bi][bj].hermitianTranspose();
+        return A;
+    }
+
+    public double det2() {
+        return Math.exp(2 * logDet()[0]);
+    }
+
+    /**
+     * Visits the blocks column by column
+     */
+    @Override
+    public Iterator<ComplexMatrixEntry> iterator() {
+        return new BlockIterator();
+    }
+
+    private class BlockIterator implements Iterator<ComplexMatrixEntry> {
+
+        /**
+         * Current block, counted column by column
+         */
+        private int b = -1;
+
+        /**
+         * Iterator over the current block
+         */
+        private Iterator<ComplexMatrixEntry> it;
+
+        private final BlockEntry entry = new BlockEntry();
+
+        BlockIterator() {
+            advance();
+        }
+
+        /**
+         * Moves to the next block with entries left
+         */
+        private void advance() {
+            int numBlocks = blocks.length * (columnOffset.length - 1);
+            while ((it == null || !it.hasNext()) && ++b < numBlocks) {
+                ComplexMatrix block = blocks[b % blocks.length][b / blocks.length];
+                it = block == null ? null : block.iterator();
+            }
+        }
+
+        public boolean hasNext() {
+            return it != null && it.hasNext();
+        }
+
+        public ComplexMatrixEntry next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            int bi = b % blocks.length, bj = b / blocks.length;
+            entry.update(it.next(), rowOffset[bi], columnOffset[bj]);
+            if (!it.hasNext())
+                advance();
+            return entry;
+        }
+
+        public void remove() {
+            entry.set(new double[] { 0, 0 });
+        }
+    }
+
+    /**
+     * Entry of a block, shifted by the offsets of the block
+     */
+    private static class BlockEntry implements ComplexMatrixEntry {
+
+        private ComplexMatrixEntry e;
+
+        private int rowOff, columnOff;
+
+        void update(ComplexMatrixEntry e, int rowOff, int columnOff) {
+            this.e = e;
+            this.rowOff = rowOff;
+            this.columnOff = columnOff;
+        }
+
+        public int row() {
+            return rowOff + e.row();
+        }
+
+        public int column() {
+            return columnOff + e.column();
+        }
+
+        public double[] get() {
+            return e.get();
+        }
+
+        public void set(double value[]) {
+            e.set(value);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.yahoo.algebra.matrix;
+
+/**
+ * Vector made of existing vectors placed one after the other. The blocks are
+ * referred to, not copied, so writes through this vector reach the blocks and
+ * changes to the blocks are seen by this vector
+ */
+public class BlockComplexVector extends AbstractComplexVector {
+
+    /** just the private data */
+    private static final long serialVersionUID = 6177404757458232425L;
+
+    /**
+     * Blocks, in order
+     */
+    private final ComplexVector[] blocks;
+
+    /**
+     * Start of every block, with <code>offset[blocks.length]</code> the size
+     */
+    private final int[] offset;
+
+    /**
+     * Constructor for BlockComplexVector
+     *
+     * @param blocks
+     *            Vectors to place one after the other
+     */
+    public BlockComplexVector(ComplexVector... blocks) {
+        super(sum(blocks));
+        this.blocks = blocks.clone();
+        offset = new int[blocks.length + 1];
+        for (int b = 0; b < blocks.length; b++)
+            offset[b + 1] = offset[b] + blocks[b].size();
+    }
+
+    private static int sum(ComplexVector[] blocks) {
+        int n = 0;
+        for (ComplexVector x : blocks)
+            n += x.size();
+        return n;
+    }
+
+    /**
+     * Returns the number of blocks
+     */
+    public int numBlocks() {
+        return blocks.length;
+    }
+
+    /**
+     * Returns block <code>b</code>
+     */
+    public ComplexVector getBlock(int b) {
+        return blocks[b];
+    }
+
+    /**
+     * Returns the position of block <code>b</code> in this vector, with
+     * <code>getOffset(numBlocks())</code> the size
+     */
+    public int getOffset(int b) {
+        return offset[b];
+    }
+
+    /**
+     * Returns the block containing the given index
+     */
+    private int locate(int index) {
+        int lo = 0, hi = offset.length - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (offset[mid] <= index)
+                lo = mid;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public double[] get(int index) {
+        check(index);
+        int b = locate(index);
+        return blocks[b].get(index - offset[b]);
+    }
+
+    @Override
+    public void set(int index, double value[]) {
+        check(index);
+        int b = locate(index);
+        blocks[b].set(index - offset[b], value);
+    }
+
+    @Override
+    public void add(int index, double value[]) {
+        check(index);
+        int b = locate(index);
+        blocks[b].add(index - offset[b], value);
+    }
+
+    @Override
+    public double getRe(int index) {
+        check(index);
+        int b = locate(index);
+        return blocks[b].getRe(index - offset[b]);
+    }
+
+    @Override
+    public double getIm(int index) {
+        check(index);
+        int b = locate(index);
+        return blocks[b].getIm(index - offset[b]);
+    }
+
+    @Override
+    public void set(int index, double re, double im) {
+        check(index);
+        int b = locate(index);
+        blocks[b].set(index - offset[b], re, im);
+    }
+
+    @Override
+    public void add(int index, double re, double im) {
+        check(index);
+        int b = locate(index);
+        blocks[b].add(index - offset[b], re, im);
+    }
+
+    /**
+     * Returns a <code>DenseComplexVector</code> with the same contents
+     */
+    @Override
+    public DenseComplexVector copy() {
+        DenseComplexVector x = new DenseComplexVector(size);
+        for (int b = 0; b < blocks.length; b++)
+            x.slice(offset[b], blocks[b].size()).set(blocks[b]);
+        return x;
+    }
+
+    @Override
+    public BlockComplexVector zero() {
+        for (ComplexVector x : blocks)
+            x.zero();
+        return this;
+    }
+
+    @Override
+    public BlockComplexVector scale(double alpha[]) {
+        for (ComplexVector x : blocks)
+            x.scale(alpha);
+        return this;
+    }
+
+    @Override
+    public ComplexVector set(double alpha[], ComplexVector y) {
+        checkSize(y);
+        if (!isPartitionable(y))
+            return super.set(alpha, y);
+
+        for (int b = 0; b < blocks.length; b++)
+            blocks[b].set(alpha, block(y, b));
+        return this;
+    }
+
+    @Override
+    public ComplexVector add(double alpha[], ComplexVector y) {
+        checkSize(y);
+        if (!isPartitionable(y))
+            return super.add(alpha, y);
+
+        for (int b = 0; b < blocks.length; b++)
+            blocks[b].add(alpha, block(y, b));
+        return this;
+    }
+
+    @Override
+    public double[] dot(ComplexVector y) {
+        checkSize(y);
+        if (!isPartitionable(y))
+            return super.dot(y);
+
+        double[] dot = new double[] { 0, 0 };
+        for (int b = 0; b < blocks.length; b++) {
+            double[] d = blocks[b].dot(block(y, b));
+            dot[0] += d[0];
+            dot[1] += d[1];
+        }
+        return dot;
+    }
+
+    /**
+     * Whether <code>y</code> can be cut along the blocks of this vector
+     * without copying
+     */
+    private boolean isPartitionable(ComplexVector y) {
+        return DenseComplexVectorView.isDense(y) || samePartition(y);
+    }
+
+    /**
+     * Whether <code>y</code> is a block vector with the same block sizes
+     */
+    private boolean samePartition(ComplexVector y) {
+        if (!(y instanceof BlockComplexVector))
+            return false;
+        BlockComplexVector z = (BlockComplexVector) y;
+        return java.util.Arrays.equals(offset, z.offset);
+    }
+
+    /**
+     * Part of <code>y</code> aligned with block <code>b</code>
+     */
+    private ComplexVector block(ComplexVector y, int b) {
+        if (samePartition(y))
+            return ((BlockComplexVector) y).blocks[b];
+        return DenseComplexVectorView.slice(y, offset[b], blocks[b].size());
+    }
+}
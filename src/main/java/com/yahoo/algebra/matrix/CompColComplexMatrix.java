@@ -0,0 +1,405 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compressed column storage (CCS) matrix. The sparsity pattern is fixed on
+ * construction; setting an entry outside of it to anything but zero throws
+ * <code>IndexOutOfBoundsException</code>. Values are interleaved as in
+ * {@link DenseComplexVector}, and the iterator only visits stored entries
+ */
+public class CompColComplexMatrix extends AbstractComplexMatrix {
+
+    /**
+     * Start of every column in <code>rowIndex</code>, with
+     * <code>columnPointer[numColumns]</code> the number of stored entries
+     */
+    private final int[] columnPointer;
+
+    /**
+     * Row indices, sorted within every column
+     */
+    private final int[] rowIndex;
+
+    /**
+     * Stored entries
+     */
+    private final double[] data;
+
+    /**
+     * Constructor for CompColComplexMatrix. The matrix contents will be set to
+     * zero
+     *
+     * @param numRows
+     *            Number of rows
+     * @param numColumns
+     *            Number of columns
+     * @param nz
+     *            Row indices of the stored entries of every column. Copied
+     */
+    public CompColComplexMatrix(int numRows, int numColumns, int[][] nz) {
+        super(numRows, numColumns);
+        if (nz.length != numColumns)
+            throw new IllegalArgumentException("nz.length != numColumns (" + nz.length + " != "
+                    + numColumns + ")");
+
+        columnPointer = new int[numColumns + 1];
+        for (int j = 0; j < numColumns; j++)
+            columnPointer[j + 1] = columnPointer[j] + nz[j].length;
+
+        rowIndex = new int[columnPointer[numColumns]];
+        for (int j = 0; j < numColumns; j++) {
+            System.arraycopy(nz[j], 0, rowIndex, columnPointer[j], nz[j].length);
+            Arrays.sort(rowIndex, columnPointer[j], columnPointer[j + 1]);
+            for (int k = columnPointer[j]; k < columnPointer[j + 1]; k++) {
+                if (rowIndex[k] < 0 || rowIndex[k] >= numRows)
+                    throw new IndexOutOfBoundsException("row index out of range (" + rowIndex[k]
+                            + ")");
+                if (k > columnPointer[j] && rowIndex[k] == rowIndex[k - 1])
+                    throw new IllegalArgumentException("duplicate row index (" + rowIndex[k]
+                            + ") in column " + j);
+            }
+        }
+
+        data = new double[2 * rowIndex.length];
+    }
+
+    /**
+     * Constructor for CompColComplexMatrix. Stores the nonzero entries of
+     * <code>A</code>
+     *
+     * @param A
+     *            ComplexMatrix to copy from
+     */
+    public CompColComplexMatrix(ComplexMatrix A) {
+        this(A.numRows(), A.numColumns(), CompRowComplexMatrix.nonzeros(A, true));
+        for (int j = 0; j < numColumns; j++)
+            for (int k = columnPointer[j]; k < columnPointer[j + 1]; k++) {
+                double[] v = A.get(rowIndex[k], j);
+                data[2 * k] = v[0];
+                data[2 * k + 1] = v[1];
+            }
+    }
+
+    /**
+     * Constructor sharing the given storage
+     */
+    CompColComplexMatrix(int numRows, int numColumns, int[] columnPointer, int[] rowIndex,
+            double[] data) {
+        super(numRows, numColumns);
+        this.columnPointer = columnPointer;
+        this.rowIndex = rowIndex;
+        this.data = data;
+    }
+
+    /**
+     * Returns the column pointers
+     */
+    public int[] getColumnPointers() {
+        return columnPointer;
+    }
+
+    /**
+     * Returns the row indices
+     */
+    public int[] getRowIndices() {
+        return rowIndex;
+    }
+
+    /**
+     * Returns the stored entries
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /**
+     * Returns the position of <code>(row, column)</code> in the storage, or -1
+     * if it is not stored
+     */
+    private int index(int row, int column) {
+        check(row, column);
+        int k = Arrays.binarySearch(rowIndex, columnPointer[column], columnPointer[column + 1],
+                row);
+        return k < 0 ? -1 : k;
+    }
+
+    @Override
+    public double[] get(int row, int column) {
+        int k = index(row, column);
+        if (k < 0)
+            return new double[] { 0, 0 };
+        return new double[] { data[2 * k], data[2 * k + 1] };
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        int k = index(row, column);
+        return k < 0 ? 0 : data[2 * k];
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        int k = index(row, column);
+        return k < 0 ? 0 : data[2 * k + 1];
+    }
+
+    @Override
+    public void set(int row, int column, double value[]) {
+        set(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void set(int row, int column, double re, double im) {
+        int k = stored(row, column, re, im);
+        if (k >= 0) {
+            data[2 * k] = re;
+            data[2 * k + 1] = im;
+        }
+    }
+
+    @Override
+    public void add(int row, int column, double value[]) {
+        add(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void add(int row, int column, double re, double im) {
+        int k = stored(row, column, re, im);
+        if (k >= 0) {
+            data[2 * k] += re;
+            data[2 * k + 1] += im;
+        }
+    }
+
+    /**
+     * Returns the position of entry <code>(row, column)</code> in the data
+     * arrays, or -1 if it is not stored and the value written is zero
+     */
+    private int stored(int row, int column, double re, double im) {
+        int k = index(row, column);
+        if (k < 0 && (re != 0 || im != 0))
+            throw new IndexOutOfBoundsException("Entry (" + row + ", " + column
+                    + ") is not in the matrix structure");
+        return k;
+    }
+
+    @Override
+    public CompColComplexMatrix copy() {
+        return new CompColComplexMatrix(numRows, numColumns, columnPointer.clone(),
+                rowIndex.clone(), data.clone());
+    }
+
+    @Override
+    public ComplexMatrix zero() {
+        Arrays.fill(data, 0);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix scale(double alpha[]) {
+        for (int i = 0; i < data.length; i += 2) {
+            double re = data[i], im = data[i + 1];
+            data[i] = alpha[0] * re - alpha[1] * im;
+            data[i + 1] = alpha[0] * im + alpha[1] * re;
+        }
+        return this;
+    }
+
+    @Override
+    public ComplexVector multAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.multAdd(alpha, x, y);
+
+        checkMultAdd(x, y);
+        scatter(alpha, ((DenseComplexVector) x).getData(), 0, ((DenseComplexVector) y).getData(),
+                0);
+        return y;
+    }
+
+    @Override
+    public ComplexVector transMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.transMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+        gather(false, alpha, ((DenseComplexVector) x).getData(), 0,
+                ((DenseComplexVector) y).getData(), 0);
+        return y;
+    }
+
+    @Override
+    public ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.hermMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+        gather(true, alpha, ((DenseComplexVector) x).getData(), 0,
+                ((DenseComplexVector) y).getData(), 0);
+        return y;
+    }
+
+    @Override
+    public ComplexMatrix multAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!(B instanceof DenseComplexMatrix) || !(C instanceof DenseComplexMatrix))
+            return super.multAdd(alpha, B, C);
+
+        checkMultAdd(B, C);
+
+        double[] Bd = ((DenseComplexMatrix) B).getData();
+        double[] Cd = ((DenseComplexMatrix) C).getData();
+        for (int j = 0; j < C.numColumns(); j++)
+            scatter(alpha, Bd, 2 * j * numColumns, Cd, 2 * j * numRows);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix transAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!(B instanceof DenseComplexMatrix) || !(C instanceof DenseComplexMatrix))
+            return super.transAmultAdd(alpha, B, C);
+
+        checkTransAmultAdd(B, C);
+
+        double[] Bd = ((DenseComplexMatrix) B).getData();
+        double[] Cd = ((DenseComplexMatrix) C).getData();
+        for (int j = 0; j < C.numColumns(); j++)
+            gather(false, alpha, Bd, 2 * j * numRows, Cd, 2 * j * numColumns);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!(B instanceof DenseComplexMatrix) || !(C instanceof DenseComplexMatrix))
+            return super.hermAmultAdd(alpha, B, C);
+
+        checkTransAmultAdd(B, C);
+
+        double[] Bd = ((DenseComplexMatrix) B).getData();
+        double[] Cd = ((DenseComplexMatrix) C).getData();
+        for (int j = 0; j < C.numColumns(); j++)
+            gather(true, alpha, Bd, 2 * j * numRows, Cd, 2 * j * numColumns);
+        return C;
+    }
+
+    /**
+     * <code>y = alpha*A*x + y</code>, column by column of <code>A</code>.
+     * Offsets are in doubles
+     */
+    private void scatter(double[] alpha, double[] x, int xOff, double[] y, int yOff) {
+        for (int j = 0; j < numColumns; j++) {
+            double xr = x[xOff + 2 * j], xi = x[xOff + 2 * j + 1];
+            double tr = alpha[0] * xr - alpha[1] * xi, ti = alpha[0] * xi + alpha[1] * xr;
+            if (tr == 0 && ti == 0)
+                continue;
+            for (int k = columnPointer[j]; k < columnPointer[j + 1]; k++) {
+                double ar = data[2 * k], ai = data[2 * k + 1];
+                int l = yOff + 2 * rowIndex[k];
+                y[l] += ar * tr - ai * ti;
+                y[l + 1] += ar * ti + ai * tr;
+            }
+        }
+    }
+
+    /**
+     * <code>y = alpha*A<sup>T</sup>*x + y</code>, or with
+     * <code>A<sup>H</sup></code> if <code>conj</code> is set, column by column
+     * of <code>A</code>. Offsets are in doubles
+     */
+    private void gather(boolean conj, double[] alpha, double[] x, int xOff, double[] y, int yOff) {
+        double s = conj ? -1 : 1;
+        for (int j = 0; j < numColumns; j++) {
+            double re = 0, im = 0;
+            for (int k = columnPointer[j]; k < columnPointer[j + 1]; k++) {
+                double ar = data[2 * k], ai = s * data[2 * k + 1];
+                int l = xOff + 2 * rowIndex[k];
+                re += ar * x[l] - ai * x[l + 1];
+                im += ar * x[l + 1] + ai * x[l];
+            }
+            y[yOff + 2 * j] += alpha[0] * re - alpha[1] * im;
+            y[yOff + 2 * j + 1] += alpha[0] * im + alpha[1] * re;
+        }
+    }
+
+    public double det2() {
+        return Math.exp(2 * logDet()[0]);
+    }
+
+    /**
+     * Returns <code>A<sup>H</sup></code> in compressed row storage. The
+     * structure is copied, so this costs <code>O(nnz)</code>
+     */
+    @Override
+    public CompRowComplexMatrix hermitianTranspose() {
+        double[] conj = data.clone();
+        for (int i = 1; i < conj.length; i += 2)
+            conj[i] = -conj[i];
+        return new CompRowComplexMatrix(numColumns, numRows, columnPointer.clone(),
+                rowIndex.clone(), conj);
+    }
+
+    /**
+     * Visits the stored entries only, column by column
+     */
+    @Override
+    public Iterator<ComplexMatrixEntry> iterator() {
+        return new CompColIterator();
+    }
+
+    private class CompColIterator implements Iterator<ComplexMatrixEntry> {
+
+        private int column, k;
+
+        private final StoredEntry entry = new StoredEntry();
+
+        public boolean hasNext() {
+            return k < rowIndex.length;
+        }
+
+        public ComplexMatrixEntry next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            while (columnPointer[column + 1] <= k)
+                column++;
+            entry.update(rowIndex[k], column, k);
+            k++;
+            return entry;
+        }
+
+        public void remove() {
+            entry.set(new double[] { 0, 0 });
+        }
+    }
+
+    /**
+     * Matrix entry referring directly to the storage
+     */
+    private class StoredEntry implements ComplexMatrixEntry {
+
+        private int row, column, k;
+
+        void update(int row, int column, int k) {
+            this.row = row;
+            this.column = column;
+            this.k = k;
+        }
+
+        public int row() {
+            return row;
+        }
+
+        public int column() {
+            return column;
+        }
+
+        public double[] get() {
+            return new double[] { data[2 * k], data[2 * k + 1] };
+        }
+
+        public void set(double value[]) {
+            data[2 * k] = value[0];
+            data[2 * k + 1] = value[1];
+        }
+    }
+}
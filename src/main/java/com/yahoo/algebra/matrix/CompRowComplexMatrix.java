@@ -0,0 +1,437 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compressed row storage (CRS) matrix. The sparsity pattern is fixed on
+ * construction; setting an entry outside of it to anything but zero throws
+ * <code>IndexOutOfBoundsException</code>. Values are interleaved as in
+ * {@link DenseComplexVector}, and the iterator only visits stored entries
+ */
+public class CompRowComplexMatrix extends AbstractComplexMatrix {
+
+    /**
+     * Start of every row in <code>columnIndex</code>, with
+     * <code>rowPointer[numRows]</code> the number of stored entries
+     */
+    private final int[] rowPointer;
+
+    /**
+     * Column indices, sorted within every row
+     */
+    private final int[] columnIndex;
+
+    /**
+     * Stored entries
+     */
+    private final double[] data;
+
+    /**
+     * Constructor for CompRowComplexMatrix. The matrix contents will be set to
+     * zero
+     *
+     * @param numRows
+     *            Number of rows
+     * @param numColumns
+     *            Number of columns
+     * @param nz
+     *            Column indices of the stored entries of every row. Copied
+     */
+    public CompRowComplexMatrix(int numRows, int numColumns, int[][] nz) {
+        super(numRows, numColumns);
+        if (nz.length != numRows)
+            throw new IllegalArgumentException("nz.length != numRows (" + nz.length + " != "
+                    + numRows + ")");
+
+        rowPointer = new int[numRows + 1];
+        for (int i = 0; i < numRows; i++)
+            rowPointer[i + 1] = rowPointer[i] + nz[i].length;
+
+        columnIndex = new int[rowPointer[numRows]];
+        for (int i = 0; i < numRows; i++) {
+            System.arraycopy(nz[i], 0, columnIndex, rowPointer[i], nz[i].length);
+            Arrays.sort(columnIndex, rowPointer[i], rowPointer[i + 1]);
+            for (int k = rowPointer[i]; k < rowPointer[i + 1]; k++) {
+                if (columnIndex[k] < 0 || columnIndex[k] >= numColumns)
+                    throw new IndexOutOfBoundsException("column index out of range ("
+                            + columnIndex[k] + ")");
+                if (k > rowPointer[i] && columnIndex[k] == columnIndex[k - 1])
+                    throw new IllegalArgumentException("duplicate column index ("
+                            + columnIndex[k] + ") in row " + i);
+            }
+        }
+
+        data = new double[2 * columnIndex.length];
+    }
+
+    /**
+     * Constructor for CompRowComplexMatrix. Stores the nonzero entries of
+     * <code>A</code>
+     *
+     * @param A
+     *            ComplexMatrix to copy from
+     */
+    public CompRowComplexMatrix(ComplexMatrix A) {
+        this(A.numRows(), A.numColumns(), nonzeros(A, false));
+        for (int i = 0; i < numRows; i++)
+            for (int k = rowPointer[i]; k < rowPointer[i + 1]; k++) {
+                double[] v = A.get(i, columnIndex[k]);
+                data[2 * k] = v[0];
+                data[2 * k + 1] = v[1];
+            }
+    }
+
+    /**
+     * Constructor sharing the given storage
+     */
+    CompRowComplexMatrix(int numRows, int numColumns, int[] rowPointer, int[] columnIndex,
+            double[] data) {
+        super(numRows, numColumns);
+        this.rowPointer = rowPointer;
+        this.columnIndex = columnIndex;
+        this.data = data;
+    }
+
+    /**
+     * Returns the indices of the nonzero entries of <code>A</code>, per row,
+     * or per column if <code>byColumn</code> is set
+     */
+    static int[][] nonzeros(ComplexMatrix A, boolean byColumn) {
+        int[] count = new int[byColumn ? A.numColumns() : A.numRows()];
+        for (ComplexMatrixEntry e : A) {
+            double[] v = e.get();
+            if (v[0] != 0 || v[1] != 0)
+                count[byColumn ? e.column() : e.row()]++;
+        }
+
+        int[][] nz = new int[count.length][];
+        for (int i = 0; i < count.length; i++) {
+            nz[i] = new int[count[i]];
+            count[i] = 0;
+        }
+        for (ComplexMatrixEntry e : A) {
+            double[] v = e.get();
+            if (v[0] != 0 || v[1] != 0) {
+                if (byColumn)
+                    nz[e.column()][count[e.column()]++] = e.row();
+                else
+                    nz[e.row()][count[e.row()]++] = e.column();
+            }
+        }
+        return nz;
+    }
+
+    /**
+     * Returns the row pointers
+     */
+    public int[] getRowPointers() {
+        return rowPointer;
+    }
+
+    /**
+     * Returns the column indices
+     */
+    public int[] getColumnIndices() {
+        return columnIndex;
+    }
+
+    /**
+     * Returns the stored entries
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /**
+     * Returns the position of <code>(row, column)</code> in the storage, or -1
+     * if it is not stored
+     */
+    private int index(int row, int column) {
+        check(row, column);
+        int k = Arrays.binarySearch(columnIndex, rowPointer[row], rowPointer[row + 1], column);
+        return k < 0 ? -1 : k;
+    }
+
+    @Override
+    public double[] get(int row, int column) {
+        int k = index(row, column);
+        if (k < 0)
+            return new double[] { 0, 0 };
+        return new double[] { data[2 * k], data[2 * k + 1] };
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        int k = index(row, column);
+        return k < 0 ? 0 : data[2 * k];
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        int k = index(row, column);
+        return k < 0 ? 0 : data[2 * k + 1];
+    }
+
+    @Override
+    public void set(int row, int column, double value[]) {
+        set(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void set(int row, int column, double re, double im) {
+        int k = stored(row, column, re, im);
+        if (k >= 0) {
+            data[2 * k] = re;
+            data[2 * k + 1] = im;
+        }
+    }
+
+    @Override
+    public void add(int row, int column, double value[]) {
+        add(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void add(int row, int column, double re, double im) {
+        int k = stored(row, column, re, im);
+        if (k >= 0) {
+            data[2 * k] += re;
+            data[2 * k + 1] += im;
+        }
+    }
+
+    /**
+     * Returns the position of entry <code>(row, column)</code> in the data
+     * arrays, or -1 if it is not stored and the value written is zero
+     */
+    private int stored(int row, int column, double re, double im) {
+        int k = index(row, column);
+        if (k < 0 && (re != 0 || im != 0))
+            throw new IndexOutOfBoundsException("Entry (" + row + ", " + column
+                    + ") is not in the matrix structure");
+        return k;
+    }
+
+    @Override
+    public CompRowComplexMatrix copy() {
+        return new CompRowComplexMatrix(numRows, numColumns, rowPointer.clone(),
+                columnIndex.clone(), data.clone());
+    }
+
+    @Override
+    public ComplexMatrix zero() {
+        Arrays.fill(data, 0);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix scale(double alpha[]) {
+        for (int i = 0; i < data.length; i += 2) {
+            double re = data[i], im = data[i + 1];
+            data[i] = alpha[0] * re - alpha[1] * im;
+            data[i + 1] = alpha[0] * im + alpha[1] * re;
+        }
+        return this;
+    }
+
+    @Override
+    public ComplexVector multAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.multAdd(alpha, x, y);
+
+        checkMultAdd(x, y);
+
+        double[] xd = ((DenseComplexVector) x).getData();
+        double[] yd = ((DenseComplexVector) y).getData();
+        for (int i = 0; i < numRows; i++) {
+            double re = 0, im = 0;
+            for (int k = rowPointer[i]; k < rowPointer[i + 1]; k++) {
+                int j = 2 * columnIndex[k];
+                re += data[2 * k] * xd[j] - data[2 * k + 1] * xd[j + 1];
+                im += data[2 * k] * xd[j + 1] + data[2 * k + 1] * xd[j];
+            }
+            yd[2 * i] += alpha[0] * re - alpha[1] * im;
+            yd[2 * i + 1] += alpha[0] * im + alpha[1] * re;
+        }
+        return y;
+    }
+
+    @Override
+    public ComplexVector transMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.transMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+        scatter(false, alpha, ((DenseComplexVector) x).getData(), 0,
+                ((DenseComplexVector) y).getData(), 0);
+        return y;
+    }
+
+    @Override
+    public ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.hermMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+        scatter(true, alpha, ((DenseComplexVector) x).getData(), 0,
+                ((DenseComplexVector) y).getData(), 0);
+        return y;
+    }
+
+    @Override
+    public ComplexMatrix multAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!(B instanceof DenseComplexMatrix) || !(C instanceof DenseComplexMatrix))
+            return super.multAdd(alpha, B, C);
+
+        checkMultAdd(B, C);
+
+        double[] Bd = ((DenseComplexMatrix) B).getData();
+        double[] Cd = ((DenseComplexMatrix) C).getData();
+        for (int j = 0; j < C.numColumns(); j++) {
+            int bOff = 2 * j * numColumns, cOff = 2 * j * numRows;
+            for (int i = 0; i < numRows; i++) {
+                double re = 0, im = 0;
+                for (int k = rowPointer[i]; k < rowPointer[i + 1]; k++) {
+                    int l = bOff + 2 * columnIndex[k];
+                    re += data[2 * k] * Bd[l] - data[2 * k + 1] * Bd[l + 1];
+                    im += data[2 * k] * Bd[l + 1] + data[2 * k + 1] * Bd[l];
+                }
+                Cd[cOff + 2 * i] += alpha[0] * re - alpha[1] * im;
+                Cd[cOff + 2 * i + 1] += alpha[0] * im + alpha[1] * re;
+            }
+        }
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix transAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!(B instanceof DenseComplexMatrix) || !(C instanceof DenseComplexMatrix))
+            return super.transAmultAdd(alpha, B, C);
+
+        checkTransAmultAdd(B, C);
+
+        double[] Bd = ((DenseComplexMatrix) B).getData();
+        double[] Cd = ((DenseComplexMatrix) C).getData();
+        for (int j = 0; j < C.numColumns(); j++)
+            scatter(false, alpha, Bd, 2 * j * numRows, Cd, 2 * j * numColumns);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!(B instanceof DenseComplexMatrix) || !(C instanceof DenseComplexMatrix))
+            return super.hermAmultAdd(alpha, B, C);
+
+        checkTransAmultAdd(B, C);
+
+        double[] Bd = ((DenseComplexMatrix) B).getData();
+        double[] Cd = ((DenseComplexMatrix) C).getData();
+        for (int j = 0; j < C.numColumns(); j++)
+            scatter(true, alpha, Bd, 2 * j * numRows, Cd, 2 * j * numColumns);
+        return C;
+    }
+
+    /**
+     * <code>y = alpha*A<sup>T</sup>*x + y</code>, or with
+     * <code>A<sup>H</sup></code> if <code>conj</code> is set, row by row of
+     * <code>A</code>. Offsets are in doubles
+     */
+    private void scatter(boolean conj, double[] alpha, double[] x, int xOff, double[] y, int yOff) {
+        double s = conj ? -1 : 1;
+        for (int i = 0; i < numRows; i++) {
+            double xr = x[xOff + 2 * i], xi = x[xOff + 2 * i + 1];
+            double tr = alpha[0] * xr - alpha[1] * xi, ti = alpha[0] * xi + alpha[1] * xr;
+            if (tr == 0 && ti == 0)
+                continue;
+            for (int k = rowPointer[i]; k < rowPointer[i + 1]; k++) {
+                double ar = data[2 * k], ai = s * data[2 * k + 1];
+                int l = yOff + 2 * columnIndex[k];
+                y[l] += ar * tr - ai * ti;
+                y[l + 1] += ar * ti + ai * tr;
+            }
+        }
+    }
+
+    public double det2() {
+        return Math.exp(2 * logDet()[0]);
+    }
+
+    /**
+     * Returns <code>A<sup>H</sup></code> in compressed column storage. The
+     * structure is copied, so this costs <code>O(nnz)</code>
+     */
+    @Override
+    public CompColComplexMatrix hermitianTranspose() {
+        double[] conj = data.clone();
+        for (int i = 1; i < conj.length; i += 2)
+            conj[i] = -conj[i];
+        return new CompColComplexMatrix(numColumns, numRows, rowPointer.clone(),
+                columnIndex.clone(), conj);
+    }
+
+    /**
+     * Visits the stored entries only, row by row
+     */
+    @Override
+    public Iterator<ComplexMatrixEntry> iterator() {
+        return new CompRowIterator();
+    }
+
+    private class CompRowIterator implements Iterator<ComplexMatrixEntry> {
+
+        private int row, k;
+
+        private final StoredEntry entry = new StoredEntry();
+
+        public boolean hasNext() {
+            return k < columnIndex.length;
+        }
+
+        public ComplexMatrixEntry next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            while (rowPointer[row + 1] <= k)
+                row++;
+            entry.update(row, columnIndex[k], k);
+            k++;
+            return entry;
+        }
+
+        public void remove() {
+            entry.set(new double[] { 0, 0 });
+        }
+    }
+
+    /**
+     * Matrix entry referring directly to the storage
+     */
+    private class StoredEntry implements ComplexMatrixEntry {
+
+        private int row, column, k;
+
+        void update(int row, int column, int k) {
+            this.row = row;
+            this.column = column;
+            this.k = k;
+        }
+
+        public int row() {
+            return row;
+        }
+
+        public int column() {
+            return column;
+        }
+
+        public double[] get() {
+            return new double[] { data[2 * k], data[2 * k + 1] };
+        }
+
+        public void set(double value[]) {
+            data[2 * k] = value[0];
+            data[2 * k + 1] = value[1];
+        }
+    }
+}
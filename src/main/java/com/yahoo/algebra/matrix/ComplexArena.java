@@ -0,0 +1,86 @@
+package com.yahoo.algebra.matrix;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owner of off-heap matrices and vectors. Their memory lies outside the Java
+ * heap, so large working sets add nothing to garbage collection scans:
+ *
+ * <pre>
+ * try (ComplexArena arena = new ComplexArena()) {
+ *     OffHeapComplexMatrix H = arena.matrix(m, n);
+ *     ...
+ * }
+ * </pre>
+ *
+ * Matrices and vectors of a closed arena throw
+ * <code>IllegalStateException</code> on access. Closing does not free the
+ * memory itself, which the garbage collector reclaims once nothing refers to
+ * it, so buffers obtained before the close and accesses racing with it never
+ * touch freed memory
+ */
+public class ComplexArena implements Closeable {
+
+    private final List<OffHeapStorage> storage = new ArrayList<OffHeapStorage>();
+
+    private boolean closed;
+
+    /**
+     * Allocates a zero <code>numRows</code> by <code>numColumns</code> matrix
+     */
+    public synchronized OffHeapComplexMatrix matrix(int numRows, int numColumns) {
+        return new OffHeapComplexMatrix(allocate(2 * numRows * numColumns), numRows, numColumns);
+    }
+
+    /**
+     * Allocates an off-heap copy of <code>A</code>
+     */
+    public OffHeapComplexMatrix copyOf(ComplexMatrix A) {
+        OffHeapComplexMatrix B = matrix(A.numRows(), A.numColumns());
+        B.set(A);
+        return B;
+    }
+
+    /**
+     * Allocates a zero vector of the given size
+     */
+    public synchronized OffHeapComplexVector vector(int size) {
+        return new OffHeapComplexVector(allocate(2 * size), size);
+    }
+
+    /**
+     * Allocates an off-heap copy of <code>x</code>
+     */
+    public OffHeapComplexVector copyOf(ComplexVector x) {
+        OffHeapComplexVector y = vector(x.size());
+        y.set(x);
+        return y;
+    }
+
+    public synchronized boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Detaches every matrix and vector allocated by this arena. Closing twice
+     * has no effect
+     */
+    public synchronized void close() {
+        if (closed)
+            return;
+        closed = true;
+        for (OffHeapStorage s : storage)
+            s.release();
+        storage.clear();
+    }
+
+    private OffHeapStorage allocate(int length) {
+        if (closed)
+            throw new IllegalStateException("Arena is closed");
+        OffHeapStorage s = new OffHeapStorage(length);
+        storage.add(s);
+        return s;
+    }
+}
@@ -0,0 +1,232 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ForkJoinPool;
+
+import com.yahoo.algebra.matrix.ComplexBlasProvider.Operation;
+
+/**
+ * Dispatches dense complex operations to a {@link ComplexBlasProvider}. For
+ * every operation, matrices whose largest dimension is below a threshold go to
+ * the <em>small</em> provider, and all others go to the <em>large</em> one.
+ * <p>
+ * The defaults are read from system properties at startup:
+ * <ul>
+ * <li><code>com.yahoo.algebra.blas.small</code> (default <code>java</code>)</li>
+ * <li><code>com.yahoo.algebra.blas.large</code> (default <code>jblas</code>, but
+ * <code>java</code> for <code>GESV</code> and <code>GETRI</code>, since the
+ * native providers only solve on the real embedding, at twice the flops)</li>
+ * <li><code>com.yahoo.algebra.blas.threshold</code> (default <code>32</code>)</li>
+ * </ul>
+ * Each may be overridden for a single operation by inserting its lowercase
+ * name, e.g. <code>com.yahoo.algebra.blas.getri.large=netlib</code>. If the
+ * requested provider is missing, unavailable, or does not support the
+ * operation, the first registered provider that does is used instead.
+ * <p>
+ * The pure Java provider and {@link DenseComplexLU} split products and LU
+ * factorizations across a fork-join pool once the largest dimension reaches a
+ * second threshold, set by {@link #setParallelism(ForkJoinPool, int)} or at
+ * startup by
+ * <ul>
+ * <li><code>com.yahoo.algebra.blas.parallel.threshold</code> (default
+ * <code>64</code>; a very large value keeps everything sequential)</li>
+ * <li><code>com.yahoo.algebra.blas.parallel.threads</code> (default: the
+ * common pool)</li>
+ * </ul>
+ */
+public final class ComplexBlas {
+
+    public static final String PROPERTY_PREFIX = "com.yahoo.algebra.blas";
+
+    private static final List<ComplexBlasProvider> providers = loadProviders();
+
+    private static volatile ForkJoinPool pool = defaultPool();
+
+    private static volatile int parallelThreshold = Integer.parseInt(System.getProperty(
+            PROPERTY_PREFIX + ".parallel.threshold", "64"));
+
+    private static final Map<Operation, Policy> policies = new EnumMap<Operation, Policy>(
+            Operation.class);
+
+    static {
+        for (Operation op : Operation.values()) {
+            String name = op.name().toLowerCase();
+            String small = property(name, "small", "java");
+            String large = property(name, "large", defaultLarge(op));
+            int threshold = Integer.parseInt(property(name, "threshold", "32"));
+            configure(op, small, threshold, large);
+        }
+    }
+
+    private ComplexBlas() {
+    }
+
+    /**
+     * Sets the providers used for an operation
+     * 
+     * @param op
+     *            Operation to configure
+     * @param small
+     *            Name of the provider for matrices whose largest dimension is
+     *            less than <code>threshold</code>
+     * @param threshold
+     *            Size at which to switch providers
+     * @param large
+     *            Name of the provider for all other matrices
+     */
+    public static synchronized void configure(Operation op, String small, int threshold,
+            String large) {
+        policies.put(op, new Policy(resolve(op, small), threshold, resolve(op, large)));
+    }
+
+    /**
+     * Sets the pool for parallel products and factorizations, and the
+     * largest dimension from which they are used
+     */
+    public static void setParallelism(ForkJoinPool pool, int threshold) {
+        if (pool == null)
+            throw new IllegalArgumentException("pool is null");
+        ComplexBlas.pool = pool;
+        ComplexBlas.parallelThreshold = threshold;
+    }
+
+    /**
+     * Pool for parallel products and factorizations
+     */
+    public static ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Largest dimension from which products and factorizations run in
+     * parallel
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Pool to use for an operation whose largest dimension is
+     * <code>size</code>, or null if it should run sequentially
+     */
+    static ForkJoinPool parallelPool(int size) {
+        ForkJoinPool p = pool;
+        return size >= parallelThreshold && p.getParallelism() > 1 ? p : null;
+    }
+
+    /**
+     * Registered providers, in lookup order
+     */
+    public static List<ComplexBlasProvider> getProviders() {
+        return Collections.unmodifiableList(providers);
+    }
+
+    /**
+     * Provider used for the given operation on matrices of the given size
+     * 
+     * @throws UnsupportedOperationException
+     *             If no available provider supports the operation
+     */
+    public static ComplexBlasProvider getProvider(Operation op, int size) {
+        Policy policy = policies.get(op);
+        ComplexBlasProvider provider = size < policy.threshold ? policy.small : policy.large;
+        if (provider == null)
+            throw new UnsupportedOperationException("No available provider for " + op);
+        return provider;
+    }
+
+    /**
+     * <code>C = alpha*op(A)*op(B) + C</code>
+     * 
+     * @see ComplexBlasProvider#gemm
+     */
+    public static void gemm(Transpose transA, Transpose transB, int m, int n, int k,
+            double[] alpha, double[] a, int aOff, int lda, double[] b, int bOff, int ldb,
+            double[] c, int cOff, int ldc) {
+        getProvider(Operation.GEMM, Math.max(m, Math.max(n, k))).gemm(transA, transB, m, n, k,
+                alpha, a, aOff, lda, b, bOff, ldb, c, cOff, ldc);
+    }
+
+    /**
+     * @see ComplexBlasProvider#gesv
+     */
+    public static int gesv(int n, int nrhs, double[] a, double[] b) {
+        return getProvider(Operation.GESV, n).gesv(n, nrhs, a, b);
+    }
+
+    /**
+     * @see ComplexBlasProvider#getri
+     */
+    public static int getri(int n, double[] a) {
+        return getProvider(Operation.GETRI, n).getri(n, a);
+    }
+
+    /**
+     * @see ComplexBlasProvider#geev
+     */
+    public static int geev(int n, double[] a, double[] w, double[] vr) {
+        return getProvider(Operation.GEEV, n).geev(n, a, w, vr);
+    }
+
+    private static ComplexBlasProvider resolve(Operation op, String name) {
+        for (ComplexBlasProvider p : providers)
+            if (p.getName().equals(name) && p.supports(op) && p.isAvailable())
+                return p;
+        for (ComplexBlasProvider p : providers)
+            if (p.supports(op) && p.isAvailable())
+                return p;
+        return null;
+    }
+
+    private static String defaultLarge(Operation op) {
+        return op == Operation.GESV || op == Operation.GETRI ? "java" : "jblas";
+    }
+
+    private static ForkJoinPool defaultPool() {
+        int threads = Integer.parseInt(System.getProperty(PROPERTY_PREFIX + ".parallel.threads",
+                "0"));
+        return threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+    }
+
+    private static String property(String op, String key, String def) {
+        return System.getProperty(PROPERTY_PREFIX + "." + op + "." + key,
+                System.getProperty(PROPERTY_PREFIX + "." + key, def));
+    }
+
+    private static List<ComplexBlasProvider> loadProviders() {
+        List<ComplexBlasProvider> list = new ArrayList<ComplexBlasProvider>();
+        Iterator<ComplexBlasProvider> it = ServiceLoader.load(ComplexBlasProvider.class,
+                ComplexBlas.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!it.hasNext())
+                    break;
+                list.add(it.next());
+            } catch (ServiceConfigurationError e) {
+                // Skip providers that cannot be instantiated
+            }
+        }
+        if (list.isEmpty())
+            list.add(new JavaComplexBlasProvider());
+        return list;
+    }
+
+    private static final class Policy {
+        final ComplexBlasProvider small;
+        final int threshold;
+        final ComplexBlasProvider large;
+
+        Policy(ComplexBlasProvider small, int threshold, ComplexBlasProvider large) {
+            this.small = small;
+            this.threshold = threshold;
+            this.large = large;
+        }
+    }
+}
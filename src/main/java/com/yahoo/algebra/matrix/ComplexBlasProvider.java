@@ -0,0 +1,77 @@
+package com.yahoo.algebra.matrix;
+
+/**
+ * Backend for dense complex BLAS/LAPACK operations. Matrices are passed as
+ * interleaved column-major arrays (see {@link DenseComplexKernels}); offsets and
+ * leading dimensions are counted in complex entries. Implementations are
+ * discovered with {@link java.util.ServiceLoader} and selected per operation by
+ * {@link ComplexBlas}
+ */
+public interface ComplexBlasProvider {
+
+    /**
+     * Operations a provider may implement
+     */
+    enum Operation {
+        /** Matrix-matrix multiplication */
+        GEMM,
+        /** Solution of a general linear system */
+        GESV,
+        /** Inverse of a general matrix */
+        GETRI,
+        /** Eigenvalues and right eigenvectors of a general matrix */
+        GEEV
+    }
+
+    /**
+     * Name used to select this provider, e.g. <code>"java"</code>
+     */
+    String getName();
+
+    /**
+     * Returns true if the provider can be used in this JVM, e.g. if its native
+     * libraries could be loaded
+     */
+    boolean isAvailable();
+
+    /**
+     * Returns true if the provider implements the given operation
+     */
+    boolean supports(Operation op);
+
+    /**
+     * <code>C = alpha*op(A)*op(B) + C</code>, where <code>op(A)</code> is
+     * <code>m</code> by <code>k</code> and <code>op(B)</code> is <code>k</code>
+     * by <code>n</code>
+     */
+    void gemm(Transpose transA, Transpose transB, int m, int n, int k, double[] alpha, double[] a,
+            int aOff, int lda, double[] b, int bOff, int ldb, double[] c, int cOff, int ldc);
+
+    /**
+     * Solves <code>A*X = B</code> for the <code>n</code> by <code>n</code>
+     * matrix <code>A</code> and the <code>n</code> by <code>nrhs</code> matrix
+     * <code>B</code>, which is overwritten by <code>X</code>. <code>A</code>
+     * may be overwritten
+     * 
+     * @return 0 on success, positive if <code>A</code> is singular
+     */
+    int gesv(int n, int nrhs, double[] a, double[] b);
+
+    /**
+     * Overwrites the <code>n</code> by <code>n</code> matrix <code>A</code> by
+     * its inverse
+     * 
+     * @return 0 on success, positive if <code>A</code> is singular
+     */
+    int getri(int n, double[] a);
+
+    /**
+     * Eigenvalues <code>w</code> (length <code>n</code>) and right
+     * eigenvectors <code>vr</code> (<code>n</code> by <code>n</code>) of the
+     * <code>n</code> by <code>n</code> matrix <code>A</code>, which is
+     * overwritten
+     * 
+     * @return 0 on success, positive if the QR algorithm failed to converge
+     */
+    int geev(int n, double[] a, double[] w, double[] vr);
+}
@@ -0,0 +1,127 @@
+package com.yahoo.algebra.matrix;
+
+/**
+ * Level 1 kernels on contiguous interleaved complex storage, the building
+ * blocks of the dense vector operations and of the innermost loops of
+ * {@link DenseComplexKernels}. Offsets are counted in complex entries.
+ * <p>
+ * This class holds the scalar implementation. At startup a subclass using the
+ * JDK Vector API is loaded instead if it was compiled (JDK 17 and later) and
+ * the <code>jdk.incubator.vector</code> module is present at run time. Setting
+ * the system property <code>com.yahoo.algebra.simd</code> to
+ * <code>false</code> keeps the scalar code
+ */
+class ComplexKernels {
+
+    public static final String PROPERTY = "com.yahoo.algebra.simd";
+
+    private static final String VECTOR_API_KERNELS =
+            "com.yahoo.algebra.matrix.VectorApiComplexKernels";
+
+    private static final ComplexKernels instance = load();
+
+    ComplexKernels() {
+    }
+
+    /**
+     * Kernels selected for this JVM
+     */
+    static ComplexKernels get() {
+        return instance;
+    }
+
+    /**
+     * Returns true if the kernels use the Vector API
+     */
+    boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * <code>y = alpha*x + y</code>
+     */
+    void axpy(int n, double alphaRe, double alphaIm, double[] x, int xOff, double[] y, int yOff) {
+        for (int i = 2 * xOff, j = 2 * yOff, end = 2 * (xOff + n); i < end; i += 2, j += 2) {
+            double xr = x[i], xi = x[i + 1];
+            y[j] += alphaRe * xr - alphaIm * xi;
+            y[j + 1] += alphaRe * xi + alphaIm * xr;
+        }
+    }
+
+    /**
+     * <code>y0 = beta0*x + y0</code> and <code>y1 = beta1*x + y1</code> in one
+     * pass over <code>x</code>, the inner loop of a matrix product
+     */
+    void axpy2(int n, double beta0Re, double beta0Im, double beta1Re, double beta1Im, double[] x,
+            int xOff, double[] y, int y0Off, int y1Off) {
+        int j0 = 2 * y0Off, j1 = 2 * y1Off;
+        for (int i = 2 * xOff, end = 2 * (xOff + n); i < end; i += 2, j0 += 2, j1 += 2) {
+            double xr = x[i], xi = x[i + 1];
+            y[j0] += xr * beta0Re - xi * beta0Im;
+            y[j0 + 1] += xr * beta0Im + xi * beta0Re;
+            y[j1] += xr * beta1Re - xi * beta1Im;
+            y[j1 + 1] += xr * beta1Im + xi * beta1Re;
+        }
+    }
+
+    /**
+     * <code>z = alpha*x<sup>H</sup>*y + z</code> if <code>conj</code> is set,
+     * otherwise <code>z = alpha*x<sup>T</sup>*y + z</code>, for the single
+     * entry <code>z</code> at <code>zOff</code>
+     */
+    void dot(boolean conj, int n, double alphaRe, double alphaIm, double[] x, int xOff,
+            double[] y, int yOff, double[] z, int zOff) {
+        double s = conj ? -1 : 1;
+        double re = 0, im = 0;
+        for (int i = 2 * xOff, j = 2 * yOff, end = 2 * (xOff + n); i < end; i += 2, j += 2) {
+            double xr = x[i], xi = s * x[i + 1], yr = y[j], yi = y[j + 1];
+            re += xr * yr - xi * yi;
+            im += xr * yi + xi * yr;
+        }
+        z[2 * zOff] += alphaRe * re - alphaIm * im;
+        z[2 * zOff + 1] += alphaRe * im + alphaIm * re;
+    }
+
+    /**
+     * Returns <code>x<sup>H</sup>*y</code> if <code>conj</code> is set,
+     * otherwise <code>x<sup>T</sup>*y</code>
+     */
+    final double[] dot(boolean conj, int n, double[] x, int xOff, double[] y, int yOff) {
+        double[] dot = new double[] { 0, 0 };
+        dot(conj, n, 1, 0, x, xOff, y, yOff, dot, 0);
+        return dot;
+    }
+
+    /**
+     * <code>x = alpha*x</code>
+     */
+    void scale(int n, double alphaRe, double alphaIm, double[] x, int xOff) {
+        for (int i = 2 * xOff, end = 2 * (xOff + n); i < end; i += 2) {
+            double xr = x[i], xi = x[i + 1];
+            x[i] = alphaRe * xr - alphaIm * xi;
+            x[i + 1] = alphaRe * xi + alphaIm * xr;
+        }
+    }
+
+    /**
+     * Returns the sum of the squared moduli, the square of the 2 norm
+     */
+    double sumSquares(int n, double[] x, int xOff) {
+        double s = 0;
+        for (int i = 2 * xOff, end = 2 * (xOff + n); i < end; ++i)
+            s += x[i] * x[i];
+        return s;
+    }
+
+    private static ComplexKernels load() {
+        if (!Boolean.parseBoolean(System.getProperty(PROPERTY, "true")))
+            return new ComplexKernels();
+        try {
+            return Class.forName(VECTOR_API_KERNELS).asSubclass(ComplexKernels.class)
+                    .getDeclaredConstructor().newInstance();
+        } catch (Throwable e) {
+            // Not compiled, older class file version, or module not present
+            return new ComplexKernels();
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.yahoo.algebra.matrix;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import no.uib.cipr.matrix.DenseMatrix;
 import no.uib.cipr.matrix.EVD;
 import no.uib.cipr.matrix.Matrix;
 import no.uib.cipr.matrix.NotConvergedException;
 
-import org.jblas.NativeBlas;
 import org.uncommons.maths.random.GaussianGenerator;
 import org.uncommons.maths.random.MersenneTwisterRNG;
 
@@ -41,6 +43,27 @@ public final class ComplexMatrices {
         return Math.max(1, Math.max(m, n));
     }
 
+    /**
+     * Returns the modification count followed by <code>values</code>, to be
+     * passed to {@link #recall(double[], long)} later
+     */
+    static double[] memoize(long modCount, double... values) {
+        double[] memo = new double[values.length + 1];
+        memo[0] = modCount;
+        System.arraycopy(values, 0, memo, 1, values.length);
+        return memo;
+    }
+
+    /**
+     * Returns the values memoized by {@link #memoize(long, double...)} if the
+     * matrix has not been modified since, otherwise null
+     */
+    static double[] recall(double[] memo, long modCount) {
+        if (memo == null || memo[0] != modCount)
+            return null;
+        return Arrays.copyOfRange(memo, 1, memo.length);
+    }
+
     /**
      * Returns the number of non-zero entries in the given vector
      */
@@ -68,13 +91,23 @@ public final class ComplexMatrices {
      */
     public static DenseComplexMatrix eye(int size) {
         DenseComplexMatrix e = new DenseComplexMatrix(size, size);
-        e.zero();
-        for (int i = 0; i < size; i++) {
-            e.set(i, i, new double[] { 1, 0 });
-        }
+        eye(e);
         return e;
     }
 
+    /**
+     * Sets the square matrix <code>A</code> to I
+     * 
+     * @return A
+     */
+    public static ComplexMatrix eye(ComplexMatrix A) {
+        checkSquare(A);
+        A.zero();
+        for (int i = 0; i < A.numRows(); i++)
+            A.set(i, i, 1, 0);
+        return A;
+    }
+
     /**
      * Generate a random complex matrix
      */
@@ -93,11 +126,14 @@ public final class ComplexMatrices {
      * @throws ComplexMatrixNotSPDException
      */
     static public double getPower(ComplexMatrix A) throws ComplexMatrixNotSPDException {
-        ComplexMatrix B = A.hermitianTranspose(new DenseComplexMatrix(A.numColumns(), A.numRows()));
-
-        ComplexMatrix C = B.mult(A, new DenseComplexMatrix(B.numRows(), A.numColumns()));
-
-        return C.trace()[0];
+        // tr(A^H*A), summed entrywise without forming the product
+        double power = 0;
+        for (int j = 0; j < A.numColumns(); j++)
+            for (int i = 0; i < A.numRows(); i++) {
+                double re = A.getRe(i, j), im = A.getIm(i, j);
+                power += re * re + im * im;
+            }
+        return power;
     }
 
     /**
@@ -111,7 +147,7 @@ public final class ComplexMatrices {
         double[] alpha = new double[] { Math.sqrt(power / oldPower), 0 };
         for (int i = 0; i < A.numRows(); i++) {
             for (int j = 0; j < A.numColumns(); j++) {
-                A.set(i, j, Complexes.mult(A.get(i, j), alpha));
+                A.set(i, j, A.getRe(i, j) * alpha[0], A.getIm(i, j) * alpha[0]);
             }
         }
         return A;
@@ -168,21 +204,11 @@ public final class ComplexMatrices {
             lambda.set(0, A.get(0, 0));
             return;
         }
-        double[] data = new double[A.numRows() * A.numColumns() * 2];
-        for (int i = 0; i < A.numRows(); i++) {
-            for (int j = 0; j < A.numColumns(); j++) {
-                int offset = (j * V.numColumns() + i) * 2;
-                data[offset] = A.get(i, j)[0];
-                data[offset + 1] = A.get(i, j)[1];
-            }
-        }
-        double[] w = new double[A.numRows() * 2];
-        double[] vl = new double[data.length];
+        int n = A.numRows();
+        double[] data = new DenseComplexMatrix(A).getData();
+        double[] w = new double[n * 2];
         double[] vr = new double[data.length];
-        double[] work = new double[data.length];
-        int row = A.numRows();
-        int info = NativeBlas.zgeev('N', 'V', row, data, 0, row, w, 0, vl, 0, row, vr, 0, row,
-                work, 0);
+        int info = ComplexBlas.geev(n, data, w, vr);
         if (info > 0)
             throw new ComplexMatrixNotSPDException("Eigenvalues have not converged.");
         for (int i = 0; i < lambda.size(); i++) {
@@ -190,17 +216,262 @@ public final class ComplexMatrices {
         }
         for (int i = 0; i < V.numRows(); i++) {
             for (int j = 0; j < V.numColumns(); j++) {
-                int offset = (j * V.numColumns() + i) * 2;
+                int offset = (j * n + i) * 2;
                 V.set(i, j, new double[] { vr[offset], vr[offset + 1] });
             }
         }
     }
 
+    /**
+     * Eigenvalues of the Hermitian matrix <code>A</code>, in ascending order
+     * 
+     * @param A
+     *            Hermitian matrix. Not modified
+     * @throws NotConvergedException
+     */
+    public static double[] eigh(ComplexMatrix A) throws NotConvergedException {
+        checkSquare(A);
+        int n = A.numRows();
+        double[] w = new double[n];
+        if (DenseComplexKernels.heev(n, new DenseComplexMatrix(A).getData(), 0, n, w, null, 0,
+                n) != 0)
+            throw new NotConvergedException(NotConvergedException.Reason.Iterations);
+        return w;
+    }
+
+    /**
+     * <code>A=V*diag(lambda)*V<sup>H</sup></code> for a Hermitian matrix
+     * <code>A</code>
+     * 
+     * @param A
+     *            Hermitian matrix. Not modified
+     * @param V
+     *            orthonormal eigenvectors, as columns
+     * @return eigenvalues, in ascending order
+     * @throws NotConvergedException
+     */
+    public static double[] eigh(ComplexMatrix A, ComplexMatrix V) throws NotConvergedException {
+        return eigh(A, 0, A.numRows() - 1, V);
+    }
+
+    /**
+     * Eigenvalues <code>il</code> to <code>iu</code> (zero-based, inclusive,
+     * in ascending order) of the Hermitian matrix <code>A</code>, and their
+     * eigenvectors
+     * 
+     * @param A
+     *            Hermitian matrix. Not modified
+     * @param il
+     *            index of the smallest eigenvalue to return
+     * @param iu
+     *            index of the largest eigenvalue to return
+     * @param V
+     *            matrix of <code>iu-il+1</code> columns that receives the
+     *            eigenvectors
+     * @return eigenvalues <code>il</code> to <code>iu</code>
+     * @throws NotConvergedException
+     */
+    public static double[] eigh(ComplexMatrix A, int il, int iu, ComplexMatrix V)
+            throws NotConvergedException {
+        checkSquare(A);
+        int n = A.numRows();
+        if (il < 0 || iu >= n || il > iu + 1)
+            throw new IndexOutOfBoundsException("Eigenvalue range [" + il + ", " + iu
+                    + "] outside [0, " + (n - 1) + "]");
+        if (V.numRows() != n || V.numColumns() != iu - il + 1)
+            throw new IndexOutOfBoundsException("V must be " + n + "x" + (iu - il + 1));
+
+        double[] w = new double[n];
+        DenseComplexMatrix Z = new DenseComplexMatrix(n, n);
+        if (DenseComplexKernels.heev(n, new DenseComplexMatrix(A).getData(), 0, n, w,
+                Z.getData(), 0, n) != 0)
+            throw new NotConvergedException(NotConvergedException.Reason.Iterations);
+
+        if (il == 0 && iu == n - 1 && V instanceof DenseComplexMatrix) {
+            V.set(Z);
+            return w;
+        }
+        double[] lambda = new double[iu - il + 1];
+        for (int j = il; j <= iu; j++) {
+            lambda[j - il] = w[j];
+            for (int i = 0; i < n; i++)
+                V.set(i, j - il, Z.get(i, j));
+        }
+        return lambda;
+    }
+
+    /**
+     * Number of Lanczos steps taken by {@link #lambdaMax}
+     */
+    private static final int LANCZOS_STEPS = 32;
+
+    /**
+     * Largest eigenvalue of the Hermitian matrix <code>A</code> by the Lanczos
+     * method with full reorthogonalization, taking at most 32 matrix-vector
+     * products. Results for {@link HermitianComplexMatrix} are memoized until
+     * its contents change. Other types are not memoized, since their storage
+     * can be written through views, shallow copies or <code>getData()</code>
+     *
+     * @param A
+     *            Hermitian matrix. Not modified
+     * @param upperBound
+     *            If true, the result is never below the largest eigenvalue. It
+     *            is tight when the Krylov space spans all of <code>A</code>,
+     *            otherwise it falls back to <code>min(|A|_F, |A|_inf)</code>.
+     *            If false, the Ritz value is returned, which never exceeds
+     *            the largest eigenvalue
+     * @throws NotConvergedException
+     */
+    public static double lambdaMax(ComplexMatrix A, boolean upperBound)
+            throws NotConvergedException {
+        checkSquare(A);
+        double[] bounds = null;
+        if (A instanceof HermitianComplexMatrix)
+            bounds = ((HermitianComplexMatrix) A).getLambdaMax();
+        if (bounds == null) {
+            bounds = lanczos(A);
+            if (A instanceof HermitianComplexMatrix)
+                ((HermitianComplexMatrix) A).setLambdaMax(bounds[0], bounds[1]);
+        }
+        return upperBound ? bounds[1] : bounds[0];
+    }
+
+    /**
+     * Returns the Ritz estimate and an upper bound of the largest eigenvalue
+     */
+    private static double[] lanczos(ComplexMatrix A) throws NotConvergedException {
+        int n = A.numRows();
+        if (n == 0)
+            return new double[] { 0, 0 };
+
+        // Dense contents are read in place, without going through getData()
+        double[] a = A instanceof AbstractDenseComplexMatrix ? ((AbstractDenseComplexMatrix) A).data
+                : null;
+
+        // Both are bounds on the spectral radius of a Hermitian matrix. The
+        // column sums equal the row sums of the Hermitian transpose
+        double frobenius = 0, colSum = 0;
+        for (int j = 0; j < n; j++) {
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                double abs = a != null ? Math.hypot(a[2 * (i + j * n)], a[2 * (i + j * n) + 1])
+                        : Math.hypot(A.getRe(i, j), A.getIm(i, j));
+                frobenius += abs * abs;
+                sum += abs;
+            }
+            colSum = Math.max(colSum, sum);
+        }
+        double norm = Math.min(Math.sqrt(frobenius), colSum);
+        if (norm == 0)
+            return new double[] { 0, 0 };
+
+        int m = Math.min(n, LANCZOS_STEPS);
+        double[][] Q = new double[m][];
+        double[] alpha = new double[m], beta = new double[m];
+
+        // Fixed seed, so that repeated calls give identical results
+        Random random = new Random(n);
+        DenseComplexVector q = new DenseComplexVector(n);
+        double[] qd = q.getData();
+        for (int i = 0; i < qd.length; i++)
+            qd[i] = random.nextGaussian();
+        scale(qd, 1 / norm2(qd));
+
+        DenseComplexVector w = new DenseComplexVector(n);
+        double[] wd = w.getData();
+        int k = 0;
+        boolean exhausted = false;
+        while (k < m) {
+            Q[k] = qd.clone();
+            if (a != null) {
+                w.zero();
+                DenseComplexKernels.gemm(Transpose.NoTranspose, Transpose.NoTranspose, n, 1, n, 1,
+                        0, a, 0, n, qd, 0, n, wd, 0, n);
+            } else
+                A.mult(q, w);
+            alpha[k] = w.dot(q)[0];
+            // Full reorthogonalization, twice for numerical orthogonality
+            for (int pass = 0; pass < 2; pass++)
+                for (int j = 0; j <= k; j++) {
+                    double re = 0, im = 0;
+                    for (int i = 0; i < wd.length; i += 2) {
+                        re += Q[j][i] * wd[i] + Q[j][i + 1] * wd[i + 1];
+                        im += Q[j][i] * wd[i + 1] - Q[j][i + 1] * wd[i];
+                    }
+                    for (int i = 0; i < wd.length; i += 2) {
+                        wd[i] -= re * Q[j][i] - im * Q[j][i + 1];
+                        wd[i + 1] -= re * Q[j][i + 1] + im * Q[j][i];
+                    }
+                }
+            beta[k] = norm2(wd);
+            k++;
+            if (beta[k - 1] <= 1e-12 * norm) {
+                exhausted = true;
+                break;
+            }
+            System.arraycopy(wd, 0, qd, 0, wd.length);
+            scale(qd, 1 / beta[k - 1]);
+        }
+        exhausted |= k == n;
+
+        DenseComplexMatrix T = new DenseComplexMatrix(k, k);
+        for (int i = 0; i < k; i++) {
+            T.set(i, i, new double[] { alpha[i], 0 });
+            if (i + 1 < k) {
+                T.set(i + 1, i, new double[] { beta[i], 0 });
+                T.set(i, i + 1, new double[] { beta[i], 0 });
+            }
+        }
+        double[] theta = new double[k];
+        DenseComplexMatrix Y = new DenseComplexMatrix(k, k);
+        if (DenseComplexKernels.heev(k, T.getData(), 0, k, theta, Y.getData(), 0, k) != 0)
+            throw new NotConvergedException(NotConvergedException.Reason.Iterations);
+
+        double estimate = theta[k - 1];
+        double upper = norm;
+        if (exhausted) {
+            // |A y - theta y| = beta_k |e_k' s|, plus slack for rounding
+            double[] s = Y.get(k - 1, k - 1);
+            double residual = beta[k - 1] * Math.hypot(s[0], s[1]);
+            upper = Math.min(upper, estimate + residual + 1e-12 * n * norm);
+        }
+        return new double[] { Math.min(estimate, upper), upper };
+    }
+
+    private static double norm2(double[] x) {
+        double sum = 0;
+        for (double v : x)
+            sum += v * v;
+        return Math.sqrt(sum);
+    }
+
+    private static void scale(double[] x, double alpha) {
+        for (int i = 0; i < x.length; i++)
+            x[i] *= alpha;
+    }
+
+    private static void checkSquare(ComplexMatrix A) {
+        if (!A.isSquare()) {
+            throw new ComplexMatrixNotSPDException("eigenvalue decomposition is for squre matrix");
+        }
+    }
+
     public static ComplexMatrix diag(ComplexVector v) {
-        ComplexMatrix A = new DenseComplexMatrix(v.size(), v.size());
-        A.zero();
+        return diag(v, new DenseComplexMatrix(v.size(), v.size()));
+    }
+
+    /**
+     * Sets <code>D</code> to the diagonal matrix of <code>v</code>
+     * 
+     * @return D
+     */
+    public static ComplexMatrix diag(ComplexVector v, ComplexMatrix D) {
+        if (D.numRows() != v.size() || D.numColumns() != v.size())
+            throw new IndexOutOfBoundsException("D is " + D.numRows() + "x" + D.numColumns()
+                    + ", v.size = " + v.size());
+        D.zero();
         for (int i = 0; i < v.size(); i++)
-            A.set(i, i, v.get(i));
-        return A;
+            D.set(i, i, v.getRe(i), v.getIm(i));
+        return D;
     }
 }
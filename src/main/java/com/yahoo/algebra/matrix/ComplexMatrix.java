@@ -28,8 +28,14 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
     void set(int row, int column, double value[]);
 
     /**
-     * Read from string
+     * Read from string. Rows are separated by <code>;</code> and the entries
+     * of a row by <code>,</code>, each in the format of
+     * {@link Complexes#read(String)}. Every entry is given, also for sparse
+     * and structured matrices; entries they cannot store must be zero
+     * 
      * @param str
+     * @throws IllegalArgumentException
+     *             If the number of rows is not <code>numRows()</code>
      */
     void set(String str);
 
@@ -43,6 +49,26 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
      */
     double[] get(int row, int column);
 
+    /**
+     * Returns the real part of <code>A(row,column)</code>
+     */
+    double getRe(int row, int column);
+
+    /**
+     * Returns the imaginary part of <code>A(row,column)</code>
+     */
+    double getIm(int row, int column);
+
+    /**
+     * <code>A(row,column) = re + i*im</code>
+     */
+    void set(int row, int column, double re, double im);
+
+    /**
+     * <code>A(row,column) += re + i*im</code>
+     */
+    void add(int row, int column, double re, double im);
+
     /**
      * Creates a deep copy of the matrix
      * 
@@ -50,6 +76,32 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
      */
     ComplexMatrix copy();
 
+    /**
+     * Submatrix of <code>numRows</code> by <code>numColumns</code> entries
+     * starting at <code>(rowOffset, columnOffset)</code>, sharing the storage
+     * of this matrix
+     * 
+     * @throws UnsupportedOperationException
+     *             If the storage cannot be shared
+     */
+    ComplexMatrix view(int rowOffset, int columnOffset, int numRows, int numColumns);
+
+    /**
+     * Row <code>i</code> as a vector sharing the storage of this matrix
+     * 
+     * @throws UnsupportedOperationException
+     *             If the storage cannot be shared
+     */
+    ComplexVector row(int i);
+
+    /**
+     * Column <code>j</code> as a vector sharing the storage of this matrix
+     * 
+     * @throws UnsupportedOperationException
+     *             If the storage cannot be shared
+     */
+    ComplexVector column(int j);
+
     /**
      * Zeros all the entries in the matrix, while preserving any underlying
      * structure. Useful for general, unstructured matrices.
@@ -146,6 +198,50 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
      */
     ComplexVector transMultAdd(double alpha[], ComplexVector x, ComplexVector y);
 
+    /**
+     * <code>y = A<sup>H</sup>*x</code>
+     * 
+     * @param x
+     *            Vector of size <code>A.numRows()</code>
+     * @param y
+     *            Vector of size <code>A.numColumns()</code>
+     * @return y
+     */
+    ComplexVector hermMult(ComplexVector x, ComplexVector y);
+
+    /**
+     * <code>y = alpha*A<sup>H</sup>*x</code>
+     * 
+     * @param x
+     *            Vector of size <code>A.numRows()</code>
+     * @param y
+     *            Vector of size <code>A.numColumns()</code>
+     * @return y
+     */
+    ComplexVector hermMult(double alpha[], ComplexVector x, ComplexVector y);
+
+    /**
+     * <code>y = A<sup>H</sup>*x + y</code>
+     * 
+     * @param x
+     *            Vector of size <code>A.numRows()</code>
+     * @param y
+     *            Vector of size <code>A.numColumns()</code>
+     * @return y
+     */
+    ComplexVector hermMultAdd(ComplexVector x, ComplexVector y);
+
+    /**
+     * <code>y = alpha*A<sup>H</sup>*x + y</code>
+     * 
+     * @param x
+     *            Vector of size <code>A.numRows()</code>
+     * @param y
+     *            Vector of size <code>A.numColumns()</code>
+     * @return y
+     */
+    ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y);
+
     /**
      * <code>x = A\b</code>. Not all matrices support this operation, those that
      * do not throw <code>UnsupportedOperationException</code>. Note that it is
@@ -186,6 +282,22 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
     ComplexVector transSolve(ComplexVector b, ComplexVector x) throws MatrixSingularException,
             MatrixNotSPDException;
 
+    /**
+     * <code>x = A\b</code> for a Hermitian positive definite <code>A</code>,
+     * of which only the lower triangle is read. Not all matrices support this
+     * operation, those that do not throw
+     * <code>UnsupportedOperationException</code>
+     * 
+     * @param b
+     *            Vector of size <code>A.numRows()</code>
+     * @param x
+     *            Vector of size <code>A.numColumns()</code>
+     * @return x
+     * @throws MatrixNotSPDException
+     *             If the matrix is not positive definite
+     */
+    ComplexVector solveHPD(ComplexVector b, ComplexVector x) throws MatrixNotSPDException;
+
     /**
      * <code>A = x*x<sup>T</sup> + A</code>. The matrix must be square, and the
      * vector of the same length
@@ -234,6 +346,37 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
      */
     ComplexMatrix rank2(double alpha[], ComplexVector x, ComplexVector y);
 
+    /**
+     * <code>A = alpha*x*x<sup>H</sup> + A</code> for a real
+     * <code>alpha</code>. The matrix must be square, and the vector of the same
+     * length
+     * 
+     * @return A
+     */
+    ComplexMatrix rank1Herm(double alpha, ComplexVector x);
+
+    /**
+     * <code>A = alpha*x*y<sup>H</sup> + A</code>, the conjugated rank-1 update
+     * (BLAS <code>gerc</code>). The result is in general not Hermitian, see
+     * {@link #rank2Herm} for the Hermitian pairs
+     * 
+     * @param x
+     *            Vector of size <code>A.numRows()</code>
+     * @param y
+     *            Vector of size <code>A.numColumns()</code>
+     * @return A
+     */
+    ComplexMatrix rank1Conj(double alpha[], ComplexVector x, ComplexVector y);
+
+    /**
+     * <code>A = alpha*x*y<sup>H</sup> + conj(alpha)*y*x<sup>H</sup> + A</code>,
+     * the Hermitian rank-2 update (BLAS <code>her2</code>). The matrix must be
+     * square, and the vectors of the same length
+     * 
+     * @return A
+     */
+    ComplexMatrix rank2Herm(double alpha[], ComplexVector x, ComplexVector y);
+
     /**
      * chained multiplying
      */
@@ -447,6 +590,110 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
      */
     ComplexMatrix transABmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C);
 
+    /**
+     * <code>C = A<sup>H</sup>*B</code>
+     * 
+     * @param B
+     *            Matrix such that <code>B.numRows() == A.numRows()</code> and
+     *            <code>B.numColumns() == C.numColumns()</code>
+     * @param C
+     *            Matrix such that <code>C.numRows() == A.numColumns()</code>
+     *            and <code>B.numColumns() == C.numColumns()</code>
+     * @return C
+     */
+    ComplexMatrix hermAmult(ComplexMatrix B, ComplexMatrix C);
+
+    /**
+     * <code>C = alpha*A<sup>H</sup>*B</code>
+     * 
+     * @param B
+     *            Matrix such that <code>B.numRows() == A.numRows()</code> and
+     *            <code>B.numColumns() == C.numColumns()</code>
+     * @param C
+     *            Matrix such that <code>C.numRows() == A.numColumns()</code>
+     *            and <code>B.numColumns() == C.numColumns()</code>
+     * @return C
+     */
+    ComplexMatrix hermAmult(double alpha[], ComplexMatrix B, ComplexMatrix C);
+
+    /**
+     * <code>C = A<sup>H</sup>*B + C</code>
+     * 
+     * @param B
+     *            Matrix such that <code>B.numRows() == A.numRows()</code> and
+     *            <code>B.numColumns() == C.numColumns()</code>
+     * @param C
+     *            Matrix such that <code>C.numRows() == A.numColumns()</code>
+     *            and <code>B.numColumns() == C.numColumns()</code>
+     * @return C
+     */
+    ComplexMatrix hermAmultAdd(ComplexMatrix B, ComplexMatrix C);
+
+    /**
+     * <code>C = alpha*A<sup>H</sup>*B + C</code>
+     * 
+     * @param B
+     *            Matrix such that <code>B.numRows() == A.numRows()</code> and
+     *            <code>B.numColumns() == C.numColumns()</code>
+     * @param C
+     *            Matrix such that <code>C.numRows() == A.numColumns()</code>
+     *            and <code>B.numColumns() == C.numColumns()</code>
+     * @return C
+     */
+    ComplexMatrix hermAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C);
+
+    /**
+     * <code>C = A*B<sup>H</sup></code>
+     * 
+     * @param B
+     *            Matrix such that <code>B.numColumns() == A.numColumns()</code>
+     *            and <code>B.numRows() == C.numColumns()</code>
+     * @param C
+     *            Matrix such that <code>C.numRows() == A.numRows()</code> and
+     *            <code>B.numRows() == C.numColumns()</code>
+     * @return C
+     */
+    ComplexMatrix hermBmult(ComplexMatrix B, ComplexMatrix C);
+
+    /**
+     * <code>C = alpha*A*B<sup>H</sup></code>
+     * 
+     * @param B
+     *            Matrix such that <code>B.numColumns() == A.numColumns()</code>
+     *            and <code>B.numRows() == C.numColumns()</code>
+     * @param C
+     *            Matrix such that <code>C.numRows() == A.numRows()</code> and
+     *            <code>B.numRows() == C.numColumns()</code>
+     * @return C
+     */
+    ComplexMatrix hermBmult(double alpha[], ComplexMatrix B, ComplexMatrix C);
+
+    /**
+     * <code>C = A*B<sup>H</sup> + C</code>
+     * 
+     * @param B
+     *            Matrix such that <code>B.numColumns() == A.numColumns()</code>
+     *            and <code>B.numRows() == C.numColumns()</code>
+     * @param C
+     *            Matrix such that <code>C.numRows() == A.numRows()</code> and
+     *            <code>B.numRows() == C.numColumns()</code>
+     * @return C
+     */
+    ComplexMatrix hermBmultAdd(ComplexMatrix B, ComplexMatrix C);
+
+    /**
+     * <code>C = alpha*A*B<sup>H</sup> + C</code>
+     * 
+     * @param B
+     *            Matrix such that <code>B.numColumns() == A.numColumns()</code>
+     *            and <code>B.numRows() == C.numColumns()</code>
+     * @param C
+     *            Matrix such that <code>C.numRows() == A.numRows()</code> and
+     *            <code>B.numRows() == C.numColumns()</code>
+     * @return C
+     */
+    ComplexMatrix hermBmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C);
+
     /**
      * <code>X = A\B</code>. Not all matrices support this operation, those that
      * do not throw <code>UnsupportedOperationException</code>. Note that it is
@@ -492,6 +739,24 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
     ComplexMatrix transSolve(ComplexMatrix B, ComplexMatrix X) throws MatrixSingularException,
             MatrixNotSPDException;
 
+    /**
+     * <code>X = A\B</code> for a Hermitian positive definite <code>A</code>,
+     * of which only the lower triangle is read. Not all matrices support this
+     * operation, those that do not throw
+     * <code>UnsupportedOperationException</code>
+     * 
+     * @param B
+     *            Matrix with the same number of rows as <code>A</code>, and the
+     *            same number of columns as <code>X</code>
+     * @param X
+     *            Matrix with a number of rows equal <code>A.numColumns()</code>
+     *            , and the same number of columns as <code>B</code>
+     * @return X
+     * @throws MatrixNotSPDException
+     *             If the matrix is not positive definite
+     */
+    ComplexMatrix solveHPD(ComplexMatrix B, ComplexMatrix X) throws MatrixNotSPDException;
+
     /**
      * <code>A = C*C<sup>T</sup> + A</code>. The matrices must be square and of
      * the same size
@@ -508,6 +773,15 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
      */
     ComplexMatrix rank1(double alpha[], ComplexMatrix C);
 
+    /**
+     * <code>A = alpha*C*C<sup>H</sup> + A</code> for a real
+     * <code>alpha</code>. The matrix must be square, and <code>C</code> have
+     * as many rows
+     * 
+     * @return A
+     */
+    ComplexMatrix rankK(double alpha, ComplexMatrix C);
+
     /**
      * <code>A = C<sup>T</sup>*C + A</code> The matrices must be square and of
      * the same size
@@ -587,6 +861,23 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
      */
     ComplexMatrix scale(double alpha[]);
 
+    /**
+     * <code>A = A + alpha*I</code>, touching only the diagonal
+     * 
+     * @return A
+     */
+    ComplexMatrix shiftDiagonal(double alpha[]);
+
+    /**
+     * <code>A = A + diag(d)</code>, touching only the diagonal
+     * 
+     * @param d
+     *            Real values to add to the diagonal entries, of length
+     *            <code>min(A.numRows(), A.numColumns())</code>
+     * @return A
+     */
+    ComplexMatrix addDiagonal(double[] d);
+
     /**
      * <code>A=B</code>. The matrices must be of the same size
      * 
@@ -651,6 +942,17 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
 
     ComplexMatrix inverse() throws ComplexMatrixNotSPDException;
 
+    /**
+     * Sets the inverse of this matrix into <code>X</code>, so repeated
+     * inversions can reuse one destination
+     * 
+     * @param X
+     *            Matrix of the same size as this square matrix
+     * @return X
+     * @throws ComplexMatrixNotSPDException
+     */
+    ComplexMatrix inverse(ComplexMatrix X) throws ComplexMatrixNotSPDException;
+
     /**
      * Computes the given norm of the matrix
      * 
@@ -714,4 +1016,23 @@ public interface ComplexMatrix extends Iterable<ComplexMatrixEntry> {
      * @return determinant squared of the complex matrix
      */
     double det2();
+
+    /**
+     * Natural logarithm of the determinant, computed by an LU decomposition
+     * without forming the determinant itself
+     * 
+     * @return <code>{log|det(A)|, arg(det(A))}</code>, the argument in
+     *         <code>(-pi, pi]</code>
+     */
+    double[] logDet();
+
+    /**
+     * Natural logarithm of the determinant of a Hermitian positive definite
+     * matrix, of which only the lower triangle is read. Computed by a Cholesky
+     * decomposition, and real
+     * 
+     * @throws MatrixNotSPDException
+     *             If the matrix is not positive definite
+     */
+    double logDetHPD() throws MatrixNotSPDException;
 }
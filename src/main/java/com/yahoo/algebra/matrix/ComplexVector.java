@@ -24,6 +24,26 @@ public interface ComplexVector extends Iterable<ComplexVectorEntry>, Serializabl
      */
     double[] get(int index);
 
+    /**
+     * Returns the real part of <code>x(index)</code>
+     */
+    double getRe(int index);
+
+    /**
+     * Returns the imaginary part of <code>x(index)</code>
+     */
+    double getIm(int index);
+
+    /**
+     * <code>x(index) = re + i*im</code>
+     */
+    void set(int index, double re, double im);
+
+    /**
+     * <code>x(index) += re + i*im</code>
+     */
+    void add(int index, double re, double im);
+
     /**
      * Creates a deep copy of the vector
      */
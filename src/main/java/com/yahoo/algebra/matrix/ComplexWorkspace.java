@@ -0,0 +1,175 @@
+package com.yahoo.algebra.matrix;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scope for temporary matrices and vectors. Temporaries come from pools kept
+ * per thread and keyed by shape, and go back to them when the scope is
+ * closed, so a loop that opens a scope per iteration allocates only on its
+ * first pass:
+ *
+ * <pre>
+ * try (ComplexWorkspace ws = ComplexWorkspace.open()) {
+ *     ComplexVector t = H.hermMult(u, ws.vector(H.numColumns()));
+ *     ...
+ * }
+ * </pre>
+ *
+ * Every temporary is zero when handed out. Scopes nest, and a pool holds at
+ * most as many temporaries of a shape as were in use at once. A temporary
+ * must not be used once its scope is closed, since another scope of the same
+ * thread will be given it. A scope belongs to the thread that opened it
+ */
+public class ComplexWorkspace implements Closeable {
+
+    private static final ThreadLocal<Pool> pools = new ThreadLocal<Pool>() {
+        @Override
+        protected Pool initialValue() {
+            return new Pool();
+        }
+    };
+
+    private final Pool pool;
+
+    private final Thread owner;
+
+    private final List<DenseComplexMatrix> matrices = new ArrayList<DenseComplexMatrix>();
+
+    private final List<DenseComplexVector> vectors = new ArrayList<DenseComplexVector>();
+
+    private boolean closed;
+
+    private ComplexWorkspace(Pool pool) {
+        this.pool = pool;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Opens a scope on the pools of the calling thread
+     */
+    public static ComplexWorkspace open() {
+        return new ComplexWorkspace(pools.get());
+    }
+
+    /**
+     * Drops the pooled temporaries of the calling thread, which are allocated
+     * again on demand
+     */
+    public static void clear() {
+        pools.remove();
+    }
+
+    /**
+     * Returns a zero <code>numRows</code> by <code>numColumns</code> matrix
+     * owned by this scope
+     */
+    public DenseComplexMatrix matrix(int numRows, int numColumns) {
+        check();
+        ArrayDeque<DenseComplexMatrix> free = pool.matrices.get(key(numRows, numColumns));
+        DenseComplexMatrix A = free == null ? null : free.poll();
+        if (A == null)
+            A = new DenseComplexMatrix(numRows, numColumns);
+        else
+            A.zero();
+        matrices.add(A);
+        return A;
+    }
+
+    /**
+     * Returns a zero vector of the given size owned by this scope
+     */
+    public DenseComplexVector vector(int size) {
+        check();
+        ArrayDeque<DenseComplexVector> free = pool.vectors.get(size);
+        DenseComplexVector x = free == null ? null : free.poll();
+        if (x == null)
+            x = new DenseComplexVector(size);
+        else
+            x.zero();
+        vectors.add(x);
+        return x;
+    }
+
+    /**
+     * Returns a copy of <code>A</code> owned by this scope
+     */
+    public DenseComplexMatrix copyOf(ComplexMatrix A) {
+        DenseComplexMatrix B = matrix(A.numRows(), A.numColumns());
+        B.set(A);
+        return B;
+    }
+
+    /**
+     * Returns a copy of <code>x</code> owned by this scope
+     */
+    public DenseComplexVector copyOf(ComplexVector x) {
+        DenseComplexVector y = vector(x.size());
+        y.set(x);
+        return y;
+    }
+
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Returns the temporaries of this scope to the pools. Closing twice has no
+     * effect
+     */
+    public void close() {
+        if (closed)
+            return;
+        checkOwner();
+        closed = true;
+        for (DenseComplexMatrix A : matrices) {
+            long key = key(A.numRows(), A.numColumns());
+            ArrayDeque<DenseComplexMatrix> free = pool.matrices.get(key);
+            if (free == null) {
+                free = new ArrayDeque<DenseComplexMatrix>();
+                pool.matrices.put(key, free);
+            }
+            free.push(A);
+        }
+        for (DenseComplexVector x : vectors) {
+            ArrayDeque<DenseComplexVector> free = pool.vectors.get(x.size());
+            if (free == null) {
+                free = new ArrayDeque<DenseComplexVector>();
+                pool.vectors.put(x.size(), free);
+            }
+            free.push(x);
+        }
+        matrices.clear();
+        vectors.clear();
+    }
+
+    private void check() {
+        if (closed)
+            throw new IllegalStateException("Workspace is closed");
+        checkOwner();
+    }
+
+    private void checkOwner() {
+        if (Thread.currentThread() != owner)
+            throw new IllegalStateException("Workspace belongs to " + owner.getName());
+    }
+
+    private static long key(int numRows, int numColumns) {
+        return ((long) numRows << 32) | numColumns;
+    }
+
+    /**
+     * Free temporaries of one thread
+     */
+    private static class Pool {
+        final Map<Long, ArrayDeque<DenseComplexMatrix>> matrices =
+                new HashMap<Long, ArrayDeque<DenseComplexMatrix>>();
+
+        final Map<Integer, ArrayDeque<DenseComplexVector>> vectors =
+                new HashMap<Integer, ArrayDeque<DenseComplexVector>>();
+    }
+}
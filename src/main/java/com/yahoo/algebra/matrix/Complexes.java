@@ -16,14 +16,65 @@ public final class Complexes {
         return new double[] { re, im };
     }
 
+    /**
+     * <code>c = a*b</code> without allocating. <code>c</code> may be
+     * <code>a</code> or <code>b</code>
+     * 
+     * @return c
+     */
+    public static double[] mult(double[] a, double[] b, double[] c) {
+        double re = a[0] * b[0] - a[1] * b[1];
+        double im = a[1] * b[0] + a[0] * b[1];
+        c[0] = re;
+        c[1] = im;
+        return c;
+    }
+
     public static double[] add(double[] a, double[] b) {
         return new double[] { a[0] + b[0], a[1] + b[1] };
     }
 
+    /**
+     * <code>c = a+b</code> without allocating. <code>c</code> may be
+     * <code>a</code> or <code>b</code>
+     * 
+     * @return c
+     */
+    public static double[] add(double[] a, double[] b, double[] c) {
+        c[0] = a[0] + b[0];
+        c[1] = a[1] + b[1];
+        return c;
+    }
+
+    /**
+     * <code>c += a*b</code> without allocating
+     * 
+     * @return c
+     */
+    public static double[] multAdd(double[] a, double[] b, double[] c) {
+        double re = a[0] * b[0] - a[1] * b[1];
+        double im = a[1] * b[0] + a[0] * b[1];
+        c[0] += re;
+        c[1] += im;
+        return c;
+    }
+
     public static double[] conjugate(double[] a) {
         return new double[] { a[0], -a[1] };
     }
 
+    /**
+     * <code>c = conj(a)</code> without allocating. <code>c</code> may be
+     * <code>a</code>
+     * 
+     * @return c
+     */
+    public static double[] conjugate(double[] a, double[] c) {
+        c[0] = a[0];
+        c[1] = -a[1];
+        return c;
+    }
+
     public static double abs(double[] a) {
         return Math.sqrt(a[0] * a[0] + a[1] * a[1]);
     }
@@ -33,9 +84,8 @@ public final class Complexes {
     }
 
     public static boolean equals(double[] a, double[] b, double delta) {
-        double[] c = new double[] { a[0] - b[0], a[1] - b[1] };
-        double absc = abs(c);
-        return absc < delta;
+        double re = a[0] - b[0], im = a[1] - b[1];
+        return Math.sqrt(re * re + im * im) < delta;
     }
 
     public static double[] read(String s) {
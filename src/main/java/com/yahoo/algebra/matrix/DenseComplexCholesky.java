@@ -0,0 +1,197 @@
+package com.yahoo.algebra.matrix;
+
+import no.uib.cipr.matrix.MatrixNotSPDException;
+
+/**
+ * Dense Cholesky decomposition <code>A = L*L<sup>H</sup></code> of a Hermitian
+ * positive definite matrix. Only the lower triangle of <code>A</code> is read.
+ * The factor can be updated in place when <code>A</code> changes by a rank-1
+ * term
+ */
+public class DenseComplexCholesky {
+
+    /**
+     * Lower triangular factor. The strict upper triangle is kept zero
+     */
+    private final DenseComplexMatrix L;
+
+    /**
+     * Constructor for DenseComplexCholesky
+     * 
+     * @param n
+     *            Size of the matrices to factorize
+     */
+    public DenseComplexCholesky(int n) {
+        L = new DenseComplexMatrix(n, n);
+    }
+
+    /**
+     * Creates a Cholesky decomposition of the given matrix
+     * 
+     * @param A
+     *            Hermitian positive definite matrix. Not modified
+     * @return The current decomposition
+     * @throws MatrixNotSPDException
+     *             If <code>A</code> is not positive definite
+     */
+    public static DenseComplexCholesky factorize(ComplexMatrix A) throws MatrixNotSPDException {
+        if (!A.isSquare())
+            throw new IndexOutOfBoundsException("!A.isSquare");
+        return new DenseComplexCholesky(A.numRows()).factor(A);
+    }
+
+    /**
+     * Creates a Cholesky decomposition of the given matrix
+     * 
+     * @param A
+     *            Hermitian positive definite matrix. Not modified
+     * @return The current decomposition
+     * @throws MatrixNotSPDException
+     *             If <code>A</code> is not positive definite
+     */
+    public DenseComplexCholesky factor(ComplexMatrix A) throws MatrixNotSPDException {
+        int n = L.numRows();
+        if (A.numRows() != n || A.numColumns() != n)
+            throw new IndexOutOfBoundsException("A is " + A.numRows() + "x" + A.numColumns()
+                    + ", decomposition is for " + n + "x" + n);
+        L.set(A);
+        double[] data = L.getData();
+        int info = DenseComplexKernels.potrf(n, data, 0, n);
+        for (int j = 1; j < n; ++j)
+            java.util.Arrays.fill(data, 2 * j * n, 2 * (j * n + j), 0);
+        if (info != 0)
+            throw new MatrixNotSPDException();
+        return this;
+    }
+
+    /**
+     * Returns the lower triangular factor
+     */
+    public DenseComplexMatrix getL() {
+        return L;
+    }
+
+    /**
+     * Computes <code>A\B</code>, overwriting <code>B</code>
+     */
+    public DenseComplexMatrix solve(DenseComplexMatrix B) {
+        int n = L.numRows();
+        if (B.numRows() != n)
+            throw new IndexOutOfBoundsException("B.numRows() != L.numRows() (" + B.numRows()
+                    + " != " + n + ")");
+        DenseComplexKernels.potrs(n, B.numColumns(), L.getData(), 0, n, B.getData(), 0, n);
+        return B;
+    }
+
+    /**
+     * Computes <code>A\b</code>, overwriting <code>b</code>
+     */
+    public DenseComplexVector solve(DenseComplexVector b) {
+        int n = L.numRows();
+        if (b.size() != n)
+            throw new IndexOutOfBoundsException("b.size() != L.numRows() (" + b.size() + " != "
+                    + n + ")");
+        DenseComplexKernels.potrs(n, 1, L.getData(), 0, n, b.getData(), 0, n);
+        return b;
+    }
+
+    /**
+     * Returns <code>log(det(A))</code>, which is real for a Hermitian positive
+     * definite matrix
+     */
+    public double logDet() {
+        int n = L.numRows();
+        double[] data = L.getData();
+        double ret = 0;
+        for (int i = 0; i < n; ++i)
+            ret += Math.log(data[2 * (i + i * n)]);
+        return 2 * ret;
+    }
+
+    /**
+     * Updates the factorization to that of <code>A + x*x<sup>H</sup></code>
+     * 
+     * @param x
+     *            Vector of size <code>A.numRows()</code>. Not modified
+     * @return The current decomposition
+     */
+    public DenseComplexCholesky update(ComplexVector x) {
+        rotate(copy(x), 1);
+        return this;
+    }
+
+    /**
+     * Updates the factorization to that of <code>A - x*x<sup>H</sup></code>.
+     * The factorization is left unchanged if the result would not be positive
+     * definite
+     * 
+     * @param x
+     *            Vector of size <code>A.numRows()</code>. Not modified
+     * @return The current decomposition
+     * @throws MatrixNotSPDException
+     *             If <code>A - x*x<sup>H</sup></code> is not positive definite
+     */
+    public DenseComplexCholesky downdate(ComplexVector x) throws MatrixNotSPDException {
+        int n = L.numRows();
+        double[] w = copy(x);
+
+        // A - x*x^H is positive definite iff |L\x| < 1
+        double[] p = w.clone();
+        DenseComplexKernels.lowerSolveNonUnit(n, L.getData(), 0, n, p, 0);
+        double norm2 = 0;
+        for (double v : p)
+            norm2 += v * v;
+        if (!(norm2 < 1))
+            throw new MatrixNotSPDException();
+
+        rotate(w, -1);
+        return this;
+    }
+
+    private double[] copy(ComplexVector x) {
+        int n = L.numRows();
+        if (x.size() != n)
+            throw new IndexOutOfBoundsException("x.size() != L.numRows() (" + x.size() + " != "
+                    + n + ")");
+        double[] w = new double[2 * n];
+        if (x instanceof DenseComplexVector)
+            System.arraycopy(((DenseComplexVector) x).getData(), 0, w, 0, w.length);
+        else
+            for (int i = 0; i < n; ++i) {
+                double[] v = x.get(i);
+                w[2 * i] = v[0];
+                w[2 * i + 1] = v[1];
+            }
+        return w;
+    }
+
+    /**
+     * Applies a sequence of plane (<code>sign = 1</code>) or hyperbolic
+     * (<code>sign = -1</code>) rotations that fold <code>w</code> into the
+     * columns of <code>L</code>
+     */
+    private void rotate(double[] w, int sign) {
+        int n = L.numRows();
+        double[] l = L.getData();
+        for (int k = 0; k < n; ++k) {
+            int ck = 2 * k * n;
+            double lkk = l[ck + 2 * k];
+            double wr = w[2 * k], wi = w[2 * k + 1];
+            double r = Math.sqrt(lkk * lkk + sign * (wr * wr + wi * wi));
+            double c = lkk / r, sr = wr / r, si = wi / r;
+
+            // L(i,k) = c*L(i,k) + sign*conj(s)*w(i), w(i) = c*w(i) - s*L(i,k)
+            for (int i = 2 * (k + 1), end = 2 * n; i < end; i += 2) {
+                double lr = l[ck + i], li = l[ck + i + 1];
+                double xr = w[i], xi = w[i + 1];
+                l[ck + i] = c * lr + sign * (sr * xr + si * xi);
+                l[ck + i + 1] = c * li + sign * (sr * xi - si * xr);
+                w[i] = c * xr - (sr * lr - si * li);
+                w[i + 1] = c * xi - (sr * li + si * lr);
+            }
+            l[ck + 2 * k] = r;
+            w[2 * k] = 0;
+            w[2 * k + 1] = 0;
+        }
+    }
+}
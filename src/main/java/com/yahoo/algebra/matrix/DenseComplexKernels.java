@@ -0,0 +1,895 @@
+package com.yahoo.algebra.matrix;
+
+/**
+ * Allocation-free kernels on interleaved column-major complex storage. Entry
+ * <code>(i,j)</code> of a matrix with leading dimension <code>ld</code> and
+ * offset <code>off</code> is found at <code>2*(off+i+j*ld)</code> (real part)
+ * and the following index (imaginary part). Offsets and leading dimensions are
+ * counted in complex entries.
+ */
+final class DenseComplexKernels {
+
+    /**
+     * Rows of <code>C</code> handled per tile
+     */
+    static final int MB = 64;
+
+    /**
+     * Inner dimension handled per tile
+     */
+    static final int KB = 128;
+
+    private DenseComplexKernels() {
+    }
+
+    /**
+     * <code>C = alpha*op(A)*op(B) + C</code>, where <code>op(A)</code> is
+     * <code>m</code> by <code>k</code> and <code>op(B)</code> is <code>k</code>
+     * by <code>n</code>
+     */
+    static void gemm(Transpose transA, Transpose transB, int m, int n, int k, double alphaRe,
+            double alphaIm, double[] a, int aOff, int lda, double[] b, int bOff, int ldb,
+            double[] c, int cOff, int ldc) {
+        if (m == 0 || n == 0 || k == 0 || (alphaRe == 0 && alphaIm == 0))
+            return;
+
+        // Strides of op(B) along its rows (k) and columns (n)
+        int bsk = transB == Transpose.NoTranspose ? 1 : ldb;
+        int bsj = transB == Transpose.NoTranspose ? ldb : 1;
+
+        // Signs applied to imaginary parts of A and B on load
+        double sa = transA == Transpose.ConjugateTranspose ? -1 : 1;
+        double sb = transB == Transpose.ConjugateTranspose ? -1 : 1;
+
+        if (transA == Transpose.NoTranspose)
+            gemmAxpy(m, n, k, alphaRe, alphaIm, a, aOff, lda, b, bOff, bsk, bsj, sb, c, cOff,
+                    ldc);
+        else
+            gemmDot(m, n, k, alphaRe, alphaIm, a, aOff, lda, sa, b, bOff, bsk, bsj, sb, c, cOff,
+                    ldc);
+    }
+
+    /**
+     * <code>C = alpha*A*op(B) + C</code> as a sequence of column updates. Two
+     * columns of <code>C</code> are updated per sweep over a column of
+     * <code>A</code>, and <code>A</code> is walked in tiles that stay in cache
+     * across all columns of <code>C</code>
+     */
+    private static void gemmAxpy(int m, int n, int k, double alphaRe, double alphaIm, double[] a,
+            int aOff, int lda, double[] b, int bOff, int bsk, int bsj, double sb, double[] c,
+            int cOff, int ldc) {
+        ComplexKernels kernels = ComplexKernels.get();
+        for (int k0 = 0; k0 < k; k0 += KB) {
+            int k1 = Math.min(k, k0 + KB);
+            for (int i0 = 0; i0 < m; i0 += MB) {
+                int i1 = Math.min(m, i0 + MB);
+                int j = 0;
+                for (; j + 1 < n; j += 2) {
+                    int c0 = cOff + j * ldc + i0;
+                    int c1 = c0 + ldc;
+                    for (int l = k0; l < k1; ++l) {
+                        int bi = 2 * (bOff + l * bsk + j * bsj);
+                        double br = b[bi], bim = sb * b[bi + 1];
+                        double b0r = alphaRe * br - alphaIm * bim;
+                        double b0i = alphaRe * bim + alphaIm * br;
+                        bi += 2 * bsj;
+                        br = b[bi];
+                        bim = sb * b[bi + 1];
+                        double b1r = alphaRe * br - alphaIm * bim;
+                        double b1i = alphaRe * bim + alphaIm * br;
+
+                        kernels.axpy2(i1 - i0, b0r, b0i, b1r, b1i, a, aOff + l * lda + i0, c,
+                                c0, c1);
+                    }
+                }
+                if (j < n) {
+                    int c0 = cOff + j * ldc + i0;
+                    for (int l = k0; l < k1; ++l) {
+                        int bi = 2 * (bOff + l * bsk + j * bsj);
+                        double br = b[bi], bim = sb * b[bi + 1];
+                        double b0r = alphaRe * br - alphaIm * bim;
+                        double b0i = alphaRe * bim + alphaIm * br;
+
+                        kernels.axpy(i1 - i0, b0r, b0i, a, aOff + l * lda + i0, c, c0);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * <code>C = alpha*op(A)*op(B) + C</code> for a (conjugate) transposed
+     * <code>A</code>, as dot products between columns of <code>A</code> and
+     * columns of <code>op(B)</code>. A 2x2 block of <code>C</code> is
+     * accumulated in registers at a time
+     */
+    private static void gemmDot(int m, int n, int k, double alphaRe, double alphaIm, double[] a,
+            int aOff, int lda, double sa, double[] b, int bOff, int bsk, int bsj, double sb,
+            double[] c, int cOff, int ldc) {
+        for (int k0 = 0; k0 < k; k0 += KB) {
+            int k1 = Math.min(k, k0 + KB);
+            for (int j = 0; j < n; j += 2) {
+                boolean twoColumns = j + 1 < n;
+                for (int i = 0; i < m; i += 2) {
+                    if (twoColumns && i + 1 < m)
+                        dot2x2(i, j, k0, k1, alphaRe, alphaIm, a, aOff, lda, sa, b, bOff, bsk,
+                                bsj, sb, c, cOff, ldc);
+                    else
+                        for (int jj = j; jj < Math.min(n, j + 2); ++jj)
+                            for (int ii = i; ii < Math.min(m, i + 2); ++ii)
+                                dot1x1(ii, jj, k0, k1, alphaRe, alphaIm, a, aOff, lda, sa, b,
+                                        bOff, bsk, bsj, sb, c, cOff, ldc);
+                }
+            }
+        }
+    }
+
+    private static void dot2x2(int i, int j, int k0, int k1, double alphaRe, double alphaIm,
+            double[] a, int aOff, int lda, double sa, double[] b, int bOff, int bsk, int bsj,
+            double sb, double[] c, int cOff, int ldc) {
+        double s00r = 0, s00i = 0, s10r = 0, s10i = 0, s01r = 0, s01i = 0, s11r = 0, s11i = 0;
+        int a0 = 2 * (aOff + i * lda);
+        int a1 = a0 + 2 * lda;
+        int b0 = 2 * (bOff + j * bsj);
+        int b1 = b0 + 2 * bsj;
+        for (int l = k0; l < k1; ++l) {
+            int al = 2 * l, bl = 2 * l * bsk;
+            double x0r = a[a0 + al], x0i = sa * a[a0 + al + 1];
+            double x1r = a[a1 + al], x1i = sa * a[a1 + al + 1];
+            double y0r = b[b0 + bl], y0i = sb * b[b0 + bl + 1];
+            double y1r = b[b1 + bl], y1i = sb * b[b1 + bl + 1];
+            s00r += x0r * y0r - x0i * y0i;
+            s00i += x0r * y0i + x0i * y0r;
+            s10r += x1r * y0r - x1i * y0i;
+            s10i += x1r * y0i + x1i * y0r;
+            s01r += x0r * y1r - x0i * y1i;
+            s01i += x0r * y1i + x0i * y1r;
+            s11r += x1r * y1r - x1i * y1i;
+            s11i += x1r * y1i + x1i * y1r;
+        }
+        int c0 = 2 * (cOff + i + j * ldc);
+        int c1 = c0 + 2 * ldc;
+        c[c0] += alphaRe * s00r - alphaIm * s00i;
+        c[c0 + 1] += alphaRe * s00i + alphaIm * s00r;
+        c[c0 + 2] += alphaRe * s10r - alphaIm * s10i;
+        c[c0 + 3] += alphaRe * s10i + alphaIm * s10r;
+        c[c1] += alphaRe * s01r - alphaIm * s01i;
+        c[c1 + 1] += alphaRe * s01i + alphaIm * s01r;
+        c[c1 + 2] += alphaRe * s11r - alphaIm * s11i;
+        c[c1 + 3] += alphaRe * s11i + alphaIm * s11r;
+    }
+
+    private static void dot1x1(int i, int j, int k0, int k1, double alphaRe, double alphaIm,
+            double[] a, int aOff, int lda, double sa, double[] b, int bOff, int bsk, int bsj,
+            double sb, double[] c, int cOff, int ldc) {
+        if (bsk == 1 && sb == 1) {
+            // Contiguous, unconjugated column of op(B)
+            ComplexKernels.get().dot(sa < 0, k1 - k0, alphaRe, alphaIm, a,
+                    aOff + i * lda + k0, b, bOff + j * bsj + k0, c, cOff + i + j * ldc);
+            return;
+        }
+        double sr = 0, si = 0;
+        int a0 = 2 * (aOff + i * lda);
+        int b0 = 2 * (bOff + j * bsj);
+        for (int l = k0; l < k1; ++l) {
+            int al = a0 + 2 * l, bl = b0 + 2 * l * bsk;
+            double xr = a[al], xi = sa * a[al + 1];
+            double yr = b[bl], yi = sb * b[bl + 1];
+            sr += xr * yr - xi * yi;
+            si += xr * yi + xi * yr;
+        }
+        int ci = 2 * (cOff + i + j * ldc);
+        c[ci] += alphaRe * sr - alphaIm * si;
+        c[ci + 1] += alphaRe * si + alphaIm * sr;
+    }
+
+    /**
+     * LU factorization with partial pivoting, <code>A = P*L*U</code>, of the
+     * <code>n</code> by <code>n</code> matrix <code>A</code>, overwritten by
+     * its factors. Row <code>i</code> was interchanged with row
+     * <code>piv[i]</code>
+     * 
+     * @return 0 on success, or <code>i+1</code> if <code>U(i,i)</code> is
+     *         exactly zero
+     */
+    static int getrf(int n, double[] a, int aOff, int lda, int[] piv) {
+        return getf2(n, n, a, aOff, lda, piv, 0);
+    }
+
+    /**
+     * Unblocked LU factorization with partial pivoting of the <code>m</code>
+     * by <code>n</code> matrix <code>A</code>, <code>m &gt;= n</code>, as in
+     * {@link #getrf(int, double[], int, int, int[])}. Rows are interchanged
+     * across the <code>n</code> columns only, and the pivot of column
+     * <code>j</code> goes to <code>piv[pivOff+j]</code>, relative to row 0 of
+     * <code>A</code>
+     * 
+     * @return 0 on success, or <code>j+1</code> if <code>U(j,j)</code> is
+     *         exactly zero
+     */
+    static int getf2(int m, int n, double[] a, int aOff, int lda, int[] piv, int pivOff) {
+        int info = 0;
+        for (int j = 0; j < n; ++j) {
+            int cj = 2 * (aOff + j * lda);
+
+            // Pivot on the largest |Re|+|Im| below the diagonal
+            int p = j;
+            double max = -1;
+            for (int i = j; i < m; ++i) {
+                double v = Math.abs(a[cj + 2 * i]) + Math.abs(a[cj + 2 * i + 1]);
+                if (v > max) {
+                    max = v;
+                    p = i;
+                }
+            }
+            piv[pivOff + j] = p;
+            if (max == 0) {
+                if (info == 0)
+                    info = j + 1;
+                continue;
+            }
+            if (p != j)
+                swapRows(n, a, aOff, lda, j, p);
+
+            // Column of L
+            double pr = a[cj + 2 * j], pi = a[cj + 2 * j + 1];
+            double d = pr * pr + pi * pi;
+            double rr = pr / d, ri = -pi / d;
+            for (int i = 2 * (j + 1), end = 2 * m; i < end; i += 2) {
+                double xr = a[cj + i], xi = a[cj + i + 1];
+                a[cj + i] = xr * rr - xi * ri;
+                a[cj + i + 1] = xr * ri + xi * rr;
+            }
+
+            // Trailing update
+            for (int jj = j + 1; jj < n; ++jj) {
+                int ck = 2 * (aOff + jj * lda);
+                double ur = a[ck + 2 * j], ui = a[ck + 2 * j + 1];
+                if (ur == 0 && ui == 0)
+                    continue;
+                for (int i = 2 * (j + 1), end = 2 * m; i < end; i += 2) {
+                    double lr = a[cj + i], li = a[cj + i + 1];
+                    a[ck + i] -= lr * ur - li * ui;
+                    a[ck + i + 1] -= lr * ui + li * ur;
+                }
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Solves <code>op(A)*X = B</code> with the factors from
+     * {@link #getrf(int, double[], int, int, int[])}. <code>B</code> is
+     * <code>n</code> by <code>nrhs</code> and is overwritten by
+     * <code>X</code>
+     */
+    static void getrs(Transpose trans, int n, int nrhs, double[] a, int aOff, int lda, int[] piv,
+            double[] b, int bOff, int ldb) {
+        if (trans == Transpose.NoTranspose) {
+            for (int i = 0; i < n; ++i)
+                if (piv[i] != i)
+                    swapRows(nrhs, b, bOff, ldb, i, piv[i]);
+            for (int j = 0; j < nrhs; ++j) {
+                int bj = 2 * (bOff + j * ldb);
+                lowerSolve(n, a, aOff, lda, b, bj);
+                upperSolve(n, a, aOff, lda, b, bj);
+            }
+        } else {
+            // A^H*x = b is solved as A^T*conj(x) = conj(b)
+            boolean conj = trans == Transpose.ConjugateTranspose;
+            for (int j = 0; j < nrhs; ++j) {
+                int bj = 2 * (bOff + j * ldb);
+                if (conj)
+                    conjugate(n, b, bj);
+                upperTransSolve(n, a, aOff, lda, b, bj);
+                lowerTransSolve(n, a, aOff, lda, b, bj);
+                if (conj)
+                    conjugate(n, b, bj);
+            }
+            for (int i = n - 1; i >= 0; --i)
+                if (piv[i] != i)
+                    swapRows(nrhs, b, bOff, ldb, i, piv[i]);
+        }
+    }
+
+    /**
+     * Overwrites the factors from
+     * {@link #getrf(int, double[], int, int, int[])} with the inverse of the
+     * <code>n</code> by <code>n</code> matrix they came from. As in LAPACK,
+     * calling with <code>lwork = -1</code> only stores the optimal workspace
+     * length in <code>work[0]</code>
+     * 
+     * @param work
+     *            Workspace of at least <code>lwork</code> complex entries
+     * @param lwork
+     *            Length of the workspace in complex entries, at least
+     *            <code>n</code>, or -1 for a workspace query
+     * @return 0 on success, or <code>i+1</code> if <code>U(i,i)</code> is
+     *         exactly zero
+     */
+    static int getri(int n, double[] a, int aOff, int lda, int[] piv, double[] work, int lwork) {
+        if (lwork == -1) {
+            work[0] = Math.max(1, n);
+            return 0;
+        }
+        if (lwork < n || work.length < 2 * n)
+            throw new IllegalArgumentException("lwork < n (" + lwork + " < " + n + ")");
+
+        int info = upperInverse(n, a, aOff, lda);
+        if (info != 0)
+            return info;
+
+        // Solve inv(A)*L = inv(U) column by column from the right
+        for (int j = n - 2; j >= 0; --j) {
+            int cj = 2 * (aOff + j * lda);
+            for (int i = j + 1; i < n; ++i) {
+                work[2 * i] = a[cj + 2 * i];
+                work[2 * i + 1] = a[cj + 2 * i + 1];
+                a[cj + 2 * i] = a[cj + 2 * i + 1] = 0;
+            }
+            for (int k = j + 1; k < n; ++k) {
+                double lr = work[2 * k], li = work[2 * k + 1];
+                if (lr == 0 && li == 0)
+                    continue;
+                int ck = 2 * (aOff + k * lda);
+                for (int i = 0; i < 2 * n; i += 2) {
+                    double vr = a[ck + i], vi = a[ck + i + 1];
+                    a[cj + i] -= vr * lr - vi * li;
+                    a[cj + i + 1] -= vr * li + vi * lr;
+                }
+            }
+        }
+
+        // Undo the row interchanges as column interchanges
+        for (int j = n - 2; j >= 0; --j)
+            if (piv[j] != j)
+                swapColumns(n, a, aOff, lda, j, piv[j]);
+        return 0;
+    }
+
+    /**
+     * Overwrites the upper triangle of <code>A</code> with its inverse
+     * 
+     * @return 0 on success, or <code>i+1</code> if <code>U(i,i)</code> is
+     *         exactly zero
+     */
+    private static int upperInverse(int n, double[] a, int aOff, int lda) {
+        for (int j = 0; j < n; ++j) {
+            int cj = 2 * (aOff + j * lda);
+            double ur = a[cj + 2 * j], ui = a[cj + 2 * j + 1];
+            double d = ur * ur + ui * ui;
+            if (d == 0)
+                return j + 1;
+            double ir = ur / d, ii = -ui / d;
+            a[cj + 2 * j] = ir;
+            a[cj + 2 * j + 1] = ii;
+
+            // Column j above the diagonal becomes -inv(U(j,j)) * inv(U11) * U(0:j,j)
+            for (int k = 0; k < j; ++k) {
+                double xr = a[cj + 2 * k], xi = a[cj + 2 * k + 1];
+                if (xr == 0 && xi == 0)
+                    continue;
+                int ck = 2 * (aOff + k * lda);
+                for (int i = 0; i < k; ++i) {
+                    double tr = a[ck + 2 * i], ti = a[ck + 2 * i + 1];
+                    a[cj + 2 * i] += tr * xr - ti * xi;
+                    a[cj + 2 * i + 1] += tr * xi + ti * xr;
+                }
+                double tr = a[ck + 2 * k], ti = a[ck + 2 * k + 1];
+                a[cj + 2 * k] = tr * xr - ti * xi;
+                a[cj + 2 * k + 1] = tr * xi + ti * xr;
+            }
+            for (int k = 0; k < j; ++k) {
+                double xr = a[cj + 2 * k], xi = a[cj + 2 * k + 1];
+                a[cj + 2 * k] = -(xr * ir - xi * ii);
+                a[cj + 2 * k + 1] = -(xr * ii + xi * ir);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * <code>x = L\x</code>, <code>L</code> unit lower triangular
+     */
+    static void lowerSolve(int n, double[] a, int aOff, int lda, double[] x, int xOff) {
+        for (int k = 0; k < n; ++k) {
+            double xr = x[xOff + 2 * k], xi = x[xOff + 2 * k + 1];
+            if (xr == 0 && xi == 0)
+                continue;
+            int ck = 2 * (aOff + k * lda);
+            for (int i = k + 1; i < n; ++i) {
+                double lr = a[ck + 2 * i], li = a[ck + 2 * i + 1];
+                x[xOff + 2 * i] -= lr * xr - li * xi;
+                x[xOff + 2 * i + 1] -= lr * xi + li * xr;
+            }
+        }
+    }
+
+    /**
+     * <code>x = U\x</code>, <code>U</code> upper triangular
+     */
+    private static void upperSolve(int n, double[] a, int aOff, int lda, double[] x, int xOff) {
+        for (int k = n - 1; k >= 0; --k) {
+            int ck = 2 * (aOff + k * lda);
+            double ur = a[ck + 2 * k], ui = a[ck + 2 * k + 1];
+            double d = ur * ur + ui * ui;
+            double br = x[xOff + 2 * k], bi = x[xOff + 2 * k + 1];
+            double xr = (br * ur + bi * ui) / d;
+            double xi = (bi * ur - br * ui) / d;
+            x[xOff + 2 * k] = xr;
+            x[xOff + 2 * k + 1] = xi;
+            for (int i = 0; i < k; ++i) {
+                double vr = a[ck + 2 * i], vi = a[ck + 2 * i + 1];
+                x[xOff + 2 * i] -= vr * xr - vi * xi;
+                x[xOff + 2 * i + 1] -= vr * xi + vi * xr;
+            }
+        }
+    }
+
+    /**
+     * <code>x = U<sup>T</sup>\x</code>
+     */
+    private static void upperTransSolve(int n, double[] a, int aOff, int lda, double[] x,
+            int xOff) {
+        for (int k = 0; k < n; ++k) {
+            int ck = 2 * (aOff + k * lda);
+            double br = x[xOff + 2 * k], bi = x[xOff + 2 * k + 1];
+            for (int i = 0; i < k; ++i) {
+                double vr = a[ck + 2 * i], vi = a[ck + 2 * i + 1];
+                double yr = x[xOff + 2 * i], yi = x[xOff + 2 * i + 1];
+                br -= vr * yr - vi * yi;
+                bi -= vr * yi + vi * yr;
+            }
+            double ur = a[ck + 2 * k], ui = a[ck + 2 * k + 1];
+            double d = ur * ur + ui * ui;
+            x[xOff + 2 * k] = (br * ur + bi * ui) / d;
+            x[xOff + 2 * k + 1] = (bi * ur - br * ui) / d;
+        }
+    }
+
+    /**
+     * <code>x = L<sup>T</sup>\x</code>
+     */
+    private static void lowerTransSolve(int n, double[] a, int aOff, int lda, double[] x,
+            int xOff) {
+        for (int k = n - 1; k >= 0; --k) {
+            int ck = 2 * (aOff + k * lda);
+            double br = x[xOff + 2 * k], bi = x[xOff + 2 * k + 1];
+            for (int i = k + 1; i < n; ++i) {
+                double lr = a[ck + 2 * i], li = a[ck + 2 * i + 1];
+                double yr = x[xOff + 2 * i], yi = x[xOff + 2 * i + 1];
+                br -= lr * yr - li * yi;
+                bi -= lr * yi + li * yr;
+            }
+            x[xOff + 2 * k] = br;
+            x[xOff + 2 * k + 1] = bi;
+        }
+    }
+
+    /**
+     * Cholesky factorization <code>A = L*L<sup>H</sup></code> of the Hermitian
+     * positive definite <code>n</code> by <code>n</code> matrix <code>A</code>.
+     * Only the lower triangle is referenced, and is overwritten by
+     * <code>L</code>
+     * 
+     * @return 0 on success, or <code>i+1</code> if the leading minor of order
+     *         <code>i+1</code> is not positive definite
+     */
+    static int potrf(int n, double[] a, int aOff, int lda) {
+        for (int j = 0; j < n; ++j) {
+            int cj = 2 * (aOff + j * lda);
+
+            // Subtract the contributions of the previous columns
+            for (int k = 0; k < j; ++k) {
+                int ck = 2 * (aOff + k * lda);
+                double lr = a[ck + 2 * j], li = -a[ck + 2 * j + 1];
+                if (lr == 0 && li == 0)
+                    continue;
+                for (int i = 2 * j, end = 2 * n; i < end; i += 2) {
+                    double xr = a[ck + i], xi = a[ck + i + 1];
+                    a[cj + i] -= xr * lr - xi * li;
+                    a[cj + i + 1] -= xr * li + xi * lr;
+                }
+            }
+
+            double d = a[cj + 2 * j];
+            if (!(d > 0))
+                return j + 1;
+            d = Math.sqrt(d);
+            a[cj + 2 * j] = d;
+            a[cj + 2 * j + 1] = 0;
+            for (int i = 2 * (j + 1), end = 2 * n; i < end; ++i)
+                a[cj + i] /= d;
+        }
+        return 0;
+    }
+
+    /**
+     * Solves <code>A*X = B</code> with the factor from
+     * {@link #potrf(int, double[], int, int)}. <code>B</code> is <code>n</code>
+     * by <code>nrhs</code> and is overwritten by <code>X</code>
+     */
+    static void potrs(int n, int nrhs, double[] a, int aOff, int lda, double[] b, int bOff,
+            int ldb) {
+        for (int j = 0; j < nrhs; ++j) {
+            int bj = 2 * (bOff + j * ldb);
+            lowerSolveNonUnit(n, a, aOff, lda, b, bj);
+            lowerHermSolve(n, a, aOff, lda, b, bj);
+        }
+    }
+
+    /**
+     * <code>x = L\x</code>, <code>L</code> lower triangular with a real
+     * diagonal
+     */
+    static void lowerSolveNonUnit(int n, double[] a, int aOff, int lda, double[] x, int xOff) {
+        for (int k = 0; k < n; ++k) {
+            int ck = 2 * (aOff + k * lda);
+            double d = a[ck + 2 * k];
+            double xr = x[xOff + 2 * k] / d, xi = x[xOff + 2 * k + 1] / d;
+            x[xOff + 2 * k] = xr;
+            x[xOff + 2 * k + 1] = xi;
+            for (int i = k + 1; i < n; ++i) {
+                double lr = a[ck + 2 * i], li = a[ck + 2 * i + 1];
+                x[xOff + 2 * i] -= lr * xr - li * xi;
+                x[xOff + 2 * i + 1] -= lr * xi + li * xr;
+            }
+        }
+    }
+
+    /**
+     * <code>x = L<sup>H</sup>\x</code>, <code>L</code> lower triangular with a
+     * real diagonal
+     */
+    static void lowerHermSolve(int n, double[] a, int aOff, int lda, double[] x, int xOff) {
+        for (int k = n - 1; k >= 0; --k) {
+            int ck = 2 * (aOff + k * lda);
+            double br = x[xOff + 2 * k], bi = x[xOff + 2 * k + 1];
+            for (int i = k + 1; i < n; ++i) {
+                double lr = a[ck + 2 * i], li = a[ck + 2 * i + 1];
+                double yr = x[xOff + 2 * i], yi = x[xOff + 2 * i + 1];
+                br -= lr * yr + li * yi;
+                bi -= lr * yi - li * yr;
+            }
+            double d = a[ck + 2 * k];
+            x[xOff + 2 * k] = br / d;
+            x[xOff + 2 * k + 1] = bi / d;
+        }
+    }
+
+    /**
+     * <code>A = alpha*x*y<sup>T</sup> + A</code>, or
+     * <code>A = alpha*x*y<sup>H</sup> + A</code> if <code>conj</code> is set,
+     * for an <code>m</code> by <code>n</code> matrix <code>A</code>.
+     * <code>x</code> and <code>y</code> are contiguous from the given offsets
+     */
+    static void ger(boolean conj, int m, int n, double alphaRe, double alphaIm, double[] x,
+            int xOff, double[] y, int yOff, double[] a, int aOff, int lda) {
+        ComplexKernels kernels = ComplexKernels.get();
+        double s = conj ? -1 : 1;
+        for (int j = 0; j < n; ++j) {
+            double yr = y[2 * (yOff + j)], yi = s * y[2 * (yOff + j) + 1];
+            // alpha*y_j
+            double cr = alphaRe * yr - alphaIm * yi, ci = alphaRe * yi + alphaIm * yr;
+            if (cr == 0 && ci == 0)
+                continue;
+            kernels.axpy(m, cr, ci, x, xOff, a, aOff + j * lda);
+        }
+    }
+
+    /**
+     * <code>A = alpha*B*B<sup>H</sup> + A</code> for a real
+     * <code>alpha</code>, an <code>n</code> by <code>n</code> matrix
+     * <code>A</code> and an <code>n</code> by <code>k</code> matrix
+     * <code>B</code>. Only the products on and above the diagonal are formed;
+     * their conjugates are added below it, so <code>A</code> need not be
+     * Hermitian
+     */
+    static void herk(int n, int k, double alpha, double[] b, int bOff, int ldb, double[] a,
+            int aOff, int lda) {
+        if (n == 0 || k == 0 || alpha == 0)
+            return;
+        for (int j = 0; j < n; ++j)
+            for (int i = 0; i <= j; ++i) {
+                // sum_l b_il * conj(b_jl)
+                double re = 0, im = 0;
+                for (int l = 0; l < k; ++l) {
+                    int bi = 2 * (bOff + i + l * ldb), bj = 2 * (bOff + j + l * ldb);
+                    re += b[bi] * b[bj] + b[bi + 1] * b[bj + 1];
+                    im += b[bi + 1] * b[bj] - b[bi] * b[bj + 1];
+                }
+                int ij = 2 * (aOff + i + j * lda);
+                a[ij] += alpha * re;
+                a[ij + 1] += alpha * im;
+                if (i != j) {
+                    int ji = 2 * (aOff + j + i * lda);
+                    a[ji] += alpha * re;
+                    a[ji + 1] -= alpha * im;
+                }
+            }
+    }
+
+    /**
+     * Eigenvalues and eigenvectors of the Hermitian <code>n</code> by
+     * <code>n</code> matrix <code>A</code> by cyclic Jacobi rotations.
+     * <code>A</code> is overwritten. On return, <code>w</code> holds the
+     * eigenvalues in ascending order and the columns of <code>V</code> the
+     * corresponding orthonormal eigenvectors. Eigenvectors are not computed if
+     * <code>v</code> is null. Orders 1 and 2 are solved in closed form
+     * 
+     * @return 0 on success, 1 if the rotations failed to converge
+     */
+    static int heev(int n, double[] a, int aOff, int lda, double[] w, double[] v, int vOff,
+            int ldv) {
+        if (n <= 2)
+            return heev2(n, a, aOff, lda, w, v, vOff, ldv);
+
+        if (v != null)
+            identity(n, v, vOff, ldv);
+
+        int info = 1;
+        for (int sweep = 0; sweep < 64; ++sweep) {
+            double off = 0, diag = 0;
+            for (int q = 0; q < n; ++q) {
+                int cq = 2 * (aOff + q * lda);
+                for (int p = 0; p < q; ++p)
+                    off += a[cq + 2 * p] * a[cq + 2 * p] + a[cq + 2 * p + 1] * a[cq + 2 * p + 1];
+                diag += a[cq + 2 * q] * a[cq + 2 * q];
+            }
+            if (off <= 1e-32 * diag || off == 0) {
+                info = 0;
+                break;
+            }
+
+            for (int q = 1; q < n; ++q)
+                for (int p = 0; p < q; ++p)
+                    jacobi(n, a, aOff, lda, v, vOff, ldv, p, q);
+        }
+
+        for (int i = 0; i < n; ++i)
+            w[i] = a[2 * (aOff + i + i * lda)];
+
+        // Selection sort, swapping eigenvector columns along
+        for (int i = 0; i < n - 1; ++i) {
+            int k = i;
+            for (int j = i + 1; j < n; ++j)
+                if (w[j] < w[k])
+                    k = j;
+            if (k != i) {
+                double t = w[i];
+                w[i] = w[k];
+                w[k] = t;
+                if (v == null)
+                    continue;
+                int ci = 2 * (vOff + i * ldv), ck = 2 * (vOff + k * ldv);
+                for (int l = 0; l < 2 * n; ++l) {
+                    t = v[ci + l];
+                    v[ci + l] = v[ck + l];
+                    v[ck + l] = t;
+                }
+            }
+        }
+        return info;
+    }
+
+    /**
+     * {@link #heev} for <code>n &lt;= 2</code>. With <code>A = [a b; conj(b)
+     * d]</code> the eigenvalues are <code>(a+d)/2 -+ r</code>, where
+     * <code>r = hypot((a-d)/2, |b|)</code>; the eigenvector of the larger one
+     * is taken from the row of <code>A - lambda*I</code> that avoids
+     * cancellation, and the other is its orthogonal complement
+     */
+    private static int heev2(int n, double[] a, int aOff, int lda, double[] w, double[] v,
+            int vOff, int ldv) {
+        if (n == 0)
+            return 0;
+        if (v != null)
+            identity(n, v, vOff, ldv);
+        double p = a[2 * aOff];
+        if (n == 1) {
+            w[0] = p;
+            return 0;
+        }
+
+        int c1 = 2 * (aOff + lda);
+        double d = a[c1 + 2], br = a[c1], bi = a[c1 + 1];
+        double m = (p + d) / 2, h = (p - d) / 2, g = Math.hypot(br, bi);
+        double r = Math.hypot(h, g);
+        w[0] = m - r;
+        w[1] = m + r;
+        if (v == null)
+            return 0;
+
+        // Eigenvector (xr + i*xi, yr + i*yi) of w[1]
+        double xr, xi, yr, yi;
+        if (g == 0) {
+            xr = h >= 0 ? 1 : 0;
+            yr = h >= 0 ? 0 : 1;
+            xi = yi = 0;
+        } else if (h >= 0) {
+            double s = Math.hypot(r + h, g);
+            xr = (r + h) / s;
+            xi = 0;
+            yr = br / s;
+            yi = -bi / s;
+        } else {
+            double s = Math.hypot(r - h, g);
+            xr = br / s;
+            xi = bi / s;
+            yr = (r - h) / s;
+            yi = 0;
+        }
+        int v0 = 2 * vOff, v1 = 2 * (vOff + ldv);
+        v[v0] = -yr;
+        v[v0 + 1] = yi;
+        v[v0 + 2] = xr;
+        v[v0 + 3] = -xi;
+        v[v1] = xr;
+        v[v1 + 1] = xi;
+        v[v1 + 2] = yr;
+        v[v1 + 3] = yi;
+        return 0;
+    }
+
+    /**
+     * Annihilates <code>A(p,q)</code> by the unitary rotation
+     * <code>A = U<sup>H</sup>*A*U</code>, and accumulates <code>V = V*U</code>
+     * unless <code>v</code> is null
+     */
+    private static void jacobi(int n, double[] a, int aOff, int lda, double[] v, int vOff,
+            int ldv, int p, int q) {
+        int cp = 2 * (aOff + p * lda), cq = 2 * (aOff + q * lda);
+        double gr = a[cq + 2 * p], gi = a[cq + 2 * p + 1];
+        double g = Math.hypot(gr, gi);
+        if (g == 0)
+            return;
+
+        // Phase e of A(p,q), and the real rotation of [app g; g aqq]
+        double er = gr / g, ei = gi / g;
+        double theta = (a[cq + 2 * q] - a[cp + 2 * p]) / (2 * g);
+        double t = (theta >= 0 ? 1 : -1) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+        double c = 1 / Math.sqrt(t * t + 1), s = t * c;
+
+        // A = A*U, with U(p,p) = c, U(p,q) = s, U(q,p) = -s*conj(e), U(q,q) = c*conj(e)
+        rotateColumns(n, a, cp, cq, c, s, er, ei);
+        if (v != null)
+            rotateColumns(n, v, 2 * (vOff + p * ldv), 2 * (vOff + q * ldv), c, s, er, ei);
+
+        // A = U^H*A
+        for (int k = 0; k < n; ++k) {
+            int ck = 2 * (aOff + k * lda);
+            double xr = a[ck + 2 * p], xi = a[ck + 2 * p + 1];
+            double yr = a[ck + 2 * q], yi = a[ck + 2 * q + 1];
+            double eyr = yr * er - yi * ei, eyi = yr * ei + yi * er;
+            a[ck + 2 * p] = c * xr - s * eyr;
+            a[ck + 2 * p + 1] = c * xi - s * eyi;
+            a[ck + 2 * q] = s * xr + c * eyr;
+            a[ck + 2 * q + 1] = s * xi + c * eyi;
+        }
+
+        a[cq + 2 * p] = a[cq + 2 * p + 1] = 0;
+        a[cp + 2 * q] = a[cp + 2 * q + 1] = 0;
+        a[cp + 2 * p + 1] = a[cq + 2 * q + 1] = 0;
+    }
+
+    private static void rotateColumns(int n, double[] a, int cp, int cq, double c, double s,
+            double er, double ei) {
+        for (int i = 0, end = 2 * n; i < end; i += 2) {
+            double xr = a[cp + i], xi = a[cp + i + 1];
+            double yr = a[cq + i], yi = a[cq + i + 1];
+            double eyr = yr * er + yi * ei, eyi = yi * er - yr * ei;
+            a[cp + i] = c * xr - s * eyr;
+            a[cp + i + 1] = c * xi - s * eyi;
+            a[cq + i] = s * xr + c * eyr;
+            a[cq + i + 1] = s * xi + c * eyi;
+        }
+    }
+
+    /**
+     * Conjugates <code>n</code> consecutive entries starting at array index
+     * <code>off</code>
+     */
+    private static void conjugate(int n, double[] x, int off) {
+        for (int i = off + 1, end = off + 2 * n; i < end; i += 2)
+            x[i] = -x[i];
+    }
+
+    /**
+     * Interchanges rows <code>i</code> and <code>p</code> in the first
+     * <code>n</code> columns
+     */
+    static void swapRows(int n, double[] a, int aOff, int lda, int i, int p) {
+        for (int j = 0; j < n; ++j) {
+            int ci = 2 * (aOff + i + j * lda);
+            int cp = 2 * (aOff + p + j * lda);
+            double t = a[ci];
+            a[ci] = a[cp];
+            a[cp] = t;
+            t = a[ci + 1];
+            a[ci + 1] = a[cp + 1];
+            a[cp + 1] = t;
+        }
+    }
+
+    /**
+     * Interchanges columns <code>j</code> and <code>p</code> of the
+     * <code>m</code> row matrix <code>A</code>
+     */
+    static void swapColumns(int m, double[] a, int aOff, int lda, int j, int p) {
+        int cj = 2 * (aOff + j * lda), cp = 2 * (aOff + p * lda);
+        for (int i = 0; i < 2 * m; ++i) {
+            double t = a[cj + i];
+            a[cj + i] = a[cp + i];
+            a[cp + i] = t;
+        }
+    }
+
+    /**
+     * Sets the <code>n</code> by <code>n</code> identity
+     */
+    static void identity(int n, double[] a, int aOff, int lda) {
+        for (int j = 0; j < n; ++j) {
+            int cj = 2 * (aOff + j * lda);
+            java.util.Arrays.fill(a, cj, cj + 2 * n, 0);
+            a[cj + 2 * j] = 1;
+        }
+    }
+
+    /**
+     * Expands the <code>m</code> by <code>n</code> matrix <code>A</code> into
+     * its real embedding <code>[Re -Im; Im Re]</code>, stored column-major as a
+     * <code>2*m</code> by <code>2*n</code> real matrix
+     */
+    static double[] embed(int m, int n, double[] a, int aOff, int lda) {
+        int ld = 2 * m;
+        double[] e = new double[ld * 2 * n];
+        for (int j = 0; j < n; ++j) {
+            int col = j * ld;
+            int colIm = (j + n) * ld;
+            int aj = 2 * (aOff + j * lda);
+            for (int i = 0; i < m; ++i) {
+                double re = a[aj + 2 * i];
+                double im = a[aj + 2 * i + 1];
+                e[col + i] = re;
+                e[col + i + m] = im;
+                e[colIm + i] = -im;
+                e[colIm + i + m] = re;
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Stacks the <code>m</code> by <code>n</code> matrix <code>A</code> into
+     * the <code>2*m</code> by <code>n</code> real matrix <code>[Re; Im]</code>,
+     * the left half of its real embedding
+     */
+    static double[] stack(int m, int n, double[] a, int aOff, int lda) {
+        int ld = 2 * m;
+        double[] e = new double[ld * n];
+        for (int j = 0; j < n; ++j) {
+            int aj = 2 * (aOff + j * lda);
+            for (int i = 0; i < m; ++i) {
+                e[j * ld + i] = a[aj + 2 * i];
+                e[j * ld + i + m] = a[aj + 2 * i + 1];
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Inverse of {@link #stack(int, int, double[], int, int)}. Reads the first
+     * <code>n</code> columns of a real matrix with leading dimension
+     * <code>2*m</code>
+     */
+    static void unstack(int m, int n, double[] e, double[] a, int aOff, int lda) {
+        int ld = 2 * m;
+        for (int j = 0; j < n; ++j) {
+            int aj = 2 * (aOff + j * lda);
+            for (int i = 0; i < m; ++i) {
+                a[aj + 2 * i] = e[j * ld + i];
+                a[aj + 2 * i + 1] = e[j * ld + i + m];
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.yahoo.algebra.matrix;
+
+import no.uib.cipr.matrix.MatrixSingularException;
+
+/**
+ * Dense LU decomposition with partial pivoting, <code>A = P*L*U</code>. The
+ * matrix is factorized once, after which any number of right-hand sides may be
+ * solved against <code>A</code>, <code>A<sup>T</sup></code> or
+ * <code>A<sup>H</sup></code>
+ */
+public class DenseComplexLU {
+
+    /**
+     * Holds the LU factors
+     */
+    private final DenseComplexMatrix LU;
+
+    /**
+     * Row pivotations
+     */
+    private final int[] piv;
+
+    /**
+     * True if the matrix was singular
+     */
+    private boolean singular;
+
+    /**
+     * Workspace for the inverse, sized by a workspace query on first use and
+     * kept for later calls
+     */
+    private double[] work;
+
+    /**
+     * Constructor for DenseComplexLU
+     * 
+     * @param n
+     *            Size of the matrices to factorize
+     */
+    public DenseComplexLU(int n) {
+        LU = new DenseComplexMatrix(n, n);
+        piv = new int[n];
+    }
+
+    /**
+     * Creates an LU decomposition of the given matrix
+     * 
+     * @param A
+     *            Matrix to decompose. Not modified
+     * @return The current decomposition
+     */
+    public static DenseComplexLU factorize(ComplexMatrix A) {
+        if (!A.isSquare())
+            throw new IndexOutOfBoundsException("!A.isSquare");
+        return new DenseComplexLU(A.numRows()).factor(A);
+    }
+
+    /**
+     * Creates an LU decomposition of the given matrix
+     * 
+     * @param A
+     *            Matrix to decompose. Not modified
+     * @return The current decomposition
+     */
+    public DenseComplexLU factor(ComplexMatrix A) {
+        if (A.numRows() != LU.numRows() || A.numColumns() != LU.numColumns())
+            throw new IndexOutOfBoundsException("A is " + A.numRows() + "x" + A.numColumns()
+                    + ", decomposition is for " + LU.numRows() + "x" + LU.numColumns());
+        LU.set(A);
+        int n = LU.numRows();
+        singular = ParallelComplexKernels.getrf(n, LU.getData(), 0, n, piv) > 0;
+        return this;
+    }
+
+    /**
+     * Returns the lower triangular factor, with a unit diagonal
+     */
+    public DenseComplexMatrix getL() {
+        int n = LU.numRows();
+        DenseComplexMatrix L = new DenseComplexMatrix(n, n);
+        for (int j = 0; j < n; ++j) {
+            L.set(j, j, new double[] { 1, 0 });
+            for (int i = j + 1; i < n; ++i)
+                L.set(i, j, LU.get(i, j));
+        }
+        return L;
+    }
+
+    /**
+     * Returns the upper triangular factor
+     */
+    public DenseComplexMatrix getU() {
+        int n = LU.numRows();
+        DenseComplexMatrix U = new DenseComplexMatrix(n, n);
+        for (int j = 0; j < n; ++j)
+            for (int i = 0; i <= j; ++i)
+                U.set(i, j, LU.get(i, j));
+        return U;
+    }
+
+    /**
+     * Returns the decomposition matrix. Only for advanced users
+     */
+    public DenseComplexMatrix getLU() {
+        return LU;
+    }
+
+    /**
+     * Returns the row pivots. Row <code>i</code> was interchanged with row
+     * <code>getPivots()[i]</code>, zero-based
+     */
+    public int[] getPivots() {
+        return piv;
+    }
+
+    /**
+     * Checks for singularity
+     */
+    public boolean isSingular() {
+        return singular;
+    }
+
+    /**
+     * Computes <code>A\B</code>, overwriting <code>B</code>
+     */
+    public DenseComplexMatrix solve(DenseComplexMatrix B) throws MatrixSingularException {
+        return solve(B, Transpose.NoTranspose);
+    }
+
+    /**
+     * Computes <code>A<sup>T</sup>\B</code>, overwriting <code>B</code>
+     */
+    public DenseComplexMatrix transSolve(DenseComplexMatrix B) throws MatrixSingularException {
+        return solve(B, Transpose.Transpose);
+    }
+
+    /**
+     * Computes <code>A<sup>H</sup>\B</code>, overwriting <code>B</code>
+     */
+    public DenseComplexMatrix hermSolve(DenseComplexMatrix B) throws MatrixSingularException {
+        return solve(B, Transpose.ConjugateTranspose);
+    }
+
+    /**
+     * Computes <code>A\b</code>, overwriting <code>b</code>
+     */
+    public DenseComplexVector solve(DenseComplexVector b) throws MatrixSingularException {
+        return solve(b, Transpose.NoTranspose);
+    }
+
+    /**
+     * Computes <code>A<sup>T</sup>\b</code>, overwriting <code>b</code>
+     */
+    public DenseComplexVector transSolve(DenseComplexVector b) throws MatrixSingularException {
+        return solve(b, Transpose.Transpose);
+    }
+
+    /**
+     * Computes <code>A<sup>H</sup>\b</code>, overwriting <code>b</code>
+     */
+    public DenseComplexVector hermSolve(DenseComplexVector b) throws MatrixSingularException {
+        return solve(b, Transpose.ConjugateTranspose);
+    }
+
+    private DenseComplexMatrix solve(DenseComplexMatrix B, Transpose trans) {
+        if (B.numRows() != LU.numRows())
+            throw new IndexOutOfBoundsException("B.numRows() != LU.numRows() (" + B.numRows()
+                    + " != " + LU.numRows() + ")");
+        if (singular)
+            throw new MatrixSingularException();
+        int n = LU.numRows();
+        DenseComplexKernels.getrs(trans, n, B.numColumns(), LU.getData(), 0, n, piv,
+                B.getData(), 0, n);
+        return B;
+    }
+
+    private DenseComplexVector solve(DenseComplexVector b, Transpose trans) {
+        if (b.size() != LU.numRows())
+            throw new IndexOutOfBoundsException("b.size() != LU.numRows() (" + b.size() + " != "
+                    + LU.numRows() + ")");
+        if (singular)
+            throw new MatrixSingularException();
+        int n = LU.numRows();
+        DenseComplexKernels.getrs(trans, n, 1, LU.getData(), 0, n, piv, b.getData(), 0, n);
+        return b;
+    }
+
+    /**
+     * Returns <code>A<sup>-1</sup></code> in a new matrix
+     */
+    public DenseComplexMatrix inverse() throws MatrixSingularException {
+        return inverse(new DenseComplexMatrix(LU.numRows(), LU.numColumns()));
+    }
+
+    /**
+     * Computes <code>A<sup>-1</sup></code> into <code>X</code>, which may be
+     * reused between calls. The factors are kept, so the decomposition can
+     * still be used to solve
+     * 
+     * @return X
+     */
+    public DenseComplexMatrix inverse(DenseComplexMatrix X) throws MatrixSingularException {
+        if (X.numRows() != LU.numRows() || X.numColumns() != LU.numColumns())
+            throw new IndexOutOfBoundsException("X is " + X.numRows() + "x" + X.numColumns()
+                    + ", decomposition is for " + LU.numRows() + "x" + LU.numColumns());
+        if (singular)
+            throw new MatrixSingularException();
+        int n = LU.numRows();
+        if (work == null) {
+            double[] query = new double[2];
+            DenseComplexKernels.getri(n, LU.getData(), 0, n, piv, query, -1);
+            work = new double[2 * (int) query[0]];
+        }
+        X.set(LU);
+        if (DenseComplexKernels.getri(n, X.getData(), 0, n, piv, work, work.length / 2) != 0)
+            throw new MatrixSingularException();
+        return X;
+    }
+
+    /**
+     * Returns the determinant of <code>A</code>
+     */
+    public double[] det() {
+        int n = LU.numRows();
+        double[] d = LU.getData();
+        double re = 1, im = 0;
+        for (int i = 0; i < n; ++i) {
+            int k = 2 * (i + i * n);
+            double t = re * d[k] - im * d[k + 1];
+            im = re * d[k + 1] + im * d[k];
+            re = t;
+            if (piv[i] != i) {
+                re = -re;
+                im = -im;
+            }
+        }
+        return new double[] { re, im };
+    }
+
+    /**
+     * Returns <code>log(det(A))</code> as <code>{log|det(A)|, arg(det(A))}</code>
+     * with the argument in <code>(-pi, pi]</code>. Accumulated as a sum of
+     * logarithms, so it neither overflows nor underflows where {@link #det()}
+     * would. The first part is <code>-Infinity</code> for a singular matrix
+     */
+    public double[] logDet() {
+        int n = LU.numRows();
+        double[] d = LU.getData();
+        double mod = 0, arg = 0;
+        for (int i = 0; i < n; ++i) {
+            int k = 2 * (i + i * n);
+            mod += Math.log(Math.hypot(d[k], d[k + 1]));
+            arg += Math.atan2(d[k + 1], d[k]);
+            if (piv[i] != i)
+                arg += Math.PI;
+        }
+        arg = Math.IEEEremainder(arg, 2 * Math.PI);
+        if (arg == -Math.PI)
+            arg = Math.PI;
+        return new double[] { mod, arg };
+    }
+
+    /**
+     * Estimates the reciprocal condition number of <code>A</code> in the one
+     * or infinity norm, using Hager's estimate of the norm of the inverse
+     * 
+     * @param A
+     *            The matrix this is a decomposition of
+     * @param norm
+     *            {@link ComplexMatrix.Norm#One} or
+     *            {@link ComplexMatrix.Norm#Infinity}
+     */
+    public double rcond(ComplexMatrix A, ComplexMatrix.Norm norm) {
+        if (norm != ComplexMatrix.Norm.One && norm != ComplexMatrix.Norm.Infinity)
+            throw new IllegalArgumentException("Only the 1 or the Infinity norms are supported");
+        if (A.numRows() != LU.numRows() || A.numColumns() != LU.numColumns())
+            throw new IndexOutOfBoundsException("A is " + A.numRows() + "x" + A.numColumns()
+                    + ", decomposition is for " + LU.numRows() + "x" + LU.numColumns());
+        if (singular)
+            return 0;
+        int n = LU.numRows();
+        if (n == 0)
+            return Double.POSITIVE_INFINITY;
+
+        // Column sums for the 1 norm, row sums for the infinity norm
+        double[] sums = new double[n];
+        for (int i = 0; i < n; ++i)
+            for (int j = 0; j < n; ++j)
+                sums[norm == ComplexMatrix.Norm.One ? j : i] += Complexes.abs(A.get(i, j));
+        double anorm = 0;
+        for (double s : sums)
+            anorm = Math.max(anorm, s);
+        if (anorm == 0)
+            return 0;
+
+        // The infinity norm of inv(A) is the 1 norm of inv(A)^H
+        Transpose forward = norm == ComplexMatrix.Norm.One ? Transpose.NoTranspose
+                : Transpose.ConjugateTranspose;
+        Transpose backward = norm == ComplexMatrix.Norm.One ? Transpose.ConjugateTranspose
+                : Transpose.NoTranspose;
+
+        DenseComplexVector x = new DenseComplexVector(n);
+        for (int i = 0; i < n; ++i)
+            x.set(i, new double[] { 1.0 / n, 0 });
+        double est = 0;
+        int last = -1;
+        for (int iter = 0; iter < 5; ++iter) {
+            solve(x, forward);
+            double[] xd = x.getData();
+            double est1 = 0;
+            for (int i = 0; i < n; ++i)
+                est1 += Math.hypot(xd[2 * i], xd[2 * i + 1]);
+            if (iter > 0 && est1 <= est)
+                break;
+            est = est1;
+
+            // Complex sign of x, then z = inv(A)^H * sign(x)
+            DenseComplexVector z = new DenseComplexVector(n);
+            double[] zd = z.getData();
+            for (int i = 0; i < n; ++i) {
+                double a = Math.hypot(xd[2 * i], xd[2 * i + 1]);
+                zd[2 * i] = a == 0 ? 1 : xd[2 * i] / a;
+                zd[2 * i + 1] = a == 0 ? 0 : xd[2 * i + 1] / a;
+            }
+            solve(z, backward);
+
+            int jmax = 0;
+            double zmax = -1;
+            for (int i = 0; i < n; ++i) {
+                double a = Math.hypot(zd[2 * i], zd[2 * i + 1]);
+                if (a > zmax) {
+                    zmax = a;
+                    jmax = i;
+                }
+            }
+            // Re(z^H * x) with the previous x = e_j, or the initial vector
+            double zx = 0;
+            if (iter == 0)
+                for (int i = 0; i < n; ++i)
+                    zx += zd[2 * i] / n;
+            else
+                zx = zd[2 * last];
+            if (zmax <= zx)
+                break;
+            x.zero();
+            x.set(jmax, new double[] { 1, 0 });
+            last = jmax;
+        }
+        return 1.0 / (anorm * est);
+    }
+}
@@ -1,15 +1,10 @@
 package com.yahoo.algebra.matrix;
 
-import org.netlib.lapack.LAPACK;
-import org.netlib.util.intW;
-
 import com.yahoo.networkmimo.exception.ComplexMatrixNotSPDException;
 
-import no.uib.cipr.matrix.DenseLU;
 import no.uib.cipr.matrix.DenseMatrix;
-import no.uib.cipr.matrix.MatrixEntry;
 import no.uib.cipr.matrix.MatrixNotSPDException;
-import no.uib.cipr.matrix.UpperTriangDenseMatrix;
+import no.uib.cipr.matrix.MatrixSingularException;
 
 public class DenseComplexMatrix extends AbstractDenseComplexMatrix {
 
@@ -60,19 +55,24 @@ public class DenseComplexMatrix extends AbstractDenseComplexMatrix {
      *            If true, x is copied, if false, the internal storage of this
      *            ComplexMatrix is the same as that of the ComplexVector. In
      *            that case, <code>x</code> must be a
-     *            <code>DenseComplexVector</code>
+     *            <code>DenseComplexVector</code>. Both use the same
+     *            interleaved layout, so no data is copied
      */
     public DenseComplexMatrix(ComplexVector x, boolean deep) {
-        super(x.size(), 1);
+        super(x.size(), 1, deep ? new double[2 * x.size()] : sharedData(x));
 
         if (deep)
             for (ComplexVectorEntry e : x)
                 set(e.index(), 0, e.get());
-        else {
-            if (!(x instanceof DenseComplexVector))
-                throw new IllegalArgumentException("x must be a DenseComplexVector");
-            data = ((DenseComplexVector) x).getData();
-        }
+    }
+
+    /**
+     * Returns the storage of a dense vector, for a shallow conversion
+     */
+    private static double[] sharedData(ComplexVector x) {
+        if (!(x instanceof DenseComplexVector))
+            throw new IllegalArgumentException("x must be a DenseComplexVector");
+        return ((DenseComplexVector) x).getData();
     }
 
     /**
@@ -136,10 +136,7 @@ public class DenseComplexMatrix extends AbstractDenseComplexMatrix {
     @Override
     void copy(ComplexMatrix A) {
         if (A instanceof DenseComplexMatrix) {
-            double[] data_ = ((DenseComplexMatrix) A).getData();
-            for (int i = 0; i < data.length; i++) {
-                data[i] = data_[i];
-            }
+            System.arraycopy(((DenseComplexMatrix) A).data, 0, data, 0, data.length);
         } else {
             for (ComplexMatrixEntry e : A)
                 set(e.row(), e.column(), e.get());
@@ -147,31 +144,40 @@ public class DenseComplexMatrix extends AbstractDenseComplexMatrix {
     }
 
     /**
-     * Inverse
+     * Inverse. Orders up to 4 use the cofactors, unless the matrix is close
+     * to singular
      */
     @Override
     public ComplexMatrix inverse() throws ComplexMatrixNotSPDException {
         if (!isSquare()) {
             throw new ComplexMatrixNotSPDException();
         }
+        return inverse(new DenseComplexMatrix(numRows, numRows));
+    }
 
-        DenseComplexMatrix A = copy();
-        double[] aData = A.getData();
-
-        intW info = new intW(0);
-        int m = numRows() * 2;
-        int[] piv = new int[m * 2];
-
-        LAPACK.getInstance().dgetrf(m, m, aData, m, piv, info);
+    /**
+     * Inverse into <code>X</code>, which may be this matrix. Dense
+     * destinations are written directly; <code>X</code> is undefined if the
+     * matrix is singular
+     */
+    @Override
+    public ComplexMatrix inverse(ComplexMatrix X) throws ComplexMatrixNotSPDException {
+        if (!(X instanceof DenseComplexMatrix))
+            return super.inverse(X);
+        if (!isSquare()) {
+            throw new ComplexMatrixNotSPDException();
+        }
+        checkSize(X);
 
-        if (info.val != 0)
+        double[] x = ((DenseComplexMatrix) X).getData();
+        if (SmallComplexKernels.isSmall(numRows) && SmallComplexKernels.inverse(numRows, data, 0,
+                numRows, x, 0, numRows, new double[SmallComplexKernels.workSize(numRows)]))
+            return X;
+        if (X != this)
+            System.arraycopy(data, 0, x, 0, data.length);
+        if (ComplexBlas.getri(numRows, x) != 0)
             throw new ComplexMatrixNotSPDException("matrix is not valid");
-        int lwork = m;
-        double[] work = new double[m];
-
-        LAPACK.getInstance().dgetri(m, aData, m, piv, work, lwork, info);
-
-        return A;
+        return X;
     }
 
     /**
@@ -179,14 +185,24 @@ public class DenseComplexMatrix extends AbstractDenseComplexMatrix {
      */
     public DenseMatrix getDenseMatrix() {
         DenseMatrix A = new DenseMatrix(2 * numRows(), 2 * numColumns());
-        for (MatrixEntry e : A) {
-            int row = e.row();
-            int col = e.column();
-            A.set(row, col, data[row + col * 2 * numRows()]);
-        }
+        double[] e = toRealEmbedding();
+        System.arraycopy(e, 0, A.getData(), 0, e.length);
         return A;
     }
 
+    /**
+     * Closed form for orders up to 4, the LU factorization otherwise
+     */
+    @Override
+    public double[] logDet() {
+        if (!isSquare() || !SmallComplexKernels.isSmall(numRows))
+            return super.logDet();
+        double[] det = new double[2];
+        SmallComplexKernels.det(numRows, data, 0, numRows, det,
+                new double[SmallComplexKernels.workSize(numRows)]);
+        return new double[] { Math.log(Math.hypot(det[0], det[1])), Math.atan2(det[1], det[0]) };
+    }
+
     /**
      * sqr of determinant
      */
@@ -194,15 +210,7 @@ public class DenseComplexMatrix extends AbstractDenseComplexMatrix {
         if (!isSquare()) {
             throw new MatrixNotSPDException();
         }
-        DenseMatrix A = getDenseMatrix();
-        DenseLU denseLU = DenseLU.factorize(A);
-        UpperTriangDenseMatrix U = denseLU.getU();
-        double ret = 1.0;
-        for (int i = 0; i < U.numRows(); i++) {
-            ret *= U.get(i, i);
-        }
-        ret = Math.abs(ret);
-        return ret;
+        return Math.exp(2 * logDet()[0]);
     }
 
     /**
@@ -216,22 +224,291 @@ public class DenseComplexMatrix extends AbstractDenseComplexMatrix {
     }
 
     @Override
-    public ComplexMatrix hermitianTranspose() {
-        ComplexMatrix B = new DenseComplexMatrix(numColumns(), numRows());
-        hermitianTranspose(B);
-        return B;
+    public ComplexMatrix view(int rowOffset, int columnOffset, int numRows, int numColumns) {
+        checkView(rowOffset, columnOffset, numRows, numColumns);
+        return new DenseComplexMatrixView(data, rowOffset + columnOffset * this.numRows,
+                this.numRows, numRows, numColumns);
+    }
+
+    @Override
+    public ComplexVector row(int i) {
+        check(i, 0);
+        return new DenseComplexVectorView(data, i, numRows, numColumns);
+    }
+
+    @Override
+    public ComplexVector column(int j) {
+        check(0, j);
+        return new DenseComplexVectorView(data, j * numRows, 1, numRows);
+    }
+
+    @Override
+    public ComplexVector multAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!DenseComplexVectorView.isDense(x) || !DenseComplexVectorView.isDense(y))
+            return super.multAdd(alpha, x, y);
+
+        checkMultAdd(x, y);
+
+        DenseComplexMatrixView.gemv(Transpose.NoTranspose, alpha, this, x, y);
+
+        return y;
+    }
+
+    @Override
+    public ComplexVector transMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!DenseComplexVectorView.isDense(x) || !DenseComplexVectorView.isDense(y))
+            return super.transMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+
+        DenseComplexMatrixView.gemv(Transpose.Transpose, alpha, this, x, y);
+
+        return y;
+    }
+
+    @Override
+    public ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!DenseComplexVectorView.isDense(x) || !DenseComplexVectorView.isDense(y))
+            return super.hermMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+
+        DenseComplexMatrixView.gemv(Transpose.ConjugateTranspose, alpha, this, x, y);
+
+        return y;
+    }
+
+    @Override
+    public ComplexMatrix multAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!DenseComplexMatrixView.isDense(B) || !DenseComplexMatrixView.isDense(C))
+            return super.multAdd(alpha, B, C);
+
+        checkMultAdd(B, C);
+
+        DenseComplexMatrixView.gemm(Transpose.NoTranspose, Transpose.NoTranspose, alpha, this, B,
+                C);
+
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix transAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!DenseComplexMatrixView.isDense(B) || !DenseComplexMatrixView.isDense(C))
+            return super.transAmultAdd(alpha, B, C);
+
+        checkTransAmultAdd(B, C);
+
+        DenseComplexMatrixView.gemm(Transpose.Transpose, Transpose.NoTranspose, alpha, this, B, C);
+
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!DenseComplexMatrixView.isDense(B) || !DenseComplexMatrixView.isDense(C))
+            return super.hermAmultAdd(alpha, B, C);
+
+        checkTransAmultAdd(B, C);
+
+        DenseComplexMatrixView.gemm(Transpose.ConjugateTranspose, Transpose.NoTranspose, alpha,
+                this, B, C);
+
+        return C;
     }
 
     @Override
-    public void set(String str) {
-        String[] rows = str.split(";");
-        if (rows.length != numRows)
-            throw new IllegalArgumentException("rows != " + numRows);
-        for (int i = 0; i < numRows; i++) {
-            String[] cols = rows[i].split(",");
-            for (int j = 0; j < numColumns; j++) {
-                this.set(i, j, Complexes.read(cols[j]));
-            }
+    public ComplexMatrix transBmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!DenseComplexMatrixView.isDense(B) || !DenseComplexMatrixView.isDense(C))
+            return super.transBmultAdd(alpha, B, C);
+
+        checkTransBmultAdd(B, C);
+
+        DenseComplexMatrixView.gemm(Transpose.NoTranspose, Transpose.Transpose, alpha, this, B, C);
+
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermBmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!DenseComplexMatrixView.isDense(B) || !DenseComplexMatrixView.isDense(C))
+            return super.hermBmultAdd(alpha, B, C);
+
+        checkTransBmultAdd(B, C);
+
+        DenseComplexMatrixView.gemm(Transpose.NoTranspose, Transpose.ConjugateTranspose, alpha,
+                this, B, C);
+
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix transABmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!DenseComplexMatrixView.isDense(B) || !DenseComplexMatrixView.isDense(C))
+            return super.transABmultAdd(alpha, B, C);
+
+        checkTransABmultAdd(B, C);
+
+        DenseComplexMatrixView.gemm(Transpose.Transpose, Transpose.Transpose, alpha, this, B, C);
+
+        return C;
+    }
+
+    @Override
+    public ComplexVector solve(ComplexVector b, ComplexVector x) throws MatrixSingularException {
+        checkSolve(b, x);
+        DenseComplexVector Y = x instanceof DenseComplexVector ? (DenseComplexVector) x
+                : new DenseComplexVector(x.size());
+        Y.set(b);
+        int n = numRows;
+        if (!SmallComplexKernels.isSmall(n) || !SmallComplexKernels.solve(n, 1, data, 0, n,
+                Y.getData(), 0, n, new double[SmallComplexKernels.workSize(n)]))
+            DenseComplexLU.factorize(this).solve(Y);
+        return Y == x ? x : x.set(Y);
+    }
+
+    @Override
+    public ComplexVector transSolve(ComplexVector b, ComplexVector x)
+            throws MatrixSingularException {
+        checkSolve(b, x);
+        DenseComplexVector Y = x instanceof DenseComplexVector ? (DenseComplexVector) x
+                : new DenseComplexVector(x.size());
+        Y.set(b);
+        DenseComplexLU.factorize(this).transSolve(Y);
+        return Y == x ? x : x.set(Y);
+    }
+
+    @Override
+    public ComplexMatrix solve(ComplexMatrix B, ComplexMatrix X) throws MatrixSingularException {
+        checkSolve(B, X);
+        DenseComplexMatrix Y = X instanceof DenseComplexMatrix ? (DenseComplexMatrix) X
+                : new DenseComplexMatrix(X.numRows(), X.numColumns());
+        Y.set(B);
+        int n = numRows;
+        if (!SmallComplexKernels.isSmall(n) || !SmallComplexKernels.solve(n, Y.numColumns(), data,
+                0, n, Y.getData(), 0, n, new double[SmallComplexKernels.workSize(n)]))
+            DenseComplexLU.factorize(this).solve(Y);
+        return Y == X ? X : X.set(Y);
+    }
+
+    @Override
+    public ComplexMatrix transSolve(ComplexMatrix B, ComplexMatrix X)
+            throws MatrixSingularException {
+        checkSolve(B, X);
+        DenseComplexMatrix Y = X instanceof DenseComplexMatrix ? (DenseComplexMatrix) X
+                : new DenseComplexMatrix(X.numRows(), X.numColumns());
+        Y.set(B);
+        DenseComplexLU.factorize(this).transSolve(Y);
+        return Y == X ? X : X.set(Y);
+    }
+
+    @Override
+    public ComplexVector solveHPD(ComplexVector b, ComplexVector x) throws MatrixNotSPDException {
+        checkSolve(b, x);
+        DenseComplexVector Y = x instanceof DenseComplexVector ? (DenseComplexVector) x
+                : new DenseComplexVector(x.size());
+        DenseComplexCholesky chol = DenseComplexCholesky.factorize(this);
+        Y.set(b);
+        chol.solve(Y);
+        return Y == x ? x : x.set(Y);
+    }
+
+    @Override
+    public ComplexMatrix solveHPD(ComplexMatrix B, ComplexMatrix X) throws MatrixNotSPDException {
+        checkSolve(B, X);
+        DenseComplexMatrix Y = X instanceof DenseComplexMatrix ? (DenseComplexMatrix) X
+                : new DenseComplexMatrix(X.numRows(), X.numColumns());
+        DenseComplexCholesky chol = DenseComplexCholesky.factorize(this);
+        Y.set(B);
+        chol.solve(Y);
+        return Y == X ? X : X.set(Y);
+    }
+
+    @Override
+    public ComplexMatrix shiftDiagonal(double alpha[]) {
+        for (int i = 0, k = 0; i < Math.min(numRows, numColumns); i++, k += 2 * (numRows + 1)) {
+            data[k] += alpha[0];
+            data[k + 1] += alpha[1];
         }
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix addDiagonal(double[] d) {
+        checkDiagonal(d);
+        for (int i = 0; i < d.length; i++)
+            data[2 * i * (numRows + 1)] += d[i];
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix rank1(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.rank1(alpha, x, y);
+
+        checkRank1(x, y);
+
+        DenseComplexKernels.ger(false, numRows, numColumns, alpha[0], alpha[1],
+                ((DenseComplexVector) x).getData(), 0, ((DenseComplexVector) y).getData(), 0,
+                data, 0, numRows);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix rank1Conj(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.rank1Conj(alpha, x, y);
+
+        checkRank1Conj(x, y);
+
+        DenseComplexKernels.ger(true, numRows, numColumns, alpha[0], alpha[1],
+                ((DenseComplexVector) x).getData(), 0, ((DenseComplexVector) y).getData(), 0,
+                data, 0, numRows);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix rank2Herm(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.rank2Herm(alpha, x, y);
+
+        checkRank1(x, y);
+
+        double[] xd = ((DenseComplexVector) x).getData(), yd = ((DenseComplexVector) y).getData();
+        DenseComplexKernels.ger(true, numRows, numColumns, alpha[0], alpha[1], xd, 0, yd, 0,
+                data, 0, numRows);
+        DenseComplexKernels.ger(true, numRows, numColumns, alpha[0], -alpha[1], yd, 0, xd, 0,
+                data, 0, numRows);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix rank1Herm(double alpha, ComplexVector x) {
+        if (!(x instanceof DenseComplexVector))
+            return super.rank1Herm(alpha, x);
+
+        checkRank1(x, x);
+
+        DenseComplexKernels.herk(numRows, 1, alpha, ((DenseComplexVector) x).getData(), 0,
+                numRows, data, 0, numRows);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix rankK(double alpha, ComplexMatrix C) {
+        if (!(C instanceof DenseComplexMatrix))
+            return super.rankK(alpha, C);
+
+        checkRank1(C);
+
+        DenseComplexKernels.herk(numRows, C.numColumns(), alpha,
+                ((DenseComplexMatrix) C).data, 0, numRows, data, 0, numRows);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix hermitianTranspose() {
+        ComplexMatrix B = new DenseComplexMatrix(numColumns(), numRows());
+        hermitianTranspose(B);
+        return B;
     }
 }
@@ -0,0 +1,341 @@
+package com.yahoo.algebra.matrix;
+
+import com.yahoo.networkmimo.exception.ComplexMatrixNotSPDException;
+
+/**
+ * Submatrix of a dense matrix, referring to its storage through an offset and
+ * a leading dimension. Nothing is copied: writes through the view change the
+ * underlying matrix and the other way round. The dense kernels accept views
+ * wherever they accept a <code>DenseComplexMatrix</code>
+ */
+public class DenseComplexMatrixView extends AbstractComplexMatrix {
+
+    /**
+     * Shared storage, interleaved column-major as in
+     * {@link AbstractDenseComplexMatrix}
+     */
+    private final double[] data;
+
+    /**
+     * Position of entry <code>(0, 0)</code> and distance between columns, in
+     * complex entries
+     */
+    private final int offset, ld;
+
+    /**
+     * Constructor for DenseComplexMatrixView
+     *
+     * @param data
+     *            Interleaved column-major storage to refer to
+     * @param offset
+     *            Position of entry <code>(0, 0)</code> in complex entries
+     * @param ld
+     *            Distance between columns in complex entries
+     * @param numRows
+     *            Number of rows
+     * @param numColumns
+     *            Number of columns
+     */
+    DenseComplexMatrixView(double[] data, int offset, int ld, int numRows, int numColumns) {
+        super(numRows, numColumns);
+        if (ld < numRows)
+            throw new IllegalArgumentException("ld < numRows (" + ld + " < " + numRows + ")");
+        this.data = data;
+        this.offset = offset;
+        this.ld = Math.max(1, ld);
+    }
+
+    /**
+     * Returns the shared storage
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /**
+     * Returns the position of entry <code>(0, 0)</code> in the storage, in
+     * complex entries
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the distance between columns, in complex entries
+     */
+    public int getLeadingDimension() {
+        return ld;
+    }
+
+    @Override
+    public double[] get(int row, int column) {
+        check(row, column);
+        int i = 2 * (offset + row + column * ld);
+        return new double[] { data[i], data[i + 1] };
+    }
+
+    @Override
+    public void set(int row, int column, double value[]) {
+        check(row, column);
+        int i = 2 * (offset + row + column * ld);
+        data[i] = value[0];
+        data[i + 1] = value[1];
+    }
+
+    @Override
+    public void add(int row, int column, double value[]) {
+        check(row, column);
+        int i = 2 * (offset + row + column * ld);
+        data[i] += value[0];
+        data[i + 1] += value[1];
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        check(row, column);
+        return data[2 * (offset + row + column * ld)];
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        check(row, column);
+        return data[2 * (offset + row + column * ld) + 1];
+    }
+
+    @Override
+    public void set(int row, int column, double re, double im) {
+        check(row, column);
+        int i = 2 * (offset + row + column * ld);
+        data[i] = re;
+        data[i + 1] = im;
+    }
+
+    @Override
+    public void add(int row, int column, double re, double im) {
+        check(row, column);
+        int i = 2 * (offset + row + column * ld);
+        data[i] += re;
+        data[i + 1] += im;
+    }
+
+    /**
+     * Returns a <code>DenseComplexMatrix</code> with the same contents
+     */
+    @Override
+    public DenseComplexMatrix copy() {
+        DenseComplexMatrix A = new DenseComplexMatrix(numRows, numColumns);
+        for (int j = 0; j < numColumns; j++)
+            System.arraycopy(data, 2 * (offset + j * ld), A.getData(), 2 * j * numRows,
+                    2 * numRows);
+        return A;
+    }
+
+    @Override
+    public ComplexMatrix zero() {
+        for (int j = 0; j < numColumns; j++)
+            for (int i = 2 * (offset + j * ld), end = i + 2 * numRows; i < end; i++)
+                data[i] = 0;
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix scale(double alpha[]) {
+        for (int j = 0; j < numColumns; j++)
+            for (int i = 2 * (offset + j * ld), end = i + 2 * numRows; i < end; i += 2) {
+                double re = data[i], im = data[i + 1];
+                data[i] = alpha[0] * re - alpha[1] * im;
+                data[i + 1] = alpha[0] * im + alpha[1] * re;
+            }
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix view(int rowOffset, int columnOffset, int numRows, int numColumns) {
+        checkView(rowOffset, columnOffset, numRows, numColumns);
+        return new DenseComplexMatrixView(data, offset + rowOffset + columnOffset * ld, ld,
+                numRows, numColumns);
+    }
+
+    @Override
+    public ComplexVector row(int i) {
+        check(i, 0);
+        return new DenseComplexVectorView(data, offset + i, ld, numColumns);
+    }
+
+    @Override
+    public ComplexVector column(int j) {
+        check(0, j);
+        return new DenseComplexVectorView(data, offset + j * ld, 1, numRows);
+    }
+
+    @Override
+    public ComplexVector multAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!DenseComplexVectorView.isDense(x) || !DenseComplexVectorView.isDense(y))
+            return super.multAdd(alpha, x, y);
+
+        checkMultAdd(x, y);
+        gemv(Transpose.NoTranspose, alpha, this, x, y);
+        return y;
+    }
+
+    @Override
+    public ComplexVector transMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!DenseComplexVectorView.isDense(x) || !DenseComplexVectorView.isDense(y))
+            return super.transMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+        gemv(Transpose.Transpose, alpha, this, x, y);
+        return y;
+    }
+
+    @Override
+    public ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!DenseComplexVectorView.isDense(x) || !DenseComplexVectorView.isDense(y))
+            return super.hermMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+        gemv(Transpose.ConjugateTranspose, alpha, this, x, y);
+        return y;
+    }
+
+    @Override
+    public ComplexMatrix multAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!isDense(B) || !isDense(C))
+            return super.multAdd(alpha, B, C);
+
+        checkMultAdd(B, C);
+        gemm(Transpose.NoTranspose, Transpose.NoTranspose, alpha, this, B, C);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix transAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!isDense(B) || !isDense(C))
+            return super.transAmultAdd(alpha, B, C);
+
+        checkTransAmultAdd(B, C);
+        gemm(Transpose.Transpose, Transpose.NoTranspose, alpha, this, B, C);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!isDense(B) || !isDense(C))
+            return super.hermAmultAdd(alpha, B, C);
+
+        checkTransAmultAdd(B, C);
+        gemm(Transpose.ConjugateTranspose, Transpose.NoTranspose, alpha, this, B, C);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix transBmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!isDense(B) || !isDense(C))
+            return super.transBmultAdd(alpha, B, C);
+
+        checkTransBmultAdd(B, C);
+        gemm(Transpose.NoTranspose, Transpose.Transpose, alpha, this, B, C);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermBmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!isDense(B) || !isDense(C))
+            return super.hermBmultAdd(alpha, B, C);
+
+        checkTransBmultAdd(B, C);
+        gemm(Transpose.NoTranspose, Transpose.ConjugateTranspose, alpha, this, B, C);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix transABmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!isDense(B) || !isDense(C))
+            return super.transABmultAdd(alpha, B, C);
+
+        checkTransABmultAdd(B, C);
+        gemm(Transpose.Transpose, Transpose.Transpose, alpha, this, B, C);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermitianTranspose() {
+        return hermitianTranspose(new DenseComplexMatrix(numColumns, numRows));
+    }
+
+    @Override
+    public ComplexMatrix inverse() throws ComplexMatrixNotSPDException {
+        return copy().inverse();
+    }
+
+    public double det2() {
+        return Math.exp(2 * logDet()[0]);
+    }
+
+    /**
+     * Whether <code>A</code> is stored in an interleaved column-major array,
+     * either as a <code>DenseComplexMatrix</code> or as a view
+     */
+    static boolean isDense(ComplexMatrix A) {
+        return A instanceof DenseComplexMatrix || A instanceof DenseComplexMatrixView;
+    }
+
+    /**
+     * Storage of a dense matrix
+     */
+    static double[] data(ComplexMatrix A) {
+        return A instanceof DenseComplexMatrix ? ((DenseComplexMatrix) A).getData()
+                : ((DenseComplexMatrixView) A).data;
+    }
+
+    /**
+     * Position of entry <code>(0, 0)</code> of a dense matrix, in complex
+     * entries
+     */
+    static int offset(ComplexMatrix A) {
+        return A instanceof DenseComplexMatrix ? 0 : ((DenseComplexMatrixView) A).offset;
+    }
+
+    /**
+     * Leading dimension of a dense matrix, in complex entries
+     */
+    static int ld(ComplexMatrix A) {
+        return A instanceof DenseComplexMatrix ? Math.max(1, A.numRows())
+                : ((DenseComplexMatrixView) A).ld;
+    }
+
+    /**
+     * <code>C = alpha*op(A)*op(B) + C</code> for dense matrices or views. The
+     * sizes must have been checked
+     */
+    static void gemm(Transpose transA, Transpose transB, double[] alpha, ComplexMatrix A,
+            ComplexMatrix B, ComplexMatrix C) {
+        int k = transA == Transpose.NoTranspose ? A.numColumns() : A.numRows();
+        ComplexBlas.gemm(transA, transB, C.numRows(), C.numColumns(), k, alpha, data(A),
+                offset(A), ld(A), data(B), offset(B), ld(B), data(C), offset(C), ld(C));
+    }
+
+    /**
+     * <code>y = alpha*op(A)*x + y</code> for a dense matrix or view and dense
+     * vectors or views. A strided <code>x</code> is passed as a row of a
+     * matrix; a strided <code>y</code> is accumulated separately, since BLAS
+     * has no stride for the output of a matrix product. The sizes must have
+     * been checked
+     */
+    static void gemv(Transpose transA, double[] alpha, ComplexMatrix A, ComplexVector x,
+            ComplexVector y) {
+        if (DenseComplexVectorView.stride(y) != 1) {
+            DenseComplexVector t = new DenseComplexVector(y.size());
+            gemv(transA, alpha, A, x, t);
+            y.add(t);
+            return;
+        }
+
+        int m = y.size(), k = x.size();
+        int xs = DenseComplexVectorView.stride(x);
+        ComplexBlas.gemm(transA, xs == 1 ? Transpose.NoTranspose : Transpose.Transpose, m, 1, k,
+                alpha, data(A), offset(A), ld(A), DenseComplexVectorView.data(x),
+                DenseComplexVectorView.offset(x), xs == 1 ? Math.max(1, k) : xs,
+                DenseComplexVectorView.data(y), DenseComplexVectorView.offset(y), Math.max(1, m));
+    }
+}
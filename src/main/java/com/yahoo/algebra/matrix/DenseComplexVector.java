@@ -9,7 +9,8 @@ public class DenseComplexVector extends AbstractComplexVector implements Seriali
     private static final long serialVersionUID = 3336086910170309635L;
 
     /**
-     * Vector data
+     * Vector data, the real and imaginary part of every entry stored next to
+     * each other
      */
     private final double[] data;
 
@@ -50,13 +51,41 @@ public class DenseComplexVector extends AbstractComplexVector implements Seriali
 
     @Override
     public void set(int index, double value[]) {
-        data[index] = value[0];
-        data[size + index] = value[1];
+        data[index * 2] = value[0];
+        data[index * 2 + 1] = value[1];
+    }
+
+    @Override
+    public void add(int index, double value[]) {
+        data[index * 2] += value[0];
+        data[index * 2 + 1] += value[1];
     }
 
     @Override
     public double[] get(int index) {
-        return new double[] { data[index], data[size + index] };
+        return new double[] { data[index * 2], data[index * 2 + 1] };
+    }
+
+    @Override
+    public double getRe(int index) {
+        return data[index * 2];
+    }
+
+    @Override
+    public double getIm(int index) {
+        return data[index * 2 + 1];
+    }
+
+    @Override
+    public void set(int index, double re, double im) {
+        data[index * 2] = re;
+        data[index * 2 + 1] = im;
+    }
+
+    @Override
+    public void add(int index, double re, double im) {
+        data[index * 2] += re;
+        data[index * 2 + 1] += im;
     }
 
     @Override
@@ -72,12 +101,7 @@ public class DenseComplexVector extends AbstractComplexVector implements Seriali
 
     @Override
     public DenseComplexVector scale(double alpha[]) {
-        for (int i = 0; i < size; ++i) {
-            double re = data[i] * alpha[0] - data[i + size] * alpha[1];
-            double im = data[i] * alpha[1] + data[i + size] * alpha[0];
-            data[i] = re;
-            data[i + size] = im;
-        }
+        ComplexKernels.get().scale(size, alpha[0], alpha[1], data, 0);
         return this;
     }
 
@@ -106,9 +130,9 @@ public class DenseComplexVector extends AbstractComplexVector implements Seriali
 
         double[] yd = ((DenseComplexVector) y).getData();
 
-        for (int i = 0; i < size; ++i) {
-            data[i] = alpha[0] * yd[i] - alpha[1] * yd[i + size];
-            data[i + size] = alpha[1] * yd[i] + alpha[0] * yd[i + size];
+        for (int i = 0; i < data.length; i += 2) {
+            data[i] = alpha[0] * yd[i] - alpha[1] * yd[i + 1];
+            data[i + 1] = alpha[1] * yd[i] + alpha[0] * yd[i + 1];
         }
 
         return this;
@@ -122,10 +146,7 @@ public class DenseComplexVector extends AbstractComplexVector implements Seriali
         checkSize(y);
 
         double[] yd = ((DenseComplexVector) y).getData();
-
-        for (int i = 0; i < yd.length; i++) {
-            data[i] += yd[i];
-        }
+        ComplexKernels.get().axpy(size, 1, 0, yd, 0, data, 0);
 
         return this;
     }
@@ -141,13 +162,7 @@ public class DenseComplexVector extends AbstractComplexVector implements Seriali
             return this;
 
         double[] yd = ((DenseComplexVector) y).getData();
-
-        for (int i = 0; i < size; i++) {
-            double re = alpha[0] * yd[i] - alpha[1] * yd[i + size];
-            double im = alpha[0] * yd[i + size] + alpha[1] * yd[i];
-            data[i] += re;
-            data[i + size] += im;
-        }
+        ComplexKernels.get().axpy(size, alpha[0], alpha[1], yd, 0, data, 0);
 
         return this;
     }
@@ -160,29 +175,20 @@ public class DenseComplexVector extends AbstractComplexVector implements Seriali
         checkSize(y);
 
         double[] yd = ((DenseComplexVector) y).getData();
-
-        double[] dot = new double[] { 0, 0 };
-        for (int i = 0; i < size; ++i) {
-            dot[0] += data[i] * yd[i] + data[i + size] * yd[i + size];
-            dot[1] += -data[i + size] * yd[i] + data[i] * yd[i + size];
-        }
-        return dot;
+        return ComplexKernels.get().dot(true, size, data, 0, yd, 0);
     }
 
     @Override
     protected double norm1() {
         double sum = 0;
-        for (int i = 0; i < size; ++i)
-            sum += Math.sqrt(data[i] * data[i] + data[i + size] * data[i + size]);
+        for (int i = 0; i < data.length; i += 2)
+            sum += Math.sqrt(data[i] * data[i] + data[i + 1] * data[i + 1]);
         return sum;
     }
 
     @Override
     protected double norm2() {
-        double norm = 0;
-        for (int i = 0; i < size; ++i)
-            norm += data[i] * data[i] + data[i + size] * data[i + size];
-        return Math.sqrt(norm);
+        return Math.sqrt(ComplexKernels.get().sumSquares(size, data, 0));
     }
 
     @Override
@@ -193,19 +199,28 @@ public class DenseComplexVector extends AbstractComplexVector implements Seriali
     @Override
     protected double normInf() {
         double max = 0;
-        for (int i = 0; i < size; ++i)
-            max = Math.max(Math.sqrt(data[i] * data[i] + data[i + size] * data[i + size]), max);
+        for (int i = 0; i < data.length; i += 2)
+            max = Math.max(Math.sqrt(data[i] * data[i] + data[i + 1] * data[i + 1]), max);
         return max;
     }
 
     /**
-     * Returns the internal vector contents. The array indices correspond to the
-     * vector indices
+     * Returns the internal vector contents. Entry <code>i</code> is stored at
+     * <code>2*i</code> (real part) and <code>2*i+1</code> (imaginary part)
      */
     public double[] getData() {
         return data;
     }
 
+    /**
+     * Entries <code>offset</code> to <code>offset+length-1</code> as a vector
+     * sharing the storage of this one
+     */
+    public DenseComplexVectorView slice(int offset, int length) {
+        checkSlice(offset, length);
+        return DenseComplexVectorView.slice(this, offset, length);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,237 @@
+package com.yahoo.algebra.matrix;
+
+/**
+ * Vector referring to every <code>stride</code>-th entry of an interleaved
+ * array, such as a row or a column of a dense matrix. Nothing is copied:
+ * writes through the view change the underlying array and the other way round
+ */
+public class DenseComplexVectorView extends AbstractComplexVector {
+
+    /** just the private data */
+    private static final long serialVersionUID = -2807467131521716373L;
+
+    /**
+     * Shared storage, interleaved as in {@link DenseComplexVector}
+     */
+    private final double[] data;
+
+    /**
+     * Position of the first entry, and distance between entries, in complex
+     * entries
+     */
+    private final int offset, stride;
+
+    /**
+     * Constructor for DenseComplexVectorView
+     *
+     * @param data
+     *            Interleaved storage to refer to
+     * @param offset
+     *            Position of entry 0 in complex entries
+     * @param stride
+     *            Distance between consecutive entries in complex entries
+     * @param size
+     *            Number of entries
+     */
+    DenseComplexVectorView(double[] data, int offset, int stride, int size) {
+        super(size);
+        if (stride < 1)
+            throw new IllegalArgumentException("stride must be positive (" + stride + ")");
+        if (size > 0 && (offset < 0 || 2 * (offset + (size - 1) * stride) + 1 >= data.length))
+            throw new IndexOutOfBoundsException("view exceeds the storage");
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+    }
+
+    /**
+     * Returns the shared storage
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /**
+     * Returns the position of entry 0 in the storage, in complex entries
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the distance between consecutive entries, in complex entries
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Entries <code>offset</code> to <code>offset+length-1</code> as a vector
+     * sharing the storage of this one
+     */
+    public DenseComplexVectorView slice(int offset, int length) {
+        checkSlice(offset, length);
+        return slice(this, offset, length);
+    }
+
+    @Override
+    public double[] get(int index) {
+        check(index);
+        int i = 2 * (offset + index * stride);
+        return new double[] { data[i], data[i + 1] };
+    }
+
+    @Override
+    public void set(int index, double value[]) {
+        check(index);
+        int i = 2 * (offset + index * stride);
+        data[i] = value[0];
+        data[i + 1] = value[1];
+    }
+
+    @Override
+    public void add(int index, double value[]) {
+        check(index);
+        int i = 2 * (offset + index * stride);
+        data[i] += value[0];
+        data[i + 1] += value[1];
+    }
+
+    @Override
+    public double getRe(int index) {
+        check(index);
+        return data[2 * (offset + index * stride)];
+    }
+
+    @Override
+    public double getIm(int index) {
+        check(index);
+        return data[2 * (offset + index * stride) + 1];
+    }
+
+    @Override
+    public void set(int index, double re, double im) {
+        check(index);
+        int i = 2 * (offset + index * stride);
+        data[i] = re;
+        data[i + 1] = im;
+    }
+
+    @Override
+    public void add(int index, double re, double im) {
+        check(index);
+        int i = 2 * (offset + index * stride);
+        data[i] += re;
+        data[i + 1] += im;
+    }
+
+    /**
+     * Returns a <code>DenseComplexVector</code> with the same contents
+     */
+    @Override
+    public DenseComplexVector copy() {
+        return new DenseComplexVector(this, true);
+    }
+
+    @Override
+    public DenseComplexVectorView zero() {
+        for (int i = 0, k = 2 * offset; i < size; i++, k += 2 * stride)
+            data[k] = data[k + 1] = 0;
+        return this;
+    }
+
+    @Override
+    public DenseComplexVectorView scale(double alpha[]) {
+        if (stride == 1) {
+            ComplexKernels.get().scale(size, alpha[0], alpha[1], data, offset);
+            return this;
+        }
+        for (int i = 0, k = 2 * offset; i < size; i++, k += 2 * stride) {
+            double re = data[k] * alpha[0] - data[k + 1] * alpha[1];
+            double im = data[k] * alpha[1] + data[k + 1] * alpha[0];
+            data[k] = re;
+            data[k + 1] = im;
+        }
+        return this;
+    }
+
+    @Override
+    public ComplexVector add(double alpha[], ComplexVector y) {
+        if (!isDense(y))
+            return super.add(alpha, y);
+
+        checkSize(y);
+
+        double[] yd = data(y);
+        if (stride == 1 && stride(y) == 1) {
+            ComplexKernels.get().axpy(size, alpha[0], alpha[1], yd, offset(y), data, offset);
+            return this;
+        }
+        int ys = 2 * stride(y);
+        int k = 2 * offset, l = 2 * offset(y);
+        for (int i = 0; i < size; i++, k += 2 * stride, l += ys) {
+            data[k] += alpha[0] * yd[l] - alpha[1] * yd[l + 1];
+            data[k + 1] += alpha[0] * yd[l + 1] + alpha[1] * yd[l];
+        }
+        return this;
+    }
+
+    @Override
+    public double[] dot(ComplexVector y) {
+        if (!isDense(y))
+            return super.dot(y);
+
+        checkSize(y);
+
+        double[] yd = data(y);
+        if (stride == 1 && stride(y) == 1)
+            return ComplexKernels.get().dot(true, size, data, offset, yd, offset(y));
+        int ys = 2 * stride(y);
+        double re = 0, im = 0;
+        int k = 2 * offset, l = 2 * offset(y);
+        for (int i = 0; i < size; i++, k += 2 * stride, l += ys) {
+            re += data[k] * yd[l] + data[k + 1] * yd[l + 1];
+            im += data[k] * yd[l + 1] - data[k + 1] * yd[l];
+        }
+        return new double[] { re, im };
+    }
+
+    /**
+     * Whether <code>x</code> is stored in an interleaved array, either as a
+     * <code>DenseComplexVector</code> or as a view
+     */
+    static boolean isDense(ComplexVector x) {
+        return x instanceof DenseComplexVector || x instanceof DenseComplexVectorView;
+    }
+
+    /**
+     * Entries <code>offset</code> to <code>offset+length-1</code> of a dense
+     * vector, sharing its storage. The bounds must have been checked
+     */
+    static DenseComplexVectorView slice(ComplexVector x, int offset, int length) {
+        return new DenseComplexVectorView(data(x), offset(x) + offset * stride(x), stride(x),
+                length);
+    }
+
+    /**
+     * Storage of a dense vector
+     */
+    static double[] data(ComplexVector x) {
+        return x instanceof DenseComplexVector ? ((DenseComplexVector) x).getData()
+                : ((DenseComplexVectorView) x).data;
+    }
+
+    /**
+     * Position of entry 0 of a dense vector, in complex entries
+     */
+    static int offset(ComplexVector x) {
+        return x instanceof DenseComplexVector ? 0 : ((DenseComplexVectorView) x).offset;
+    }
+
+    /**
+     * Distance between the entries of a dense vector, in complex entries
+     */
+    static int stride(ComplexVector x) {
+        return x instanceof DenseComplexVector ? 1 : ((DenseComplexVectorView) x).stride;
+    }
+}
@@ -0,0 +1,361 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import no.uib.cipr.matrix.MatrixNotSPDException;
+import no.uib.cipr.matrix.MatrixSingularException;
+
+import com.yahoo.networkmimo.exception.ComplexMatrixNotSPDException;
+
+/**
+ * Square diagonal matrix. Only the diagonal is stored, interleaved as in
+ * {@link DenseComplexVector}. Setting an entry off the diagonal to anything
+ * but zero throws <code>IndexOutOfBoundsException</code>. Products, solves
+ * and determinants cost <code>O(n)</code> per vector
+ */
+public class DiagonalComplexMatrix extends AbstractComplexMatrix {
+
+    /**
+     * Diagonal entries
+     */
+    private final double[] data;
+
+    /**
+     * Constructor for DiagonalComplexMatrix. The matrix contents will be set to
+     * zero
+     *
+     * @param n
+     *            Size of the matrix
+     */
+    public DiagonalComplexMatrix(int n) {
+        super(n, n);
+        data = new double[2 * n];
+    }
+
+    /**
+     * Constructor for DiagonalComplexMatrix
+     *
+     * @param d
+     *            Diagonal entries. Copied
+     */
+    public DiagonalComplexMatrix(ComplexVector d) {
+        this(d.size());
+        for (ComplexVectorEntry e : d)
+            set(e.index(), e.index(), e.get());
+    }
+
+    /**
+     * Returns the diagonal entries
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    @Override
+    public double[] get(int row, int column) {
+        check(row, column);
+        if (row != column)
+            return new double[] { 0, 0 };
+        return new double[] { data[2 * row], data[2 * row + 1] };
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        check(row, column);
+        return row == column ? data[2 * row] : 0;
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        check(row, column);
+        return row == column ? data[2 * row + 1] : 0;
+    }
+
+    @Override
+    public void set(int row, int column, double value[]) {
+        set(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void set(int row, int column, double re, double im) {
+        if (onDiagonal(row, column, re, im)) {
+            data[2 * row] = re;
+            data[2 * row + 1] = im;
+        }
+    }
+
+    @Override
+    public void add(int row, int column, double value[]) {
+        add(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void add(int row, int column, double re, double im) {
+        if (onDiagonal(row, column, re, im)) {
+            data[2 * row] += re;
+            data[2 * row + 1] += im;
+        }
+    }
+
+    /**
+     * Checks the indices, and whether the entry is on the diagonal. Writing
+     * anything but zero off the diagonal is an error
+     */
+    private boolean onDiagonal(int row, int column, double re, double im) {
+        check(row, column);
+        if (row == column)
+            return true;
+        if (re != 0 || im != 0)
+            throw new IndexOutOfBoundsException("Insertion index outside of diagonal");
+        return false;
+    }
+
+    /**
+     * Reads the full matrix in the format of
+     * {@link AbstractComplexMatrix#set(String)}
+     *
+     * @throws IllegalArgumentException
+     *             If an entry off the diagonal is not zero
+     */
+    @Override
+    public void set(String str) {
+        DenseComplexMatrix A = read(str, numRows);
+        for (int i = 0; i < numRows; i++)
+            set(i, i, A.getRe(i, i), A.getIm(i, i));
+    }
+
+    /**
+     * Reads an <code>n</code> by <code>n</code> matrix which is zero off the
+     * diagonal
+     */
+    static DenseComplexMatrix read(String str, int n) {
+        DenseComplexMatrix A = new DenseComplexMatrix(n, n);
+        A.set(str);
+        for (int j = 0; j < n; j++)
+            for (int i = 0; i < n; i++)
+                if (i != j && (A.getRe(i, j) != 0 || A.getIm(i, j) != 0))
+                    throw new IllegalArgumentException("Entry (" + i + ", " + j
+                            + ") is off the diagonal");
+        return A;
+    }
+
+    @Override
+    public DiagonalComplexMatrix copy() {
+        DiagonalComplexMatrix A = new DiagonalComplexMatrix(numRows);
+        System.arraycopy(data, 0, A.data, 0, data.length);
+        return A;
+    }
+
+    @Override
+    public ComplexMatrix zero() {
+        Arrays.fill(data, 0);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix scale(double alpha[]) {
+        for (int i = 0; i < data.length; i += 2) {
+            double re = data[i], im = data[i + 1];
+            data[i] = alpha[0] * re - alpha[1] * im;
+            data[i + 1] = alpha[0] * im + alpha[1] * re;
+        }
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix shiftDiagonal(double alpha[]) {
+        for (int i = 0; i < data.length; i += 2) {
+            data[i] += alpha[0];
+            data[i + 1] += alpha[1];
+        }
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix addDiagonal(double[] d) {
+        checkDiagonal(d);
+        for (int i = 0; i < d.length; i++)
+            data[2 * i] += d[i];
+        return this;
+    }
+
+    @Override
+    public ComplexVector multAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        checkMultAdd(x, y);
+        return diagMultAdd(false, alpha, x, y);
+    }
+
+    @Override
+    public ComplexVector transMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        checkTransMultAdd(x, y);
+        return diagMultAdd(false, alpha, x, y);
+    }
+
+    @Override
+    public ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        checkTransMultAdd(x, y);
+        return diagMultAdd(true, alpha, x, y);
+    }
+
+    /**
+     * <code>y = alpha*D*x + y</code>, with <code>conj(D)</code> if
+     * <code>conj</code> is set
+     */
+    private ComplexVector diagMultAdd(boolean conj, double[] alpha, ComplexVector x,
+            ComplexVector y) {
+        double s = conj ? -1 : 1;
+        for (int i = 0; i < numRows; i++) {
+            double dr = data[2 * i], di = s * data[2 * i + 1];
+            double xr = x.getRe(i), xi = x.getIm(i);
+            double re = dr * xr - di * xi, im = dr * xi + di * xr;
+            y.add(i, alpha[0] * re - alpha[1] * im, alpha[0] * im + alpha[1] * re);
+        }
+        return y;
+    }
+
+    @Override
+    public ComplexMatrix multAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        checkMultAdd(B, C);
+        for (int j = 0; j < B.numColumns(); j++)
+            for (int i = 0; i < numRows; i++) {
+                double br = B.getRe(i, j), bi = B.getIm(i, j);
+                double re = data[2 * i] * br - data[2 * i + 1] * bi;
+                double im = data[2 * i] * bi + data[2 * i + 1] * br;
+                C.add(i, j, alpha[0] * re - alpha[1] * im, alpha[0] * im + alpha[1] * re);
+            }
+        return C;
+    }
+
+    @Override
+    public ComplexVector solve(ComplexVector b, ComplexVector x) throws MatrixSingularException {
+        checkSolve(b, x);
+        for (int i = 0; i < numRows; i++)
+            x.set(i, divide(b.get(i), data[2 * i], data[2 * i + 1]));
+        return x;
+    }
+
+    @Override
+    public ComplexVector transSolve(ComplexVector b, ComplexVector x)
+            throws MatrixSingularException {
+        return solve(b, x);
+    }
+
+    @Override
+    public ComplexVector solveHPD(ComplexVector b, ComplexVector x) throws MatrixNotSPDException {
+        checkHPD();
+        return solve(b, x);
+    }
+
+    @Override
+    public ComplexMatrix solve(ComplexMatrix B, ComplexMatrix X) throws MatrixSingularException {
+        checkSolve(B, X);
+        for (int j = 0; j < B.numColumns(); j++)
+            for (int i = 0; i < numRows; i++)
+                X.set(i, j, divide(B.get(i, j), data[2 * i], data[2 * i + 1]));
+        return X;
+    }
+
+    @Override
+    public ComplexMatrix transSolve(ComplexMatrix B, ComplexMatrix X)
+            throws MatrixSingularException {
+        return solve(B, X);
+    }
+
+    @Override
+    public ComplexMatrix solveHPD(ComplexMatrix B, ComplexMatrix X) throws MatrixNotSPDException {
+        checkHPD();
+        return solve(B, X);
+    }
+
+    /**
+     * Returns <code>b/d</code>
+     */
+    private static double[] divide(double[] b, double dr, double di) {
+        double abs2 = dr * dr + di * di;
+        if (abs2 == 0)
+            throw new MatrixSingularException();
+        return new double[] { (b[0] * dr + b[1] * di) / abs2, (b[1] * dr - b[0] * di) / abs2 };
+    }
+
+    private void checkHPD() {
+        for (int i = 0; i < data.length; i += 2)
+            if (!(data[i] > 0) || data[i + 1] != 0)
+                throw new MatrixNotSPDException();
+    }
+
+    @Override
+    public ComplexMatrix inverse() throws ComplexMatrixNotSPDException {
+        DiagonalComplexMatrix A = new DiagonalComplexMatrix(numRows);
+        for (int i = 0; i < numRows; i++) {
+            double dr = data[2 * i], di = data[2 * i + 1];
+            double abs2 = dr * dr + di * di;
+            if (abs2 == 0)
+                throw new ComplexMatrixNotSPDException("matrix is not valid");
+            A.data[2 * i] = dr / abs2;
+            A.data[2 * i + 1] = -di / abs2;
+        }
+        return A;
+    }
+
+    @Override
+    public ComplexMatrix hermitianTranspose() {
+        DiagonalComplexMatrix A = copy();
+        for (int i = 1; i < data.length; i += 2)
+            A.data[i] = -A.data[i];
+        return A;
+    }
+
+    @Override
+    public ComplexMatrix transpose() {
+        return this;
+    }
+
+    @Override
+    public double[] logDet() {
+        double mod = 0, arg = 0;
+        for (int i = 0; i < data.length; i += 2) {
+            mod += Math.log(Math.hypot(data[i], data[i + 1]));
+            arg += Math.atan2(data[i + 1], data[i]);
+        }
+        arg = Math.IEEEremainder(arg, 2 * Math.PI);
+        if (arg == -Math.PI)
+            arg = Math.PI;
+        return new double[] { mod, arg };
+    }
+
+    @Override
+    public double logDetHPD() throws MatrixNotSPDException {
+        checkHPD();
+        double ret = 0;
+        for (int i = 0; i < data.length; i += 2)
+            ret += Math.log(data[i]);
+        return ret;
+    }
+
+    public double det2() {
+        return Math.exp(2 * logDet()[0]);
+    }
+
+    /**
+     * Visits the diagonal only
+     */
+    @Override
+    public Iterator<ComplexMatrixEntry> iterator() {
+        return new DiagonalIterator();
+    }
+
+    private class DiagonalIterator extends RefMatrixIterator {
+        @Override
+        public boolean hasNext() {
+            return row < numRows;
+        }
+
+        @Override
+        public ComplexMatrixEntry next() {
+            entry.update(row, row);
+            row++;
+            return entry;
+        }
+    }
+}
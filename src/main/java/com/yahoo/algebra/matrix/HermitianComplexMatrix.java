@@ -0,0 +1,545 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.Arrays;
+
+import no.uib.cipr.matrix.MatrixNotSPDException;
+import no.uib.cipr.matrix.MatrixSingularException;
+import no.uib.cipr.matrix.NotConvergedException;
+
+import com.yahoo.networkmimo.exception.ComplexMatrixNotSPDException;
+
+/**
+ * Hermitian matrix, <code>A = A<sup>H</sup></code>, of which only the upper
+ * triangle is stored. Columns are packed one after another, so that entry
+ * <code>(i,j)</code>, <code>i &lt;= j</code>, is found at
+ * <code>i + j*(j+1)/2</code>, with the real and imaginary parts interleaved as
+ * in {@link DenseComplexMatrix}. Entries below the diagonal are the conjugates
+ * of those above it, and writing to either side writes both. The diagonal is
+ * expected to be real.
+ * <p>
+ * Operations that would break the symmetry, such as scaling by a non-real
+ * number, throw <code>IllegalArgumentException</code>. Matrices passed to
+ * {@link #set(ComplexMatrix)} and {@link #add(ComplexMatrix)} are assumed
+ * Hermitian, and only their upper triangle is read
+ */
+public class HermitianComplexMatrix extends AbstractComplexMatrix {
+
+    /**
+     * Packed upper triangle, <code>n*(n+1)</code> doubles
+     */
+    private final double[] data;
+
+    /**
+     * Number of modifications of the contents
+     */
+    private transient long modCount;
+
+    /**
+     * True once the storage has been handed out by {@link #getData()}. Writes
+     * to it cannot be counted, so nothing is memoized from then on
+     */
+    private transient volatile boolean exposed;
+
+    /**
+     * Modification count the largest eigenvalue bounds were computed at,
+     * followed by the estimate and the upper bound. Kept in one array so it is
+     * replaced atomically
+     */
+    private transient volatile double[] lambdaMaxMemo;
+
+    /**
+     * Constructor for HermitianComplexMatrix. The matrix contents will be set
+     * to zero
+     *
+     * @param n
+     *            Size of the matrix
+     */
+    public HermitianComplexMatrix(int n) {
+        super(n, n);
+        data = new double[n * (n + 1)];
+    }
+
+    /**
+     * Constructor for HermitianComplexMatrix. The upper triangle of
+     * <code>A</code> is copied
+     *
+     * @param A
+     *            Hermitian matrix to copy from
+     */
+    public HermitianComplexMatrix(ComplexMatrix A) {
+        this(A.numRows());
+        if (!A.isSquare())
+            throw new IndexOutOfBoundsException("!A.isSquare");
+        set(A);
+    }
+
+    /**
+     * Returns the packed upper triangle
+     */
+    public double[] getData() {
+        exposed = true;
+        lambdaMaxMemo = null;
+        return data;
+    }
+
+    /**
+     * Invalidates what was memoized for the current contents
+     */
+    private void modified() {
+        modCount++;
+    }
+
+    /**
+     * Returns the real index of entry <code>(i,j)</code>,
+     * <code>i &lt;= j</code>
+     */
+    private static int index(int i, int j) {
+        return 2 * (i + j * (j + 1) / 2);
+    }
+
+    @Override
+    public double[] get(int row, int column) {
+        check(row, column);
+        if (row <= column) {
+            int k = index(row, column);
+            return new double[] { data[k], data[k + 1] };
+        }
+        int k = index(column, row);
+        return new double[] { data[k], -data[k + 1] };
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        check(row, column);
+        return data[row <= column ? index(row, column) : index(column, row)];
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        check(row, column);
+        if (row <= column)
+            return data[index(row, column) + 1];
+        return -data[index(column, row) + 1];
+    }
+
+    @Override
+    public void set(int row, int column, double value[]) {
+        set(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void set(int row, int column, double re, double im) {
+        check(row, column);
+        modified();
+        if (row <= column) {
+            int k = index(row, column);
+            data[k] = re;
+            data[k + 1] = im;
+        } else {
+            int k = index(column, row);
+            data[k] = re;
+            data[k + 1] = -im;
+        }
+    }
+
+    @Override
+    public void add(int row, int column, double value[]) {
+        add(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void add(int row, int column, double re, double im) {
+        check(row, column);
+        modified();
+        if (row <= column) {
+            int k = index(row, column);
+            data[k] += re;
+            data[k + 1] += im;
+        } else {
+            int k = index(column, row);
+            data[k] += re;
+            data[k + 1] -= im;
+        }
+    }
+
+    @Override
+    public HermitianComplexMatrix copy() {
+        HermitianComplexMatrix A = new HermitianComplexMatrix(numRows);
+        System.arraycopy(data, 0, A.data, 0, data.length);
+        return A;
+    }
+
+    @Override
+    public ComplexMatrix zero() {
+        modified();
+        Arrays.fill(data, 0);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix scale(double alpha[]) {
+        checkReal(alpha);
+        modified();
+        for (int i = 0; i < data.length; i++)
+            data[i] *= alpha[0];
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix shiftDiagonal(double alpha[]) {
+        checkReal(alpha);
+        modified();
+        for (int j = 0; j < numRows; j++)
+            data[index(j, j)] += alpha[0];
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix addDiagonal(double[] d) {
+        checkDiagonal(d);
+        modified();
+        for (int j = 0; j < numRows; j++)
+            data[index(j, j)] += d[j];
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix set(double alpha[], ComplexMatrix B) {
+        checkSize(B);
+        if (B == this)
+            return scale(alpha);
+        zero();
+        return add(alpha, B);
+    }
+
+    @Override
+    public ComplexMatrix add(double alpha[], ComplexMatrix B) {
+        checkSize(B);
+        checkReal(alpha);
+        if (alpha[0] == 0)
+            return this;
+
+        modified();
+        if (B instanceof HermitianComplexMatrix) {
+            double[] Bd = ((HermitianComplexMatrix) B).data;
+            for (int i = 0; i < data.length; i++)
+                data[i] += alpha[0] * Bd[i];
+        } else if (B instanceof DenseComplexMatrix) {
+            double[] Bd = ((DenseComplexMatrix) B).data;
+            for (int j = 0, k = 0; j < numColumns; j++)
+                for (int i = 0; i <= j; i++, k += 2) {
+                    int l = 2 * (i + j * numRows);
+                    data[k] += alpha[0] * Bd[l];
+                    data[k + 1] += alpha[0] * Bd[l + 1];
+                }
+        } else
+            for (int j = 0; j < numColumns; j++)
+                for (int i = 0; i <= j; i++) {
+                    double[] b = B.get(i, j);
+                    int k = index(i, j);
+                    data[k] += alpha[0] * b[0];
+                    data[k + 1] += alpha[0] * b[1];
+                }
+        return this;
+    }
+
+    @Override
+    public ComplexVector multAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.multAdd(alpha, x, y);
+
+        checkMultAdd(x, y);
+        hpmv(false, alpha, ((DenseComplexVector) x).getData(), 0,
+                ((DenseComplexVector) y).getData(), 0);
+        return y;
+    }
+
+    @Override
+    public ComplexVector transMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        if (!(x instanceof DenseComplexVector) || !(y instanceof DenseComplexVector))
+            return super.transMultAdd(alpha, x, y);
+
+        checkTransMultAdd(x, y);
+        hpmv(true, alpha, ((DenseComplexVector) x).getData(), 0,
+                ((DenseComplexVector) y).getData(), 0);
+        return y;
+    }
+
+    @Override
+    public ComplexVector hermMultAdd(double alpha[], ComplexVector x, ComplexVector y) {
+        return multAdd(alpha, x, y);
+    }
+
+    @Override
+    public ComplexMatrix multAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        if (!(B instanceof DenseComplexMatrix) || !(C instanceof DenseComplexMatrix))
+            return super.multAdd(alpha, B, C);
+
+        checkMultAdd(B, C);
+        double[] Bd = ((DenseComplexMatrix) B).getData();
+        double[] Cd = ((DenseComplexMatrix) C).getData();
+        for (int j = 0; j < C.numColumns(); j++)
+            hpmv(false, alpha, Bd, 2 * j * numRows, Cd, 2 * j * numRows);
+        return C;
+    }
+
+    @Override
+    public ComplexMatrix hermAmultAdd(double alpha[], ComplexMatrix B, ComplexMatrix C) {
+        return multAdd(alpha, B, C);
+    }
+
+    /**
+     * <code>y = alpha*A*x + y</code>, or with <code>conj(A)</code> if
+     * <code>conj</code> is set. <code>x</code> and <code>y</code> start at the
+     * given real offsets
+     */
+    private void hpmv(boolean conj, double[] alpha, double[] x, int xOff, double[] y, int yOff) {
+        int n = numRows;
+        double s = conj ? -1 : 1;
+        double[] t = new double[2 * n];
+        for (int j = 0, k = 0; j < n; j++) {
+            double xr = x[xOff + 2 * j], xi = x[xOff + 2 * j + 1];
+            double tr = 0, ti = 0;
+            for (int i = 0; i < j; i++, k += 2) {
+                double ar = data[k], ai = s * data[k + 1];
+                // t_i += a_ij x_j, t_j += conj(a_ij) x_i
+                t[2 * i] += ar * xr - ai * xi;
+                t[2 * i + 1] += ar * xi + ai * xr;
+                double zr = x[xOff + 2 * i], zi = x[xOff + 2 * i + 1];
+                tr += ar * zr + ai * zi;
+                ti += ar * zi - ai * zr;
+            }
+            double ar = data[k], ai = s * data[k + 1];
+            k += 2;
+            t[2 * j] += tr + ar * xr - ai * xi;
+            t[2 * j + 1] += ti + ar * xi + ai * xr;
+        }
+        for (int i = 0; i < n; i++) {
+            double tr = t[2 * i], ti = t[2 * i + 1];
+            y[yOff + 2 * i] += alpha[0] * tr - alpha[1] * ti;
+            y[yOff + 2 * i + 1] += alpha[0] * ti + alpha[1] * tr;
+        }
+    }
+
+    /**
+     * <code>A = alpha*x*x<sup>H</sup> + A</code>
+     *
+     * @param alpha
+     *            Real scalar
+     * @param x
+     *            Vector of size <code>A.numRows()</code>
+     * @return A
+     */
+    @Override
+    public HermitianComplexMatrix rank1Herm(double alpha, ComplexVector x) {
+        checkRank1(x, x);
+        if (alpha == 0)
+            return this;
+        double[] xd = x instanceof DenseComplexVector ? ((DenseComplexVector) x).getData()
+                : new DenseComplexVector(x, true).getData();
+        her(alpha, 0, xd, 0, xd, 0);
+        return this;
+    }
+
+    /**
+     * <code>A = alpha*B*B<sup>H</sup> + A</code>
+     *
+     * @param alpha
+     *            Real scalar
+     * @param B
+     *            Matrix with <code>A.numRows()</code> rows
+     * @return A
+     */
+    @Override
+    public HermitianComplexMatrix rankK(double alpha, ComplexMatrix B) {
+        checkRank1(B);
+        if (alpha == 0)
+            return this;
+        double[] Bd = B instanceof DenseComplexMatrix ? ((DenseComplexMatrix) B).data
+                : new DenseComplexMatrix(B).data;
+        for (int l = 0; l < B.numColumns(); l++)
+            her(alpha, 0, Bd, 2 * l * numRows, Bd, 2 * l * numRows);
+        return this;
+    }
+
+    /**
+     * Only Hermitian updates are possible, that is <code>x == y</code> with a
+     * real <code>alpha</code>. Use {@link #rank2Herm} for the pairs
+     * <code>alpha*x*y<sup>H</sup> + conj(alpha)*y*x<sup>H</sup></code>
+     *
+     * @throws IllegalArgumentException
+     *             If the update is not Hermitian
+     */
+    @Override
+    public HermitianComplexMatrix rank1Conj(double alpha[], ComplexVector x, ComplexVector y) {
+        if (x != y || alpha[1] != 0)
+            throw new IllegalArgumentException(
+                    "alpha*x*y^H is not Hermitian, use rank2Herm for x*y^H + y*x^H");
+        return rank1Herm(alpha[0], x);
+    }
+
+    /**
+     * <code>A = alpha*x*y<sup>H</sup> + conj(alpha)*y*x<sup>H</sup> + A</code>
+     *
+     * @param alpha
+     *            Complex scalar
+     * @param x
+     *            Vector of size <code>A.numRows()</code>
+     * @param y
+     *            Vector of size <code>A.numRows()</code>
+     * @return A
+     */
+    @Override
+    public HermitianComplexMatrix rank2Herm(double alpha[], ComplexVector x, ComplexVector y) {
+        checkRank1(x, y);
+        if (alpha[0] == 0 && alpha[1] == 0)
+            return this;
+        double[] xd = x instanceof DenseComplexVector ? ((DenseComplexVector) x).getData()
+                : new DenseComplexVector(x, true).getData();
+        double[] yd = y instanceof DenseComplexVector ? ((DenseComplexVector) y).getData()
+                : new DenseComplexVector(y, true).getData();
+        her(alpha[0], alpha[1], xd, 0, yd, 0);
+        her(alpha[0], -alpha[1], yd, 0, xd, 0);
+        return this;
+    }
+
+    /**
+     * Upper triangle of <code>A = alpha*x*y<sup>H</sup> + A</code>, for
+     * <code>x</code> and <code>y</code> starting at the given real offsets
+     */
+    private void her(double alphaRe, double alphaIm, double[] x, int xOff, double[] y, int yOff) {
+        modified();
+        for (int j = 0, k = 0; j < numColumns; j++) {
+            // alpha*conj(y_j)
+            double yr = y[yOff + 2 * j], yi = -y[yOff + 2 * j + 1];
+            double cr = alphaRe * yr - alphaIm * yi, ci = alphaRe * yi + alphaIm * yr;
+            if (cr == 0 && ci == 0) {
+                k += 2 * (j + 1);
+                continue;
+            }
+            for (int i = 0; i <= j; i++, k += 2) {
+                double xr = x[xOff + 2 * i], xi = x[xOff + 2 * i + 1];
+                data[k] += xr * cr - xi * ci;
+                data[k + 1] += xr * ci + xi * cr;
+            }
+        }
+    }
+
+    @Override
+    public ComplexVector solve(ComplexVector b, ComplexVector x) throws MatrixSingularException {
+        checkSolve(b, x);
+        DenseComplexVector Y = x instanceof DenseComplexVector ? (DenseComplexVector) x
+                : new DenseComplexVector(x.size());
+        DenseComplexLU lu = DenseComplexLU.factorize(this);
+        Y.set(b);
+        lu.solve(Y);
+        return Y == x ? x : x.set(Y);
+    }
+
+    @Override
+    public ComplexMatrix solve(ComplexMatrix B, ComplexMatrix X) throws MatrixSingularException {
+        checkSolve(B, X);
+        DenseComplexMatrix Y = X instanceof DenseComplexMatrix ? (DenseComplexMatrix) X
+                : new DenseComplexMatrix(X.numRows(), X.numColumns());
+        DenseComplexLU lu = DenseComplexLU.factorize(this);
+        Y.set(B);
+        lu.solve(Y);
+        return Y == X ? X : X.set(Y);
+    }
+
+    @Override
+    public ComplexVector solveHPD(ComplexVector b, ComplexVector x) throws MatrixNotSPDException {
+        checkSolve(b, x);
+        DenseComplexVector Y = x instanceof DenseComplexVector ? (DenseComplexVector) x
+                : new DenseComplexVector(x.size());
+        DenseComplexCholesky chol = DenseComplexCholesky.factorize(this);
+        Y.set(b);
+        chol.solve(Y);
+        return Y == x ? x : x.set(Y);
+    }
+
+    @Override
+    public ComplexMatrix solveHPD(ComplexMatrix B, ComplexMatrix X) throws MatrixNotSPDException {
+        checkSolve(B, X);
+        DenseComplexMatrix Y = X instanceof DenseComplexMatrix ? (DenseComplexMatrix) X
+                : new DenseComplexMatrix(X.numRows(), X.numColumns());
+        DenseComplexCholesky chol = DenseComplexCholesky.factorize(this);
+        Y.set(B);
+        chol.solve(Y);
+        return Y == X ? X : X.set(Y);
+    }
+
+    @Override
+    public ComplexMatrix inverse() throws ComplexMatrixNotSPDException {
+        return new HermitianComplexMatrix(new DenseComplexMatrix(this).inverse());
+    }
+
+    @Override
+    public ComplexMatrix hermitianTranspose() {
+        return copy();
+    }
+
+    /**
+     * Eigenvalues, in ascending order
+     *
+     * @throws NotConvergedException
+     */
+    public double[] eig() throws NotConvergedException {
+        return ComplexMatrices.eigh(this);
+    }
+
+    /**
+     * <code>A=V*diag(lambda)*V<sup>H</sup></code>
+     *
+     * @param V
+     *            orthonormal eigenvectors, as columns
+     * @return eigenvalues, in ascending order
+     * @throws NotConvergedException
+     */
+    public double[] eig(ComplexMatrix V) throws NotConvergedException {
+        return ComplexMatrices.eigh(this, V);
+    }
+
+    /**
+     * Reads the matrix in the format of {@link AbstractComplexMatrix#set(String)}.
+     * Only the upper triangle is used
+     */
+    @Override
+    public void set(String str) {
+        String[] rows = str.split(";");
+        if (rows.length != numRows)
+            throw new IllegalArgumentException("rows != " + numRows);
+        for (int i = 0; i < numRows; i++) {
+            String[] cols = rows[i].split(",");
+            for (int j = i; j < numColumns; j++)
+                set(i, j, Complexes.read(cols[j]));
+        }
+    }
+
+    public double det2() {
+        return Math.exp(2 * logDet()[0]);
+    }
+
+    /**
+     * Returns <code>{estimate, upper bound}</code> of the largest eigenvalue
+     * if they were memoized for the current contents, otherwise null
+     */
+    double[] getLambdaMax() {
+        return exposed ? null : ComplexMatrices.recall(lambdaMaxMemo, modCount);
+    }
+
+    /**
+     * Memoizes <code>{estimate, upper bound}</code> of the largest eigenvalue
+     * for the current contents, unless the storage has been handed out
+     */
+    void setLambdaMax(double estimate, double upper) {
+        if (!exposed)
+            lambdaMaxMemo = ComplexMatrices.memoize(modCount, estimate, upper);
+    }
+
+    private static void checkReal(double alpha[]) {
+        if (alpha[1] != 0)
+            throw new IllegalArgumentException(
+                    "alpha must be real for the result to be Hermitian");
+    }
+}
@@ -0,0 +1,53 @@
+package com.yahoo.algebra.matrix;
+
+/**
+ * Pure Java provider on top of {@link DenseComplexKernels}. Has no call
+ * overhead, and is the preferred choice for small matrices. Products and LU
+ * factorizations past the parallel threshold of {@link ComplexBlas} go
+ * through {@link ParallelComplexKernels}
+ */
+public class JavaComplexBlasProvider implements ComplexBlasProvider {
+
+    public String getName() {
+        return "java";
+    }
+
+    public boolean isAvailable() {
+        return true;
+    }
+
+    public boolean supports(Operation op) {
+        return op != Operation.GEEV;
+    }
+
+    public void gemm(Transpose transA, Transpose transB, int m, int n, int k, double[] alpha,
+            double[] a, int aOff, int lda, double[] b, int bOff, int ldb, double[] c, int cOff,
+            int ldc) {
+        ParallelComplexKernels.gemm(transA, transB, m, n, k, alpha[0], alpha[1], a, aOff, lda,
+                b, bOff, ldb, c, cOff, ldc);
+    }
+
+    public int gesv(int n, int nrhs, double[] a, double[] b) {
+        int[] piv = new int[n];
+        int info = ParallelComplexKernels.getrf(n, a, 0, n, piv);
+        if (info != 0)
+            return info;
+        DenseComplexKernels.getrs(Transpose.NoTranspose, n, nrhs, a, 0, n, piv, b, 0, n);
+        return 0;
+    }
+
+    public int getri(int n, double[] a) {
+        int[] piv = new int[n];
+        int info = ParallelComplexKernels.getrf(n, a, 0, n, piv);
+        if (info != 0)
+            return info;
+        double[] query = new double[2];
+        DenseComplexKernels.getri(n, a, 0, n, piv, query, -1);
+        int lwork = (int) query[0];
+        return DenseComplexKernels.getri(n, a, 0, n, piv, new double[2 * lwork], lwork);
+    }
+
+    public int geev(int n, double[] a, double[] w, double[] vr) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,76 @@
+package com.yahoo.algebra.matrix;
+
+import org.jblas.ComplexDouble;
+import org.jblas.NativeBlas;
+
+/**
+ * Provider on the native BLAS/LAPACK bundled with jblas. jblas exposes
+ * <code>zgemm</code> and <code>zgeev</code>, but no complex solver, so systems
+ * are solved with <code>dgesv</code> on the real embedding of the matrix
+ */
+public class JblasComplexBlasProvider implements ComplexBlasProvider {
+
+    private static volatile Boolean available;
+
+    public String getName() {
+        return "jblas";
+    }
+
+    public boolean isAvailable() {
+        if (available == null) {
+            boolean ok;
+            try {
+                // Loads the native libraries
+                double[] x = new double[] { 1, 0 };
+                NativeBlas.zgemm('N', 'N', 1, 1, 1, ComplexDouble.UNIT, x, 0, 1, x, 0, 1,
+                        ComplexDouble.ZERO, new double[2], 0, 1);
+                ok = true;
+            } catch (Throwable e) {
+                ok = false;
+            }
+            available = ok;
+        }
+        return available;
+    }
+
+    public boolean supports(Operation op) {
+        return true;
+    }
+
+    public void gemm(Transpose transA, Transpose transB, int m, int n, int k, double[] alpha,
+            double[] a, int aOff, int lda, double[] b, int bOff, int ldb, double[] c, int cOff,
+            int ldc) {
+        if (m == 0 || n == 0 || k == 0)
+            return;
+        NativeBlas.zgemm(trans(transA), trans(transB), m, n, k,
+                new ComplexDouble(alpha[0], alpha[1]), a, aOff, lda, b, bOff, ldb,
+                ComplexDouble.UNIT, c, cOff, ldc);
+    }
+
+    public int gesv(int n, int nrhs, double[] a, double[] b) {
+        int m = n * 2;
+        double[] e = DenseComplexKernels.embed(n, n, a, 0, n);
+        double[] x = DenseComplexKernels.stack(n, nrhs, b, 0, n);
+        int info = NativeBlas.dgesv(m, nrhs, e, 0, m, new int[m], 0, x, 0, m);
+        if (info != 0)
+            return info;
+        DenseComplexKernels.unstack(n, nrhs, x, b, 0, n);
+        return 0;
+    }
+
+    public int getri(int n, double[] a) {
+        double[] lu = a.clone();
+        DenseComplexKernels.identity(n, a, 0, n);
+        return gesv(n, n, lu, a);
+    }
+
+    public int geev(int n, double[] a, double[] w, double[] vr) {
+        double[] vl = new double[2 * n * n];
+        double[] work = new double[2 * n * n];
+        return NativeBlas.zgeev('N', 'V', n, a, 0, n, w, 0, vl, 0, n, vr, 0, n, work, 0);
+    }
+
+    private static char trans(Transpose t) {
+        return t.netlib().charAt(0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.yahoo.algebra.matrix;
+
+import org.netlib.lapack.LAPACK;
+import org.netlib.util.intW;
+
+/**
+ * Provider on netlib-java. netlib-java has no complex routines, so systems are
+ * solved on the real embedding <code>[Re -Im; Im Re]</code> of the matrix
+ */
+public class NetlibComplexBlasProvider implements ComplexBlasProvider {
+
+    public String getName() {
+        return "netlib";
+    }
+
+    public boolean isAvailable() {
+        return true;
+    }
+
+    public boolean supports(Operation op) {
+        return op == Operation.GESV || op == Operation.GETRI;
+    }
+
+    public void gemm(Transpose transA, Transpose transB, int m, int n, int k, double[] alpha,
+            double[] a, int aOff, int lda, double[] b, int bOff, int ldb, double[] c, int cOff,
+            int ldc) {
+        throw new UnsupportedOperationException();
+    }
+
+    public int gesv(int n, int nrhs, double[] a, double[] b) {
+        int m = n * 2;
+        double[] e = DenseComplexKernels.embed(n, n, a, 0, n);
+        double[] x = DenseComplexKernels.stack(n, nrhs, b, 0, n);
+        intW info = new intW(0);
+        LAPACK.getInstance().dgesv(m, nrhs, e, m, new int[m], x, m, info);
+        if (info.val != 0)
+            return info.val;
+        DenseComplexKernels.unstack(n, nrhs, x, b, 0, n);
+        return 0;
+    }
+
+    public int getri(int n, double[] a) {
+        int m = n * 2;
+        double[] e = DenseComplexKernels.embed(n, n, a, 0, n);
+        intW info = new intW(0);
+        int[] piv = new int[m];
+
+        LAPACK.getInstance().dgetrf(m, m, e, m, piv, info);
+        if (info.val != 0)
+            return info.val;
+        double[] query = new double[1];
+        LAPACK.getInstance().dgetri(m, e, m, piv, query, -1, info);
+        int lwork = Math.max(m, (int) query[0]);
+        LAPACK.getInstance().dgetri(m, e, m, piv, new double[lwork], lwork, info);
+        if (info.val != 0)
+            return info.val;
+
+        DenseComplexKernels.unstack(n, n, e, a, 0, n);
+        return 0;
+    }
+
+    public int geev(int n, double[] a, double[] w, double[] vr) {
+        throw new UnsupportedOperationException();
+    }
+}
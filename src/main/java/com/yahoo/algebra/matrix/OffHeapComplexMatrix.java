@@ -0,0 +1,144 @@
+package com.yahoo.algebra.matrix;
+
+import java.nio.DoubleBuffer;
+
+import com.yahoo.networkmimo.exception.ComplexMatrixNotSPDException;
+
+/**
+ * Dense matrix stored outside the Java heap, in the interleaved column-major
+ * layout of {@link AbstractDenseComplexMatrix}. Allocated and freed by a
+ * {@link ComplexArena}. Accepted wherever a <code>ComplexMatrix</code> is;
+ * products go through the generic element-wise code, so the heap matrices
+ * remain the faster choice for small working sets
+ */
+public class OffHeapComplexMatrix extends AbstractComplexMatrix {
+
+    private final OffHeapStorage storage;
+
+    OffHeapComplexMatrix(OffHeapStorage storage, int numRows, int numColumns) {
+        super(numRows, numColumns);
+        this.storage = storage;
+    }
+
+    /**
+     * Returns the direct buffer holding the entries, for handing to native
+     * code without copying. Entry <code>(i,j)</code> is at
+     * <code>2*(i+j*numRows)</code> (real part) and the following index
+     * (imaginary part). The buffer keeps the memory alive, also after the
+     * arena is closed
+     */
+    public DoubleBuffer getBuffer() {
+        return storage.data().duplicate();
+    }
+
+    @Override
+    public double[] get(int row, int column) {
+        check(row, column);
+        DoubleBuffer d = storage.data();
+        int i = 2 * (row + column * numRows);
+        return new double[] { d.get(i), d.get(i + 1) };
+    }
+
+    @Override
+    public void set(int row, int column, double value[]) {
+        set(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public void add(int row, int column, double value[]) {
+        add(row, column, value[0], value[1]);
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        check(row, column);
+        return storage.data().get(2 * (row + column * numRows));
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        check(row, column);
+        return storage.data().get(2 * (row + column * numRows) + 1);
+    }
+
+    @Override
+    public void set(int row, int column, double re, double im) {
+        check(row, column);
+        DoubleBuffer d = storage.data();
+        int i = 2 * (row + column * numRows);
+        d.put(i, re);
+        d.put(i + 1, im);
+    }
+
+    @Override
+    public void add(int row, int column, double re, double im) {
+        check(row, column);
+        DoubleBuffer d = storage.data();
+        int i = 2 * (row + column * numRows);
+        d.put(i, d.get(i) + re);
+        d.put(i + 1, d.get(i + 1) + im);
+    }
+
+    /**
+     * Returns a <code>DenseComplexMatrix</code> on the heap with the same
+     * contents
+     */
+    @Override
+    public DenseComplexMatrix copy() {
+        DenseComplexMatrix A = new DenseComplexMatrix(numRows, numColumns);
+        DoubleBuffer d = getBuffer();
+        d.get(A.getData());
+        return A;
+    }
+
+    @Override
+    public ComplexMatrix zero() {
+        DoubleBuffer d = storage.data();
+        for (int i = 0, end = 2 * numRows * numColumns; i < end; i++)
+            d.put(i, 0);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix scale(double alpha[]) {
+        DoubleBuffer d = storage.data();
+        for (int i = 0, end = 2 * numRows * numColumns; i < end; i += 2) {
+            double re = d.get(i), im = d.get(i + 1);
+            d.put(i, alpha[0] * re - alpha[1] * im);
+            d.put(i + 1, alpha[0] * im + alpha[1] * re);
+        }
+        return this;
+    }
+
+    /**
+     * Copies a dense matrix or view column by column, other matrices entry
+     * by entry
+     */
+    @Override
+    public ComplexMatrix set(ComplexMatrix B) {
+        if (!DenseComplexMatrixView.isDense(B))
+            return super.set(B);
+
+        checkSize(B);
+        double[] data = DenseComplexMatrixView.data(B);
+        int offset = DenseComplexMatrixView.offset(B), ld = DenseComplexMatrixView.ld(B);
+        DoubleBuffer d = getBuffer();
+        for (int j = 0; j < numColumns; j++)
+            d.put(data, 2 * (offset + j * ld), 2 * numRows);
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix hermitianTranspose() {
+        return hermitianTranspose(new DenseComplexMatrix(numColumns, numRows));
+    }
+
+    @Override
+    public ComplexMatrix inverse() throws ComplexMatrixNotSPDException {
+        return copy().inverse();
+    }
+
+    public double det2() {
+        return Math.exp(2 * logDet()[0]);
+    }
+}
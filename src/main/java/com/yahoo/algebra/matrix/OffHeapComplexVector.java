@@ -0,0 +1,103 @@
+package com.yahoo.algebra.matrix;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Dense vector stored outside the Java heap, entry <code>i</code> at
+ * <code>2*i</code> (real part) and <code>2*i+1</code> (imaginary part).
+ * Allocated and freed by a {@link ComplexArena}
+ */
+public class OffHeapComplexVector extends AbstractComplexVector {
+
+    /** just the private data */
+    private static final long serialVersionUID = -2403829372146527793L;
+
+    private final OffHeapStorage storage;
+
+    OffHeapComplexVector(OffHeapStorage storage, int size) {
+        super(size);
+        this.storage = storage;
+    }
+
+    /**
+     * Returns the direct buffer holding the entries, for handing to native
+     * code without copying. The buffer keeps the memory alive, also after the
+     * arena is closed
+     */
+    public DoubleBuffer getBuffer() {
+        return storage.data().duplicate();
+    }
+
+    @Override
+    public double[] get(int index) {
+        check(index);
+        DoubleBuffer d = storage.data();
+        return new double[] { d.get(2 * index), d.get(2 * index + 1) };
+    }
+
+    @Override
+    public void set(int index, double value[]) {
+        set(index, value[0], value[1]);
+    }
+
+    @Override
+    public double getRe(int index) {
+        check(index);
+        return storage.data().get(2 * index);
+    }
+
+    @Override
+    public double getIm(int index) {
+        check(index);
+        return storage.data().get(2 * index + 1);
+    }
+
+    @Override
+    public void set(int index, double re, double im) {
+        check(index);
+        DoubleBuffer d = storage.data();
+        d.put(2 * index, re);
+        d.put(2 * index + 1, im);
+    }
+
+    @Override
+    public void add(int index, double re, double im) {
+        check(index);
+        DoubleBuffer d = storage.data();
+        d.put(2 * index, d.get(2 * index) + re);
+        d.put(2 * index + 1, d.get(2 * index + 1) + im);
+    }
+
+    /**
+     * Returns a <code>DenseComplexVector</code> on the heap with the same
+     * contents
+     */
+    @Override
+    public DenseComplexVector copy() {
+        DenseComplexVector x = new DenseComplexVector(size);
+        getBuffer().get(x.getData());
+        return x;
+    }
+
+    @Override
+    public OffHeapComplexVector zero() {
+        DoubleBuffer d = storage.data();
+        for (int i = 0; i < 2 * size; i++)
+            d.put(i, 0);
+        return this;
+    }
+
+    /**
+     * Copies a <code>DenseComplexVector</code> in one transfer, other vectors
+     * entry by entry
+     */
+    @Override
+    public ComplexVector set(ComplexVector y) {
+        if (!(y instanceof DenseComplexVector))
+            return super.set(y);
+
+        checkSize(y);
+        getBuffer().put(((DenseComplexVector) y).getData());
+        return this;
+    }
+}
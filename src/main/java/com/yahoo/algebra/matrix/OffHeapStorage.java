@@ -0,0 +1,78 @@
+package com.yahoo.algebra.matrix;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Direct memory behind an off-heap matrix or vector, owned by a
+ * {@link ComplexArena}. The doubles start on a 64 byte boundary when the
+ * runtime can align buffers (Java 9 and later). Once released the storage
+ * refuses access. The memory itself is returned by the garbage collector when
+ * the last buffer referring to it is gone, so buffers handed out earlier, or
+ * in use by another thread, stay valid
+ */
+final class OffHeapStorage {
+
+    /**
+     * Alignment of the first double, in bytes
+     */
+    static final int ALIGNMENT = 64;
+
+    /**
+     * Aligned doubles, or null once released
+     */
+    private volatile DoubleBuffer data;
+
+    /**
+     * Constructor for OffHeapStorage
+     *
+     * @param length
+     *            Number of doubles
+     */
+    OffHeapStorage(int length) {
+        if (length < 0)
+            throw new IllegalArgumentException("length is negative (" + length + ")");
+        ByteBuffer allocated = ByteBuffer.allocateDirect(8 * length + ALIGNMENT - 1);
+        ByteBuffer aligned = allocated.duplicate();
+        aligned.position(alignment(allocated));
+        aligned.limit(aligned.position() + 8 * length);
+        data = aligned.slice().order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    /**
+     * Returns the doubles, shared and positioned at 0
+     *
+     * @throws IllegalStateException
+     *             if the arena was closed
+     */
+    DoubleBuffer data() {
+        DoubleBuffer d = data;
+        if (d == null)
+            throw new IllegalStateException("Arena is closed");
+        return d;
+    }
+
+    /**
+     * Drops the reference to the memory, leaving it to the garbage collector
+     */
+    void release() {
+        data = null;
+    }
+
+    /**
+     * Bytes to skip from the start of <code>b</code> to reach the alignment.
+     * <code>ByteBuffer.alignmentOffset</code> is looked up reflectively so the
+     * class still loads on Java 8, where the buffer is used as allocated
+     */
+    private static int alignment(ByteBuffer b) {
+        try {
+            Method m = ByteBuffer.class.getMethod("alignmentOffset", int.class, int.class);
+            int offset = (Integer) m.invoke(b, 0, ALIGNMENT);
+            return (ALIGNMENT - offset) % ALIGNMENT;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join versions of the {@link DenseComplexKernels} products and LU
+ * factorization, on the same storage layout. Each entry point runs in the
+ * pool from {@link ComplexBlas#getPool()} once the matrices reach
+ * {@link ComplexBlas#getParallelThreshold()}, and falls back to the
+ * sequential kernels below it
+ */
+final class ParallelComplexKernels {
+
+    /**
+     * Rows or columns of <code>C</code> below which a product is not split
+     * further
+     */
+    static final int LEAF = 32;
+
+    /**
+     * Panel width of the blocked LU factorization
+     */
+    static final int NB = 32;
+
+    private ParallelComplexKernels() {
+    }
+
+    /**
+     * <code>C = alpha*op(A)*op(B) + C</code>, split into independent tiles of
+     * <code>C</code> when large enough
+     *
+     * @see DenseComplexKernels#gemm
+     */
+    static void gemm(Transpose transA, Transpose transB, int m, int n, int k, double alphaRe,
+            double alphaIm, double[] a, int aOff, int lda, double[] b, int bOff, int ldb,
+            double[] c, int cOff, int ldc) {
+        ForkJoinPool pool = ComplexBlas.parallelPool(Math.max(m, Math.max(n, k)));
+        if (pool == null || (m <= LEAF && n <= LEAF))
+            DenseComplexKernels.gemm(transA, transB, m, n, k, alphaRe, alphaIm, a, aOff, lda, b,
+                    bOff, ldb, c, cOff, ldc);
+        else
+            pool.invoke(new Gemm(transA, transB, m, n, k, alphaRe, alphaIm, a, aOff, lda, b, bOff,
+                    ldb, c, cOff, ldc));
+    }
+
+    /**
+     * LU factorization with partial pivoting, blocked by panels of
+     * {@link #NB} columns when large enough. The triangular solves and the
+     * trailing updates to the right of each panel run in parallel
+     *
+     * @see DenseComplexKernels#getrf
+     */
+    static int getrf(int n, double[] a, int aOff, int lda, int[] piv) {
+        ForkJoinPool pool = ComplexBlas.parallelPool(n);
+        if (pool == null || n <= NB)
+            return DenseComplexKernels.getrf(n, a, aOff, lda, piv);
+
+        int info = 0;
+        for (int j0 = 0; j0 < n; j0 += NB) {
+            int jb = Math.min(NB, n - j0);
+            int diag = aOff + j0 + j0 * lda;
+
+            int panel = DenseComplexKernels.getf2(n - j0, jb, a, diag, lda, piv, j0);
+            if (info == 0 && panel > 0)
+                info = j0 + panel;
+            for (int i = j0; i < j0 + jb; ++i) {
+                piv[i] += j0;
+                if (piv[i] != i)
+                    DenseComplexKernels.swapRows(j0, a, aOff, lda, i, piv[i]);
+            }
+
+            int rest = n - j0 - jb;
+            if (rest == 0)
+                break;
+
+            // Interchanges and A12 = L11\A12 to the right of the panel
+            pool.invoke(new Solve(jb, a, aOff, lda, piv, j0, j0 + jb, n));
+
+            // A22 = A22 - A21*A12
+            int below = diag + jb, right = diag + jb * lda;
+            pool.invoke(new Gemm(Transpose.NoTranspose, Transpose.NoTranspose, rest, rest, jb, -1,
+                    0, a, below, lda, a, right, lda, a, right + jb, lda));
+        }
+        return info;
+    }
+
+    /**
+     * Tile of a product, split in halves along the longer side of
+     * <code>C</code> until it is at most {@link #LEAF} by {@link #LEAF}
+     */
+    @SuppressWarnings("serial")
+    private static final class Gemm extends RecursiveAction {
+        private final Transpose transA, transB;
+        private final int m, n, k, aOff, lda, bOff, ldb, cOff, ldc;
+        private final double alphaRe, alphaIm;
+        private final double[] a, b, c;
+
+        Gemm(Transpose transA, Transpose transB, int m, int n, int k, double alphaRe,
+                double alphaIm, double[] a, int aOff, int lda, double[] b, int bOff, int ldb,
+                double[] c, int cOff, int ldc) {
+            this.transA = transA;
+            this.transB = transB;
+            this.m = m;
+            this.n = n;
+            this.k = k;
+            this.alphaRe = alphaRe;
+            this.alphaIm = alphaIm;
+            this.a = a;
+            this.aOff = aOff;
+            this.lda = lda;
+            this.b = b;
+            this.bOff = bOff;
+            this.ldb = ldb;
+            this.c = c;
+            this.cOff = cOff;
+            this.ldc = ldc;
+        }
+
+        @Override
+        protected void compute() {
+            if (m <= LEAF && n <= LEAF) {
+                DenseComplexKernels.gemm(transA, transB, m, n, k, alphaRe, alphaIm, a, aOff, lda,
+                        b, bOff, ldb, c, cOff, ldc);
+            } else if (m >= n) {
+                // Rows of op(A) and C
+                int h = m / 2;
+                int aStep = transA == Transpose.NoTranspose ? h : h * lda;
+                invokeAll(new Gemm(transA, transB, h, n, k, alphaRe, alphaIm, a, aOff, lda, b,
+                        bOff, ldb, c, cOff, ldc), new Gemm(transA, transB, m - h, n, k, alphaRe,
+                        alphaIm, a, aOff + aStep, lda, b, bOff, ldb, c, cOff + h, ldc));
+            } else {
+                // Columns of op(B) and C
+                int h = n / 2;
+                int bStep = transB == Transpose.NoTranspose ? h * ldb : h;
+                invokeAll(new Gemm(transA, transB, m, h, k, alphaRe, alphaIm, a, aOff, lda, b,
+                        bOff, ldb, c, cOff, ldc), new Gemm(transA, transB, m, n - h, k, alphaRe,
+                        alphaIm, a, aOff, lda, b, bOff + bStep, ldb, c, cOff + h * ldc, ldc));
+            }
+        }
+    }
+
+    /**
+     * Row interchanges of a panel and the unit lower triangular solve with its
+     * diagonal block, applied to columns <code>lo</code> to <code>hi-1</code>
+     */
+    @SuppressWarnings("serial")
+    private static final class Solve extends RecursiveAction {
+        private final int jb, aOff, lda, j0, lo, hi;
+        private final double[] a;
+        private final int[] piv;
+
+        Solve(int jb, double[] a, int aOff, int lda, int[] piv, int j0, int lo, int hi) {
+            this.jb = jb;
+            this.a = a;
+            this.aOff = aOff;
+            this.lda = lda;
+            this.piv = piv;
+            this.j0 = j0;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > LEAF) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Solve(jb, a, aOff, lda, piv, j0, lo, mid), new Solve(jb, a, aOff,
+                        lda, piv, j0, mid, hi));
+                return;
+            }
+            int cols = aOff + lo * lda;
+            for (int i = j0; i < j0 + jb; ++i)
+                if (piv[i] != i)
+                    DenseComplexKernels.swapRows(hi - lo, a, cols, lda, i, piv[i]);
+            int diag = aOff + j0 + j0 * lda;
+            for (int j = lo; j < hi; ++j)
+                DenseComplexKernels.lowerSolve(jb, a, diag, lda, a, 2 * (aOff + j0 + j * lda));
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.Iterator;
+
+import no.uib.cipr.matrix.MatrixNotSPDException;
+import no.uib.cipr.matrix.MatrixSingularException;
+
+import com.yahoo.networkmimo.exception.ComplexMatrixNotSPDException;
+
+/**
+ * <code>alpha*I</code>, stored as the single scalar <code>alpha</code>.
+ * Entries cannot be set individually; use {@link #scale(double[])} and
+ * {@link #shiftDiagonal(double[])} to change the scalar
+ */
+public class ScaledIdentityComplexMatrix extends AbstractComplexMatrix {
+
+    /**
+     * The scalar
+     */
+    private final double[] alpha;
+
+    /**
+     * Constructor for ScaledIdentityComplexMatrix
+     *
+     * @param n
+     *            Size of the matrix
+     * @param alpha
+     *            The scalar. Copied
+     */
+    public ScaledIdentityComplexMatrix(int n, double[] alpha) {
+        super(n, n);
+        this.alpha = new double[] { alpha[0], alpha[1] };
+    }
+
+    /**
+     * Returns the scalar
+     */
+    public double[] getScalar() {
+        return new double[] { alpha[0], alpha[1] };
+    }
+
+    @Override
+    public double[] get(int row, int column) {
+        check(row, column);
+        return row == column ? getScalar() : new double[] { 0, 0 };
+    }
+
+    @Override
+    public double getRe(int row, int column) {
+        check(row, column);
+        return row == column ? alpha[0] : 0;
+    }
+
+    @Override
+    public double getIm(int row, int column) {
+        check(row, column);
+        return row == column ? alpha[1] : 0;
+    }
+
+    /**
+     * Reads the scalar from the full matrix in the format of
+     * {@link AbstractComplexMatrix#set(String)}
+     *
+     * @throws IllegalArgumentException
+     *             If an entry off the diagonal is not zero, or the diagonal
+     *             entries differ
+     */
+    @Override
+    public void set(String str) {
+        DenseComplexMatrix A = DiagonalComplexMatrix.read(str, numRows);
+        for (int i = 1; i < numRows; i++)
+            if (A.getRe(i, i) != A.getRe(0, 0) || A.getIm(i, i) != A.getIm(0, 0))
+                throw new IllegalArgumentException("Diagonal entries differ");
+        alpha[0] = A.getRe(0, 0);
+        alpha[1] = A.getIm(0, 0);
+    }
+
+    @Override
+    public ScaledIdentityComplexMatrix copy() {
+        return new ScaledIdentityComplexMatrix(numRows, alpha);
+    }
+
+    @Override
+    public ComplexMatrix zero() {
+        alpha[0] = alpha[1] = 0;
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix scale(double beta[]) {
+        double re = alpha[0];
+        alpha[0] = beta[0] * re - beta[1] * alpha[1];
+        alpha[1] = beta[0] * alpha[1] + beta[1] * re;
+        return this;
+    }
+
+    @Override
+    public ComplexMatrix shiftDiagonal(double beta[]) {
+        alpha[0] += beta[0];
+        alpha[1] += beta[1];
+        return this;
+    }
+
+    /**
+     * Not supported unless all entries of <code>d</code> are equal
+     */
+    @Override
+    public ComplexMatrix addDiagonal(double[] d) {
+        checkDiagonal(d);
+        for (double v : d)
+            if (v != d[0])
+                throw new UnsupportedOperationException("diagonal must be constant");
+        if (d.length > 0)
+            alpha[0] += d[0];
+        return this;
+    }
+
+    @Override
+    public ComplexVector multAdd(double beta[], ComplexVector x, ComplexVector y) {
+        checkMultAdd(x, y);
+        return y.add(Complexes.mult(beta, alpha), x);
+    }
+
+    @Override
+    public ComplexVector transMultAdd(double beta[], ComplexVector x, ComplexVector y) {
+        checkTransMultAdd(x, y);
+        return y.add(Complexes.mult(beta, alpha), x);
+    }
+
+    @Override
+    public ComplexVector hermMultAdd(double beta[], ComplexVector x, ComplexVector y) {
+        checkTransMultAdd(x, y);
+        return y.add(Complexes.mult(beta, Complexes.conjugate(alpha)), x);
+    }
+
+    @Override
+    public ComplexMatrix multAdd(double beta[], ComplexMatrix B, ComplexMatrix C) {
+        checkMultAdd(B, C);
+        return C.add(Complexes.mult(beta, alpha), B);
+    }
+
+    @Override
+    public ComplexVector solve(ComplexVector b, ComplexVector x) throws MatrixSingularException {
+        checkSolve(b, x);
+        return x.set(reciprocal(), b);
+    }
+
+    @Override
+    public ComplexVector transSolve(ComplexVector b, ComplexVector x)
+            throws MatrixSingularException {
+        return solve(b, x);
+    }
+
+    @Override
+    public ComplexVector solveHPD(ComplexVector b, ComplexVector x) throws MatrixNotSPDException {
+        checkHPD();
+        return solve(b, x);
+    }
+
+    @Override
+    public ComplexMatrix solve(ComplexMatrix B, ComplexMatrix X) throws MatrixSingularException {
+        checkSolve(B, X);
+        return X.set(reciprocal(), B);
+    }
+
+    @Override
+    public ComplexMatrix transSolve(ComplexMatrix B, ComplexMatrix X)
+            throws MatrixSingularException {
+        return solve(B, X);
+    }
+
+    @Override
+    public ComplexMatrix solveHPD(ComplexMatrix B, ComplexMatrix X) throws MatrixNotSPDException {
+        checkHPD();
+        return solve(B, X);
+    }
+
+    /**
+     * Returns <code>1/alpha</code>
+     */
+    private double[] reciprocal() {
+        double abs2 = Complexes.abs2(alpha);
+        if (abs2 == 0)
+            throw new MatrixSingularException();
+        return new double[] { alpha[0] / abs2, -alpha[1] / abs2 };
+    }
+
+    private void checkHPD() {
+        if (!(alpha[0] > 0) || alpha[1] != 0)
+            throw new MatrixNotSPDException();
+    }
+
+    @Override
+    public ComplexMatrix inverse() throws ComplexMatrixNotSPDException {
+        if (Complexes.abs2(alpha) == 0)
+            throw new ComplexMatrixNotSPDException("matrix is not valid");
+        return new ScaledIdentityComplexMatrix(numRows, reciprocal());
+    }
+
+    @Override
+    public ComplexMatrix hermitianTranspose() {
+        return new ScaledIdentityComplexMatrix(numRows, Complexes.conjugate(alpha));
+    }
+
+    @Override
+    public ComplexMatrix transpose() {
+        return this;
+    }
+
+    @Override
+    public double[] logDet() {
+        double arg = Math.IEEEremainder(numRows * Math.atan2(alpha[1], alpha[0]), 2 * Math.PI);
+        if (arg == -Math.PI)
+            arg = Math.PI;
+        return new double[] { numRows * Math.log(Complexes.abs(alpha)), arg };
+    }
+
+    @Override
+    public double logDetHPD() throws MatrixNotSPDException {
+        checkHPD();
+        return numRows * Math.log(alpha[0]);
+    }
+
+    public double det2() {
+        return Math.exp(2 * logDet()[0]);
+    }
+
+    /**
+     * Visits the diagonal only
+     */
+    @Override
+    public Iterator<ComplexMatrixEntry> iterator() {
+        return new DiagonalIterator();
+    }
+
+    private class DiagonalIterator extends RefMatrixIterator {
+        @Override
+        public boolean hasNext() {
+            return row < numRows;
+        }
+
+        @Override
+        public ComplexMatrixEntry next() {
+            entry.update(row, row);
+            row++;
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.yahoo.algebra.matrix;
+
+import com.yahoo.networkmimo.exception.ComplexMatrixNotSPDException;
+
+/**
+ * Solves <code>(mu*I + M)*x = c</code> for a fixed Hermitian <code>M</code>
+ * and many shifts <code>mu</code>. <code>M = V*diag(lambda)*V<sup>H</sup></code>
+ * is decomposed once. After a right-hand side has been projected with
+ * {@link #project(ComplexVector)}, the solution for any shift costs
+ * <code>O(n<sup>2</sup>)</code>, and its norm <code>O(n)</code>
+ */
+public class ShiftedHermitianSolver {
+
+    /**
+     * Eigenvalues of <code>M</code>, ascending
+     */
+    private final double[] lambda;
+
+    /**
+     * Eigenvectors of <code>M</code>
+     */
+    private final DenseComplexMatrix V;
+
+    /**
+     * <code>V<sup>H</sup>*c</code> of the projected right-hand side
+     */
+    private final DenseComplexVector d;
+
+    /**
+     * <code>|d_i|<sup>2</sup></code>
+     */
+    private final double[] d2;
+
+    private boolean projected;
+
+    /**
+     * Constructor for ShiftedHermitianSolver
+     * 
+     * @param M
+     *            Hermitian matrix. Not modified
+     */
+    public ShiftedHermitianSolver(ComplexMatrix M) {
+        if (!M.isSquare())
+            throw new ComplexMatrixNotSPDException("M must be square");
+        int n = M.numRows();
+        lambda = new double[n];
+        V = new DenseComplexMatrix(n, n);
+        d = new DenseComplexVector(n);
+        d2 = new double[n];
+        double[] a = new DenseComplexMatrix(M).getData();
+        if (DenseComplexKernels.heev(n, a, 0, n, lambda, V.getData(), 0, n) != 0)
+            throw new ComplexMatrixNotSPDException("Eigenvalues have not converged.");
+    }
+
+    /**
+     * Sets the right-hand side <code>c</code>
+     * 
+     * @return this solver
+     */
+    public ShiftedHermitianSolver project(ComplexVector c) {
+        V.hermMult(c, d);
+        double[] dd = d.getData();
+        for (int i = 0; i < d2.length; ++i)
+            d2[i] = dd[2 * i] * dd[2 * i] + dd[2 * i + 1] * dd[2 * i + 1];
+        projected = true;
+        return this;
+    }
+
+    /**
+     * <code>x = (mu*I + M)\c</code>
+     * 
+     * @param x
+     *            Vector of size <code>M.numRows()</code>
+     * @return x
+     */
+    public ComplexVector solve(double mu, ComplexVector x) {
+        checkProjected();
+        int n = lambda.length;
+        DenseComplexVector y = new DenseComplexVector(n);
+        double[] dd = d.getData(), yd = y.getData();
+        for (int i = 0; i < n; ++i) {
+            double s = 1 / (lambda[i] + mu);
+            yd[2 * i] = dd[2 * i] * s;
+            yd[2 * i + 1] = dd[2 * i + 1] * s;
+        }
+        return V.mult(y, x);
+    }
+
+    /**
+     * Returns <code>|(mu*I + M)\c|<sup>2</sup></code>
+     */
+    public double norm2(double mu) {
+        checkProjected();
+        double ret = 0;
+        for (int i = 0; i < lambda.length; ++i) {
+            double s = lambda[i] + mu;
+            ret += d2[i] / (s * s);
+        }
+        return ret;
+    }
+
+    /**
+     * Returns <code>|(mu*I + M)\c|</code>
+     */
+    public double norm(double mu) {
+        return Math.sqrt(norm2(mu));
+    }
+
+    /**
+     * Eigenvalues of <code>M</code> in ascending order
+     */
+    public double[] getEigenvalues() {
+        return lambda;
+    }
+
+    /**
+     * Eigenvectors of <code>M</code>, in the order of the eigenvalues
+     */
+    public DenseComplexMatrix getEigenvectors() {
+        return V;
+    }
+
+    private void checkProjected() {
+        if (!projected)
+            throw new IllegalStateException("No right-hand side has been projected");
+    }
+}
@@ -0,0 +1,270 @@
+package com.yahoo.algebra.matrix;
+
+/**
+ * Closed-form determinant, inverse and solve for square matrices of order 1
+ * to {@link #MAX_SIZE}, on the storage layout of {@link DenseComplexKernels}.
+ * Everything is built from the cofactors, which for order 4 come from the 2x2
+ * minors of the top and bottom row pairs. Cofactors lose accuracy on
+ * ill-conditioned matrices, so the inverse and solve give up, leaving their
+ * output untouched, when <code>|det(A)|</code> is small against the product
+ * of the column norms (the Hadamard bound); callers then use the pivoted LU
+ * factorization. The kernels allocate nothing; callers pass a workspace of
+ * {@link #workSize(int)} doubles, which can be reused across calls
+ */
+final class SmallComplexKernels {
+
+    /**
+     * Largest order handled
+     */
+    static final int MAX_SIZE = 4;
+
+    /**
+     * Smallest accepted ratio of <code>|det(A)|</code> to the Hadamard bound
+     */
+    static final double SAFE = 1e-6;
+
+    /**
+     * Index of the 2x2 minor on columns <code>p &lt; q</code>
+     */
+    private static final int[][] PAIR = { { -1, 0, 1, 2 }, { 0, -1, 3, 4 }, { 1, 3, -1, 5 },
+            { 2, 4, 5, -1 } };
+
+    private SmallComplexKernels() {
+    }
+
+    /**
+     * Whether matrices of order <code>n</code> are handled here
+     */
+    static boolean isSmall(int n) {
+        return n >= 1 && n <= MAX_SIZE;
+    }
+
+    /**
+     * Length of the workspace for order <code>n</code>: the real and
+     * imaginary parts of the matrix and of its cofactors, followed by 24
+     * doubles for the 2x2 minors, the determinant and a right-hand side
+     */
+    static int workSize(int n) {
+        return 4 * n * n + 24;
+    }
+
+    /**
+     * Determinant of the <code>n</code> by <code>n</code> matrix
+     * <code>A</code>, <code>1 &lt;= n &lt;= 4</code>, into <code>det</code>
+     */
+    static void det(int n, double[] a, int aOff, int lda, double[] det, double[] work) {
+        load(n, a, aOff, lda, work);
+        cofactors(n, work);
+        det(n, work, det, 0);
+    }
+
+    /**
+     * <code>X = A<sup>-1</sup></code> for an <code>n</code> by <code>n</code>
+     * matrix <code>A</code>. <code>X</code> may share the storage of
+     * <code>A</code>
+     *
+     * @return false, with <code>X</code> untouched, if <code>n</code> is out
+     *         of range or <code>A</code> is too close to singular for the
+     *         cofactors
+     */
+    static boolean inverse(int n, double[] a, int aOff, int lda, double[] x, int xOff, int ldx,
+            double[] work) {
+        if (!isSmall(n) || !invert(n, a, aOff, lda, work))
+            return false;
+
+        // X(i,j) = C(j,i)/det, with the scaled cofactors left in the workspace
+        int nn = n * n, cr = 2 * nn, ci = 3 * nn;
+        for (int j = 0; j < n; ++j)
+            for (int i = 0; i < n; ++i) {
+                int k = 2 * (xOff + i + j * ldx);
+                x[k] = work[cr + j + i * n];
+                x[k + 1] = work[ci + j + i * n];
+            }
+        return true;
+    }
+
+    /**
+     * Solves <code>A*X = B</code> for an <code>n</code> by <code>n</code>
+     * matrix <code>A</code>. <code>B</code> is <code>n</code> by
+     * <code>nrhs</code> and is overwritten by <code>X</code>
+     *
+     * @return false, with <code>B</code> untouched, if <code>n</code> is out
+     *         of range or <code>A</code> is too close to singular for the
+     *         cofactors
+     */
+    static boolean solve(int n, int nrhs, double[] a, int aOff, int lda, double[] b, int bOff,
+            int ldb, double[] work) {
+        if (!isSmall(n) || !invert(n, a, aOff, lda, work))
+            return false;
+
+        // x = A^-1*b with A^-1(i,k) = c(k,i), one column at a time through y
+        int nn = n * n, cr = 2 * nn, ci = 3 * nn, y = 4 * nn;
+        for (int j = 0; j < nrhs; ++j) {
+            int bj = 2 * (bOff + j * ldb);
+            for (int i = 0; i < n; ++i) {
+                double sr = 0, si = 0;
+                for (int k = 0; k < n; ++k) {
+                    double xr = b[bj + 2 * k], xi = b[bj + 2 * k + 1];
+                    double vr = work[cr + k + i * n], vi = work[ci + k + i * n];
+                    sr += vr * xr - vi * xi;
+                    si += vr * xi + vi * xr;
+                }
+                work[y + 2 * i] = sr;
+                work[y + 2 * i + 1] = si;
+            }
+            System.arraycopy(work, y, b, bj, 2 * n);
+        }
+        return true;
+    }
+
+    /**
+     * Loads <code>A</code> into the workspace, and leaves its cofactors
+     * divided by the determinant after it
+     *
+     * @return false if the determinant fails the Hadamard test
+     */
+    private static boolean invert(int n, double[] a, int aOff, int lda, double[] w) {
+        int nn = n * n, ai = nn, cr = 2 * nn, ci = 3 * nn;
+        load(n, a, aOff, lda, w);
+        cofactors(n, w);
+        det(n, w, w, 4 * nn);
+        double dr = w[4 * nn], di = w[4 * nn + 1];
+
+        double bound = 1;
+        for (int j = 0; j < n; ++j) {
+            double s = 0;
+            for (int i = j * n; i < (j + 1) * n; ++i)
+                s += w[i] * w[i] + w[ai + i] * w[ai + i];
+            bound *= Math.sqrt(s);
+        }
+        double abs = Math.hypot(dr, di);
+        if (!(abs > SAFE * bound) || Double.isInfinite(abs))
+            return false;
+
+        double d = dr * dr + di * di;
+        double rr = dr / d, ri = -di / d;
+        for (int k = 0; k < nn; ++k) {
+            double xr = w[cr + k], xi = w[ci + k];
+            w[cr + k] = xr * rr - xi * ri;
+            w[ci + k] = xr * ri + xi * rr;
+        }
+        return true;
+    }
+
+    /**
+     * Copies <code>A</code> into the workspace, as column-major real parts
+     * followed by column-major imaginary parts
+     */
+    private static void load(int n, double[] a, int aOff, int lda, double[] w) {
+        int ai = n * n;
+        for (int j = 0; j < n; ++j)
+            for (int i = 0; i < n; ++i) {
+                int k = 2 * (aOff + i + j * lda);
+                w[i + j * n] = a[k];
+                w[ai + i + j * n] = a[k + 1];
+            }
+    }
+
+    /**
+     * Expansion of the determinant along row 0, into
+     * <code>det[detOff]</code> and <code>det[detOff+1]</code>
+     */
+    private static void det(int n, double[] w, double[] det, int detOff) {
+        int nn = n * n, ai = nn, cr = 2 * nn, ci = 3 * nn;
+        double sr = 0, si = 0;
+        for (int j = 0; j < n; ++j) {
+            double xr = w[j * n], xi = w[ai + j * n];
+            sr += xr * w[cr + j * n] - xi * w[ci + j * n];
+            si += xr * w[ci + j * n] + xi * w[cr + j * n];
+        }
+        det[detOff] = sr;
+        det[detOff + 1] = si;
+    }
+
+    /**
+     * Cofactor <code>C(i,j)</code> of every entry, after the matrix in the
+     * workspace
+     */
+    private static void cofactors(int n, double[] w) {
+        int nn = n * n, ai = nn, cr = 2 * nn, ci = 3 * nn;
+        if (n == 1) {
+            w[cr] = 1;
+            w[ci] = 0;
+        } else if (n == 2) {
+            w[cr] = w[3];
+            w[ci] = w[ai + 3];
+            w[cr + 1] = -w[2];
+            w[ci + 1] = -w[ai + 2];
+            w[cr + 2] = -w[1];
+            w[ci + 2] = -w[ai + 1];
+            w[cr + 3] = w[0];
+            w[ci + 3] = w[ai];
+        } else if (n == 3) {
+            for (int i = 0; i < 3; ++i)
+                for (int j = 0; j < 3; ++j) {
+                    // Remaining rows and columns, in order
+                    int i0 = i == 0 ? 1 : 0, i1 = i == 2 ? 1 : 2;
+                    int j0 = j == 0 ? 1 : 0, j1 = j == 2 ? 1 : 2;
+                    int p = i0 + j0 * 3, q = i1 + j1 * 3, r = i0 + j1 * 3, s = i1 + j0 * 3;
+                    double mr = w[p] * w[q] - w[ai + p] * w[ai + q] - w[r] * w[s]
+                            + w[ai + r] * w[ai + s];
+                    double mi = w[p] * w[ai + q] + w[ai + p] * w[q] - w[r] * w[ai + s]
+                            - w[ai + r] * w[s];
+                    double sign = (i + j) % 2 == 0 ? 1 : -1;
+                    w[cr + i + j * 3] = sign * mr;
+                    w[ci + i + j * 3] = sign * mi;
+                }
+        } else
+            cofactors4(w);
+    }
+
+    /**
+     * Cofactors of a 4x4 matrix. The 3x3 minor of an entry in the top row
+     * pair is expanded along the other top row, using 2x2 minors of the
+     * bottom rows, and the other way round. The minors take the 24 doubles
+     * after the cofactors
+     */
+    private static void cofactors4(double[] w) {
+        int ai = 16, cr = 32, ci = 48, top = 64, bottom = 76;
+        minors(w, 0, top);
+        minors(w, 2, bottom);
+
+        for (int i = 0; i < 4; ++i) {
+            int other = i < 2 ? 1 - i : 5 - i;
+            int m = i < 2 ? bottom : top;
+            for (int j = 0; j < 4; ++j) {
+                // Columns other than j, in order
+                int c0 = j == 0 ? 1 : 0, c1 = j <= 1 ? 2 : 1, c2 = j == 3 ? 2 : 3;
+
+                double xr = 0, xi = 0;
+                for (int p = 0; p < 3; ++p) {
+                    int c = p == 0 ? c0 : p == 1 ? c1 : c2;
+                    int k = m + 2 * PAIR[p == 0 ? c1 : c0][p == 2 ? c1 : c2];
+                    double er = w[other + c * 4], ei = w[ai + other + c * 4];
+                    double sign = p % 2 == 0 ? 1 : -1;
+                    xr += sign * (er * w[k] - ei * w[k + 1]);
+                    xi += sign * (er * w[k + 1] + ei * w[k]);
+                }
+                double sign = (i + j) % 2 == 0 ? 1 : -1;
+                w[cr + i + j * 4] = sign * xr;
+                w[ci + i + j * 4] = sign * xi;
+            }
+        }
+    }
+
+    /**
+     * 2x2 minors of rows <code>r</code> and <code>r+1</code> of a 4x4 matrix,
+     * for every pair of columns, interleaved from <code>w[mOff]</code>
+     */
+    private static void minors(double[] w, int r, int mOff) {
+        int ai = 16;
+        for (int p = 0; p < 4; ++p)
+            for (int q = p + 1; q < 4; ++q) {
+                int a = r + p * 4, b = r + 1 + q * 4, c = r + q * 4, d = r + 1 + p * 4;
+                int k = mOff + 2 * PAIR[p][q];
+                w[k] = w[a] * w[b] - w[ai + a] * w[ai + b] - w[c] * w[d] + w[ai + c] * w[ai + d];
+                w[k + 1] = w[a] * w[ai + b] + w[ai + a] * w[b] - w[c] * w[ai + d]
+                        - w[ai + c] * w[d];
+            }
+    }
+}
@@ -1,12 +1,15 @@
 package com.yahoo.algebra.matrix;
 
 /** Transpose enumeration */
-enum Transpose {
+public enum Transpose {
     /** Do not transpose */
     NoTranspose,
 
     /** Transpose */
-    Transpose;
+    Transpose,
+
+    /** Conjugate transpose */
+    ConjugateTranspose;
 
     /**
      * @return the netlib character version of this designation, for use with
@@ -15,6 +18,8 @@ enum Transpose {
     public String netlib() {
         if (this == NoTranspose)
             return "N";
+        if (this == ConjugateTranspose)
+            return "C";
         return "T";
     }
 
@@ -18,6 +18,7 @@ import com.yahoo.algebra.matrix.ComplexVector;
 import com.yahoo.algebra.matrix.ComplexVector.Norm;
 import com.yahoo.algebra.matrix.ComplexVectors;
 import com.yahoo.algebra.matrix.DenseComplexVector;
+import com.yahoo.algebra.matrix.ShiftedHermitianSolver;
 
 public class BaseStation extends Entity {
     private static final Logger logger = LoggerFactory.getLogger(BaseStation.class);
@@ -299,18 +300,19 @@ public class BaseStation extends Entity {
             logger.debug("sparsity ensured between " + this + " and " + ue);
             multiplier = 0.0;
         } else {
+            ShiftedHermitianSolver solver = new ShiftedHermitianSolver(M).project(c);
             double theta = 1 / Math.sqrt(getPowerAllocation(ue));
             double targetValue = 0.0;
-            if (bisectionTarget(0, theta, lambda, M, c) >= 1) {
+            if (bisectionTarget(0, theta, lambda, solver) >= 1) {
                 double miuLow = 0.0;
                 double miuHigh = 1;
                 do {
                     miuHigh *= 2;
-                } while (bisectionTarget(miuHigh, theta, lambda, M, c) >= 1);
+                } while (bisectionTarget(miuHigh, theta, lambda, solver) >= 1);
                 logger.debug("Bisection target >= 1");
                 do {
                     multiplier = (miuLow + miuHigh) / 2;
-                    targetValue = bisectionTarget(multiplier, theta, lambda, M, c);
+                    targetValue = bisectionTarget(multiplier, theta, lambda, solver);
                     if (targetValue > 1)
                         miuLow = multiplier;
                     else
@@ -321,11 +323,11 @@ public class BaseStation extends Entity {
                 double tHigh = theta;
                 do {
                     tHigh *= 2;
-                } while (bisectionTarget(0, tHigh, lambda, M, c) < 1);
+                } while (bisectionTarget(0, tHigh, lambda, solver) < 1);
                 logger.debug("Bisection target < 1");
                 do {
                     theta = (tLow + tHigh) / 2;
-                    targetValue = bisectionTarget(0, theta, lambda, M, c);
+                    targetValue = bisectionTarget(0, theta, lambda, solver);
                     if (targetValue > 1)
                         tHigh = theta;
                     else
@@ -338,9 +340,8 @@ public class BaseStation extends Entity {
                 v = new DenseComplexVector(getNumAntennas());
                 v.zero();
             } else
-                v = ComplexMatrices.eye(getNumAntennas())
-                        .scale(new double[] { lambda * theta / 2 + multiplier, 0 }).add(M)
-                        .inverse().mult(c, new DenseComplexVector(getNumAntennas()));
+                v = solver.solve(lambda * theta / 2 + multiplier,
+                        new DenseComplexVector(getNumAntennas()));
             logger.debug("Use block coordinate descent, get multipler: " + multiplier + "; theta: "
                     + theta + "; tx vector: " + v);
             txPreVectors.put(ue, v);
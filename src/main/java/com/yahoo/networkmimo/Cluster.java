@@ -16,10 +16,13 @@ import org.uncommons.maths.random.MersenneTwisterRNG;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.yahoo.algebra.matrix.BlockComplexMatrix;
+import com.yahoo.algebra.matrix.BlockComplexVector;
 import com.yahoo.algebra.matrix.ComplexMatrices;
 import com.yahoo.algebra.matrix.ComplexMatrix;
 import com.yahoo.algebra.matrix.ComplexVector;
 import com.yahoo.algebra.matrix.ComplexVectors;
+import com.yahoo.algebra.matrix.DenseComplexLU;
 import com.yahoo.algebra.matrix.DenseComplexMatrix;
 import com.yahoo.algebra.matrix.DenseComplexVector;
 import com.yahoo.networkmimo.exception.ClusterNotReadyException;
@@ -213,17 +216,16 @@ public class Cluster extends Entity {
     public void assembleMIMOChannel() {
         bsList.clear();
         bsList.addAll(bss);
+        int[] columnBlocks = new int[bsList.size()];
+        for (int q = 0; q < bsList.size(); q++) {
+            columnBlocks[q] = bsList.get(q).getNumAntennas();
+        }
+        // The cluster channel refers to the BS channels, so nothing is copied
         for (UE ue : network.getUEs()) {
-            ComplexMatrix H = new DenseComplexMatrix(ue.getNumAntennas(), getNumAntennas());
-            int offset = 0;
-            for (BaseStation bs : bsList) {
-                ComplexMatrix Hq = bs.getMIMOChannel(ue);
-                for (int i = 0; i < Hq.numRows(); i++) {
-                    for (int j = 0; j < Hq.numColumns(); j++) {
-                        H.set(i, j + offset, Hq.get(i, j));
-                    }
-                }
-                offset += Hq.numColumns();
+            BlockComplexMatrix H = new BlockComplexMatrix(new int[] { ue.getNumAntennas() },
+                    columnBlocks);
+            for (int q = 0; q < bsList.size(); q++) {
+                H.setBlock(0, q, bsList.get(q).getMIMOChannel(ue));
             }
             mimoChannels.put(ue, H);
         }
@@ -243,9 +245,8 @@ public class Cluster extends Entity {
             ComplexMatrix H = getMIMOChannel(ue);
             ComplexVector v = network
                     .getMmseMMatrix(this)
-                    .inverse()
-                    .mult(H.hermitianTranspose(new DenseComplexMatrix(H.numColumns(), H.numRows())))
-                    .mult(ue.getRxPreVector(), new DenseComplexVector(getNumAntennas()))
+                    .solve(H.hermMult(ue.getRxPreVector(), new DenseComplexVector(H.numColumns())),
+                            new DenseComplexVector(getNumAntennas()))
                     .scale(new double[] { ue.getMMSEWeight(), 0 });
             power += ComplexVectors.getPower(v);
         }
@@ -257,23 +258,22 @@ public class Cluster extends Entity {
         ComplexMatrix D = new DenseComplexMatrix(M.numRows(), M.numColumns());
         ComplexVector lambda = new DenseComplexVector(M.numRows());
         try {
-            ComplexMatrices.eig(M, D, lambda);
+            double[] w = ComplexMatrices.eigh(M, D);
+            for (int i = 0; i < w.length; i++)
+                lambda.set(i, new double[] { w[i], 0 });
         } catch (NotConvergedException e) {
             logger.error("Eigen decomposition not converge");
             throw new RuntimeException("Eigen decomposition not converge");
         }
         ComplexMatrix tmp = new DenseComplexMatrix(M.numRows(), M.numColumns());
-        tmp.zero();
         for (UE ue : ues) {
             ComplexMatrix H = getMIMOChannel(ue);
-            ComplexVector Hu = H.hermitianTranspose(
-                    new DenseComplexMatrix(H.numColumns(), H.numRows())).mult(ue.getRxPreVector(),
-                    new DenseComplexVector(H.numColumns()));
-            ComplexMatrix HuuH = Hu.mult(Hu.conjugate(new DenseComplexVector(Hu.size())),
-                    new DenseComplexMatrix(Hu.size(), Hu.size()));
-            tmp.add(HuuH.scale(new double[] { ue.getMMSEWeight() * ue.getMMSEWeight(), 0 }));
+            tmp.rank1Herm(ue.getMMSEWeight() * ue.getMMSEWeight(),
+                    H.hermMult(ue.getRxPreVector(), new DenseComplexVector(H.numColumns())));
         }
-        ComplexMatrix phi = D.inverse().mult(tmp).mult(D);
+        // D is unitary, so phi = D^H * tmp * D
+        ComplexMatrix phi = D.hermAmult(tmp.mult(D), new DenseComplexMatrix(D.numColumns(),
+                D.numColumns()));
         double miuLow = 0.0;
         double miuHigh = 1.0;
         double multiplier = 0.0;
@@ -301,22 +301,17 @@ public class Cluster extends Entity {
     }
 
     public void iterateWMMSE(double multiplier) {
-        ComplexMatrix tmp = ComplexMatrices.eye(getNumAntennas())
-                .scale(new double[] { multiplier, 0 }).add(network.getMmseMMatrix(this)).inverse();
+        DenseComplexLU lu = DenseComplexLU.factorize(network.getMmseMMatrix(this).copy()
+                .shiftDiagonal(new double[] { multiplier, 0 }));
         for (UE ue : ues) {
             ComplexMatrix H = getMIMOChannel(ue);
-            ComplexVector Hu = H.hermitianTranspose(
-                    new DenseComplexMatrix(H.numColumns(), H.numRows())).mult(ue.getRxPreVector(),
-                    new DenseComplexVector(H.numColumns()));
-            Hu.scale(new double[] { ue.getMMSEWeight(), 0 });
-            ComplexVector V = tmp.mult(Hu, new DenseComplexVector(tmp.numRows()));
+            DenseComplexVector Hu = new DenseComplexVector(H.numColumns());
+            H.hermMult(new double[] { ue.getMMSEWeight(), 0 }, ue.getRxPreVector(), Hu);
+            DenseComplexVector V = lu.solve(Hu);
             txPreVectors.put(ue, V);
             int offset = 0;
             for (BaseStation bs : bsList) {
-                ComplexVector v = bs.getTxPreVector(ue);
-                for (int i = 0; i < v.size(); i++) {
-                    v.set(i, V.get(i + offset));
-                }
+                bs.setTxPreVector(ue, V.slice(offset, bs.getNumAntennas()));
                 offset += bs.getNumAntennas();
             }
         }
@@ -332,16 +327,10 @@ public class Cluster extends Entity {
 
     public void assembleTxVectors() {
         for (UE ue : network.getUEs()) {
-            ComplexVector V = new DenseComplexVector(getNumAntennas());
-            int offset = 0;
-            for (BaseStation bs : bsList) {
-                ComplexVector v = bs.getTxPreVector(ue);
-                for (int i = 0; i < v.size(); i++) {
-                    V.set(i + offset, v.get(i));
-                }
-                offset += v.size();
-            }
-            txPreVectors.put(ue, V);
+            ComplexVector[] v = new ComplexVector[bsList.size()];
+            for (int q = 0; q < v.length; q++)
+                v[q] = bsList.get(q).getTxPreVector(ue);
+            txPreVectors.put(ue, new BlockComplexVector(v));
         }
     }
 }
@@ -14,8 +14,9 @@ import com.google.common.collect.Sets;
 import com.yahoo.algebra.matrix.ComplexMatrix;
 import com.yahoo.algebra.matrix.ComplexVector;
 import com.yahoo.algebra.matrix.ComplexVector.Norm;
+import com.yahoo.algebra.matrix.ComplexWorkspace;
 import com.yahoo.algebra.matrix.DenseComplexMatrix;
-import com.yahoo.algebra.matrix.DenseComplexVector;
+import com.yahoo.algebra.matrix.HermitianComplexMatrix;
 
 public class Network {
     private final static Logger logger = LoggerFactory.getLogger(Network.class);
@@ -112,47 +113,56 @@ public class Network {
     }
 
     public void updateMMatrixMap() {
-        for (BaseStation q : bss) {
-            for (BaseStation p : bss) {
-                ComplexMatrix Mqp = new DenseComplexMatrix(q.getNumAntennas(), p.getNumAntennas());
-                Mqp.zero();
-                for (UE ue : getUEs()) {
-                    double w = ue.getMMSEWeight();
-                    ComplexMatrix Hjmq = q.getMIMOChannel(ue);
-                    ComplexVector ujm = ue.getRxPreVector();
-                    ComplexMatrix Hjmp_ = p.getMIMOChannel(ue);
-                    ComplexMatrix HuuH = Hjmq
-                            .hermitianTranspose(
-                                    new DenseComplexMatrix(Hjmq.numColumns(), Hjmq.numRows()))
-                            .mult(ujm, new DenseComplexVector(Hjmq.numColumns()))
-                            .mult(ujm.conjugate(new DenseComplexVector(ujm.size())),
-                                    new DenseComplexMatrix(Hjmq.numColumns(), ujm.size()))
-                            .mult(Hjmp_);
-                    Mqp.add(HuuH.scale(new double[] { w, 0 }));
+        double[] weight = new double[2];
+        try (ComplexWorkspace ws = ComplexWorkspace.open()) {
+            // One temporary per base station for H^H*u, reused for every UE
+            Map<BaseStation, ComplexVector> hu = Maps.newHashMap();
+            for (BaseStation q : bss)
+                hu.put(q, ws.vector(q.getNumAntennas()));
+
+            for (BaseStation q : bss) {
+                for (BaseStation p : bss) {
+                    if (q == p) {
+                        HermitianComplexMatrix Mqq = new HermitianComplexMatrix(
+                                q.getNumAntennas());
+                        for (UE ue : getUEs()) {
+                            ComplexMatrix H = q.getMIMOChannel(ue);
+                            Mqq.rank1Herm(ue.getMMSEWeight(),
+                                    H.hermMult(ue.getRxPreVector(), hu.get(q)));
+                        }
+                        MMatrixMap.put(q, q, Mqq);
+                        continue;
+                    }
+                    ComplexMatrix Mqp = new DenseComplexMatrix(q.getNumAntennas(),
+                            p.getNumAntennas());
+                    Mqp.zero();
+                    for (UE ue : getUEs()) {
+                        ComplexMatrix Hjmq = q.getMIMOChannel(ue);
+                        ComplexMatrix Hjmp = p.getMIMOChannel(ue);
+                        ComplexVector ujm = ue.getRxPreVector();
+                        weight[0] = ue.getMMSEWeight();
+                        Mqp.rank1Conj(weight, Hjmq.hermMult(ujm, hu.get(q)),
+                                Hjmp.hermMult(ujm, hu.get(p)));
+                    }
+                    MMatrixMap.put(q, p, Mqp);
                 }
-                MMatrixMap.put(q, p, Mqp);
             }
         }
     }
 
     public void updateMmseMMatrixMap() {
-        for (Cluster cluster : clusters) {
-            ComplexMatrix M = new DenseComplexMatrix(cluster.getNumAntennas(),
-                    cluster.getNumAntennas());
-            M.zero();
-            for (Cluster l : clusters) {
-                for (UE i : l.getUEs()) {
-                    ComplexMatrix H = cluster.getMIMOChannel(i);
-                    ComplexVector Hu = H.hermitianTranspose(
-                            new DenseComplexMatrix(H.numColumns(), H.numRows())).mult(
-                            i.getRxPreVector(), new DenseComplexVector(H.numColumns()));
-                    ComplexMatrix HuuH = Hu.mult(Hu.conjugate(new DenseComplexVector(Hu.size())),
-                            new DenseComplexMatrix(Hu.size(), Hu.size()));
-                    HuuH.scale(new double[] { i.getMMSEWeight(), 0 });
-                    M.add(HuuH);
+        try (ComplexWorkspace ws = ComplexWorkspace.open()) {
+            for (Cluster cluster : clusters) {
+                HermitianComplexMatrix M = new HermitianComplexMatrix(cluster.getNumAntennas());
+                ComplexVector hu = ws.vector(cluster.getNumAntennas());
+                for (Cluster l : clusters) {
+                    for (UE i : l.getUEs()) {
+                        ComplexMatrix H = cluster.getMIMOChannel(i);
+                        M.rank1Herm(i.getMMSEWeight(), H.hermMult(i.getRxPreVector(), hu));
+                    }
                 }
+                mmseMMatrixMap.put(cluster, M);
             }
-            mmseMMatrixMap.put(cluster, M);
         }
     }
 
@@ -17,8 +17,11 @@ import com.yahoo.algebra.matrix.ComplexMatrices;
 import com.yahoo.algebra.matrix.ComplexMatrix;
 import com.yahoo.algebra.matrix.ComplexVector;
 import com.yahoo.algebra.matrix.ComplexVector.Norm;
+import com.yahoo.algebra.matrix.DenseComplexCholesky;
 import com.yahoo.algebra.matrix.DenseComplexMatrix;
 import com.yahoo.algebra.matrix.DenseComplexVector;
+import com.yahoo.algebra.matrix.HermitianComplexMatrix;
+import com.yahoo.algebra.matrix.ShiftedHermitianSolver;
 
 public class UE extends Entity {
     private static final Logger logger = LoggerFactory.getLogger(UE.class);
@@ -131,20 +134,18 @@ public class UE extends Entity {
         ComplexVector cVector = new DenseComplexVector(q.getNumAntennas());
         cVector.zero();
 
+        // The products accumulate straight into cVector, so no temporaries
         for (BaseStation p : l.getBSs()) {
             if (p == q) {
                 continue;
             } else {
                 ComplexVector vp = p.getTxPreVector(this);
                 ComplexMatrix Mqp = network.getMMatrix(q, p);
-                cVector.add(Mqp.mult(vp, new DenseComplexVector(Mqp.numRows())));
+                Mqp.multAdd(vp, cVector);
             }
         }
         ComplexMatrix localH = q.getMIMOChannel(this);
-        cVector.add(localH
-                .hermitianTranspose(new DenseComplexMatrix(localH.numColumns(), localH.numRows()))
-                .mult(rxPreVector, new DenseComplexVector(localH.numColumns()))
-                .scale(new double[] { -mmseWeight, 0 }));
+        localH.hermMultAdd(new double[] { -mmseWeight, 0 }, rxPreVector, cVector);
         cVector.scale(new double[] { 2, 0 });
         for (Cluster m : cluster.getClusterClosure()) {
             if (m == l) {
@@ -154,10 +155,8 @@ public class UE extends Entity {
                     ComplexMatrix Mlmqp = network.getMMatrix(q, p);
                     ComplexMatrix Mmlpq = network.getMMatrix(p, q);
                     ComplexVector vp = p.getTxPreVector(this);
-                    cVector.add(Mlmqp.mult(vp, new DenseComplexVector(Mlmqp.numRows())));
-                    cVector.add(Mmlpq.hermitianTranspose(
-                            new DenseComplexMatrix(Mmlpq.numColumns(), Mmlpq.numRows())).mult(vp,
-                            new DenseComplexVector(Mmlpq.numColumns())));
+                    Mlmqp.multAdd(vp, cVector);
+                    Mmlpq.hermMultAdd(vp, cVector);
                 }
             }
         }
@@ -180,7 +179,7 @@ public class UE extends Entity {
     public double getUpperBoundOfInverseOfTxPreVectorNorm(BaseStation q, double miuHigh) {
         double thetaH = 0.0;
         try {
-            thetaH = (ComplexMatrices.spectralRadius(network.getMMatrix(q, q)) + miuHigh)
+            thetaH = (ComplexMatrices.lambdaMax(network.getMMatrix(q, q), true) + miuHigh)
                     / (getCVector(q).norm(Norm.Two) - lambdaMap.get(q) / 2);
         } catch (NotConvergedException e) {
             logger.error("spectral radius calculation error");
@@ -207,9 +206,28 @@ public class UE extends Entity {
     public static double bisectionTarget(double mu, double theta, double lambda, ComplexMatrix M,
             ComplexVector c) {
         return theta
-                * ComplexMatrices.eye(M.numRows())
-                        .scale(new double[] { lambda * theta / 2.0 + mu, 0 }).add(M).inverse()
-                        .mult(c, new DenseComplexVector(M.numRows())).norm(Norm.Two);
+                * M.copy().shiftDiagonal(new double[] { lambda * theta / 2.0 + mu, 0 })
+                        .solveHPD(c, new DenseComplexVector(M.numRows())).norm(Norm.Two);
+    }
+
+    /**
+     * Target function for bisection method, evaluated on a solver holding the
+     * eigendecomposition of the M matrix and the projected c vector. Each call
+     * is <code>O(n)</code>
+     * 
+     * @param mu
+     *            Lagrangian multiplier
+     * @param theta
+     *            inverse of norm of tx precoding vector
+     * @param lambda
+     *            sparsity penalty
+     * @param solver
+     *            solver for <code>M</code>, projected on <code>c</code>
+     * @return optimal Lagrangian multiplier
+     */
+    public static double bisectionTarget(double mu, double theta, double lambda,
+            ShiftedHermitianSolver solver) {
+        return theta * solver.norm(lambda * theta / 2.0 + mu);
     }
 
     /**
@@ -264,35 +282,29 @@ public class UE extends Entity {
         logger.debug("WMMSE BCD");
         ComplexVector c = updateCVector(q);
         ComplexMatrix M = network.getMMatrix(q, q);
-        ComplexVector v = M.inverse().mult(c, new DenseComplexVector(M.numColumns()));
+        ComplexVector v = M.solve(c, new DenseComplexVector(M.numColumns()));
         double multiplier = 0.0;
         if (Math.pow(v.norm(Norm.Two), 2) > q.getPowerAllocation(this)) {
+            ShiftedHermitianSolver solver = new ShiftedHermitianSolver(M).project(c);
             double miuLow = 0;
             double miuHigh = 1;
-            v = ComplexMatrices.eye(q.getNumAntennas()).scale(new double[] { miuHigh, 0 }).add(M)
-                    .inverse().mult(c, new DenseComplexVector(q.getNumAntennas()));
-            while (Math.pow(v.norm(Norm.Two), 2) > q.getPowerAllocation(this)) {
+            while (solver.norm2(miuHigh) > q.getPowerAllocation(this)) {
                 miuHigh *= 2;
-                v = ComplexMatrices.eye(q.getNumAntennas()).scale(new double[] { miuHigh, 0 })
-                        .add(M).inverse().mult(c, new DenseComplexVector(q.getNumAntennas()));
             }
-            System.out.println(q.getPowerAllocation(this));
-            v = ComplexMatrices.eye(q.getNumAntennas()).scale(new double[] { miuLow, 0 }).add(M)
-                    .inverse().mult(c, new DenseComplexVector(q.getNumAntennas()));
-            System.out.println(Math.pow(v.norm(Norm.Two), 2));
-            v = ComplexMatrices.eye(q.getNumAntennas()).scale(new double[] { miuHigh, 0 }).add(M)
-                    .inverse().mult(c, new DenseComplexVector(q.getNumAntennas()));
-            System.out.println(Math.pow(v.norm(Norm.Two), 2));
+            logger.debug("Power budget " + q.getPowerAllocation(this) + ", unshifted power "
+                    + Math.pow(v.norm(Norm.Two), 2) + ", power at " + miuHigh + " is "
+                    + solver.norm2(miuHigh));
+            double power = 0;
             do {
                 multiplier = (miuLow + miuHigh) / 2;
                 logger.debug("stuck b");
-                v = ComplexMatrices.eye(q.getNumAntennas()).scale(new double[] { multiplier, 0 })
-                        .add(M).inverse().mult(c, new DenseComplexVector(q.getNumAntennas()));
-                if (Math.pow(v.norm(Norm.Two), 2) > q.getPowerAllocation(this))
+                power = solver.norm2(multiplier);
+                if (power > q.getPowerAllocation(this))
                     miuLow = multiplier;
-                else if (Math.pow(v.norm(Norm.Two), 2) < q.getPowerAllocation(this))
+                else if (power < q.getPowerAllocation(this))
                     miuHigh = multiplier;
-            } while (Math.abs(Math.pow(v.norm(Norm.Two), 2) - q.getPowerAllocation(this)) > 1e-3);
+            } while (Math.abs(power - q.getPowerAllocation(this)) > 1e-3);
+            v = solver.solve(multiplier, new DenseComplexVector(q.getNumAntennas()));
         }
         q.setTxPreVector(this, v);
         return multiplier;
@@ -308,6 +320,7 @@ public class UE extends Entity {
             multiplier = 0.0;
         } else {
             ComplexMatrix M = network.getMMatrix(q, q);
+            ShiftedHermitianSolver solver = new ShiftedHermitianSolver(M).project(c);
             double miuLow = 0.0;
             double miuHigh = getUpperBoundOfLagrangianMultiplier(q);
             double theta = 0.0;
@@ -318,7 +331,7 @@ public class UE extends Entity {
                 double thetaHigh = getUpperBoundOfInverseOfTxPreVectorNorm(q, miuHigh);
                 do {
                     theta = (thetaLow + thetaHigh) / 2;
-                    targetValue = bisectionTarget(multiplier, theta, lambda, M, c);
+                    targetValue = bisectionTarget(multiplier, theta, lambda, solver);
                     if (targetValue > 1)
                         thetaHigh = theta;
                     else
@@ -329,9 +342,8 @@ public class UE extends Entity {
                 else
                     miuLow = multiplier;
             } while (abs(miuLow - miuHigh) > 1e-6);
-            ComplexVector v = ComplexMatrices.eye(q.getNumAntennas())
-                    .scale(new double[] { lambda * theta / 2 + multiplier, 0 }).add(M).inverse()
-                    .mult(c, new DenseComplexVector(q.getNumAntennas()));
+            ComplexVector v = solver.solve(lambda * theta / 2 + multiplier,
+                    new DenseComplexVector(q.getNumAntennas()));
             logger.debug("Use block coordinate descent test, get multipler: " + multiplier
                     + "; theta: " + theta + "; tx vector: " + v);
             q.setTxPreVector(this, v);
@@ -371,9 +383,9 @@ public class UE extends Entity {
                 return true;
         } else {
             double theta = 1 / normV;
-            ComplexVector updatedV = ComplexMatrices.eye(q.getNumAntennas())
-                    .scale(new double[] { lambda * theta / 2 + multiplier, 0 }).add(M).inverse()
-                    .mult(c, new DenseComplexVector(q.getNumAntennas()));
+            ComplexVector updatedV = M.copy()
+                    .shiftDiagonal(new double[] { lambda * theta / 2 + multiplier, 0 })
+                    .solveHPD(c, new DenseComplexVector(q.getNumAntennas()));
             updatedV.add(new double[] { -1, 0 }, v);
             if (updatedV.norm(Norm.Two) < 1e-3
                     && abs(multiplier * (q.getPowerAllocation(this) - normV * normV)) < 1e-3) {
@@ -408,15 +420,16 @@ public class UE extends Entity {
             q.setHessianDiagonal(this, 1);
             logger.debug("Sparsity is ensured between " + q + " and " + this);
         } else {
+            ShiftedHermitianSolver solver = new ShiftedHermitianSolver(M).project(c);
             double P = q.getPowerAllocation(this);
             theta = 1 / sqrt(P);
-            double targetValue = bisectionTarget(0, theta, lambda, M, c);
+            double targetValue = bisectionTarget(0, theta, lambda, solver);
             if (targetValue > 1.0) {
                 double miuLow = 0.0;
                 double miuHigh = c.norm(Norm.Two) / sqrt(P);
                 do {
                     multiplier = (miuLow + miuHigh) / 2;
-                    targetValue = bisectionTarget(multiplier, theta, lambda, M, c);
+                    targetValue = bisectionTarget(multiplier, theta, lambda, solver);
                     if (targetValue > 1)
                         miuLow = multiplier;
                     else if (targetValue < 1)
@@ -425,13 +438,13 @@ public class UE extends Entity {
                         break;
                 } while (Math.abs((miuLow - miuHigh) / miuHigh) > 1e-8);
                 logger.debug("Multiplier " + multiplier + ", bisection target value "
-                        + bisectionTarget(multiplier, theta, lambda, M, c));
+                        + bisectionTarget(multiplier, theta, lambda, solver));
             } else if (targetValue < 1.0) {
                 double tLow = theta;
                 double miuHigh = c.norm(Norm.Two) / sqrt(P);
                 double tHigh = 0;
                 try {
-                    tHigh = (ComplexMatrices.spectralRadius(M) + miuHigh)
+                    tHigh = (ComplexMatrices.lambdaMax(M, true) + miuHigh)
                             / (c.norm(Norm.Two) - lambda / 2);
                 } catch (NotConvergedException e) {
                     throw new RuntimeException(
@@ -443,7 +456,7 @@ public class UE extends Entity {
                 multiplier = 0.0;
                 do {
                     theta = (tLow + tHigh) / 2;
-                    targetValue = bisectionTarget(multiplier, theta, lambda, M, c);
+                    targetValue = bisectionTarget(multiplier, theta, lambda, solver);
                     if (targetValue > 1)
                         tHigh = theta;
                     else if (targetValue < 1)
@@ -452,11 +465,10 @@ public class UE extends Entity {
                         break;
                 } while (Math.abs((tHigh - tLow) / tHigh) > 1e-8);
                 logger.debug("Theta is " + theta + ", bisection target value is "
-                        + bisectionTarget(multiplier, theta, lambda, M, c));
+                        + bisectionTarget(multiplier, theta, lambda, solver));
             }
-            v = ComplexMatrices.eye(q.getNumAntennas())
-                    .scale(new double[] { lambda * theta / 2 + multiplier, 0 }).add(M).inverse()
-                    .mult(c, new DenseComplexVector(q.getNumAntennas()));
+            v = solver.solve(lambda * theta / 2 + multiplier,
+                    new DenseComplexVector(q.getNumAntennas()));
             q.setTxPreVector(this, v);
             q.setQuasiTxVector(this, v.copy());
             if (multiplier == 0.0) {
@@ -465,14 +477,14 @@ public class UE extends Entity {
                 double delta = P * 0.05;
                 P += delta;
                 theta = 1 / sqrt(P);
-                targetValue = bisectionTarget(0, theta, lambda, M, c);
+                targetValue = bisectionTarget(0, theta, lambda, solver);
                 double miu = 0.0;
                 if (targetValue > 1.0) {
                     double miuLow = 0.0;
                     double miuHigh = c.norm(Norm.Two) / sqrt(P);
                     do {
                         miu = (miuLow + miuHigh) / 2;
-                        targetValue = bisectionTarget(miu, theta, lambda, M, c);
+                        targetValue = bisectionTarget(miu, theta, lambda, solver);
                         if (targetValue > 1)
                             miuLow = miu;
                         else if (targetValue < 1)
@@ -549,43 +561,30 @@ public class UE extends Entity {
     // }
 
     public void updateWMMSEVariables() {
-        ComplexMatrix C = new DenseComplexMatrix(getNumAntennas(), getNumAntennas());
-        C.zero();
+        HermitianComplexMatrix C = new HermitianComplexMatrix(getNumAntennas());
 
         for (Cluster k : network.getClusters()) {
             for (UE ue : k.getUEs()) {
                 ComplexMatrix H = k.getMIMOChannel(this);
                 ComplexVector V = k.getTxPreVector(ue);
-                ComplexVector Hv = H.mult(V, new DenseComplexVector(H.numRows()));
-                ComplexMatrix HVVH = Hv.mult(Hv.conjugate(new DenseComplexVector(Hv.size())),
-                        new DenseComplexMatrix(Hv.size(), Hv.size()));
-                C.add(HVVH);
+                C.rank1Herm(1, H.mult(V, new DenseComplexVector(H.numRows())));
             }
         }
-        C.add(new double[] { N0, 0 }, ComplexMatrices.eye(C.numRows()));
+        C.shiftDiagonal(new double[] { N0, 0 });
 
         ComplexVector localHV = cluster.getMIMOChannel(this).mult(cluster.getTxPreVector(this),
                 new DenseComplexVector(getNumAntennas()));
-        rxPreVector = C.inverse().mult(localHV, new DenseComplexVector(C.numRows()));
+        DenseComplexCholesky chol = DenseComplexCholesky.factorize(C);
+        rxPreVector = chol.solve(new DenseComplexVector(localHV, true));
         mmseWeight = 1.0 / (1 - rxPreVector.dot(localHV)[0]);
-
-        ComplexMatrix localHVVH = localHV.mult(localHV.conjugate(new DenseComplexVector(localHV
-                .size())), new DenseComplexMatrix(localHV.size(), localHV.size()));
-        ComplexMatrix L = C.copy();
-        L.add(new double[]{-1, 0}, localHVVH);
-        rate = Utils.log2(ComplexMatrices.eye(getNumAntennas()).add(localHVVH.mult(L.inverse()))
-                .det2()) / 2.0;
+        rate = rate(chol, localHV);
     }
 
     /**
      * Calculate rx precoding matrix for
      */
     public void updateVariables() {
-        ComplexMatrix C = new DenseComplexMatrix(getNumAntennas(), getNumAntennas());
-        C.zero();
-        ComplexMatrix L = new DenseComplexMatrix(getNumAntennas(), getNumAntennas());
-        L.zero();
-        ComplexMatrix localHvvH = null;
+        ComplexMatrix C = new HermitianComplexMatrix(getNumAntennas());
         ComplexVector localHv = new DenseComplexVector(getNumAntennas());
         localHv.zero();
 
@@ -595,7 +594,6 @@ public class UE extends Entity {
                         lPrim.getClusterClosure());
                 for (Cluster m : commonClusters) {
                     for (UE j : m.getUEs()) {
-                        ComplexMatrix HvvH = null;
                         ComplexVector HliVlj = new DenseComplexVector(getNumAntennas());
                         HliVlj.zero();
                         for (BaseStation q : l.getBSs()) {
@@ -603,9 +601,7 @@ public class UE extends Entity {
                                     new DenseComplexVector(HliVlj.size())));
                         }
                         if (l == lPrim) {
-                            HvvH = HliVlj.mult(
-                                    HliVlj.conjugate(new DenseComplexVector(HliVlj.size())),
-                                    new DenseComplexMatrix(HliVlj.size(), HliVlj.size()));
+                            C.rank1Herm(1, HliVlj);
                         } else {
                             ComplexVector Hl_iVl_j = new DenseComplexVector(getNumAntennas());
                             Hl_iVl_j.zero();
@@ -613,16 +609,14 @@ public class UE extends Entity {
                                 Hl_iVl_j.add(q.getMIMOChannel(this).mult(q.getTxPreVector(j),
                                         new DenseComplexVector(Hl_iVl_j.size())));
                             }
-                            HvvH = HliVlj.mult(
-                                    Hl_iVl_j.conjugate(new DenseComplexVector(Hl_iVl_j.size())),
-                                    new DenseComplexMatrix(HliVlj.size(), HliVlj.size()));
+                            // (lPrim, l) is visited as well, adding the other half
+                            C.rank2Herm(new double[] { 0.5, 0 }, HliVlj, Hl_iVl_j);
                         }
-                        C.add(HvvH);
                     }
                 }
             }
         }
-        C.add(new double[] { N0, 0 }, ComplexMatrices.eye(C.numRows()));
+        C.shiftDiagonal(new double[] { N0, 0 });
         for (Cluster l : cluster.getClusterClosure()) {
             for (BaseStation q : l.getBSs()) {
                 ComplexMatrix H = q.getMIMOChannel(this);
@@ -630,19 +624,25 @@ public class UE extends Entity {
                 localHv.add(H.mult(v, new DenseComplexVector(H.numRows())));
             }
         }
-        localHvvH = localHv.mult(localHv.conjugate(new DenseComplexVector(localHv.size())),
-                new DenseComplexMatrix(localHv.size(), localHv.size()));
-        L.set(C).add(new double[] { -1, 0 }, localHvvH);
-        ComplexMatrix Cinv = C.inverse();
-
-        rxPreVector = Cinv.mult(localHv, new DenseComplexVector(Cinv.numRows()));
+        DenseComplexCholesky chol = DenseComplexCholesky.factorize(C);
+        rxPreVector = chol.solve(new DenseComplexVector(localHv, true));
         mmseWeight = 1.0 / (1 - localHv.dot(rxPreVector)[0]);
-        rate = Utils.log2(ComplexMatrices.eye(getNumAntennas()).add(localHvvH.mult(L.inverse()))
-                .det2()) / 2.0;
+        rate = rate(chol, localHv);
         logger.debug("Update " + this + ": MMSE weight: " + mmseWeight + "; Shannon rate: " + rate
                 + "; rx precoding vector: " + rxPreVector);
     }
 
+    /**
+     * Shannon rate <code>log2 det(I + h*h<sup>H</sup>*L<sup>-1</sup>)</code>
+     * with <code>L = C - h*h<sup>H</sup></code>, evaluated as
+     * <code>log det(C) - log det(L)</code>. The factorization of
+     * <code>C</code> is downdated to that of <code>L</code>
+     */
+    private static double rate(DenseComplexCholesky chol, ComplexVector h) {
+        double logDetC = chol.logDet();
+        return (logDetC - chol.downdate(h).logDet()) / Math.log(2);
+    }
+
     public Network getNetwork() {
         return network;
     }
@@ -717,7 +717,7 @@ public class UE extends Entity {
                 }
             }
         }
-        C.add(new double[] { N0, 0 }, ComplexMatrices.eye(C.numRows()));
+        C.shiftDiagonal(new double[] { N0, 0 });
         return C;
     }
 
@@ -744,7 +744,7 @@ public class UE extends Entity {
                 }
             }
         }
-        C.add(new double[] { N0, 0 }, ComplexMatrices.eye(C.numRows()));
+        C.shiftDiagonal(new double[] { N0, 0 });
         return C;
     }
 
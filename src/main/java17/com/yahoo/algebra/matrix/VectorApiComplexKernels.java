@@ -0,0 +1,137 @@
+package com.yahoo.algebra.matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Complex kernels on the JDK Vector API. A vector holds
+ * <code>SPECIES.length()/2</code> interleaved complex entries; the complex
+ * product is formed from the vector, its copy with real and imaginary parts
+ * swapped, and an alternating sign. Remainders shorter than a vector go to the
+ * scalar code. Loaded by {@link ComplexKernels} only when this class was
+ * compiled and <code>jdk.incubator.vector</code> is present
+ */
+class VectorApiComplexKernels extends ComplexKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Doubles per vector, an even number
+     */
+    private static final int L = SPECIES.length();
+
+    /**
+     * Exchanges the real and imaginary part of every entry
+     */
+    private static final VectorShuffle<Double> SWAP = VectorShuffle.fromOp(SPECIES, i -> i ^ 1);
+
+    /**
+     * <code>(-1, 1, -1, 1, ...)</code>, the sign of the swapped product
+     */
+    private static final DoubleVector SIGN = sign();
+
+    VectorApiComplexKernels() {
+        if (L < 2)
+            throw new UnsupportedOperationException("No double vectors of length 2 or more");
+    }
+
+    private static DoubleVector sign() {
+        double[] s = new double[L];
+        for (int i = 0; i < L; ++i)
+            s[i] = i % 2 == 0 ? -1 : 1;
+        return DoubleVector.fromArray(SPECIES, s, 0);
+    }
+
+    @Override
+    boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    void axpy(int n, double alphaRe, double alphaIm, double[] x, int xOff, double[] y, int yOff) {
+        DoubleVector ar = DoubleVector.broadcast(SPECIES, alphaRe);
+        DoubleVector ai = SIGN.mul(alphaIm);
+        int i = 2 * xOff, j = 2 * yOff, end = 2 * (xOff + n);
+        for (int bound = end - L; i <= bound; i += L, j += L) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector w = DoubleVector.fromArray(SPECIES, y, j);
+            v.fma(ar, v.rearrange(SWAP).fma(ai, w)).intoArray(y, j);
+        }
+        int done = (i - 2 * xOff) / 2;
+        super.axpy(n - done, alphaRe, alphaIm, x, xOff + done, y, yOff + done);
+    }
+
+    @Override
+    void axpy2(int n, double beta0Re, double beta0Im, double beta1Re, double beta1Im, double[] x,
+            int xOff, double[] y, int y0Off, int y1Off) {
+        DoubleVector b0r = DoubleVector.broadcast(SPECIES, beta0Re);
+        DoubleVector b0i = SIGN.mul(beta0Im);
+        DoubleVector b1r = DoubleVector.broadcast(SPECIES, beta1Re);
+        DoubleVector b1i = SIGN.mul(beta1Im);
+        int i = 2 * xOff, j0 = 2 * y0Off, j1 = 2 * y1Off, end = 2 * (xOff + n);
+        for (int bound = end - L; i <= bound; i += L, j0 += L, j1 += L) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector s = v.rearrange(SWAP);
+            DoubleVector w0 = DoubleVector.fromArray(SPECIES, y, j0);
+            v.fma(b0r, s.fma(b0i, w0)).intoArray(y, j0);
+            DoubleVector w1 = DoubleVector.fromArray(SPECIES, y, j1);
+            v.fma(b1r, s.fma(b1i, w1)).intoArray(y, j1);
+        }
+        int done = (i - 2 * xOff) / 2;
+        super.axpy2(n - done, beta0Re, beta0Im, beta1Re, beta1Im, x, xOff + done, y,
+                y0Off + done, y1Off + done);
+    }
+
+    @Override
+    void dot(boolean conj, int n, double alphaRe, double alphaIm, double[] x, int xOff,
+            double[] y, int yOff, double[] z, int zOff) {
+        // Lanewise x.*y and x.*swap(y), reduced at the end
+        DoubleVector p = DoubleVector.zero(SPECIES), q = DoubleVector.zero(SPECIES);
+        int i = 2 * xOff, j = 2 * yOff, end = 2 * (xOff + n);
+        for (int bound = end - L; i <= bound; i += L, j += L) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector w = DoubleVector.fromArray(SPECIES, y, j);
+            p = v.fma(w, p);
+            q = v.fma(w.rearrange(SWAP), q);
+        }
+        double re, im;
+        if (conj) {
+            re = p.reduceLanes(VectorOperators.ADD);
+            im = -q.mul(SIGN).reduceLanes(VectorOperators.ADD);
+        } else {
+            re = -p.mul(SIGN).reduceLanes(VectorOperators.ADD);
+            im = q.reduceLanes(VectorOperators.ADD);
+        }
+        z[2 * zOff] += alphaRe * re - alphaIm * im;
+        z[2 * zOff + 1] += alphaRe * im + alphaIm * re;
+        int done = (i - 2 * xOff) / 2;
+        super.dot(conj, n - done, alphaRe, alphaIm, x, xOff + done, y, yOff + done, z, zOff);
+    }
+
+    @Override
+    void scale(int n, double alphaRe, double alphaIm, double[] x, int xOff) {
+        DoubleVector ar = DoubleVector.broadcast(SPECIES, alphaRe);
+        DoubleVector ai = SIGN.mul(alphaIm);
+        int i = 2 * xOff, end = 2 * (xOff + n);
+        for (int bound = end - L; i <= bound; i += L) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, x, i);
+            v.fma(ar, v.rearrange(SWAP).mul(ai)).intoArray(x, i);
+        }
+        int done = (i - 2 * xOff) / 2;
+        super.scale(n - done, alphaRe, alphaIm, x, xOff + done);
+    }
+
+    @Override
+    double sumSquares(int n, double[] x, int xOff) {
+        DoubleVector s = DoubleVector.zero(SPECIES);
+        int i = 2 * xOff, end = 2 * (xOff + n);
+        for (int bound = end - L; i <= bound; i += L) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, x, i);
+            s = v.fma(v, s);
+        }
+        int done = (i - 2 * xOff) / 2;
+        return s.reduceLanes(VectorOperators.ADD) + super.sumSquares(n - done, x, xOff + done);
+    }
+}
@@ -0,0 +1,88 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BatchedComplexMatricesTest {
+    @Test
+    public void multTest() {
+        BatchedComplexMatrices A = random(5, 4, 2), B = random(5, 2, 3);
+        BatchedComplexMatrices C = random(5, 4, 3), D = random(5, 4, 3);
+        Assert.assertTrue(A.get(3).equals(A.get(3).copy()));
+
+        BatchedComplexMatrices E = A.mult(B, new BatchedComplexMatrices(5, 4, 3));
+        BatchedComplexMatrices F = new BatchedComplexMatrices(5, 4, 3);
+        for (int b = 0; b < 5; b++)
+            F.set(b, C.get(b));
+        A.multAdd(ALPHA, B, F);
+        BatchedComplexMatrices G = C.hermAmultAdd(ALPHA, A, new BatchedComplexMatrices(5, 3, 2));
+        BatchedComplexMatrices H = B.hermBmultAdd(ALPHA, D, new BatchedComplexMatrices(5, 2, 4));
+
+        for (int b = 0; b < 5; b++) {
+            ComplexMatrix a = A.get(b).copy(), c = C.get(b).copy();
+            Assert.assertTrue(E.get(b).equals(a.mult(B.get(b), new DenseComplexMatrix(4, 3))));
+            Assert.assertTrue(F.get(b).equals(a.multAdd(ALPHA, B.get(b), c.copy())));
+            Assert.assertTrue(G.get(b).equals(
+                    c.hermAmultAdd(ALPHA, a, new DenseComplexMatrix(3, 2))));
+            Assert.assertTrue(H.get(b).equals(
+                    B.get(b).copy().hermBmultAdd(ALPHA, D.get(b), new DenseComplexMatrix(2, 4))));
+        }
+    }
+
+    @Test
+    public void inverseTest() {
+        for (int n = 1; n <= 4; n++) {
+            BatchedComplexMatrices A = random(6, n, n);
+            BatchedComplexMatrices X = A.inverse(new BatchedComplexMatrices(6, n, n));
+            for (int b = 0; b < 6; b++)
+                Assert.assertTrue(X.get(b).equals(A.get(b).copy().inverse()));
+            A.inverse(A);
+            Assert.assertEquals(A.getData(), X.getData());
+        }
+    }
+
+    @Test
+    public void hermitianTest() {
+        int n = 4;
+        BatchedComplexMatrices A = hpd(7, n), B = random(7, n, 2);
+        BatchedComplexMatrices X = A.solveHPD(B, new BatchedComplexMatrices(7, n, 2));
+        double[] logDet = A.logDetHPD(new double[7]);
+        double[] w = new double[7 * n];
+        BatchedComplexMatrices V = new BatchedComplexMatrices(7, n, n);
+        A.eigHermitian(w, V);
+
+        for (int b = 0; b < 7; b++) {
+            ComplexMatrix a = A.get(b).copy();
+            Assert.assertTrue(a.mult(X.get(b), new DenseComplexMatrix(n, 2)).equals(B.get(b)));
+            Assert.assertEquals(logDet[b], a.logDetHPD(), 1e-10);
+
+            // A*V = V*diag(w)
+            ComplexMatrix AV = a.mult(V.get(b), new DenseComplexMatrix(n, n));
+            ComplexMatrix VW = V.get(b).copy();
+            for (int j = 0; j < n; j++)
+                VW.column(j).scale(new double[] { w[b * n + j], 0 });
+            Assert.assertTrue(AV.equals(VW));
+            for (int j = 1; j < n; j++)
+                Assert.assertTrue(w[b * n + j - 1] <= w[b * n + j]);
+        }
+    }
+
+    private static BatchedComplexMatrices random(int size, int m, int n) {
+        BatchedComplexMatrices A = new BatchedComplexMatrices(size, m, n);
+        for (int b = 0; b < size; b++)
+            ComplexMatrices.random(A.get(b));
+        return A;
+    }
+
+    private static BatchedComplexMatrices hpd(int size, int n) {
+        BatchedComplexMatrices R = random(size, n, n), A = new BatchedComplexMatrices(size, n, n);
+        R.hermBmultAdd(new double[] { 1, 0 }, R, A);
+        double[] d = new double[n];
+        java.util.Arrays.fill(d, 1);
+        for (int b = 0; b < size; b++)
+            A.get(b).addDiagonal(d);
+        return A;
+    }
+}
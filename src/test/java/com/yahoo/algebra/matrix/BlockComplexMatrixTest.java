@@ -0,0 +1,77 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+import static com.yahoo.algebra.matrix.ComplexAsserts.assertEquals;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BlockComplexMatrixTest {
+    @Test
+    public void referenceTest() {
+        ComplexMatrix H1 = ComplexMatrices.random(new DenseComplexMatrix(2, 3));
+        ComplexMatrix H2 = ComplexMatrices.random(new DenseComplexMatrix(2, 4));
+        BlockComplexMatrix A = new BlockComplexMatrix(new int[] { 2 }, new int[] { 3, 4 });
+        A.setBlock(0, 0, H1).setBlock(0, 1, H2);
+        Assert.assertEquals(A.numRows(), 2);
+        Assert.assertEquals(A.numColumns(), 7);
+        Assert.assertTrue(A.equals(assemble(A)));
+
+        H2.set(1, 2, ALPHA);
+        Assert.assertTrue(Complexes.equals(A.get(1, 5), ALPHA, 1e-12));
+        A.set(0, 1, new double[] { 3, 4 });
+        Assert.assertTrue(Complexes.equals(H1.get(0, 1), new double[] { 3, 4 }, 1e-12));
+
+        ComplexMatrix D = ComplexMatrices.random(new DenseComplexMatrix(2, 7));
+        A.set(D.toString());
+        D.set(D.toString());
+        Assert.assertTrue(A.equals(D));
+        Assert.assertTrue(H2.equals(D.view(0, 3, 2, 4)));
+    }
+
+    @Test
+    public void multTest() {
+        BlockComplexMatrix A = new BlockComplexMatrix(new int[] { 3, 2 }, new int[] { 2, 0, 4 });
+        A.setBlock(0, 0, ComplexMatrices.random(new DenseComplexMatrix(3, 2)));
+        A.setBlock(0, 2, ComplexMatrices.random(new DenseComplexMatrix(3, 4)));
+        A.setBlock(1, 2, ComplexMatrices.random(new DenseComplexMatrix(2, 4)));
+        ComplexMatrix D = assemble(A);
+        Assert.assertTrue(A.equals(D));
+        Assert.assertTrue(D.equals(A));
+
+        int visited = 0;
+        for (@SuppressWarnings("unused")
+        ComplexMatrixEntry e : A)
+            visited++;
+        Assert.assertEquals(visited, 3 * 2 + 3 * 4 + 2 * 4);
+
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(6));
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(5));
+        assertEquals(A.multAdd(ALPHA, x, y.copy()), D.multAdd(ALPHA, x, y.copy()));
+
+        ComplexVector u = ComplexVectors.random(new DenseComplexVector(5));
+        ComplexVector v = ComplexVectors.random(new DenseComplexVector(6));
+        assertEquals(A.transMultAdd(ALPHA, u, v.copy()), D.transMultAdd(ALPHA, u, v.copy()));
+        assertEquals(A.hermMultAdd(ALPHA, u, v.copy()), D.hermMultAdd(ALPHA, u, v.copy()));
+
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(6, 2));
+        ComplexMatrix C = ComplexMatrices.random(new DenseComplexMatrix(5, 2));
+        Assert.assertTrue(A.multAdd(ALPHA, B, C.copy()).equals(D.multAdd(ALPHA, B, C.copy())));
+        Assert.assertTrue(A.hermAmultAdd(ALPHA, C, B.copy()).equals(
+                D.hermAmultAdd(ALPHA, C, B.copy())));
+        Assert.assertTrue(A.hermitianTranspose().equals(D.hermitianTranspose()));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void zeroBlockTest() {
+        new BlockComplexMatrix(new int[] { 1, 1 }, new int[] { 2 }).set(1, 0, ALPHA);
+    }
+
+    private static ComplexMatrix assemble(ComplexMatrix A) {
+        ComplexMatrix D = new DenseComplexMatrix(A.numRows(), A.numColumns());
+        for (int i = 0; i < A.numRows(); i++)
+            for (int j = 0; j < A.numColumns(); j++)
+                D.set(i, j, A.get(i, j));
+        return D;
+    }
+}
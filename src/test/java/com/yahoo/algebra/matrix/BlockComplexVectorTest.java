@@ -0,0 +1,71 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+import static com.yahoo.algebra.matrix.ComplexAsserts.assertEquals;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BlockComplexVectorTest {
+    @Test
+    public void sliceTest() {
+        DenseComplexVector x = new DenseComplexVector(7);
+        ComplexVectors.random(x);
+        ComplexVector s = x.slice(2, 4);
+        Assert.assertEquals(s.size(), 4);
+        for (int i = 0; i < 4; i++)
+            Assert.assertTrue(Complexes.equals(s.get(i), x.get(2 + i), 1e-12));
+
+        s.set(1, ALPHA);
+        Assert.assertTrue(Complexes.equals(x.get(3), ALPHA, 1e-12));
+        x.set(5, new double[] { 7, 8 });
+        Assert.assertTrue(Complexes.equals(s.get(3), new double[] { 7, 8 }, 1e-12));
+
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(5, 4));
+        ComplexVector r = ((DenseComplexVectorView) A.row(3)).slice(1, 2);
+        r.zero();
+        Assert.assertTrue(Complexes.equals(A.get(3, 2), new double[] { 0, 0 }, 1e-12));
+        Assert.assertFalse(Complexes.equals(A.get(3, 0), new double[] { 0, 0 }, 1e-12));
+    }
+
+    @Test
+    public void blockTest() {
+        DenseComplexVector a = new DenseComplexVector(3), b = new DenseComplexVector(2);
+        ComplexVectors.random(a);
+        ComplexVectors.random(b);
+        BlockComplexVector x = new BlockComplexVector(a, b);
+        Assert.assertEquals(x.size(), 5);
+        Assert.assertTrue(Complexes.equals(x.get(4), b.get(1), 1e-12));
+        x.set(1, ALPHA);
+        Assert.assertTrue(Complexes.equals(a.get(1), ALPHA, 1e-12));
+
+        DenseComplexVector d = x.copy();
+        DenseComplexVector y = new DenseComplexVector(5);
+        ComplexVectors.random(y);
+        Assert.assertTrue(Complexes.equals(x.dot(y), d.dot(y), 1e-12));
+        BlockComplexVector z = new BlockComplexVector(y.slice(0, 3), y.slice(3, 2));
+        Assert.assertTrue(Complexes.equals(x.dot(z), d.dot(y), 1e-12));
+
+        x.add(ALPHA, y);
+        d.add(ALPHA, y);
+        assertEquals(x, d);
+        assertEquals(b, d.slice(3, 2));
+    }
+
+    @Test
+    public void blockMultTest() {
+        BlockComplexMatrix A = new BlockComplexMatrix(new int[] { 3 }, new int[] { 2, 4 });
+        A.setBlock(0, 0, ComplexMatrices.random(new DenseComplexMatrix(3, 2)));
+        A.setBlock(0, 1, ComplexMatrices.random(new DenseComplexMatrix(3, 4)));
+        ComplexMatrix D = new DenseComplexMatrix(A);
+
+        BlockComplexVector x = new BlockComplexVector(
+                ComplexVectors.random(new DenseComplexVector(2)),
+                ComplexVectors.random(new DenseComplexVector(4)));
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(3));
+        assertEquals(A.multAdd(ALPHA, x, y.copy()), D.multAdd(ALPHA, x.copy(), y.copy()));
+
+        ComplexVector u = ComplexVectors.random(new DenseComplexVector(6));
+        assertEquals(A.hermMultAdd(ALPHA, y, u.copy()), D.hermMultAdd(ALPHA, y, u.copy()));
+    }
+}
@@ -0,0 +1,28 @@
+package com.yahoo.algebra.matrix;
+
+import org.testng.Assert;
+
+/**
+ * Scalars and assertions shared by the matrix tests
+ */
+final class ComplexAsserts {
+
+    /**
+     * Complex scalar with real and imaginary parts of different size and sign,
+     * so a missing conjugation or a swapped part changes the result
+     */
+    static final double[] ALPHA = new double[] { 0.5, -1.5 };
+
+    private ComplexAsserts() {
+    }
+
+    /**
+     * Asserts that the vectors have the same size and agree entrywise within
+     * <code>1e-8</code>
+     */
+    static void assertEquals(ComplexVector x, ComplexVector y) {
+        Assert.assertEquals(x.size(), y.size());
+        for (int i = 0; i < x.size(); i++)
+            Assert.assertTrue(Complexes.equals(x.get(i), y.get(i), 1e-8), "entry " + i);
+    }
+}
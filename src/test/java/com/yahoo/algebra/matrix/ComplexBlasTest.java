@@ -0,0 +1,75 @@
+package com.yahoo.algebra.matrix;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.yahoo.algebra.matrix.ComplexBlasProvider.Operation;
+
+public class ComplexBlasTest {
+
+    @Test
+    public void providersTest() {
+        boolean java = false, netlib = false;
+        for (ComplexBlasProvider p : ComplexBlas.getProviders()) {
+            java |= p.getName().equals("java");
+            netlib |= p.getName().equals("netlib");
+        }
+        Assert.assertTrue(java);
+        Assert.assertTrue(netlib);
+        Assert.assertEquals(ComplexBlas.getProvider(Operation.GEMM, 2).getName(), "java");
+    }
+
+    @Test
+    public void getriTest() {
+        for (int n : new int[] { 1, 2, 4, 9, 40 }) {
+            ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+            ComplexMatrix I = ComplexMatrices.eye(n);
+            for (ComplexBlasProvider p : ComplexBlas.getProviders()) {
+                if (!p.isAvailable() || !p.supports(Operation.GETRI))
+                    continue;
+                DenseComplexMatrix X = new DenseComplexMatrix(A);
+                Assert.assertEquals(p.getri(n, X.getData()), 0);
+                Assert.assertTrue(A.mult(X, new DenseComplexMatrix(n, n)).equals(I), p.getName());
+            }
+        }
+    }
+
+    @Test
+    public void gesvTest() {
+        int n = 6, nrhs = 3;
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, nrhs));
+        for (ComplexBlasProvider p : ComplexBlas.getProviders()) {
+            if (!p.isAvailable() || !p.supports(Operation.GESV))
+                continue;
+            DenseComplexMatrix X = new DenseComplexMatrix(B);
+            Assert.assertEquals(p.gesv(n, nrhs, new DenseComplexMatrix(A).getData(), X.getData()),
+                    0);
+            Assert.assertTrue(A.mult(X, new DenseComplexMatrix(n, nrhs)).equals(B), p.getName());
+        }
+    }
+
+    @Test
+    public void singularTest() {
+        ComplexMatrix A = new DenseComplexMatrix(3, 3);
+        A.set(0, 0, new double[] { 1, 1 });
+        A.set(1, 1, new double[] { 2, 0 });
+        Assert.assertEquals(new JavaComplexBlasProvider().getri(3,
+                new DenseComplexMatrix(A).getData()), 3);
+    }
+
+    @Test
+    public void configureTest() {
+        try {
+            ComplexBlas.configure(Operation.GETRI, "java", 4, "netlib");
+            Assert.assertEquals(ComplexBlas.getProvider(Operation.GETRI, 3).getName(), "java");
+            Assert.assertEquals(ComplexBlas.getProvider(Operation.GETRI, 4).getName(), "netlib");
+
+            ComplexBlas.configure(Operation.GEMM, "java", 4, "netlib");
+            Assert.assertEquals(ComplexBlas.getProvider(Operation.GEMM, 8).getName(), "java");
+        } finally {
+            ComplexBlas.configure(Operation.GETRI, "java", 32, "java");
+            ComplexBlas.configure(Operation.GEMM, "java", 32, "jblas");
+        }
+    }
+}
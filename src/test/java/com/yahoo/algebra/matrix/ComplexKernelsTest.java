@@ -0,0 +1,81 @@
+package com.yahoo.algebra.matrix;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ComplexKernelsTest {
+    private static final ComplexKernels scalar = new ComplexKernels();
+
+    private static final ComplexKernels kernels = ComplexKernels.get();
+
+    private final Random random = new Random(17);
+
+    @Test
+    public void levelOneTest() {
+        // Lengths around the vector width, at odd offsets
+        for (int n = 0; n < 20; n++) {
+            double[] x = random(n + 3), y = random(n + 2);
+
+            double[] u = y.clone(), v = y.clone();
+            scalar.axpy(n, 0.5, -1.5, x, 3, u, 2);
+            kernels.axpy(n, 0.5, -1.5, x, 3, v, 2);
+            assertEquals(u, v);
+
+            u = y.clone();
+            v = y.clone();
+            scalar.axpy2(n / 2, 0.5, -1.5, 2, 1, x, 1, u, 0, n / 2 + 1);
+            kernels.axpy2(n / 2, 0.5, -1.5, 2, 1, x, 1, v, 0, n / 2 + 1);
+            assertEquals(u, v);
+
+            for (boolean conj : new boolean[] { false, true }) {
+                Assert.assertTrue(Complexes.equals(scalar.dot(conj, n, x, 3, y, 2),
+                        kernels.dot(conj, n, x, 3, y, 2), 1e-12));
+                u = new double[] { 1, 2, 3, 4 };
+                v = u.clone();
+                scalar.dot(conj, n, 0.5, -1.5, x, 3, y, 2, u, 1);
+                kernels.dot(conj, n, 0.5, -1.5, x, 3, y, 2, v, 1);
+                assertEquals(u, v);
+            }
+
+            u = x.clone();
+            v = x.clone();
+            scalar.scale(n, 0.5, -1.5, u, 3);
+            kernels.scale(n, 0.5, -1.5, v, 3);
+            assertEquals(u, v);
+
+            Assert.assertEquals(kernels.sumSquares(n, x, 3), scalar.sumSquares(n, x, 3), 1e-12);
+        }
+    }
+
+    @Test
+    public void vectorTest() {
+        DenseComplexVector x = new DenseComplexVector(13), y = new DenseComplexVector(13);
+        ComplexVectors.random(x);
+        ComplexVectors.random(y);
+
+        double re = 0, im = 0, ss = 0;
+        for (int i = 0; i < 13; i++) {
+            double xr = x.getRe(i), xi = x.getIm(i), yr = y.getRe(i), yi = y.getIm(i);
+            re += xr * yr + xi * yi;
+            im += xr * yi - xi * yr;
+            ss += xr * xr + xi * xi;
+        }
+        Assert.assertTrue(Complexes.equals(x.dot(y), new double[] { re, im }, 1e-12));
+        Assert.assertEquals(x.norm(ComplexVector.Norm.Two), Math.sqrt(ss), 1e-12);
+    }
+
+    private double[] random(int n) {
+        double[] x = new double[2 * n];
+        for (int i = 0; i < x.length; i++)
+            x[i] = random.nextDouble() - 0.5;
+        return x;
+    }
+
+    private static void assertEquals(double[] x, double[] y) {
+        Assert.assertEquals(x.length, y.length);
+        for (int i = 0; i < x.length; i++)
+            Assert.assertEquals(x[i], y[i], 1e-12);
+    }
+}
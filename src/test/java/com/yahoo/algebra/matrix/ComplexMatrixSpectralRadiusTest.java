@@ -15,4 +15,55 @@ public class ComplexMatrixSpectralRadiusTest {
         A.set(1, 1, new double[] {7, 8});
         Assert.assertTrue(Math.abs(ComplexMatrices.spectralRadius(A) - 13.932638827739055) < 1e-10);
     }
+
+    @Test
+    public void lambdaMaxTest() throws NotConvergedException {
+        for (int n : new int[] { 1, 5, 40 }) {
+            ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+            ComplexMatrix A = B.hermBmult(B, new DenseComplexMatrix(n, n));
+            double[] lambda = ComplexMatrices.eigh(A);
+            double max = lambda[n - 1];
+
+            double estimate = ComplexMatrices.lambdaMax(A, false);
+            double upper = ComplexMatrices.lambdaMax(A, true);
+            Assert.assertTrue(estimate <= max * (1 + 1e-10));
+            Assert.assertTrue(upper >= max);
+            Assert.assertTrue(estimate > 0.9 * max);
+            if (n <= 32)
+                Assert.assertEquals(upper, max, 1e-8 * max);
+            Assert.assertEquals(ComplexMatrices.lambdaMax(A, true), upper);
+
+            A.scale(new double[] { 2, 0 });
+            Assert.assertTrue(ComplexMatrices.lambdaMax(A, true) >= 2 * max);
+            Assert.assertEquals(ComplexMatrices.lambdaMax(A, false), 2 * estimate, 1e-8 * max);
+
+            // Writes through the storage invalidate the memo as well
+            double[] data = ((DenseComplexMatrix) A).getData();
+            for (int i = 0; i < data.length; i++)
+                data[i] *= 0.5;
+            Assert.assertEquals(ComplexMatrices.lambdaMax(A, false), estimate, 1e-8 * max);
+
+            // And through views and shallow copies
+            ComplexMatrix S = new DenseComplexMatrix(A, false);
+            Assert.assertEquals(ComplexMatrices.lambdaMax(S, false), estimate, 1e-8 * max);
+            A.column(0).scale(new double[] { 0, 0 });
+            A.row(0).scale(new double[] { 0, 0 });
+            Assert.assertEquals(ComplexMatrices.lambdaMax(S, true),
+                    ComplexMatrices.lambdaMax(A.copy(), true), 1e-8 * max);
+
+            // Packed Hermitian matrices are memoized until they change
+            HermitianComplexMatrix H = new HermitianComplexMatrix(B.hermBmult(B,
+                    new DenseComplexMatrix(n, n)));
+            Assert.assertEquals(ComplexMatrices.lambdaMax(H, true), upper, 1e-8 * max);
+            H.scale(new double[] { 2, 0 });
+            Assert.assertEquals(ComplexMatrices.lambdaMax(H, false), 2 * estimate, 1e-8 * max);
+            data = H.getData();
+            for (int i = 0; i < data.length; i++)
+                data[i] *= 0.5;
+            Assert.assertEquals(ComplexMatrices.lambdaMax(H, false), estimate, 1e-8 * max);
+            for (int i = 0; i < data.length; i++)
+                data[i] *= 2;
+            Assert.assertEquals(ComplexMatrices.lambdaMax(H, false), 2 * estimate, 1e-8 * max);
+        }
+    }
 }
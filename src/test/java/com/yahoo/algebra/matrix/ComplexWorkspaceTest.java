@@ -0,0 +1,100 @@
+package com.yahoo.algebra.matrix;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ComplexWorkspaceTest {
+
+    @Test
+    public void poolTest() throws InterruptedException {
+        DenseComplexMatrix A;
+        DenseComplexVector x;
+        try (ComplexWorkspace ws = ComplexWorkspace.open()) {
+            A = ws.matrix(3, 2);
+            x = ws.vector(4);
+            A.set(1, 1, 2, -1);
+            x.set(3, 1, 1);
+
+            // Nested scopes get their own temporaries
+            try (ComplexWorkspace inner = ComplexWorkspace.open()) {
+                Assert.assertNotSame(inner.matrix(3, 2), A);
+                Assert.assertNotSame(inner.vector(4), x);
+            }
+        }
+
+        // Reused, zeroed, and keyed by shape
+        final ComplexWorkspace ws = ComplexWorkspace.open();
+        try {
+            Assert.assertNotSame(ws.matrix(2, 3), A);
+            DenseComplexMatrix B = ws.matrix(3, 2);
+            Assert.assertSame(B, A);
+            Assert.assertEquals(B.getData(), new double[12]);
+            DenseComplexVector y = ws.vector(4);
+            Assert.assertSame(y, x);
+            Assert.assertEquals(y.getData(), new double[8]);
+
+            // Other threads have their own pools and may not use this scope
+            final Object[] other = new Object[2];
+            Thread t = new Thread() {
+                @Override
+                public void run() {
+                    try (ComplexWorkspace own = ComplexWorkspace.open()) {
+                        other[0] = own.vector(4);
+                    }
+                    try {
+                        ws.vector(4);
+                    } catch (IllegalStateException e) {
+                        other[1] = e;
+                    }
+                }
+            };
+            t.start();
+            t.join();
+            Assert.assertNotNull(other[0]);
+            Assert.assertNotSame(other[0], x);
+            Assert.assertNotNull(other[1]);
+        } finally {
+            ws.close();
+        }
+        Assert.assertFalse(ws.isOpen());
+        try {
+            ws.matrix(3, 2);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+
+        ComplexWorkspace.clear();
+        try (ComplexWorkspace fresh = ComplexWorkspace.open()) {
+            Assert.assertNotSame(fresh.matrix(3, 2), A);
+        }
+    }
+
+    @Test
+    public void destinationTest() {
+        for (int n : new int[] { 3, 6 }) {
+            DenseComplexMatrix A = (DenseComplexMatrix) ComplexMatrices.random(
+                    new DenseComplexMatrix(n, n));
+            try (ComplexWorkspace ws = ComplexWorkspace.open()) {
+                DenseComplexMatrix X = ws.matrix(n, n);
+                Assert.assertSame(A.inverse(X), X);
+                Assert.assertTrue(X.equals(A.inverse()));
+                ComplexMatrix I = A.mult(X, ws.matrix(n, n));
+                Assert.assertTrue(I.equals(ComplexMatrices.eye(ws.matrix(n, n))));
+
+                // Into a non-dense destination, and in place
+                ComplexMatrix V = new DenseComplexMatrixView(new double[2 * n * n], 0, n, n, n);
+                Assert.assertTrue(A.inverse(V).equals(X));
+                Assert.assertTrue(A.inverse(A).equals(X));
+            }
+        }
+
+        DenseComplexVector v = new DenseComplexVector(3);
+        ComplexVectors.random(v);
+        ComplexMatrix D = ComplexMatrices.diag(v, ComplexMatrices.random(
+                new DenseComplexMatrix(3, 3)));
+        Assert.assertTrue(D.equals(ComplexMatrices.diag(v)));
+        ComplexMatrix H = ComplexMatrices.random(new DenseComplexMatrix(3, 2));
+        Assert.assertEquals(ComplexMatrices.getPower(H),
+                H.hermAmult(H, new DenseComplexMatrix(2, 2)).trace()[0], 1e-10);
+    }
+}
@@ -0,0 +1,77 @@
+package com.yahoo.algebra.matrix;
+
+import no.uib.cipr.matrix.MatrixNotSPDException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DenseComplexCholeskyTest {
+
+    @Test
+    public void factorTest() {
+        for (int n : new int[] { 1, 2, 4, 13 }) {
+            ComplexMatrix A = hpd(n);
+            DenseComplexCholesky chol = DenseComplexCholesky.factorize(A);
+            ComplexMatrix L = chol.getL();
+            Assert.assertTrue(L.hermBmult(L, new DenseComplexMatrix(n, n)).equals(A));
+
+            ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, 2));
+            DenseComplexMatrix X = chol.solve(new DenseComplexMatrix(B));
+            Assert.assertTrue(A.mult(X, new DenseComplexMatrix(n, 2)).equals(B));
+
+            ComplexVector b = ComplexVectors.random(new DenseComplexVector(n));
+            ComplexVector x = A.solveHPD(b, new DenseComplexVector(n));
+            ComplexVector y = A.solve(b, new DenseComplexVector(n));
+            for (int i = 0; i < n; i++)
+                Assert.assertTrue(Complexes.equals(x.get(i), y.get(i), 1e-8));
+
+            double[] det = DenseComplexLU.factorize(A).det();
+            Assert.assertEquals(chol.logDet(), Math.log(det[0]), 1e-8);
+        }
+    }
+
+    @Test
+    public void updateTest() {
+        int n = 6;
+        ComplexMatrix A = hpd(n);
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(n));
+        ComplexMatrix xxH = x.mult(x.conjugate(new DenseComplexVector(n)),
+                new DenseComplexMatrix(n, n));
+
+        DenseComplexCholesky chol = DenseComplexCholesky.factorize(A).update(x);
+        ComplexMatrix L = chol.getL();
+        ComplexMatrix expected = A.copy().add(xxH);
+        Assert.assertTrue(L.hermBmult(L, new DenseComplexMatrix(n, n)).equals(expected));
+
+        chol.downdate(x);
+        L = chol.getL();
+        Assert.assertTrue(L.hermBmult(L, new DenseComplexMatrix(n, n)).equals(A));
+    }
+
+    @Test
+    public void downdateTest() {
+        ComplexMatrix A = ComplexMatrices.eye(3);
+        DenseComplexCholesky chol = DenseComplexCholesky.factorize(A);
+        ComplexVector x = new DenseComplexVector(3);
+        x.set(1, new double[] { 0, 1 });
+        try {
+            chol.downdate(x);
+            Assert.fail();
+        } catch (MatrixNotSPDException e) {
+            // I - x*x^H is singular, and the factor is left unchanged
+        }
+        Assert.assertTrue(chol.getL().equals(A));
+    }
+
+    @Test(expectedExceptions = MatrixNotSPDException.class)
+    public void notHPDTest() {
+        ComplexMatrix A = ComplexMatrices.eye(3);
+        A.set(2, 2, new double[] { -1, 0 });
+        A.solveHPD(new DenseComplexVector(3), new DenseComplexVector(3));
+    }
+
+    private static ComplexMatrix hpd(int n) {
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+        return B.hermBmult(B, new DenseComplexMatrix(n, n)).add(ComplexMatrices.eye(n));
+    }
+}
@@ -0,0 +1,142 @@
+package com.yahoo.algebra.matrix;
+
+import no.uib.cipr.matrix.MatrixSingularException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DenseComplexLUTest {
+
+    @Test
+    public void solveTest() {
+        for (int n : new int[] { 1, 2, 4, 17 }) {
+            ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+            ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, 3));
+            DenseComplexLU lu = DenseComplexLU.factorize(A);
+
+            DenseComplexMatrix X = lu.solve(new DenseComplexMatrix(B));
+            Assert.assertTrue(A.mult(X, new DenseComplexMatrix(n, 3)).equals(B));
+
+            X = lu.transSolve(new DenseComplexMatrix(B));
+            Assert.assertTrue(A.transAmult(X, new DenseComplexMatrix(n, 3)).equals(B));
+
+            X = lu.hermSolve(new DenseComplexMatrix(B));
+            Assert.assertTrue(A.hermAmult(X, new DenseComplexMatrix(n, 3)).equals(B));
+
+            Assert.assertTrue(lu.getL().mult(lu.getU(), new DenseComplexMatrix(n, n)).equals(
+                    permute(A, lu.getPivots())));
+        }
+    }
+
+    @Test
+    public void inverseTest() {
+        DenseComplexLU lu = new DenseComplexLU(9);
+        DenseComplexMatrix X = new DenseComplexMatrix(9, 9);
+        for (int t = 0; t < 3; t++) {
+            ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(9, 9));
+            Assert.assertSame(lu.factor(A).inverse(X), X);
+            Assert.assertTrue(A.mult(X, new DenseComplexMatrix(9, 9)).equals(
+                    ComplexMatrices.eye(9)));
+        }
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(1, 1));
+        Assert.assertTrue(A.mult(DenseComplexLU.factorize(A).inverse(),
+                new DenseComplexMatrix(1, 1)).equals(ComplexMatrices.eye(1)));
+    }
+
+    @Test
+    public void matrixSolveTest() {
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(5, 5));
+        ComplexVector b = ComplexVectors.random(new DenseComplexVector(5));
+        ComplexVector x = A.solve(b, new DenseComplexVector(5));
+        ComplexVector Ax = A.mult(x, new DenseComplexVector(5));
+        for (int i = 0; i < 5; i++)
+            Assert.assertTrue(Complexes.equals(Ax.get(i), b.get(i), 1e-10));
+
+        x = A.transSolve(b, new DenseComplexVector(5));
+        Ax = A.transMult(x, new DenseComplexVector(5));
+        for (int i = 0; i < 5; i++)
+            Assert.assertTrue(Complexes.equals(Ax.get(i), b.get(i), 1e-10));
+
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(5, 2));
+        ComplexMatrix X = A.solve(B, new DenseComplexMatrix(5, 2));
+        Assert.assertTrue(A.mult(X, new DenseComplexMatrix(5, 2)).equals(B));
+    }
+
+    @Test
+    public void detTest() {
+        ComplexMatrix A = new DenseComplexMatrix(2, 2);
+        A.set(0, 0, new double[] { 1, 1 });
+        A.set(0, 1, new double[] { 2, 0 });
+        A.set(1, 0, new double[] { 3, 0 });
+        A.set(1, 1, new double[] { 4, -2 });
+        // (1+i)(4-2i) - 6 = 6+2i-6 = 2i
+        Assert.assertTrue(Complexes.equals(DenseComplexLU.factorize(A).det(),
+                new double[] { 0, 2 }, 1e-12));
+
+        ComplexMatrix P = new DenseComplexMatrix(2, 2);
+        P.set(0, 1, new double[] { 1, 0 });
+        P.set(1, 0, new double[] { 1, 0 });
+        Assert.assertTrue(Complexes.equals(DenseComplexLU.factorize(P).det(),
+                new double[] { -1, 0 }, 1e-12));
+    }
+
+    @Test
+    public void logDetTest() {
+        ComplexMatrix A = new DenseComplexMatrix(2, 2);
+        A.set(0, 0, new double[] { 1, 1 });
+        A.set(0, 1, new double[] { 2, 0 });
+        A.set(1, 0, new double[] { 3, 0 });
+        A.set(1, 1, new double[] { 4, -2 });
+        Assert.assertTrue(Complexes.equals(A.logDet(),
+                new double[] { Math.log(2), Math.PI / 2 }, 1e-12));
+        Assert.assertEquals(A.det2(), 4, 1e-12);
+
+        ComplexMatrix P = new DenseComplexMatrix(2, 2);
+        P.set(0, 1, new double[] { 1, 0 });
+        P.set(1, 0, new double[] { 1, 0 });
+        Assert.assertTrue(Complexes.equals(P.logDet(), new double[] { 0, Math.PI }, 1e-12));
+
+        // det = 1e-400 underflows, its logarithm does not
+        int n = 200;
+        ComplexMatrix S = ComplexMatrices.eye(n).scale(new double[] { 0, 0.01 });
+        Assert.assertEquals(S.logDet()[0], n * Math.log(0.01), 1e-9);
+        Assert.assertEquals(S.logDet()[1], 0, 1e-9);
+
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+        ComplexMatrix H = B.hermBmult(B, new DenseComplexMatrix(n, n));
+        Assert.assertEquals(H.logDetHPD(), H.logDet()[0], 1e-8);
+        Assert.assertEquals(H.logDet()[1], 0, 1e-8);
+    }
+
+    @Test
+    public void rcondTest() {
+        ComplexMatrix I = ComplexMatrices.eye(4);
+        Assert.assertEquals(DenseComplexLU.factorize(I).rcond(I, ComplexMatrix.Norm.One), 1.0,
+                1e-12);
+
+        ComplexMatrix D = ComplexMatrices.eye(3);
+        D.set(2, 2, new double[] { 1e-8, 0 });
+        Assert.assertEquals(DenseComplexLU.factorize(D).rcond(D, ComplexMatrix.Norm.Infinity),
+                1e-8, 1e-12);
+    }
+
+    @Test(expectedExceptions = MatrixSingularException.class)
+    public void singularTest() {
+        ComplexMatrix A = new DenseComplexMatrix(3, 3);
+        A.set(0, 0, new double[] { 1, 0 });
+        DenseComplexLU lu = DenseComplexLU.factorize(A);
+        Assert.assertTrue(lu.isSingular());
+        lu.solve(new DenseComplexVector(3));
+    }
+
+    private static ComplexMatrix permute(ComplexMatrix A, int[] piv) {
+        ComplexMatrix P = A.copy();
+        for (int i = 0; i < piv.length; i++)
+            for (int j = 0; j < P.numColumns(); j++) {
+                double[] t = P.get(i, j);
+                P.set(i, j, P.get(piv[i], j));
+                P.set(piv[i], j, t);
+            }
+        return P;
+    }
+}
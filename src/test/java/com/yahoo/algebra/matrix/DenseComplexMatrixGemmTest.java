@@ -0,0 +1,105 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DenseComplexMatrixGemmTest {
+    @Test
+    public void multAddTest() {
+        for (int[] size : new int[][] { { 1, 1, 1 }, { 3, 5, 2 }, { 4, 4, 4 }, { 67, 131, 5 },
+                { 70, 9, 140 } }) {
+            int m = size[0], n = size[1], k = size[2];
+            ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(m, k));
+            ComplexMatrix At = A.transpose(new DenseComplexMatrix(k, m));
+            ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(k, n));
+            ComplexMatrix Bt = B.transpose(new DenseComplexMatrix(n, k));
+            ComplexMatrix C = ComplexMatrices.random(new DenseComplexMatrix(m, n));
+
+            ComplexMatrix expected = reference(A, B, C);
+
+            Assert.assertTrue(A.multAdd(ALPHA, B, C.copy()).equals(expected));
+            Assert.assertTrue(At.transAmultAdd(ALPHA, B, C.copy()).equals(expected));
+            Assert.assertTrue(A.transBmultAdd(ALPHA, Bt, C.copy()).equals(expected));
+            Assert.assertTrue(At.transABmultAdd(ALPHA, Bt, C.copy()).equals(expected));
+        }
+    }
+
+    @Test
+    public void multVectorTest() {
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(7, 3));
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(3));
+        ComplexVector y = A.mult(ALPHA, x, new DenseComplexVector(7));
+        ComplexMatrix Y = A.mult(ALPHA, new DenseComplexMatrix(x), new DenseComplexMatrix(7, 1));
+        for (int i = 0; i < y.size(); i++)
+            Assert.assertTrue(Complexes.equals(y.get(i), Y.get(i, 0), 1e-10));
+
+        ComplexVector z = ComplexVectors.random(new DenseComplexVector(7));
+        ComplexVector w = A.transMult(z, new DenseComplexVector(3));
+        ComplexMatrix W = A.transAmult(new DenseComplexMatrix(z), new DenseComplexMatrix(3, 1));
+        for (int i = 0; i < w.size(); i++)
+            Assert.assertTrue(Complexes.equals(w.get(i), W.get(i, 0), 1e-10));
+    }
+
+    @Test
+    public void hermMultAddTest() {
+        for (int[] size : new int[][] { { 1, 1, 1 }, { 3, 5, 2 }, { 67, 9, 130 } }) {
+            int m = size[0], n = size[1], k = size[2];
+            ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(m, k));
+            ComplexMatrix Ah = A.hermitianTranspose();
+            ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(k, n));
+            ComplexMatrix Bh = B.hermitianTranspose();
+            ComplexMatrix C = ComplexMatrices.random(new DenseComplexMatrix(m, n));
+
+            ComplexMatrix expected = reference(A, B, C);
+
+            Assert.assertTrue(Ah.hermAmultAdd(ALPHA, B, C.copy()).equals(expected));
+            Assert.assertTrue(A.hermBmultAdd(ALPHA, Bh, C.copy()).equals(expected));
+        }
+
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(7, 3));
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(7));
+        ComplexVector y = A.hermMult(ALPHA, x, new DenseComplexVector(3));
+        ComplexVector z = A.hermitianTranspose().mult(ALPHA, x, new DenseComplexVector(3));
+        for (int i = 0; i < y.size(); i++)
+            Assert.assertTrue(Complexes.equals(y.get(i), z.get(i), 1e-10));
+    }
+
+    @Test
+    public void rankUpdateTest() {
+        int m = 5, n = 3;
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(m));
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(n));
+        ComplexMatrix X = new DenseComplexMatrix(x);
+        ComplexMatrix Y = new DenseComplexMatrix(y);
+        ComplexMatrix C = ComplexMatrices.random(new DenseComplexMatrix(m, n));
+
+        Assert.assertTrue(C.copy().rank1Conj(ALPHA, x, y).equals(
+                X.hermBmultAdd(ALPHA, Y, C.copy())));
+
+        ComplexMatrix S = ComplexMatrices.random(new DenseComplexMatrix(m, m));
+        ComplexVector z = ComplexVectors.random(new DenseComplexVector(m));
+        Assert.assertTrue(S.copy().rank1(ALPHA, x, z).equals(
+                X.transBmultAdd(ALPHA, new DenseComplexMatrix(z), S.copy())));
+
+        double[] beta = new double[] { -0.25, 0 };
+        Assert.assertTrue(S.copy().rank1Herm(beta[0], x).equals(
+                X.hermBmultAdd(beta, X, S.copy())));
+
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(m, 4));
+        Assert.assertTrue(S.copy().rankK(beta[0], B).equals(B.hermBmultAdd(beta, B, S.copy())));
+    }
+
+    private static ComplexMatrix reference(ComplexMatrix A, ComplexMatrix B, ComplexMatrix C) {
+        ComplexMatrix R = C.copy();
+        for (int i = 0; i < A.numRows(); i++)
+            for (int j = 0; j < B.numColumns(); j++) {
+                double[] dot = new double[] { 0, 0 };
+                for (int k = 0; k < A.numColumns(); k++)
+                    dot = Complexes.add(dot, Complexes.mult(A.get(i, k), B.get(k, j)));
+                R.add(i, j, Complexes.mult(ALPHA, dot));
+            }
+        return R;
+    }
+}
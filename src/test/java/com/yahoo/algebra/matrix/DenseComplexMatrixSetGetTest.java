@@ -1,5 +1,6 @@
 package com.yahoo.algebra.matrix;
 
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class DenseComplexMatrixSetGetTest {
@@ -11,6 +12,71 @@ public class DenseComplexMatrixSetGetTest {
         A.set(1, 0, new double[] { -0.82307, 1.24527 });
         A.set(1, 1, new double[] { 1.23955, -0.08308 });
 
-        // TODO
+        Assert.assertEquals(A.getData().length, 2 * A.numRows() * A.numColumns());
+        Assert.assertTrue(Complexes.equals(A.get(1, 0), new double[] { -0.82307, 1.24527 }, 1e-15));
+        Assert.assertEquals(A.getData()[2], -0.82307);
+        Assert.assertEquals(A.getData()[3], 1.24527);
+
+        A.add(1, 0, new double[] { 1, -1 });
+        Assert.assertTrue(Complexes.equals(A.get(1, 0), new double[] { 0.17693, 0.24527 }, 1e-15));
+    }
+
+    @Test
+    public void shallowVectorTest() {
+        DenseComplexVector x = new DenseComplexVector(3);
+        x.set(0, new double[] { 1, 2 });
+        x.set(2, new double[] { -3, 4 });
+
+        DenseComplexMatrix X = new DenseComplexMatrix(x, false);
+        Assert.assertSame(X.getData(), x.getData());
+        Assert.assertTrue(Complexes.equals(X.get(2, 0), new double[] { -3, 4 }, 1e-15));
+
+        X.set(1, 0, new double[] { 5, -6 });
+        Assert.assertTrue(Complexes.equals(x.get(1), new double[] { 5, -6 }, 1e-15));
+    }
+
+    @Test
+    public void primitiveTest() {
+        DenseComplexMatrix A = new DenseComplexMatrix(2, 3);
+        A.set(1, 2, 0.5, -1.5);
+        A.add(1, 2, 1, 1);
+        Assert.assertEquals(A.getRe(1, 2), 1.5);
+        Assert.assertEquals(A.getIm(1, 2), -0.5);
+
+        HermitianComplexMatrix H = new HermitianComplexMatrix(3);
+        H.set(2, 0, 1, 2);
+        Assert.assertEquals(H.getRe(0, 2), 1.0);
+        Assert.assertEquals(H.getIm(0, 2), -2.0);
+
+        DenseComplexVector x = new DenseComplexVector(3);
+        x.set(1, 3, 4);
+        x.add(1, -1, 1);
+        Assert.assertTrue(Complexes.equals(x.get(1), new double[] { 2, 5 }, 1e-15));
+        ComplexVector r = A.row(1);
+        Assert.assertEquals(r.getRe(2), 1.5);
+        r.set(0, 7, 8);
+        Assert.assertEquals(A.getIm(1, 0), 8.0);
+
+        double[] c = new double[] { 1, 2 };
+        Assert.assertSame(Complexes.mult(c, new double[] { 3, -1 }, c), c);
+        Assert.assertTrue(Complexes.equals(c, new double[] { 5, 5 }, 1e-15));
+        Complexes.multAdd(new double[] { 0, 1 }, new double[] { 0, 1 }, c);
+        Assert.assertTrue(Complexes.equals(c, new double[] { 4, 5 }, 1e-15));
+    }
+
+    @Test
+    public void genericProductTest() {
+        BlockComplexMatrix A = new BlockComplexMatrix(new int[] { 2, 1 }, new int[] { 3 });
+        A.setBlock(0, 0, ComplexMatrices.random(new DenseComplexMatrix(2, 3)));
+        A.setBlock(1, 0, ComplexMatrices.random(new DenseComplexMatrix(1, 3)));
+        ComplexMatrix D = new DenseComplexMatrix(A);
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(4, 3));
+        double[] alpha = new double[] { 0.5, -1.5 };
+
+        Assert.assertTrue(A.transBmultAdd(alpha, B, new DenseComplexMatrix(3, 4)).equals(
+                D.transBmultAdd(alpha, B, new DenseComplexMatrix(3, 4))));
+        Assert.assertTrue(A.hermBmultAdd(alpha, B, new DenseComplexMatrix(3, 4)).equals(
+                D.hermBmultAdd(alpha, B, new DenseComplexMatrix(3, 4))));
+        Assert.assertTrue(Complexes.equals(A.trace(), D.trace(), 1e-12));
     }
 }
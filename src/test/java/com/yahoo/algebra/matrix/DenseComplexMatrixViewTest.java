@@ -0,0 +1,93 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+import static com.yahoo.algebra.matrix.ComplexAsserts.assertEquals;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DenseComplexMatrixViewTest {
+    @Test
+    public void sharingTest() {
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(6, 5));
+        ComplexMatrix V = A.view(1, 2, 4, 3);
+        Assert.assertTrue(V.equals(copy(A, 1, 2, 4, 3)));
+
+        V.set(3, 0, ALPHA);
+        Assert.assertTrue(Complexes.equals(A.get(4, 2), ALPHA, 1e-12));
+        A.set(1, 4, new double[] { 7, 8 });
+        Assert.assertTrue(Complexes.equals(V.get(0, 2), new double[] { 7, 8 }, 1e-12));
+
+        ComplexVector r = A.row(2), c = A.column(3);
+        Assert.assertEquals(r.size(), 5);
+        Assert.assertEquals(c.size(), 6);
+        for (int j = 0; j < 5; j++)
+            Assert.assertTrue(Complexes.equals(r.get(j), A.get(2, j), 1e-12));
+        for (int i = 0; i < 6; i++)
+            Assert.assertTrue(Complexes.equals(c.get(i), A.get(i, 3), 1e-12));
+        r.scale(ALPHA);
+        c.zero();
+        Assert.assertTrue(Complexes.equals(A.get(0, 3), new double[] { 0, 0 }, 1e-12));
+
+        ComplexVector w = V.row(1);
+        for (int j = 0; j < 3; j++)
+            Assert.assertTrue(Complexes.equals(w.get(j), A.get(2, 2 + j), 1e-12));
+
+        V.view(1, 1, 2, 2).zero();
+        Assert.assertTrue(Complexes.equals(A.get(3, 4), new double[] { 0, 0 }, 1e-12));
+
+        ComplexMatrix D = ComplexMatrices.random(new DenseComplexMatrix(4, 3));
+        V.set(D.toString());
+        D.set(D.toString());
+        Assert.assertTrue(V.equals(D));
+        Assert.assertTrue(copy(A, 1, 2, 4, 3).equals(D));
+    }
+
+    @Test
+    public void multTest() {
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(7, 6));
+        ComplexMatrix V = A.view(2, 1, 4, 3);
+        ComplexMatrix D = copy(A, 2, 1, 4, 3);
+
+        ComplexMatrix X = ComplexMatrices.random(new DenseComplexMatrix(5, 4));
+        ComplexVector row = X.row(2), xs = X.view(0, 1, 3, 1).column(0);
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(4));
+        ComplexVector z = ComplexVectors.random(new DenseComplexVector(3));
+        assertEquals(V.multAdd(ALPHA, xs, y.copy()), D.multAdd(ALPHA, xs.copy(), y.copy()));
+        assertEquals(V.hermMultAdd(ALPHA, row, z.copy()),
+                D.hermMultAdd(ALPHA, row.copy(), z.copy()));
+
+        // Strided output
+        ComplexVector zs = ComplexMatrices.random(new DenseComplexMatrix(2, 3)).row(1);
+        ComplexVector u = X.view(1, 3, 4, 1).column(0);
+        ComplexVector expected = D.transMultAdd(ALPHA, u.copy(), zs.copy());
+        assertEquals(V.transMultAdd(ALPHA, u, zs), expected);
+
+        ComplexMatrix Y = ComplexMatrices.random(new DenseComplexMatrix(8, 8));
+        ComplexMatrix C = Y.view(1, 2, 4, 2);
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(3, 2));
+        ComplexMatrix CD = D.multAdd(ALPHA, B, C.copy());
+        V.multAdd(ALPHA, B, C);
+        Assert.assertTrue(C.equals(CD));
+
+        ComplexMatrix E = ComplexMatrices.random(new DenseComplexMatrix(4, 2));
+        Assert.assertTrue(V.hermAmultAdd(ALPHA, E, new DenseComplexMatrix(3, 2)).equals(
+                D.hermAmultAdd(ALPHA, E, new DenseComplexMatrix(3, 2))));
+        Assert.assertTrue(D.hermAmultAdd(ALPHA, E.view(0, 0, 4, 2), new DenseComplexMatrix(3, 2))
+                .equals(D.hermAmultAdd(ALPHA, E, new DenseComplexMatrix(3, 2))));
+        Assert.assertTrue(V.hermitianTranspose().equals(D.hermitianTranspose()));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void outOfBoundsTest() {
+        new DenseComplexMatrix(3, 3).view(1, 1, 3, 1);
+    }
+
+    private static ComplexMatrix copy(ComplexMatrix A, int i0, int j0, int m, int n) {
+        ComplexMatrix D = new DenseComplexMatrix(m, n);
+        for (int i = 0; i < m; i++)
+            for (int j = 0; j < n; j++)
+                D.set(i, j, A.get(i0 + i, j0 + j));
+        return D;
+    }
+}
@@ -0,0 +1,105 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+import static com.yahoo.algebra.matrix.ComplexAsserts.assertEquals;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DiagonalComplexMatrixTest {
+    @Test
+    public void diagonalTest() {
+        int n = 5;
+        ComplexVector d = ComplexVectors.random(new DenseComplexVector(n));
+        DiagonalComplexMatrix D = new DiagonalComplexMatrix(d);
+        ComplexMatrix A = ComplexMatrices.diag(d);
+        Assert.assertTrue(D.equals(A));
+        Assert.assertTrue(A.equals(D));
+        Assert.assertTrue(new DenseComplexMatrix(D).equals(A));
+
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(n));
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(n));
+        assertEquals(D.multAdd(ALPHA, x, y.copy()), A.multAdd(ALPHA, x, y.copy()));
+        assertEquals(D.hermMultAdd(ALPHA, x, y.copy()), A.hermMultAdd(ALPHA, x, y.copy()));
+        assertEquals(D.solve(x, new DenseComplexVector(n)), A.solve(x, new DenseComplexVector(n)));
+
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, 2));
+        ComplexMatrix C = ComplexMatrices.random(new DenseComplexMatrix(n, 2));
+        Assert.assertTrue(D.multAdd(ALPHA, B, C.copy()).equals(A.multAdd(ALPHA, B, C.copy())));
+        Assert.assertTrue(D.inverse().equals(A.inverse()));
+        Assert.assertTrue(Complexes.equals(D.logDet(), A.logDet(), 1e-10));
+
+        Assert.assertTrue(A.copy().add(D).equals(A.copy().scale(new double[] { 2, 0 })));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void offDiagonalTest() {
+        new DiagonalComplexMatrix(3).set(0, 1, ALPHA);
+    }
+
+    @Test
+    public void readTest() {
+        ComplexMatrix A = new DenseComplexMatrix(3, 3);
+        String str = "1+2j,0+0j,0-0j;0+0j,-3.5+0j,0+0j;0+0j,0+0j,.25-1e-3j";
+        A.set(str);
+        ComplexMatrix D = new DiagonalComplexMatrix(3);
+        D.set(str);
+        Assert.assertTrue(D.equals(A));
+        try {
+            D.set("1+2j,0+0j,0+1j;0+0j,1+0j,0+0j;0+0j,0+0j,1+0j");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        ComplexMatrix S = new ScaledIdentityComplexMatrix(2, new double[] { 0, 0 });
+        S.set("0.5-1.5j,0+0j;0+0j,0.5-1.5j");
+        Assert.assertTrue(S.equals(ComplexMatrices.eye(2).scale(ALPHA)));
+        try {
+            S.set("0.5-1.5j,0+0j;0+0j,0.5+1.5j");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void scaledIdentityTest() {
+        int n = 4;
+        ComplexMatrix S = new ScaledIdentityComplexMatrix(n, ALPHA);
+        ComplexMatrix A = ComplexMatrices.eye(n).scale(ALPHA);
+        Assert.assertTrue(S.equals(A));
+
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(n));
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(n));
+        assertEquals(S.multAdd(ALPHA, x, y.copy()), A.multAdd(ALPHA, x, y.copy()));
+        assertEquals(S.hermMultAdd(ALPHA, x, y.copy()), A.hermMultAdd(ALPHA, x, y.copy()));
+        assertEquals(S.solve(x, new DenseComplexVector(n)), A.solve(x, new DenseComplexVector(n)));
+        Assert.assertTrue(Complexes.equals(S.logDet(), A.logDet(), 1e-10));
+
+        S.shiftDiagonal(new double[] { 1, 0 });
+        Assert.assertTrue(S.equals(A.shiftDiagonal(new double[] { 1, 0 })));
+    }
+
+    @Test
+    public void shiftDiagonalTest() {
+        int n = 6;
+        ComplexMatrix M = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+        double[] mu = new double[] { 2.5, 0 };
+        ComplexMatrix expected = ComplexMatrices.eye(n).scale(mu).add(M);
+        Assert.assertTrue(M.copy().shiftDiagonal(mu).equals(expected));
+
+        ComplexMatrix H = new HermitianComplexMatrix(M.add(M.hermitianTranspose()));
+        expected = ComplexMatrices.eye(n).scale(mu).add(H);
+        Assert.assertTrue(H.copy().shiftDiagonal(mu).equals(expected));
+
+        double[] d = new double[n];
+        ComplexVector dv = new DenseComplexVector(n);
+        for (int i = 0; i < n; i++) {
+            d[i] = i - 2;
+            dv.set(i, new double[] { d[i], 0 });
+        }
+        expected = ComplexMatrices.diag(dv).add(M);
+        Assert.assertTrue(M.copy().addDiagonal(d).equals(expected));
+        expected = ComplexMatrices.diag(dv).add(H);
+        Assert.assertTrue(H.copy().addDiagonal(d).equals(expected));
+    }
+}
@@ -34,4 +34,41 @@ public class EigenTest {
         System.out.println(V.inverse());
         System.out.println(V);
     }
+
+    @Test
+    public void hermitianTest() throws NotConvergedException {
+        int n = 6;
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+        ComplexMatrix A = B.hermBmult(B, new DenseComplexMatrix(n, n));
+        ComplexMatrix V = new DenseComplexMatrix(n, n);
+        double[] lambda = ComplexMatrices.eigh(A, V);
+
+        ComplexVector l = new DenseComplexVector(n);
+        for (int i = 0; i < n; i++) {
+            l.set(i, new double[] { lambda[i], 0 });
+            if (i > 0)
+                Assert.assertTrue(lambda[i - 1] <= lambda[i]);
+        }
+        ComplexMatrix diff = V.mult(ComplexMatrices.diag(l))
+                .hermBmult(V, new DenseComplexMatrix(n, n)).add(new double[] { -1, 0 }, A);
+        Assert.assertTrue(diff.norm(Norm.One) < 1e-10);
+        Assert.assertTrue(V.hermAmult(V, new DenseComplexMatrix(n, n)).equals(
+                ComplexMatrices.eye(n)));
+
+        double[] values = ComplexMatrices.eigh(A);
+        for (int i = 0; i < n; i++)
+            Assert.assertEquals(values[i], lambda[i], 1e-10);
+
+        ComplexMatrix W = new DenseComplexMatrix(n, 2);
+        double[] top = ComplexMatrices.eigh(A, n - 2, n - 1, W);
+        Assert.assertEquals(top[0], lambda[n - 2], 1e-10);
+        Assert.assertEquals(top[1], lambda[n - 1], 1e-10);
+        ComplexVector w = new DenseComplexVector(n);
+        for (int i = 0; i < n; i++)
+            w.set(i, W.get(i, 1));
+        ComplexVector Aw = A.mult(w, new DenseComplexVector(n));
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(Complexes.equals(Aw.get(i),
+                    Complexes.mult(new double[] { top[1], 0 }, w.get(i)), 1e-10));
+    }
 }
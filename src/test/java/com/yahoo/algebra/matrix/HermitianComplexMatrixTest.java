@@ -0,0 +1,113 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+import static com.yahoo.algebra.matrix.ComplexAsserts.assertEquals;
+
+import no.uib.cipr.matrix.NotConvergedException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class HermitianComplexMatrixTest {
+    @Test
+    public void setGetTest() {
+        int n = 5;
+        ComplexMatrix D = hermitian(n);
+        HermitianComplexMatrix A = new HermitianComplexMatrix(D);
+        Assert.assertEquals(A.getData().length, n * (n + 1));
+        Assert.assertTrue(A.equals(D));
+        Assert.assertTrue(new DenseComplexMatrix(A).equals(D));
+
+        A.set(3, 1, new double[] { 2, 7 });
+        Assert.assertTrue(Complexes.equals(A.get(1, 3), new double[] { 2, -7 }, 1e-12));
+        A.add(1, 3, new double[] { 1, 1 });
+        Assert.assertTrue(Complexes.equals(A.get(3, 1), new double[] { 3, 6 }, 1e-12));
+
+        A.set(D).scale(new double[] { 2, 0 });
+        Assert.assertTrue(A.equals(D.copy().scale(new double[] { 2, 0 })));
+        A.add(new double[] { -1, 0 }, D);
+        Assert.assertTrue(A.equals(D));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void complexScaleTest() {
+        new HermitianComplexMatrix(3).scale(ALPHA);
+    }
+
+    @Test
+    public void multTest() {
+        int n = 7;
+        ComplexMatrix D = hermitian(n);
+        ComplexMatrix A = new HermitianComplexMatrix(D);
+
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(n));
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(n));
+        assertEquals(A.multAdd(ALPHA, x, y.copy()), D.multAdd(ALPHA, x, y.copy()));
+        assertEquals(A.transMultAdd(ALPHA, x, y.copy()), D.transMultAdd(ALPHA, x, y.copy()));
+        assertEquals(A.hermMultAdd(ALPHA, x, y.copy()), D.hermMultAdd(ALPHA, x, y.copy()));
+
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, 3));
+        ComplexMatrix C = ComplexMatrices.random(new DenseComplexMatrix(n, 3));
+        Assert.assertTrue(A.multAdd(ALPHA, B, C.copy()).equals(D.multAdd(ALPHA, B, C.copy())));
+    }
+
+    @Test
+    public void rankTest() {
+        int n = 6;
+        ComplexMatrix D = hermitian(n);
+        HermitianComplexMatrix A = new HermitianComplexMatrix(D);
+
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(n));
+        A.rank1Herm(0.75, x);
+        D.add(new double[] { 0.75, 0 }, x.mult(x.conjugate(new DenseComplexVector(n)),
+                new DenseComplexMatrix(n, n)));
+        Assert.assertTrue(A.equals(D));
+
+        ComplexMatrix X = ComplexMatrices.random(new DenseComplexMatrix(n, 3));
+        A.rankK(-2, X);
+        D.add(new double[] { -2, 0 }, X.hermBmult(X, new DenseComplexMatrix(n, n)));
+        Assert.assertTrue(A.equals(D));
+
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(n));
+        A.rank2Herm(ALPHA, x, y);
+        D.rank1Conj(ALPHA, x, y).rank1Conj(Complexes.conjugate(ALPHA), y, x);
+        Assert.assertTrue(A.equals(D));
+        Assert.assertTrue(D.copy().rank2Herm(ALPHA, y, x).equals(
+                D.copy().rank2Herm(Complexes.conjugate(ALPHA), x, y)));
+
+        // A single non-Hermitian update would lose its lower triangle
+        try {
+            A.rank1Conj(ALPHA, x, y);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+        A.rank1Conj(new double[] { 0.5, 0 }, x, x);
+        D.rank1Herm(0.5, x);
+        Assert.assertTrue(A.equals(D));
+    }
+
+    @Test
+    public void solveEigTest() throws NotConvergedException {
+        int n = 6;
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+        ComplexMatrix D = B.hermBmult(B, new DenseComplexMatrix(n, n));
+        HermitianComplexMatrix A = new HermitianComplexMatrix(D);
+
+        ComplexVector b = ComplexVectors.random(new DenseComplexVector(n));
+        assertEquals(A.solve(b, new DenseComplexVector(n)), D.solve(b, new DenseComplexVector(n)));
+        assertEquals(A.solveHPD(b, new DenseComplexVector(n)),
+                D.solve(b, new DenseComplexVector(n)));
+        Assert.assertEquals(A.logDetHPD(), D.logDetHPD(), 1e-8);
+
+        double[] expected = ComplexMatrices.eigh(D);
+        double[] lambda = A.eig();
+        for (int i = 0; i < n; i++)
+            Assert.assertEquals(lambda[i], expected[i], 1e-10);
+        Assert.assertEquals(ComplexMatrices.lambdaMax(A, true), expected[n - 1], 1e-8);
+    }
+
+    private static ComplexMatrix hermitian(int n) {
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+        return B.add(B.hermitianTranspose());
+    }
+}
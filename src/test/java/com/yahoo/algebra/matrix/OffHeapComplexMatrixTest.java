@@ -0,0 +1,80 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+
+import java.nio.DoubleBuffer;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class OffHeapComplexMatrixTest {
+    @Test
+    public void testIt() {
+        ComplexMatrix A = ComplexMatrices.random(new DenseComplexMatrix(4, 3));
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(3, 5));
+        DenseComplexVector x = new DenseComplexVector(3);
+        ComplexVectors.random(x);
+
+        try (ComplexArena arena = new ComplexArena()) {
+            OffHeapComplexMatrix H = arena.copyOf(A);
+            Assert.assertTrue(H.equals(A));
+            Assert.assertTrue(H.copy().equals(A));
+
+            DoubleBuffer d = H.getBuffer();
+            Assert.assertTrue(d.isDirect());
+            Assert.assertEquals(d.capacity(), 2 * 4 * 3);
+            Assert.assertEquals(d.get(2 * (1 + 2 * 4) + 1), A.getIm(1, 2));
+
+            // Either side of a product
+            Assert.assertTrue(H.mult(B, new DenseComplexMatrix(4, 5)).equals(
+                    A.mult(B, new DenseComplexMatrix(4, 5))));
+            OffHeapComplexMatrix C = arena.matrix(4, 5);
+            A.multAdd(ALPHA, B, C);
+            Assert.assertTrue(C.equals(A.multAdd(ALPHA, B, new DenseComplexMatrix(4, 5))));
+
+            OffHeapComplexVector y = arena.vector(4);
+            H.mult(x, y);
+            ComplexVector z = A.mult(x, new DenseComplexVector(4));
+            for (int i = 0; i < 4; i++)
+                Assert.assertTrue(Complexes.equals(y.get(i), z.get(i), 1e-12));
+            Assert.assertTrue(Complexes.equals(y.dot(z), z.dot(y.copy()), 1e-12));
+
+            ComplexMatrix D = ComplexMatrices.random(new DenseComplexMatrix(4, 3));
+            H.set(D.toString());
+            D.set(D.toString());
+            Assert.assertTrue(H.equals(D));
+        }
+    }
+
+    @Test
+    public void closeTest() {
+        ComplexArena arena = new ComplexArena();
+        OffHeapComplexMatrix H = arena.matrix(2, 2);
+        OffHeapComplexVector x = arena.vector(2);
+        H.set(1, 1, 1, 2);
+        x.set(0, 3, 4);
+        DoubleBuffer b = H.getBuffer();
+        arena.close();
+        Assert.assertFalse(arena.isOpen());
+        arena.close();
+
+        // Buffers handed out before the close still hold the memory
+        Assert.assertEquals(b.get(7), 2.0);
+
+        try {
+            H.getRe(1, 1);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+        try {
+            x.get(0);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+        try {
+            arena.vector(1);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ParallelComplexKernelsTest {
+    @Test
+    public void gemmTest() {
+        ForkJoinPool pool = ComplexBlas.getPool();
+        int threshold = ComplexBlas.getParallelThreshold();
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            ComplexBlas.setParallelism(parallel, 0);
+            int m = 97, n = 75, k = 70;
+            Transpose[] trans = Transpose.values();
+            for (Transpose ta : trans)
+                for (Transpose tb : trans) {
+                    DenseComplexMatrix A = random(ta == Transpose.NoTranspose ? m : k,
+                            ta == Transpose.NoTranspose ? k : m);
+                    DenseComplexMatrix B = random(tb == Transpose.NoTranspose ? k : n,
+                            tb == Transpose.NoTranspose ? n : k);
+                    DenseComplexMatrix C = random(m, n), D = C.copy();
+                    ParallelComplexKernels.gemm(ta, tb, m, n, k, ALPHA[0], ALPHA[1],
+                            A.getData(), 0, A.numRows(), B.getData(), 0, B.numRows(),
+                            C.getData(), 0, m);
+                    DenseComplexKernels.gemm(ta, tb, m, n, k, ALPHA[0], ALPHA[1], A.getData(),
+                            0, A.numRows(), B.getData(), 0, B.numRows(), D.getData(), 0, m);
+                    Assert.assertTrue(C.equals(D));
+                }
+        } finally {
+            ComplexBlas.setParallelism(pool, threshold);
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void getrfTest() {
+        ForkJoinPool pool = ComplexBlas.getPool();
+        int threshold = ComplexBlas.getParallelThreshold();
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            ComplexBlas.setParallelism(parallel, 0);
+            for (int n : new int[] { 80, 101 }) {
+                DenseComplexMatrix A = random(n, n), LU = A.copy(), S = A.copy();
+                int[] piv = new int[n], seq = new int[n];
+                Assert.assertEquals(ParallelComplexKernels.getrf(n, LU.getData(), 0, n, piv), 0);
+                Assert.assertEquals(DenseComplexKernels.getrf(n, S.getData(), 0, n, seq), 0);
+                Assert.assertEquals(piv, seq);
+                Assert.assertTrue(LU.equals(S));
+
+                // Through the public API
+                ComplexMatrix I = A.mult(A.inverse(), new DenseComplexMatrix(n, n));
+                for (int i = 0; i < n; i++)
+                    I.add(i, i, -1, 0);
+                Assert.assertTrue(I.norm(ComplexMatrix.Norm.Maxvalue) < 1e-8);
+            }
+        } finally {
+            ComplexBlas.setParallelism(pool, threshold);
+            parallel.shutdown();
+        }
+    }
+
+    private static DenseComplexMatrix random(int m, int n) {
+        return (DenseComplexMatrix) ComplexMatrices.random(new DenseComplexMatrix(m, n));
+    }
+}
@@ -0,0 +1,47 @@
+package com.yahoo.algebra.matrix;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ShiftedHermitianSolverTest {
+
+    @Test
+    public void eigenTest() {
+        for (int n : new int[] { 1, 2, 4, 12 }) {
+            ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+            ComplexMatrix M = B.hermBmult(B, new DenseComplexMatrix(n, n));
+            ShiftedHermitianSolver solver = new ShiftedHermitianSolver(M);
+            double[] lambda = solver.getEigenvalues();
+            ComplexMatrix V = solver.getEigenvectors();
+
+            Assert.assertTrue(V.hermAmult(V, new DenseComplexMatrix(n, n)).equals(
+                    ComplexMatrices.eye(n)));
+            ComplexMatrix VL = V.copy();
+            for (int j = 0; j < n; j++) {
+                if (j > 0)
+                    Assert.assertTrue(lambda[j - 1] <= lambda[j]);
+                for (int i = 0; i < n; i++)
+                    VL.set(i, j, Complexes.mult(V.get(i, j), new double[] { lambda[j], 0 }));
+            }
+            Assert.assertTrue(VL.hermBmult(V, new DenseComplexMatrix(n, n)).equals(M));
+        }
+    }
+
+    @Test
+    public void solveTest() {
+        int n = 6;
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, n));
+        ComplexMatrix M = B.hermBmult(B, new DenseComplexMatrix(n, n));
+        ComplexVector c = ComplexVectors.random(new DenseComplexVector(n));
+        ShiftedHermitianSolver solver = new ShiftedHermitianSolver(M).project(c);
+
+        for (double mu : new double[] { 0.1, 1, 25 }) {
+            ComplexMatrix A = ComplexMatrices.eye(n).scale(new double[] { mu, 0 }).add(M);
+            ComplexVector expected = A.solve(c, new DenseComplexVector(n));
+            ComplexVector x = solver.solve(mu, new DenseComplexVector(n));
+            for (int i = 0; i < n; i++)
+                Assert.assertTrue(Complexes.equals(x.get(i), expected.get(i), 1e-8));
+            Assert.assertEquals(solver.norm(mu), expected.norm(ComplexVector.Norm.Two), 1e-8);
+        }
+    }
+}
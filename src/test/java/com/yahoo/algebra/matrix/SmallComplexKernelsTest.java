@@ -0,0 +1,92 @@
+package com.yahoo.algebra.matrix;
+
+import no.uib.cipr.matrix.NotConvergedException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.yahoo.networkmimo.exception.ComplexMatrixNotSPDException;
+
+public class SmallComplexKernelsTest {
+
+    @Test
+    public void inverseTest() {
+        for (int n = 1; n <= SmallComplexKernels.MAX_SIZE; n++) {
+            DenseComplexMatrix A = random(n, n);
+            DenseComplexMatrix X = new DenseComplexMatrix(n, n);
+            Assert.assertTrue(SmallComplexKernels.inverse(n, A.getData(), 0, n, X.getData(), 0,
+                    n, new double[SmallComplexKernels.workSize(n)]));
+            Assert.assertTrue(X.equals(A.inverse()));
+
+            DenseComplexLU lu = DenseComplexLU.factorize(A);
+            Assert.assertTrue(X.equals(lu.inverse()));
+            Assert.assertTrue(Complexes.equals(A.logDet(), lu.logDet(), 1e-10));
+            Assert.assertEquals(A.det2(), Math.exp(2 * lu.logDet()[0]), 1e-8 * A.det2());
+
+            DenseComplexMatrix B = random(n, 3);
+            ComplexMatrix Y = A.solve(B, new DenseComplexMatrix(n, 3));
+            Assert.assertTrue(Y.equals(lu.solve(B.copy())));
+            DenseComplexVector b = new DenseComplexVector(n);
+            ComplexVectors.random(b);
+            ComplexVector y = A.solve(b, new DenseComplexVector(n));
+            ComplexVector z = lu.solve(new DenseComplexVector(b));
+            for (int i = 0; i < n; i++)
+                Assert.assertTrue(Complexes.equals(y.get(i), z.get(i), 1e-10));
+        }
+    }
+
+    @Test
+    public void singularTest() {
+        // Second column a multiple of the first, up to a tiny perturbation
+        DenseComplexMatrix A = random(3, 3);
+        for (int i = 0; i < 3; i++)
+            A.set(i, 1, 2 * A.getRe(i, 0), 2 * A.getIm(i, 0) + (i == 0 ? 1e-12 : 0));
+        double[] x = new double[18];
+        Assert.assertFalse(SmallComplexKernels.inverse(3, A.getData(), 0, 3, x, 0, 3,
+                new double[SmallComplexKernels.workSize(3)]));
+        Assert.assertEquals(x, new double[18]);
+
+        // Exactly singular: the LU fallback reports it
+        for (int i = 0; i < 3; i++)
+            A.set(i, 1, 0, 0);
+        try {
+            A.inverse();
+            Assert.fail();
+        } catch (ComplexMatrixNotSPDException e) {
+        }
+    }
+
+    @Test
+    public void eighTest() throws NotConvergedException {
+        for (int n = 1; n <= 2; n++) {
+            ComplexMatrix R = random(n, n);
+            ComplexMatrix A = R.hermBmultAdd(new double[] { 1, 0 }, R,
+                    new DenseComplexMatrix(n, n));
+            DenseComplexMatrix V = new DenseComplexMatrix(n, n);
+            double[] w = ComplexMatrices.eigh(A, V);
+            Assert.assertEquals(w, ComplexMatrices.eigh(A));
+
+            ComplexMatrix AV = A.mult(V, new DenseComplexMatrix(n, n));
+            ComplexMatrix VW = V.copy();
+            for (int j = 0; j < n; j++)
+                VW.column(j).scale(new double[] { w[j], 0 });
+            Assert.assertTrue(AV.equals(VW));
+            ComplexMatrix I = new ScaledIdentityComplexMatrix(n, new double[] { 1, 0 });
+            Assert.assertTrue(V.hermAmult(V, new DenseComplexMatrix(n, n)).equals(
+                    new DenseComplexMatrix(I)));
+        }
+
+        // Diagonal, in descending order
+        DenseComplexMatrix D = new DenseComplexMatrix(2, 2);
+        D.set(0, 0, 3, 0);
+        D.set(1, 1, 1, 0);
+        DenseComplexMatrix V = new DenseComplexMatrix(2, 2);
+        Assert.assertEquals(ComplexMatrices.eigh(D, V), new double[] { 1, 3 });
+        Assert.assertEquals(V.getRe(1, 0), 1.0);
+        Assert.assertEquals(V.getRe(0, 1), 1.0);
+    }
+
+    private static DenseComplexMatrix random(int m, int n) {
+        return (DenseComplexMatrix) ComplexMatrices.random(new DenseComplexMatrix(m, n));
+    }
+}
@@ -0,0 +1,109 @@
+package com.yahoo.algebra.matrix;
+
+import static com.yahoo.algebra.matrix.ComplexAsserts.ALPHA;
+import static com.yahoo.algebra.matrix.ComplexAsserts.assertEquals;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SparseComplexMatrixTest {
+    @Test
+    public void compRowTest() {
+        ComplexMatrix D = sparse(7, 5);
+        check(new CompRowComplexMatrix(D), D);
+    }
+
+    @Test
+    public void compColTest() {
+        ComplexMatrix D = sparse(6, 8);
+        check(new CompColComplexMatrix(D), D);
+    }
+
+    @Test
+    public void structureTest() {
+        CompRowComplexMatrix A = new CompRowComplexMatrix(3, 4, new int[][] { { 3, 1 }, {},
+                { 0 } });
+        Assert.assertEquals(A.getRowPointers(), new int[] { 0, 2, 2, 3 });
+        Assert.assertEquals(A.getColumnIndices(), new int[] { 1, 3, 0 });
+        A.set(0, 3, ALPHA);
+        A.set(1, 1, new double[] { 0, 0 });
+        Assert.assertTrue(Complexes.equals(A.get(0, 3), ALPHA, 1e-12));
+        Assert.assertTrue(Complexes.equals(A.get(1, 1), new double[] { 0, 0 }, 1e-12));
+
+        int n = 0;
+        for (ComplexMatrixEntry e : A) {
+            Assert.assertTrue(e.row() != 1);
+            n++;
+        }
+        Assert.assertEquals(n, 3);
+
+        // Every entry is read, and those outside the structure must be zero
+        String str = "0+0j,1+1j,0+0j,2-2j;0+0j,0+0j,0+0j,0+0j;-3+0.5j,0+0j,0+0j,0+0j";
+        ComplexMatrix D = new DenseComplexMatrix(3, 4);
+        D.set(str);
+        A.set(str);
+        Assert.assertTrue(A.equals(D));
+        CompColComplexMatrix B = new CompColComplexMatrix(A);
+        B.zero();
+        B.set(str);
+        Assert.assertTrue(B.equals(D));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void outsideStructureTest() {
+        new CompColComplexMatrix(3, 2, new int[][] { { 0 }, { 2 } }).set(1, 1, ALPHA);
+    }
+
+    private static void check(ComplexMatrix A, ComplexMatrix D) {
+        int m = D.numRows(), n = D.numColumns();
+        Assert.assertTrue(A.equals(D));
+        Assert.assertTrue(D.equals(A));
+        Assert.assertEquals(ComplexMatrices.cardinality(A), ComplexMatrices.cardinality(D));
+
+        int visited = 0;
+        for (ComplexMatrixEntry e : A) {
+            double[] v = e.get();
+            Assert.assertTrue(v[0] != 0 || v[1] != 0);
+            visited++;
+        }
+        Assert.assertEquals(visited, ComplexMatrices.cardinality(D));
+
+        ComplexVector x = ComplexVectors.random(new DenseComplexVector(n));
+        ComplexVector y = ComplexVectors.random(new DenseComplexVector(m));
+        assertEquals(A.multAdd(ALPHA, x, y.copy()), D.multAdd(ALPHA, x, y.copy()));
+
+        ComplexVector u = ComplexVectors.random(new DenseComplexVector(m));
+        ComplexVector v = ComplexVectors.random(new DenseComplexVector(n));
+        assertEquals(A.transMultAdd(ALPHA, u, v.copy()), D.transMultAdd(ALPHA, u, v.copy()));
+        assertEquals(A.hermMultAdd(ALPHA, u, v.copy()), D.hermMultAdd(ALPHA, u, v.copy()));
+
+        ComplexMatrix B = ComplexMatrices.random(new DenseComplexMatrix(n, 3));
+        ComplexMatrix C = ComplexMatrices.random(new DenseComplexMatrix(m, 3));
+        Assert.assertTrue(A.multAdd(ALPHA, B, C.copy()).equals(D.multAdd(ALPHA, B, C.copy())));
+
+        ComplexMatrix E = ComplexMatrices.random(new DenseComplexMatrix(m, 2));
+        ComplexMatrix F = ComplexMatrices.random(new DenseComplexMatrix(n, 2));
+        Assert.assertTrue(A.hermAmultAdd(ALPHA, E, F.copy()).equals(
+                D.hermAmultAdd(ALPHA, E, F.copy())));
+        Assert.assertTrue(A.transAmultAdd(ALPHA, E, F.copy()).equals(
+                D.transAmultAdd(ALPHA, E, F.copy())));
+
+        Assert.assertTrue(A.hermitianTranspose().equals(D.hermitianTranspose()));
+        Assert.assertTrue(A.copy().scale(ALPHA).equals(D.copy().scale(ALPHA)));
+    }
+
+    /**
+     * Random matrix with about a third of its entries nonzero
+     */
+    private static ComplexMatrix sparse(int m, int n) {
+        Random random = new Random(m * n);
+        ComplexMatrix D = new DenseComplexMatrix(m, n);
+        for (int j = 0; j < n; j++)
+            for (int i = 0; i < m; i++)
+                if (random.nextInt(3) == 0)
+                    D.set(i, j, new double[] { random.nextGaussian(), random.nextGaussian() });
+        return D;
+    }
+}